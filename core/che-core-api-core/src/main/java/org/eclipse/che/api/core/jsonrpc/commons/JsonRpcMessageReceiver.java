@@ -23,8 +23,10 @@ import org.slf4j.Logger;
 /**
  * Receives and process messages coming from web socket service. Basically it validates, qualifies
  * and transforms a raw web socket message to a JSON RPC known structure and pass it further to
- * appropriate dispatchers. In case of any {@link JsonRpcException} happens during request/response
- * processing this class is also responsible for an error transmission.
+ * appropriate dispatchers. Message is transformed by {@link JsonRpcUnmarshaller#unmarshal(String,
+ * JsonRpcQualifier)} at once, so the implementation can parse it only once. In case of any {@link
+ * JsonRpcException} happens during request/response processing this class is also responsible for
+ * an error transmission.
  */
 @Singleton
 public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
@@ -60,48 +62,45 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
-    LOGGER.debug("Receiving message: " + message + ", from endpoint: " + endpointId);
-    if (!jsonRpcQualifier.isValidJson(message)) {
-      String error = "An error occurred on the server while parsing the JSON text";
-      errorTransmitter.transmit(endpointId, new JsonRpcException(-32700, error));
+    LOGGER.debug("Receiving message: {}, from endpoint: {}", message, endpointId);
+    List<Object> messages;
+    try {
+      messages = jsonRpcUnmarshaller.unmarshal(message, jsonRpcQualifier);
+    } catch (JsonRpcException e) {
+      errorTransmitter.transmit(endpointId, e);
+      return;
     }
 
-    List<String> messages = jsonRpcUnmarshaller.unmarshalArray(message);
-    for (String innerMessage : messages) {
-      if (jsonRpcQualifier.isJsonRpcRequest(innerMessage)) {
-        requestProcessor.process(() -> processRequest(endpointId, innerMessage));
-      } else if (jsonRpcQualifier.isJsonRpcResponse(innerMessage)) {
-        processResponse(endpointId, innerMessage);
+    for (Object innerMessage : messages) {
+      if (innerMessage instanceof JsonRpcRequest) {
+        JsonRpcRequest request = (JsonRpcRequest) innerMessage;
+        try {
+          requestProcessor.process(endpointId, request, () -> processRequest(endpointId, request));
+        } catch (JsonRpcException e) {
+          transmitError(endpointId, request, e);
+        }
+      } else if (innerMessage instanceof JsonRpcResponse) {
+        responseDispatcher.dispatch(endpointId, (JsonRpcResponse) innerMessage);
       } else {
-        processError();
+        errorTransmitter.transmit(endpointId, (JsonRpcException) innerMessage);
       }
     }
   }
 
-  private void processError() {
-    String error = "Something wen't wrong during incoming websocket message parsing";
-    IllegalStateException exception = new IllegalStateException(error);
-    LOGGER.error(error, exception);
-    throw exception;
-  }
-
-  private void processResponse(String endpointId, String innerMessage) {
-    JsonRpcResponse response = jsonRpcUnmarshaller.unmarshalResponse(innerMessage);
-    responseDispatcher.dispatch(endpointId, response);
-  }
-
-  private void processRequest(String endpointId, String innerMessage) {
-    JsonRpcRequest request = null;
+  private void processRequest(String endpointId, JsonRpcRequest request) {
     try {
-      request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
       requestDispatcher.dispatch(endpointId, request);
     } catch (JsonRpcException e) {
-      if (request == null || request.getId() == null) {
-        errorTransmitter.transmit(endpointId, e);
-      } else {
-        errorTransmitter.transmit(
-            endpointId, new JsonRpcException(e.getCode(), e.getMessage(), request.getId()));
-      }
+      transmitError(endpointId, request, e);
+    }
+  }
+
+  private void transmitError(String endpointId, JsonRpcRequest request, JsonRpcException e) {
+    if (request.getId() == null) {
+      errorTransmitter.transmit(endpointId, e);
+    } else {
+      errorTransmitter.transmit(
+          endpointId, new JsonRpcException(e.getCode(), e.getMessage(), request.getId()));
     }
   }
 }
@@ -21,6 +21,10 @@ import java.util.function.Consumer;
  * Simple promise like binary consumer holder. First consumer's argument always represents endpoint
  * identifier, while the second can be of arbitrary type and depends on business logic.
  *
+ * <p>The promise may be settled by {@link #resolve(String, Object)} or {@link #reject(String,
+ * JsonRpcError)} before its consumers are set, the consumers are called as soon as they are set
+ * then.
+ *
  * @param <R> type of second argument of binary consumer
  */
 public class JsonRpcPromise<R> {
@@ -28,6 +32,12 @@ public class JsonRpcPromise<R> {
   private BiConsumer<String, JsonRpcError> failureConsumer;
   private Runnable timeoutRunnable;
 
+  private boolean settled;
+  private boolean delivered;
+  private String settledEndpointId;
+  private R result;
+  private JsonRpcError error;
+
   public Optional<BiConsumer<String, R>> getSuccessConsumer() {
     return Optional.ofNullable(successConsumer);
   }
@@ -61,10 +71,11 @@ public class JsonRpcPromise<R> {
    * @param biConsumer binary consumer
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onSuccess(BiConsumer<String, R> biConsumer) {
+  public synchronized JsonRpcPromise<R> onSuccess(BiConsumer<String, R> biConsumer) {
     checkNotNull(biConsumer, "JSON RPC success consumer argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success field must not be set");
     this.successConsumer = biConsumer;
+    deliver();
     return this;
   }
 
@@ -76,10 +87,11 @@ public class JsonRpcPromise<R> {
    * @param consumer consumer
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onSuccess(Consumer<R> consumer) {
+  public synchronized JsonRpcPromise<R> onSuccess(Consumer<R> consumer) {
     checkNotNull(consumer, "JSON RPC success consumer argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success consumer field must not be set");
     this.successConsumer = (s, r) -> consumer.accept(r);
+    deliver();
     return this;
   }
 
@@ -90,10 +102,11 @@ public class JsonRpcPromise<R> {
    * @param runnable runnable
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onSuccess(Runnable runnable) {
+  public synchronized JsonRpcPromise<R> onSuccess(Runnable runnable) {
     checkNotNull(runnable, "JSON RPC success runnable argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success field must not be set");
     this.successConsumer = (s, r) -> runnable.run();
+    deliver();
     return this;
   }
 
@@ -105,10 +118,11 @@ public class JsonRpcPromise<R> {
    * @param biConsumer binary consumer
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onFailure(BiConsumer<String, JsonRpcError> biConsumer) {
+  public synchronized JsonRpcPromise<R> onFailure(BiConsumer<String, JsonRpcError> biConsumer) {
     checkNotNull(biConsumer, "JSON RPC failure consumer argument must not be null");
     checkState(this.failureConsumer == null, "JSON RPC failure consumer field must not be set");
     this.failureConsumer = biConsumer;
+    deliver();
     return this;
   }
 
@@ -120,10 +134,11 @@ public class JsonRpcPromise<R> {
    * @param consumer consumer
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onFailure(Consumer<JsonRpcError> consumer) {
+  public synchronized JsonRpcPromise<R> onFailure(Consumer<JsonRpcError> consumer) {
     checkNotNull(consumer, "JSON RPC failure consumer argument must not be null");
     checkState(this.failureConsumer == null, "JSON RPC failure consumer field must not be set");
     this.failureConsumer = (s, e) -> consumer.accept(e);
+    deliver();
     return this;
   }
 
@@ -134,10 +149,55 @@ public class JsonRpcPromise<R> {
    * @param runnable runnable
    * @return the instance of this very promise
    */
-  public JsonRpcPromise<R> onFailure(Runnable runnable) {
+  public synchronized JsonRpcPromise<R> onFailure(Runnable runnable) {
     checkNotNull(runnable, "JSON RPC success runnable argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success field must not be set");
     this.successConsumer = (s, e) -> runnable.run();
+    deliver();
     return this;
   }
+
+  /**
+   * Resolves this promise with the given result. Success consumer is called immediately if it is
+   * set, otherwise it is called as soon as it is set.
+   *
+   * @param endpointId endpoint the result is related to
+   * @param result result of the promise
+   */
+  public synchronized void resolve(String endpointId, R result) {
+    checkState(!settled, "JSON RPC promise must not be settled");
+    this.settled = true;
+    this.settledEndpointId = endpointId;
+    this.result = result;
+    deliver();
+  }
+
+  /**
+   * Rejects this promise with the given error. Failure consumer is called immediately if it is
+   * set, otherwise it is called as soon as it is set.
+   *
+   * @param endpointId endpoint the error is related to
+   * @param error error of the promise
+   */
+  public synchronized void reject(String endpointId, JsonRpcError error) {
+    checkNotNull(error, "JSON RPC error argument must not be null");
+    checkState(!settled, "JSON RPC promise must not be settled");
+    this.settled = true;
+    this.settledEndpointId = endpointId;
+    this.error = error;
+    deliver();
+  }
+
+  private void deliver() {
+    if (!settled || delivered) {
+      return;
+    }
+    if (error == null && successConsumer != null) {
+      delivered = true;
+      successConsumer.accept(settledEndpointId, result);
+    } else if (error != null && failureConsumer != null) {
+      delivered = true;
+      failureConsumer.accept(settledEndpointId, error);
+    }
+  }
 }
@@ -10,6 +10,7 @@
  */
 package org.eclipse.che.api.core.jsonrpc.commons;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** Transforms plain text messages into JSON RPC structures. */
@@ -38,4 +39,38 @@ public interface JsonRpcUnmarshaller {
    * @return JSON RPC response entity
    */
   JsonRpcResponse unmarshalResponse(String message);
+
+  /**
+   * Creates requests and responses out of a plain text message that contains a single JSON RPC
+   * structure or an array of them. Default implementation qualifies and parses every structure
+   * separately, implementations are encouraged to do it in a single pass.
+   *
+   * @param message plain text message
+   * @param qualifier qualifier of JSON RPC structures
+   * @return list that contains a {@link JsonRpcRequest}, a {@link JsonRpcResponse} or a {@link
+   *     JsonRpcException} describing the problem for each structure of the message
+   * @throws JsonRpcException if message is not a valid JSON
+   */
+  default List<Object> unmarshal(String message, JsonRpcQualifier qualifier) {
+    if (!qualifier.isValidJson(message)) {
+      throw new JsonRpcException(
+          -32700, "An error occurred on the server while parsing the JSON text");
+    }
+
+    List<Object> result = new ArrayList<>();
+    for (String innerMessage : unmarshalArray(message)) {
+      if (qualifier.isJsonRpcRequest(innerMessage)) {
+        try {
+          result.add(unmarshalRequest(innerMessage));
+        } catch (JsonRpcException e) {
+          result.add(e);
+        }
+      } else if (qualifier.isJsonRpcResponse(innerMessage)) {
+        result.add(unmarshalResponse(innerMessage));
+      } else {
+        result.add(new JsonRpcException(-32600, "Message is neither a request nor a response"));
+      }
+    }
+    return result;
+  }
 }
@@ -18,4 +18,17 @@ public interface RequestProcessor {
    * @param runnable runnable to be called for processing of a request
    */
   void process(Runnable runnable);
+
+  /**
+   * Process a runnable interface that handles a request received from an endpoint. Endpoint and
+   * request may be used by implementation to schedule or to reject processing.
+   *
+   * @param endpointId identifier of an endpoint the request is received from
+   * @param request request to be processed
+   * @param runnable runnable to be called for processing of a request
+   * @throws JsonRpcException when the request can't be accepted for processing
+   */
+  default void process(String endpointId, JsonRpcRequest request, Runnable runnable) {
+    process(runnable);
+  }
 }
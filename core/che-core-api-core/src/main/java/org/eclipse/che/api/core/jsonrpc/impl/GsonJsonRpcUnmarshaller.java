@@ -17,21 +17,36 @@ import static java.util.Collections.singletonList;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcQualifier;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResult;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcUnmarshaller;
 
+/**
+ * Gson based implementation of {@link JsonRpcUnmarshaller}. Method {@link #unmarshal(String,
+ * JsonRpcQualifier)} reads a message with a streaming reader in a single pass: structures are
+ * validated, qualified and transformed at once, while params and results are kept as JSON trees.
+ */
 @Singleton
 public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
+  private static final String PARSE_ERROR =
+      "An error occurred on the server while parsing the JSON text";
+
   private final JsonParser jsonParser;
 
   @Inject
@@ -72,13 +87,98 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return new JsonRpcResponse(id, result, error);
   }
 
+  @Override
+  public List<Object> unmarshal(String message, JsonRpcQualifier qualifier) {
+    checkNotNull(message, "Message must not be null");
+    checkArgument(!message.isEmpty(), "Message must not be empty");
+
+    try {
+      JsonReader reader = new JsonReader(new StringReader(message));
+      reader.setLenient(true);
+
+      List<Object> result = new ArrayList<>();
+      if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+          result.add(read(reader));
+        }
+        reader.endArray();
+      } else {
+        result.add(read(reader));
+      }
+
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonRpcException(-32700, PARSE_ERROR);
+      }
+      return result;
+    } catch (IOException | JsonParseException | IllegalStateException e) {
+      throw new JsonRpcException(-32700, PARSE_ERROR);
+    }
+  }
+
+  /** Reads a single JSON RPC structure, any value that is not an object is an invalid one. */
+  private Object read(JsonReader reader) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      reader.skipValue();
+      return new JsonRpcException(-32600, "Message is neither a request nor a response");
+    }
+
+    String id = null;
+    JsonElement method = null;
+    JsonElement params = null;
+    JsonElement result = null;
+    JsonElement error = null;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "id":
+          JsonElement idElement = jsonParser.parse(reader);
+          id = idElement.isJsonNull() ? null : idElement.getAsString();
+          break;
+        case "method":
+          method = jsonParser.parse(reader);
+          break;
+        case "params":
+          params = jsonParser.parse(reader);
+          break;
+        case "result":
+          result = jsonParser.parse(reader);
+          break;
+        case "error":
+          error = jsonParser.parse(reader);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    try {
+      if (method != null) {
+        JsonRpcParams jsonRpcParams = params == null ? null : toParams(params);
+        return new JsonRpcRequest(id, method.getAsString(), jsonRpcParams);
+      } else if ((result == null) != (error == null)) {
+        return new JsonRpcResponse(
+            id, result == null ? null : toResult(result), error == null ? null : toError(error));
+      }
+    } catch (RuntimeException e) {
+      return new JsonRpcException(-32600, "Invalid JSON RPC structure: " + e.getMessage(), id);
+    }
+    return new JsonRpcException(-32600, "Message is neither a request nor a response", id);
+  }
+
   private JsonRpcError getError(JsonObject response) {
     if (!response.has("error")) {
       return null;
     }
 
-    int code = response.get("error").getAsJsonObject().get("code").getAsInt();
-    String errorMessage = response.get("error").getAsJsonObject().get("message").getAsString();
+    return toError(response.get("error"));
+  }
+
+  private JsonRpcError toError(JsonElement jsonElement) {
+    int code = jsonElement.getAsJsonObject().get("code").getAsInt();
+    String errorMessage = jsonElement.getAsJsonObject().get("message").getAsString();
     return new JsonRpcError(code, errorMessage);
   }
 
@@ -87,7 +187,10 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
       return null;
     }
 
-    JsonElement jsonElement = response.get("result");
+    return toResult(response.get("result"));
+  }
+
+  private JsonRpcResult toResult(JsonElement jsonElement) {
     if (!jsonElement.isJsonArray()) {
       return new JsonRpcResult(getInnerItem(jsonElement));
     }
@@ -108,7 +211,10 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
       return null;
     }
 
-    JsonElement jsonElement = jsonObject.get("params");
+    return toParams(jsonObject.get("params"));
+  }
+
+  private JsonRpcParams toParams(JsonElement jsonElement) {
     if (!jsonElement.isJsonArray()) {
       return new JsonRpcParams(getInnerItem(jsonElement));
     }
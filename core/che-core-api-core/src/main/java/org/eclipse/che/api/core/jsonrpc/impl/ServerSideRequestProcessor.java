@@ -10,39 +10,116 @@
  */
 package org.eclipse.che.api.core.jsonrpc.impl;
 
-import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.Collections.emptySet;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
 
+/**
+ * Processes requests on a bounded pool of threads. Requests are queued per endpoint and started in
+ * order they are received. Requests of an endpoint are processed concurrently, at most the given
+ * number at a time, except requests of ordered methods (e.g. document synchronization
+ * notifications): such a request runs alone, it waits for the previous ordered request and
+ * requests received after it wait for its completion, so it is never reordered with other state
+ * changes and requests always observe the state changes which preceded them. A slow request of
+ * other methods doesn't hold up the rest of the endpoint requests. Endpoints are served in
+ * round-robin order, so a burst of requests from a single client doesn't delay requests of others,
+ * endpoints which next request is of a high priority method (e.g. code completion) are served
+ * before any other endpoint. When queue of an endpoint is full the request is rejected with {@link
+ * JsonRpcException}. Requests of unknown endpoint are neither ordered nor limited.
+ */
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
-  private ExecutorService executorService;
+  private static final Logger LOG = getLogger(ServerSideRequestProcessor.class);
+
+  /** Implementation defined JSON RPC server error reported when a request is rejected. */
+  static final int SERVER_BUSY_ERROR_CODE = -32000;
+
+  /** Key of requests which endpoint is unknown. */
+  private static final String UNKNOWN_ENDPOINT = "";
+
+  private final int poolSize;
+  private final int endpointQueueSize;
+  private final int endpointConcurrency;
+  private final Set<String> highPriorityMethods;
+  private final Set<String> orderedMethods;
+
+  /** Queues of endpoints that have requests waiting or running, guarded by this. */
+  private final Map<String, EndpointQueue> queues = new HashMap<>();
+  /**
+   * Endpoints which next request can be started and is of high priority in round-robin order,
+   * guarded by this.
+   */
+  private final Deque<EndpointQueue> highPriorityReady = new ArrayDeque<>();
+  /**
+   * Endpoints which next request can be started and is of normal priority in round-robin order,
+   * guarded by this.
+   */
+  private final Deque<EndpointQueue> normalPriorityReady = new ArrayDeque<>();
+  /** Number of tasks submitted to the executor which run ready requests, guarded by this. */
+  private int workers;
+
+  private ThreadPoolExecutor executorService;
+
+  @Inject
+  public ServerSideRequestProcessor(
+      @Named("che.jsonrpc.processor.pool_size") int poolSize,
+      @Named("che.jsonrpc.processor.endpoint_queue_size") int endpointQueueSize,
+      @Named("che.jsonrpc.processor.endpoint_concurrency") int endpointConcurrency,
+      @Nullable @Named("che.jsonrpc.processor.high_priority_methods") String[] highPriorityMethods,
+      @Nullable @Named("che.jsonrpc.processor.ordered_methods") String[] orderedMethods) {
+    this.poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    this.endpointQueueSize = endpointQueueSize;
+    this.endpointConcurrency = endpointConcurrency > 0 ? endpointConcurrency : this.poolSize;
+    this.highPriorityMethods =
+        highPriorityMethods == null ? emptySet() : ImmutableSet.copyOf(highPriorityMethods);
+    this.orderedMethods = orderedMethods == null ? emptySet() : ImmutableSet.copyOf(orderedMethods);
+  }
 
   @PostConstruct
-  private void postConstruct() {
+  void postConstruct() {
     ThreadFactory factory =
         new ThreadFactoryBuilder()
             .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
-            .setNameFormat(ServerSideRequestProcessor.class.getSimpleName())
+            .setNameFormat(ServerSideRequestProcessor.class.getSimpleName() + "-%d")
             .setDaemon(true)
             .build();
 
-    executorService = newCachedThreadPool(factory);
+    // at most pool size tasks are submitted at a time, see workers
+    executorService =
+        new ThreadPoolExecutor(
+            poolSize, poolSize, 60, SECONDS, new LinkedBlockingQueue<>(poolSize), factory);
+    executorService.allowCoreThreadTimeOut(true);
   }
 
   @PreDestroy
-  private void preDestroy() {
+  void preDestroy() {
     executorService.shutdown();
     try {
-      if (executorService.awaitTermination(5, SECONDS)) {
+      if (!executorService.awaitTermination(5, SECONDS)) {
         executorService.shutdownNow();
         executorService.awaitTermination(5, SECONDS);
       }
@@ -54,6 +131,170 @@ public class ServerSideRequestProcessor implements RequestProcessor {
 
   @Override
   public void process(Runnable runnable) {
-    executorService.execute(runnable);
+    schedule(UNKNOWN_ENDPOINT, false, false, runnable);
+  }
+
+  @Override
+  public void process(String endpointId, JsonRpcRequest request, Runnable runnable) {
+    String method = request.getMethod();
+    boolean highPriority = highPriorityMethods.contains(method);
+    schedule(endpointId, highPriority, orderedMethods.contains(method), runnable);
+  }
+
+  /** Returns number of requests of the endpoint waiting to be processed. */
+  public synchronized int getQueueSize(String endpointId) {
+    EndpointQueue queue = queues.get(endpointId);
+    return queue == null ? 0 : queue.requests.size();
+  }
+
+  private synchronized void schedule(
+      String endpointId, boolean highPriority, boolean ordered, Runnable runnable) {
+    EndpointQueue queue = queues.computeIfAbsent(endpointId, EndpointQueue::new);
+    if (queue.requests.size() >= endpointQueueSize) {
+      LOG.debug("Request queue of endpoint {} is full, rejecting request", endpointId);
+      throw new JsonRpcException(
+          SERVER_BUSY_ERROR_CODE, "Server is too busy to process the request, try again later");
+    }
+
+    queue.requests.offer(new QueuedRequest(runnable, highPriority, ordered));
+    offerIfReady(queue);
+    try {
+      startWorkerIfNeeded();
+    } catch (RejectedExecutionException e) {
+      throw new JsonRpcException(SERVER_BUSY_ERROR_CODE, "Server is shutting down");
+    }
+  }
+
+  /**
+   * Runs requests until none of them is ready. Requests which become ready when the endpoint
+   * completes its previous request are run by the same thread.
+   */
+  private void runReady() {
+    EndpointQueue queue;
+    while ((queue = nextReady()) != null) {
+      QueuedRequest request = take(queue);
+      try {
+        request.runnable.run();
+      } catch (RuntimeException e) {
+        LOG.error("Error while processing request of endpoint {}", queue.endpointId, e);
+      } finally {
+        complete(queue, request);
+      }
+    }
+  }
+
+  /**
+   * Takes the next endpoint to be served respecting priorities and endpoints order, when there is
+   * none the calling worker stops.
+   */
+  private synchronized EndpointQueue nextReady() {
+    EndpointQueue queue = highPriorityReady.poll();
+    if (queue == null) {
+      queue = normalPriorityReady.poll();
+    }
+    if (queue == null) {
+      workers--;
+    } else {
+      queue.ready = false;
+    }
+    return queue;
+  }
+
+  /**
+   * Takes the next request of the endpoint, the endpoint stays ready while its following request
+   * can be started too.
+   */
+  private synchronized QueuedRequest take(EndpointQueue queue) {
+    QueuedRequest request = queue.requests.poll();
+    queue.running++;
+    queue.orderedRunning = request.ordered;
+    offerIfReady(queue);
+    try {
+      startWorkerIfNeeded();
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Processor is shutting down, ready requests are left to running workers");
+    }
+    return request;
+  }
+
+  /** Makes the next request of the endpoint ready once the previous one is completed. */
+  private synchronized void complete(EndpointQueue queue, QueuedRequest request) {
+    queue.running--;
+    if (request.ordered) {
+      queue.orderedRunning = false;
+    }
+    if (queue.requests.isEmpty()) {
+      if (queue.running == 0) {
+        queues.remove(queue.endpointId, queue);
+      }
+    } else {
+      offerIfReady(queue);
+    }
+  }
+
+  /** Makes the endpoint ready if its next request can be started. */
+  private void offerIfReady(EndpointQueue queue) {
+    QueuedRequest next = queue.requests.peek();
+    if (queue.ready || next == null || !canStart(queue)) {
+      return;
+    }
+    queue.ready = true;
+    if (next.highPriority) {
+      highPriorityReady.offer(queue);
+    } else {
+      normalPriorityReady.offer(queue);
+    }
+  }
+
+  private boolean canStart(EndpointQueue queue) {
+    if (UNKNOWN_ENDPOINT.equals(queue.endpointId)) {
+      return true;
+    }
+    return !queue.orderedRunning && queue.running < endpointConcurrency;
+  }
+
+  /**
+   * Submits a worker when there are ready requests and fewer workers than threads, so the queue of
+   * the executor never holds more tasks than the pool size.
+   */
+  private void startWorkerIfNeeded() {
+    if (workers < poolSize && !(highPriorityReady.isEmpty() && normalPriorityReady.isEmpty())) {
+      workers++;
+      try {
+        executorService.execute(this::runReady);
+      } catch (RejectedExecutionException e) {
+        workers--;
+        throw e;
+      }
+    }
+  }
+
+  /** Requests of a single endpoint, guarded by the processor. */
+  private static class EndpointQueue {
+    private final String endpointId;
+    private final Queue<QueuedRequest> requests = new ArrayDeque<>();
+
+    /** Number of requests of the endpoint being processed. */
+    private int running;
+    /** Whether a request of an ordered method of the endpoint is being processed. */
+    private boolean orderedRunning;
+    /** Whether the endpoint is in one of the ready queues. */
+    private boolean ready;
+
+    private EndpointQueue(String endpointId) {
+      this.endpointId = endpointId;
+    }
+  }
+
+  private static class QueuedRequest {
+    private final Runnable runnable;
+    private final boolean highPriority;
+    private final boolean ordered;
+
+    private QueuedRequest(Runnable runnable, boolean highPriority, boolean ordered) {
+      this.runnable = runnable;
+      this.highPriority = highPriority;
+      this.ordered = ordered;
+    }
   }
 }
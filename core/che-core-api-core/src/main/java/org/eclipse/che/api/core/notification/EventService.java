@@ -10,19 +10,34 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +55,12 @@ import org.slf4j.LoggerFactory;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>Subscribers are called on the publisher's thread unless they are subscribed with {@link
+ * #subscribeAsync(EventSubscriber)}. Each asynchronous subscriber receives events in order of
+ * publication from its own bounded queue, queues are drained by a shared thread pool. Publisher is
+ * blocked while queue of an asynchronous subscriber is full, subscribers that process events too
+ * slowly are reported in the log.
+ *
  * @author andrew00x
  */
 @Singleton
@@ -50,11 +71,46 @@ public class EventService {
   private static final int CACHE_MASK = CACHE_NUM - 1;
   private static final int SEG_SIZE = 32;
 
+  private static final int DEFAULT_ASYNC_QUEUE_SIZE = 10_000;
+  private static final long DEFAULT_SLOW_SUBSCRIBER_THRESHOLD_MS = 1_000;
+
   private final LoadingCache<Class<?>, Set<Class<?>>>[] typeCache;
   private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
 
-  @SuppressWarnings("unchecked")
+  /** Event type -> subscribers of the type and all its super types, reset on any subscription. */
+  private final ConcurrentMap<Class<?>, List<EventSubscriber>> subscribersCache;
+
+  private final AtomicLong subscriptionsVersion;
+
+  /** Subscriber -> wrapper that dispatches events to it asynchronously */
+  private final ConcurrentMap<EventSubscriber<?>, AsyncSubscriber> asyncSubscribers;
+
+  private final int asyncQueueSize;
+  private final long slowSubscriberThresholdMs;
+  private final ExecutorService executor;
+
   public EventService() {
+    this(DEFAULT_ASYNC_QUEUE_SIZE, DEFAULT_SLOW_SUBSCRIBER_THRESHOLD_MS);
+  }
+
+  /**
+   * @param asyncQueueSize maximum number of events waiting for a single asynchronous subscriber
+   * @param slowSubscriberThresholdMs time of event processing after which subscriber is reported
+   */
+  @SuppressWarnings("unchecked")
+  public EventService(int asyncQueueSize, long slowSubscriberThresholdMs) {
+    this.asyncQueueSize = asyncQueueSize;
+    this.slowSubscriberThresholdMs = slowSubscriberThresholdMs;
+    this.executor =
+        newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(EventService.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+    subscribersCache = new ConcurrentHashMap<>();
+    subscriptionsVersion = new AtomicLong();
+    asyncSubscribers = new ConcurrentHashMap<>();
     subscribersByEventType = new ConcurrentHashMap<>();
     typeCache = new LoadingCache[CACHE_NUM];
     for (int i = 0; i < CACHE_NUM; i++) {
@@ -97,21 +153,45 @@ public class EventService {
     if (event == null) {
       throw new IllegalArgumentException("Null event.");
     }
-    final Class<?> eventClass = event.getClass();
+    for (EventSubscriber eventSubscriber : getSubscribers(event.getClass())) {
+      try {
+        LOG.debug("Publish event {} for {}", event, eventSubscriber);
+        eventSubscriber.onEvent(event);
+      } catch (RuntimeException e) {
+        LOG.error(e.getMessage(), e);
+      }
+    }
+    return event;
+  }
+
+  /** Stops threads that dispatch events to asynchronous subscribers. */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private List<EventSubscriber> getSubscribers(Class<?> eventClass) {
+    List<EventSubscriber> subscribers = subscribersCache.get(eventClass);
+    if (subscribers != null) {
+      return subscribers;
+    }
+
+    long version = subscriptionsVersion.get();
+    subscribers = new ArrayList<>();
     for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
       final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-      if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-        for (EventSubscriber eventSubscriber : eventSubscribers) {
-          try {
-            LOG.debug("Publish event {} for {}", event, eventSubscriber);
-            eventSubscriber.onEvent(event);
-          } catch (RuntimeException e) {
-            LOG.error(e.getMessage(), e);
-          }
-        }
+      if (eventSubscribers != null) {
+        subscribers.addAll(eventSubscribers);
       }
     }
-    return event;
+    subscribers = Collections.unmodifiableList(subscribers);
+    if (version == subscriptionsVersion.get()) {
+      subscribersCache.put(eventClass, subscribers);
+      if (version != subscriptionsVersion.get()) {
+        subscribersCache.remove(eventClass);
+      }
+    }
+    return subscribers;
   }
 
   /**
@@ -136,6 +216,28 @@ public class EventService {
     doSubscribe(subscriber, eventType);
   }
 
+  /**
+   * Subscribe event listener which is called asynchronously. Events are delivered to the
+   * subscriber one by one in order of their publication. The event to subscribe to is inferred by
+   * checking the generic type arguments of the given subscriber.
+   *
+   * @param subscriber event subscriber
+   */
+  public void subscribeAsync(EventSubscriber<?> subscriber) {
+    subscribeAsync(subscriber, getEventType(subscriber));
+  }
+
+  /**
+   * Subscribe to an event asynchronously. Events are delivered to the subscriber one by one in
+   * order of their publication.
+   *
+   * @param subscriber The subscriber to call when an event is published.
+   * @param eventType The event to subscribe to.
+   */
+  public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
+    doSubscribe(asyncSubscribers.computeIfAbsent(subscriber, AsyncSubscriber::new), eventType);
+  }
+
   private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
     Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
     if (entries == null) {
@@ -145,7 +247,9 @@ public class EventService {
         entries = newEntries;
       }
     }
-    entries.add(subscriber);
+    if (entries.add(subscriber)) {
+      onSubscriptionsChanged();
+    }
   }
 
   /**
@@ -165,15 +269,33 @@ public class EventService {
   private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
     final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
     if (entries != null && !entries.isEmpty()) {
+      // subscriber may be registered both synchronously and asynchronously
+      AsyncSubscriber asyncSubscriber = asyncSubscribers.get(subscriber);
       boolean changed = entries.remove(subscriber);
+      if (asyncSubscriber != null) {
+        changed |= entries.remove(asyncSubscriber);
+      }
       if (changed) {
         if (entries.isEmpty()) {
           subscribersByEventType.remove(eventType);
         }
+        if (asyncSubscriber != null && !isSubscribed(asyncSubscriber)) {
+          asyncSubscribers.remove(subscriber);
+        }
+        onSubscriptionsChanged();
       }
     }
   }
 
+  private boolean isSubscribed(EventSubscriber<?> subscriber) {
+    return subscribersByEventType.values().stream().anyMatch(it -> it.contains(subscriber));
+  }
+
+  private void onSubscriptionsChanged() {
+    subscriptionsVersion.incrementAndGet();
+    subscribersCache.clear();
+  }
+
   private Class<?> getEventType(EventSubscriber<?> subscriber) {
     Class<?> eventType = null;
     Class<?> clazz = subscriber.getClass();
@@ -200,4 +322,99 @@ public class EventService {
     }
     return eventType;
   }
+
+  /**
+   * Delivers events to a subscriber on the shared thread pool, at most one event of the subscriber
+   * is processed at a time.
+   */
+  private class AsyncSubscriber implements EventSubscriber<Object> {
+    private final EventSubscriber delegate;
+    private final Queue<QueuedEvent> events = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits = new Semaphore(asyncQueueSize);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Thread dispatchThread;
+
+    private AsyncSubscriber(EventSubscriber<?> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onEvent(Object event) {
+      boolean acquired = permits.tryAcquire();
+      // subscriber that publishes events to itself must not wait for its own queue
+      if (!acquired && Thread.currentThread() != dispatchThread) {
+        LOG.warn("Events queue of subscriber {} is full, publisher is blocked", delegate);
+        permits.acquireUninterruptibly();
+        acquired = true;
+      }
+      events.offer(new QueuedEvent(event, acquired));
+      schedule();
+    }
+
+    private void schedule() {
+      if (!events.isEmpty() && scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+          LOG.warn("Event service is stopped, events of subscriber {} are dropped", delegate);
+          QueuedEvent queued;
+          while ((queued = events.poll()) != null) {
+            if (queued.holdsPermit) {
+              permits.release();
+            }
+          }
+          scheduled.set(false);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch() {
+      dispatchThread = Thread.currentThread();
+      try {
+        QueuedEvent queued;
+        while ((queued = events.poll()) != null) {
+          if (queued.holdsPermit) {
+            permits.release();
+          }
+          Object event = queued.event;
+          long start = System.nanoTime();
+          try {
+            LOG.debug("Publish event {} for {}", event, delegate);
+            delegate.onEvent(event);
+          } catch (RuntimeException e) {
+            LOG.error(e.getMessage(), e);
+          }
+          long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+          if (elapsedMs > slowSubscriberThresholdMs) {
+            LOG.warn(
+                "Subscriber {} processed event {} in {}ms, {} events are waiting",
+                delegate,
+                event,
+                elapsedMs,
+                asyncQueueSize - permits.availablePermits());
+          }
+        }
+      } finally {
+        dispatchThread = null;
+        scheduled.set(false);
+      }
+      schedule();
+    }
+
+    @Override
+    public String toString() {
+      return "AsyncSubscriber{" + delegate + '}';
+    }
+  }
+
+  private static class QueuedEvent {
+    private final Object event;
+    private final boolean holdsPermit;
+
+    private QueuedEvent(Object event, boolean holdsPermit) {
+      this.event = event;
+      this.holdsPermit = holdsPermit;
+    }
+  }
 }
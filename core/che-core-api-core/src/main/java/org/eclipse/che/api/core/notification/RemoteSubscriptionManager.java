@@ -10,33 +10,58 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.HashSet;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
-import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.core.notification.dto.EventSubscription;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.slf4j.Logger;
 
+/**
+ * Routes events published in {@link EventService} to the remote subscribers. Subscriptions are
+ * indexed by their scope entries, so events of methods registered with {@link #register(String,
+ * Class, String, Function)} are routed only to the subscribers with a matching scope value. An
+ * event is serialized to JSON RPC notification once and the same message is transmitted to all
+ * the recipients. Events are routed asynchronously, so publishers don't wait for serialization and
+ * transmission, events of the same method are still sent in order of their publication.
+ */
 @Singleton
 public class RemoteSubscriptionManager {
-  private final Map<String, Set<SubscriptionContext>> subscriptionContexts =
-      new ConcurrentHashMap<>();
+  private static final Logger LOG = getLogger(RemoteSubscriptionManager.class);
+
+  private final Map<String, MethodSubscriptions> subscriptions = new ConcurrentHashMap<>();
 
   private final EventService eventService;
-  private final RequestTransmitter requestTransmitter;
+  private final JsonRpcMarshaller marshaller;
+  private final WebSocketMessageTransmitter transmitter;
 
   @Inject
   public RemoteSubscriptionManager(
-      EventService eventService, RequestTransmitter requestTransmitter) {
+      EventService eventService,
+      JsonRpcMarshaller marshaller,
+      WebSocketMessageTransmitter transmitter) {
     this.eventService = eventService;
-    this.requestTransmitter = requestTransmitter;
+    this.marshaller = marshaller;
+    this.transmitter = transmitter;
   }
 
   @Inject
@@ -56,42 +81,181 @@ public class RemoteSubscriptionManager {
         .withBiConsumer(this::consumeUnSubscriptionRequest);
   }
 
+  /**
+   * Registers a method which events are sent to all the subscribers which scope matches the
+   * predicate. The predicate is tested against scope of each subscriber of the method, use {@link
+   * #register(String, Class, String, Function)} when events are routed by a single scope value.
+   *
+   * @param method name of JSON RPC method used to send events
+   * @param eventType type of events
+   * @param biPredicate tests whether the event should be sent to a subscriber with given scope
+   */
   public <T> void register(
       String method, Class<T> eventType, BiPredicate<T, Map<String, String>> biPredicate) {
-    eventService.subscribe(
+    eventService.subscribeAsync(
         event ->
-            subscriptionContexts
-                .getOrDefault(method, new HashSet<>())
-                .stream()
-                .filter(context -> biPredicate.test(event, context.scope))
-                .forEach(context -> transmit(context.endpointId, method, event)),
+            transmit(
+                method,
+                event,
+                getSubscriptions(method)
+                    .contexts
+                    .stream()
+                    .filter(context -> biPredicate.test(event, context.scope))
+                    .map(context -> context.endpointId)
+                    .collect(Collectors.toSet())),
+        eventType);
+  }
+
+  /**
+   * Registers a method which events are sent to the subscribers which scope has an entry with the
+   * given key and a value equal to the value of event, e.g. events of a workspace are sent to the
+   * subscribers with the workspace id in their scope. Only matching subscribers are visited.
+   *
+   * @param method name of JSON RPC method used to send events
+   * @param eventType type of events
+   * @param scopeKey key of the scope entry events are routed by
+   * @param scopeValue function that returns value of the scope entry the event is routed to
+   */
+  public <T> void register(
+      String method, Class<T> eventType, String scopeKey, Function<T, String> scopeValue) {
+    register(method, eventType, scopeKey, scopeValue, event -> singletonList(event));
+  }
+
+  /**
+   * Same as {@link #register(String, Class, String, Function)}, but each event is sent as the
+   * notifications the converter returns, e.g. a batch of events is sent one by one to the
+   * subscribers that are not aware of batches. Converter is called only when there are matching
+   * subscribers.
+   *
+   * @param method name of JSON RPC method used to send events
+   * @param eventType type of events
+   * @param scopeKey key of the scope entry events are routed by
+   * @param scopeValue function that returns value of the scope entry the event is routed to
+   * @param converter function that returns params of the notifications the event is sent as
+   */
+  public <T> void register(
+      String method,
+      Class<T> eventType,
+      String scopeKey,
+      Function<T, String> scopeValue,
+      Function<T, List<?>> converter) {
+    register(method, eventType, scopeKey, scopeValue, (event, scope) -> true, converter);
+  }
+
+  /**
+   * Same as {@link #register(String, Class, String, Function)}, but the event is sent only to the
+   * matching subscribers which scope also satisfies the predicate, e.g. has a token authorizing
+   * the subscriber to receive the event. The predicate is tested only against scopes of the
+   * subscribers with a matching scope value.
+   *
+   * @param method name of JSON RPC method used to send events
+   * @param eventType type of events
+   * @param scopeKey key of the scope entry events are routed by
+   * @param scopeValue function that returns value of the scope entry the event is routed to
+   * @param biPredicate tests whether the event should be sent to a matching subscriber with given
+   *     scope
+   */
+  public <T> void register(
+      String method,
+      Class<T> eventType,
+      String scopeKey,
+      Function<T, String> scopeValue,
+      BiPredicate<T, Map<String, String>> biPredicate) {
+    register(method, eventType, scopeKey, scopeValue, biPredicate, event -> singletonList(event));
+  }
+
+  private <T> void register(
+      String method,
+      Class<T> eventType,
+      String scopeKey,
+      Function<T, String> scopeValue,
+      BiPredicate<T, Map<String, String>> biPredicate,
+      Function<T, List<?>> converter) {
+    eventService.subscribeAsync(
+        event -> {
+          Set<String> endpointIds =
+              getSubscriptions(method)
+                  .getByScopeEntry(scopeKey, scopeValue.apply(event))
+                  .stream()
+                  .filter(context -> biPredicate.test(event, context.scope))
+                  .map(context -> context.endpointId)
+                  .collect(Collectors.toSet());
+          if (!endpointIds.isEmpty()) {
+            for (Object params : converter.apply(event)) {
+              transmit(method, params, endpointIds);
+            }
+          }
+        },
         eventType);
   }
 
+  private MethodSubscriptions getSubscriptions(String method) {
+    return subscriptions.computeIfAbsent(method, it -> new MethodSubscriptions());
+  }
+
   private void consumeSubscriptionRequest(String endpointId, EventSubscription eventSubscription) {
-    subscriptionContexts
-        .computeIfAbsent(eventSubscription.getMethod(), k -> new HashSet<>())
-        .add(new SubscriptionContext(endpointId, eventSubscription.getScope()));
+    Map<String, String> scope = eventSubscription.getScope();
+    getSubscriptions(eventSubscription.getMethod())
+        .add(new SubscriptionContext(endpointId, scope == null ? emptyMap() : scope));
   }
 
   private void consumeUnSubscriptionRequest(
       String endpointId, EventSubscription eventSubscription) {
-    subscriptionContexts
-        .getOrDefault(eventSubscription.getMethod(), emptySet())
-        .removeIf(
-            subscriptionContext -> Objects.equals(subscriptionContext.endpointId, endpointId));
+    MethodSubscriptions methodSubscriptions = subscriptions.get(eventSubscription.getMethod());
+    if (methodSubscriptions != null) {
+      methodSubscriptions.removeAll(endpointId);
+    }
+  }
+
+  /** Serializes the event once and transmits the same message to all the endpoints. */
+  private void transmit(String method, Object event, Set<String> endpointIds) {
+    if (endpointIds.isEmpty()) {
+      return;
+    }
+
+    JsonRpcRequest request = new JsonRpcRequest(null, method, new JsonRpcParams(event));
+    String message = marshaller.marshall(request);
+    for (String endpointId : endpointIds) {
+      try {
+        transmitter.transmit(endpointId, message);
+      } catch (RuntimeException e) {
+        LOG.error("Can't send '{}' event to endpoint {}", method, endpointId, e);
+      }
+    }
   }
 
-  private <T> void transmit(String endpointId, String method, T event) {
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpointId)
-        .methodName(method)
-        .paramsAsDto(event)
-        .sendAndSkipResult();
+  /** Subscriptions to events of a single method. */
+  private static class MethodSubscriptions {
+    private final Set<SubscriptionContext> contexts = newConcurrentHashSet();
+    private final Map<Entry<String, String>, Set<SubscriptionContext>> byScopeEntry =
+        new ConcurrentHashMap<>();
+
+    private Set<SubscriptionContext> getByScopeEntry(String key, String value) {
+      return byScopeEntry.getOrDefault(new SimpleImmutableEntry<>(key, value), emptySet());
+    }
+
+    private synchronized void add(SubscriptionContext context) {
+      contexts.add(context);
+      for (Entry<String, String> entry : context.scope.entrySet()) {
+        byScopeEntry
+            .computeIfAbsent(new SimpleImmutableEntry<>(entry), it -> newConcurrentHashSet())
+            .add(context);
+      }
+    }
+
+    private synchronized void removeAll(String endpointId) {
+      contexts.removeIf(context -> Objects.equals(context.endpointId, endpointId));
+      byScopeEntry
+          .values()
+          .removeIf(
+              indexed -> {
+                indexed.removeIf(context -> Objects.equals(context.endpointId, endpointId));
+                return indexed.isEmpty();
+              });
+    }
   }
 
-  private class SubscriptionContext {
+  private static class SubscriptionContext {
     private final String endpointId;
     private final Map<String, String> scope;
 
@@ -99,5 +263,22 @@ public class RemoteSubscriptionManager {
       this.endpointId = endpointId;
       this.scope = scope;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SubscriptionContext)) {
+        return false;
+      }
+      SubscriptionContext that = (SubscriptionContext) obj;
+      return Objects.equals(endpointId, that.endpointId) && Objects.equals(scope, that.scope);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(endpointId, scope);
+    }
   }
 }
@@ -11,19 +11,19 @@
 package org.eclipse.che.api.core.rest;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.io.CharStreams;
+import com.google.common.io.ByteStreams;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
@@ -54,6 +54,10 @@ import org.eclipse.che.dto.server.JsonStringMapImpl;
  * <p>The instance of this request is reusable, which means that it is possible to call {@link
  * #request()} method more than one time per instance
  *
+ * <p>Responses are fully read and connections are not disconnected, so the connections are kept
+ * alive and reused by the next requests to the same endpoint. Compressed responses are requested
+ * and decompressed transparently.
+ *
  * @author Yevhenii Voevodin
  * @see DefaultHttpJsonRequestFactory
  */
@@ -63,6 +67,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
   private static final Object[] EMPTY_ARRAY = new Object[0];
 
   private final String url;
+  private final HttpEndpointsMetrics metrics;
 
   private int timeout;
   private String method;
@@ -72,8 +77,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
   private String authorizationHeaderValue;
 
   protected DefaultHttpJsonRequest(String url, String method) {
-    this.url = requireNonNull(url, "Required non-null url");
-    this.method = method;
+    this(url, method, null);
   }
 
   protected DefaultHttpJsonRequest(String url) {
@@ -81,7 +85,22 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
   }
 
   protected DefaultHttpJsonRequest(Link link) {
-    this(requireNonNull(link, "Required non-null link").getHref(), link.getMethod());
+    this(link, null);
+  }
+
+  /**
+   * Creates request which latencies are recorded to the given metrics.
+   *
+   * @param metrics metrics to record latency of requests to, may be null
+   */
+  protected DefaultHttpJsonRequest(String url, String method, HttpEndpointsMetrics metrics) {
+    this.url = requireNonNull(url, "Required non-null url");
+    this.method = method;
+    this.metrics = metrics;
+  }
+
+  protected DefaultHttpJsonRequest(Link link, HttpEndpointsMetrics metrics) {
+    this(requireNonNull(link, "Required non-null link").getHref(), link.getMethod(), metrics);
   }
 
   @Override
@@ -160,7 +179,19 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     if (method == null) {
       throw new IllegalStateException("Could not perform request, request method wasn't set");
     }
-    return doRequest(timeout, url, method, body, queryParams, authorizationHeaderValue, headers);
+    if (metrics == null) {
+      return doRequest(timeout, url, method, body, queryParams, authorizationHeaderValue, headers);
+    }
+    final long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      final HttpJsonResponse response =
+          doRequest(timeout, url, method, body, queryParams, authorizationHeaderValue, headers);
+      failed = false;
+      return response;
+    } finally {
+      metrics.record(url, System.nanoTime() - start, failed);
+    }
   }
 
   /**
@@ -215,6 +246,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
     conn.setReadTimeout(timeout > 0 ? timeout : 60000);
 
+    // response is fully read even if it's not successful to keep connection alive
+    boolean responseConsumed = false;
     final boolean hasHeaders = headers != null && !headers.isEmpty();
 
     if (hasHeaders) {
@@ -227,6 +260,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
       conn.setRequestMethod(method);
       // drop a hint for server side that we want to receive application/json
       conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+      conn.addRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
       if (!isNullOrEmpty(authorizationHeaderValue)) {
         conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authorizationHeaderValue);
       } else if (authToken != null) {
@@ -243,7 +277,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         }
 
         try (OutputStream output = conn.getOutputStream()) {
-          output.write(DtoFactory.getInstance().toJson(body).getBytes());
+          output.write(DtoFactory.getInstance().toJson(body).getBytes(UTF_8));
         }
       }
       final int responseCode = conn.getResponseCode();
@@ -252,10 +286,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         if (in == null) {
           in = conn.getInputStream();
         }
-        final String str;
-        try (Reader reader = new InputStreamReader(in)) {
-          str = CharStreams.toString(reader);
-        }
+        final String str = new String(readBody(conn, in), UTF_8);
+        responseConsumed = true;
         final String contentType = conn.getContentType();
         if (contentType != null
             && (contentType.startsWith(MediaType.APPLICATION_JSON)
@@ -293,12 +325,28 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         throw new IOException(conn.getResponseMessage());
       }
 
-      try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-        return new DefaultHttpJsonResponse(
-            CharStreams.toString(reader), responseCode, conn.getHeaderFields());
-      }
+      final byte[] responseBody = readBody(conn, conn.getInputStream());
+      responseConsumed = true;
+      return new DefaultHttpJsonResponse(responseBody, responseCode, conn.getHeaderFields());
     } finally {
-      conn.disconnect();
+      if (!responseConsumed) {
+        // connection which response wasn't read can't be reused
+        conn.disconnect();
+      }
+    }
+  }
+
+  /** Reads and closes the response stream, decompresses the response if it is compressed. */
+  private static byte[] readBody(HttpURLConnection conn, InputStream in) throws IOException {
+    if (in == null) {
+      return new byte[0];
+    }
+    final boolean compressed =
+        "gzip".equalsIgnoreCase(conn.getContentEncoding())
+            && conn.getResponseCode() != HttpURLConnection.HTTP_NO_CONTENT
+            && conn.getContentLengthLong() != 0;
+    try (InputStream body = compressed ? new GZIPInputStream(in) : in) {
+      return ByteStreams.toByteArray(body);
     }
   }
 
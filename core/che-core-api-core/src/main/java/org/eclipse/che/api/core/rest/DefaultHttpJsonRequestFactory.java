@@ -12,6 +12,7 @@ package org.eclipse.che.api.core.rest;
 
 import javax.inject.Singleton;
 import javax.validation.constraints.NotNull;
+import javax.ws.rs.HttpMethod;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
 
 /**
@@ -22,13 +23,20 @@ import org.eclipse.che.api.core.rest.shared.dto.Link;
 @Singleton
 public class DefaultHttpJsonRequestFactory implements HttpJsonRequestFactory {
 
+  private final HttpEndpointsMetrics metrics = new HttpEndpointsMetrics();
+
   @Override
   public HttpJsonRequest fromUrl(@NotNull String url) {
-    return new DefaultHttpJsonRequest(url);
+    return new DefaultHttpJsonRequest(url, HttpMethod.GET, metrics);
   }
 
   @Override
   public HttpJsonRequest fromLink(@NotNull Link link) {
-    return new DefaultHttpJsonRequest(link);
+    return new DefaultHttpJsonRequest(link, metrics);
+  }
+
+  /** Returns latencies of the requests created by this factory grouped by endpoint. */
+  public HttpEndpointsMetrics getMetrics() {
+    return metrics;
   }
 }
@@ -10,12 +10,16 @@
  */
 package org.eclipse.che.api.core.rest;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 
 import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
@@ -28,24 +32,32 @@ import org.eclipse.che.dto.server.DtoFactory;
 /**
  * Default implementation of {@link HttpJsonResponse}.
  *
+ * <p>The response body is kept as it is received in UTF-8 bytes and DTOs are parsed from the bytes
+ * directly, so the body is not copied to an intermediate string.
+ *
  * @author Yevhenii Voevodin
  */
 public class DefaultHttpJsonResponse implements HttpJsonResponse {
 
   private static final Type STRING_MAP_TYPE = new TypeToken<Map<String, String>>() {}.getType();
 
-  private final String responseBody;
+  private final byte[] responseBody;
   private final int responseCode;
   private final Map<String, List<String>> headers;
 
   protected DefaultHttpJsonResponse(String response, int responseCode) {
-    this.responseBody = response;
+    this.responseBody = response.getBytes(UTF_8);
     this.responseCode = responseCode;
     this.headers = Collections.emptyMap();
   }
 
   protected DefaultHttpJsonResponse(
       String response, int responseCode, Map<String, List<String>> headers) {
+    this(response.getBytes(UTF_8), responseCode, headers);
+  }
+
+  protected DefaultHttpJsonResponse(
+      byte[] response, int responseCode, Map<String, List<String>> headers) {
     this.responseBody = response;
     this.responseCode = responseCode;
     this.headers =
@@ -58,19 +70,27 @@ public class DefaultHttpJsonResponse implements HttpJsonResponse {
 
   @Override
   public String asString() {
-    return responseBody;
+    return new String(responseBody, UTF_8);
   }
 
   @Override
   public <T> T asDto(Class<T> dtoInterface) {
     requireNonNull(dtoInterface, "Required non-null dto interface");
-    return DtoFactory.getInstance().createDtoFromJson(responseBody, dtoInterface);
+    try {
+      return DtoFactory.getInstance().createDtoFromJson(bodyReader(), dtoInterface);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // won't happen
+    }
   }
 
   @Override
   public <T> List<T> asList(Class<T> dtoInterface) {
     requireNonNull(dtoInterface, "Required non-null dto interface");
-    return DtoFactory.getInstance().createListDtoFromJson(responseBody, dtoInterface);
+    try {
+      return DtoFactory.getInstance().createListDtoFromJson(bodyReader(), dtoInterface);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // won't happen
+    }
   }
 
   @Override
@@ -83,7 +103,7 @@ public class DefaultHttpJsonResponse implements HttpJsonResponse {
   public <T> T as(Class<T> clazz, Type genericType) throws IOException {
     requireNonNull(clazz, "Required non-null class");
     try {
-      return JsonHelper.fromJson(responseBody, clazz, genericType);
+      return JsonHelper.fromJson(bodyReader(), clazz, genericType);
     } catch (JsonParseException jsonEx) {
       throw new IOException(jsonEx.getLocalizedMessage(), jsonEx);
     }
@@ -98,4 +118,8 @@ public class DefaultHttpJsonResponse implements HttpJsonResponse {
   public int getResponseCode() {
     return responseCode;
   }
+
+  private Reader bodyReader() {
+    return new InputStreamReader(new ByteArrayInputStream(responseBody), UTF_8);
+  }
 }
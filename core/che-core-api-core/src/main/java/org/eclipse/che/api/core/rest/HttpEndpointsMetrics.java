@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.rest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latencies of http requests grouped by endpoint, where endpoint is a combination of
+ * scheme, host and port of requested url.
+ */
+public class HttpEndpointsMetrics {
+  private final Map<String, Counters> endpoints = new ConcurrentHashMap<>();
+
+  /**
+   * Records the latency of the request.
+   *
+   * @param url requested url
+   * @param latencyNanos time spent on the request in nanoseconds
+   * @param failed whether the request failed with an error
+   */
+  public void record(String url, long latencyNanos, boolean failed) {
+    Counters counters = endpoints.computeIfAbsent(endpointOf(url), it -> new Counters());
+    counters.count.increment();
+    counters.totalNanos.add(latencyNanos);
+    counters.maxNanos.accumulateAndGet(latencyNanos, Math::max);
+    if (failed) {
+      counters.failures.increment();
+    }
+  }
+
+  /** Returns snapshot of the metrics of all the requested endpoints. */
+  public Map<String, EndpointMetrics> getEndpoints() {
+    Map<String, EndpointMetrics> result = new HashMap<>();
+    endpoints.forEach((endpoint, counters) -> result.put(endpoint, counters.snapshot()));
+    return result;
+  }
+
+  private static String endpointOf(String url) {
+    try {
+      URI uri = URI.create(url);
+      return uri.getScheme() + "://" + uri.getHost() + ':' + uri.getPort();
+    } catch (IllegalArgumentException e) {
+      return url;
+    }
+  }
+
+  /** Metrics of requests to a single endpoint. */
+  public static class EndpointMetrics {
+    private final long count;
+    private final long failures;
+    private final long totalMs;
+    private final long maxMs;
+
+    private EndpointMetrics(long count, long failures, long totalMs, long maxMs) {
+      this.count = count;
+      this.failures = failures;
+      this.totalMs = totalMs;
+      this.maxMs = maxMs;
+    }
+
+    /** Returns number of the performed requests. */
+    public long getCount() {
+      return count;
+    }
+
+    /** Returns number of the requests failed with an error. */
+    public long getFailures() {
+      return failures;
+    }
+
+    /** Returns average latency of requests in milliseconds. */
+    public long getAverageMs() {
+      return count == 0 ? 0 : totalMs / count;
+    }
+
+    /** Returns maximum latency of requests in milliseconds. */
+    public long getMaxMs() {
+      return maxMs;
+    }
+
+    @Override
+    public String toString() {
+      return "EndpointMetrics{"
+          + "count="
+          + count
+          + ", failures="
+          + failures
+          + ", averageMs="
+          + getAverageMs()
+          + ", maxMs="
+          + maxMs
+          + '}';
+    }
+  }
+
+  private static class Counters {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private EndpointMetrics snapshot() {
+      return new EndpointMetrics(
+          count.sum(),
+          failures.sum(),
+          NANOSECONDS.toMillis(totalNanos.sum()),
+          NANOSECONDS.toMillis(maxNanos.get()));
+    }
+  }
+}
@@ -40,7 +40,7 @@ public abstract class BasicWebSocketEndpoint {
   private final MessagesReSender reSender;
   private final WebSocketMessageReceiver receiver;
   private final WebsocketIdService identificationService;
-  private final Map<Session, StringBuffer> sessionMessagesBuffer = new ConcurrentHashMap<>();
+  private final Map<Session, StringBuilder> sessionMessagesBuffer = new ConcurrentHashMap<>();
 
   public BasicWebSocketEndpoint(
       WebSocketSessionRegistry registry,
@@ -65,19 +65,28 @@ public abstract class BasicWebSocketEndpoint {
 
     registry.add(combinedEndpointId, session);
     reSender.resend(combinedEndpointId);
-    sessionMessagesBuffer.put(session, new StringBuffer());
   }
 
+  /**
+   * Reassembles a message from its parts. Parts of a session are delivered one at a time, so the
+   * buffer is accessed by a single thread, a message that comes in a single part isn't buffered.
+   */
   @OnMessage
   public void onMessage(String messagePart, boolean last, Session session) {
-    StringBuffer buffer = sessionMessagesBuffer.get(session);
+    StringBuilder buffer = sessionMessagesBuffer.get(session);
+    if (last && buffer == null) {
+      onMessage(messagePart, session);
+      return;
+    }
+
+    if (buffer == null) {
+      buffer = new StringBuilder();
+      sessionMessagesBuffer.put(session, buffer);
+    }
     buffer.append(messagePart);
     if (last) {
-      try {
-        onMessage(buffer.toString(), session);
-      } finally {
-        buffer.setLength(0);
-      }
+      sessionMessagesBuffer.remove(session);
+      onMessage(buffer.toString(), session);
     }
   }
 
@@ -113,10 +122,10 @@ public abstract class BasicWebSocketEndpoint {
       LOG.debug("Close reason: {}:{}", closeReason.getReasonPhrase(), closeReason.getCloseCode());
 
       registry.remove(combinedEndpointId);
-      sessionMessagesBuffer.remove(session);
     } else {
       LOG.warn("Closing unidentified session");
     }
+    sessionMessagesBuffer.remove(session);
   }
 
   @OnError
@@ -13,11 +13,23 @@ package org.eclipse.che.api.core.websocket.impl;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.slf4j.Logger;
 
 /**
@@ -25,24 +37,49 @@ import org.slf4j.Logger;
  * session is not opened adds messages to re-sender to try to send them when session will be opened
  * again.
  *
+ * <p>Each session has its own outgoing queue that is drained by asynchronous sends, at most one
+ * send per session is in progress at a time, so a slow client delays only its own messages. The
+ * queue is bounded, when it is full the session is closed or new messages are dropped depending on
+ * configured overflow policy.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
   private static final Logger LOG = getLogger(BasicWebSocketMessageTransmitter.class);
 
+  /** Policy applied to a message that doesn't fit into the session queue. */
+  public enum OverflowPolicy {
+    /**
+     * The message is dropped. Any message may be dropped, including responses to the requests of
+     * the client, so it suits only endpoints that don't wait for responses.
+     */
+    DROP,
+    /** The session is closed, client is expected to reconnect. */
+    DISCONNECT
+  }
+
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
+  private final int maxQueueSize;
+  private final OverflowPolicy overflowPolicy;
+
+  private final Map<Session, SessionQueue> queues = new ConcurrentHashMap<>();
 
   @Inject
   public BasicWebSocketMessageTransmitter(
-      WebSocketSessionRegistry registry, MessagesReSender reSender) {
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      @Named("che.websocket.transmitter.queue_size") int maxQueueSize,
+      @Named("che.websocket.transmitter.overflow_policy") String overflowPolicy) {
     this.registry = registry;
     this.reSender = reSender;
+    this.maxQueueSize = maxQueueSize;
+    this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase());
   }
 
   @Override
-  public synchronized void transmit(String endpointId, String message) {
+  public void transmit(String endpointId, String message) {
     Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent()) {
@@ -52,15 +89,139 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
       LOG.debug("Session is not registered or closed, adding message to pending");
 
+      sessionOptional.ifPresent(queues::remove);
       reSender.add(endpointId, message);
     } else {
-      LOG.debug("Session registered and open, sending message");
+      LOG.debug("Session registered and open, queueing message");
+
+      Session session = sessionOptional.get();
+      queues.computeIfAbsent(session, it -> new SessionQueue(it, endpointId)).offer(message);
+    }
+  }
+
+  /** Returns number of messages waiting to be sent to the endpoint. */
+  public int getQueueSize(String endpointId) {
+    return registry
+        .get(endpointId)
+        .map(queues::get)
+        .map(queue -> queue.size.get())
+        .orElse(0);
+  }
 
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void cleanClosedSessions() {
+    queues.values().removeIf(queue -> !queue.session.isOpen() && queue.size.get() == 0);
+
+    if (LOG.isDebugEnabled()) {
+      for (SessionQueue queue : queues.values()) {
+        LOG.debug(
+            "Endpoint: {}, queued: {}, max queued: {}, sent: {}, dropped: {}, avg send ms: {}",
+            queue.endpointId,
+            queue.size.get(),
+            queue.maxSize.get(),
+            queue.sent.get(),
+            queue.dropped.get(),
+            queue.getAverageSendTimeMillis());
+      }
+    }
+  }
+
+  /** Outgoing messages of a single session. */
+  private class SessionQueue {
+    private final Session session;
+    private final String endpointId;
+    private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private final AtomicInteger maxSize = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sendTimeNanos = new AtomicLong();
+
+    private SessionQueue(Session session, String endpointId) {
+      this.session = session;
+      this.endpointId = endpointId;
+    }
+
+    private void offer(String message) {
+      int current = size.incrementAndGet();
+      if (current > maxQueueSize) {
+        size.decrementAndGet();
+        onOverflow();
+        return;
+      }
+      maxSize.accumulateAndGet(current, Math::max);
+      messages.offer(message);
+      sendNext();
+    }
+
+    private void onOverflow() {
+      dropped.incrementAndGet();
+      if (overflowPolicy == OverflowPolicy.DROP) {
+        LOG.debug("Outgoing queue of endpoint {} is full, dropping message", endpointId);
+        return;
+      }
+
+      LOG.warn("Outgoing queue of endpoint {} is full, closing session", endpointId);
+      queues.remove(session);
       try {
-        sessionOptional.get().getBasicRemote().sendText(message);
+        session.close(
+            new CloseReason(
+                CloseReason.CloseCodes.TRY_AGAIN_LATER, "Client doesn't keep up with messages"));
       } catch (IOException e) {
-        LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
+        LOG.error("Error while trying to close a websocket session", e);
+      }
+    }
+
+    private void sendNext() {
+      while (!messages.isEmpty() && sending.compareAndSet(false, true)) {
+        String message = messages.poll();
+        if (message == null) {
+          sending.set(false);
+          continue;
+        }
+        size.decrementAndGet();
+
+        if (!session.isOpen()) {
+          sending.set(false);
+          reSender.add(endpointId, message);
+          continue;
+        }
+
+        long start = System.nanoTime();
+        try {
+          session.getAsyncRemote().sendText(message, result -> onSent(message, result, start));
+        } catch (RuntimeException e) {
+          LOG.error("Error while trying to send a message to a websocket remote endpoint", e);
+          if (!session.isOpen()) {
+            reSender.add(endpointId, message);
+          }
+          sending.set(false);
+          continue;
+        }
+        return;
+      }
+    }
+
+    private void onSent(String message, SendResult result, long start) {
+      sendTimeNanos.addAndGet(System.nanoTime() - start);
+      sent.incrementAndGet();
+      if (!result.isOK()) {
+        LOG.error(
+            "Error while trying to send a message to a websocket remote endpoint",
+            result.getException());
+        if (!session.isOpen()) {
+          reSender.add(endpointId, message);
+        }
       }
+      sending.set(false);
+      sendNext();
+    }
+
+    private long getAverageSendTimeMillis() {
+      long count = sent.get();
+      return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sendTimeNanos.get() / count);
     }
   }
 }
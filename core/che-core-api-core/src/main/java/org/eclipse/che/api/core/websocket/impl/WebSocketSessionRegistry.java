@@ -10,9 +10,12 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import static java.util.stream.Collectors.toSet;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.util.Collections.emptySet;
+import static org.eclipse.che.api.core.websocket.impl.WebsocketIdService.SEPARATOR;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
@@ -23,7 +26,9 @@ import javax.websocket.Session;
 import org.slf4j.Logger;
 
 /**
- * Binds WEB SOCKET session to a specific endpoint form which it was opened.
+ * Binds WEB SOCKET session to a specific endpoint form which it was opened. Sessions are indexed
+ * by endpoint identifier, endpoint identifiers are indexed by session and by client identifier, so
+ * all the lookups don't depend on the number of registered sessions.
  *
  * @author Dmitry Kuleshov
  */
@@ -32,46 +37,87 @@ public class WebSocketSessionRegistry {
   private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
   private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+  private final Map<Session, String> endpointIds = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> endpointIdsByClientId = new ConcurrentHashMap<>();
 
-  public void add(String endpointId, Session session) {
-    LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
+  public synchronized void add(String endpointId, Session session) {
+    LOG.debug("Registering session {} with endpoint {}", session.getId(), endpointId);
 
-    sessionsMap.put(endpointId, session);
+    Session previous = sessionsMap.put(endpointId, session);
+    if (previous != null && previous != session) {
+      endpointIds.remove(previous);
+    }
+    String previousEndpointId = endpointIds.put(session, endpointId);
+    if (previousEndpointId != null && !previousEndpointId.equals(endpointId)) {
+      removeMapping(previousEndpointId);
+    }
+    endpointIdsByClientId
+        .computeIfAbsent(getClientId(endpointId), it -> newConcurrentHashSet())
+        .add(endpointId);
   }
 
-  public Optional<Session> remove(String endpointId) {
+  public synchronized Optional<Session> remove(String endpointId) {
     LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
-    return Optional.ofNullable(sessionsMap.remove(endpointId));
+    Session session = removeMapping(endpointId);
+    if (session != null) {
+      endpointIds.remove(session);
+    }
+    return Optional.ofNullable(session);
   }
 
-  public Optional<Session> remove(Session session) {
-    return get(session).flatMap(id -> Optional.ofNullable(sessionsMap.remove(id)));
+  public synchronized Optional<Session> remove(Session session) {
+    String endpointId = endpointIds.remove(session);
+    return endpointId == null ? Optional.empty() : Optional.ofNullable(removeMapping(endpointId));
   }
 
   public Optional<Session> get(String endpointId) {
     return Optional.ofNullable(sessionsMap.get(endpointId));
   }
 
+  /**
+   * Returns sessions of endpoints which identifier matches the given partial identifier. A
+   * partial identifier is a client identifier which is a prefix of combined endpoint identifier,
+   * see {@link WebsocketIdService}. Full endpoint identifiers match only themselves.
+   */
   public Set<Session> getByPartialMatch(String partialEndpointId) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(it -> it.getKey().contains(partialEndpointId))
-        .map(Map.Entry::getValue)
-        .collect(toSet());
+    if (partialEndpointId.contains(SEPARATOR)) {
+      return get(partialEndpointId).map(Collections::singleton).orElse(emptySet());
+    }
+
+    Set<Session> sessions = new HashSet<>();
+    for (String endpointId : endpointIdsByClientId.getOrDefault(partialEndpointId, emptySet())) {
+      Session session = sessionsMap.get(endpointId);
+      if (session != null) {
+        sessions.add(session);
+      }
+    }
+    return sessions;
   }
 
   public Optional<String> get(Session session) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(entry -> entry.getValue().equals(session))
-        .map(Map.Entry::getKey)
-        .findAny();
+    return Optional.ofNullable(endpointIds.get(session));
   }
 
   public Set<Session> getSessions() {
     return new HashSet<>(sessionsMap.values());
   }
+
+  /** Removes endpoint to session mapping and client identifier index entry. */
+  private Session removeMapping(String endpointId) {
+    String clientId = getClientId(endpointId);
+    Set<String> clientEndpointIds = endpointIdsByClientId.get(clientId);
+    if (clientEndpointIds != null) {
+      clientEndpointIds.remove(endpointId);
+      if (clientEndpointIds.isEmpty()) {
+        endpointIdsByClientId.remove(clientId);
+      }
+    }
+    return sessionsMap.remove(endpointId);
+  }
+
+  private static String getClientId(String endpointId) {
+    int separatorIndex = endpointId.indexOf(SEPARATOR);
+    return separatorIndex < 0 ? endpointId : endpointId.substring(0, separatorIndex);
+  }
 }
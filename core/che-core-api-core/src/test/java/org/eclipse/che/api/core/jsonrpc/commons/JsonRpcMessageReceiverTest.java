@@ -10,9 +10,11 @@
  */
 package org.eclipse.che.api.core.jsonrpc.commons;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,15 +42,16 @@ public class JsonRpcMessageReceiverTest {
   @InjectMocks JsonRpcMessageReceiver jsonRpcMessageReceiver;
 
   @Test
-  public void shouldValidateMessage() throws Exception {
+  public void shouldUnmarshalMessage() throws Exception {
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(jsonRpcQualifier).isValidJson(MESSAGE);
+    verify(jsonRpcUnmarshaller).unmarshal(MESSAGE, jsonRpcQualifier);
   }
 
   @Test
   public void shouldTransmitErrorWhenValidationFailed() throws Exception {
-    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(false);
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier))
+        .thenThrow(new JsonRpcException(-32700, "error"));
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
@@ -57,7 +60,7 @@ public class JsonRpcMessageReceiverTest {
 
   @Test
   public void shouldNotTransmitErrorWhenValidationSucceeded() throws Exception {
-    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier)).thenReturn(emptyList());
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
@@ -65,33 +68,50 @@ public class JsonRpcMessageReceiverTest {
   }
 
   @Test
-  public void shouldUnmarshalArray() throws Exception {
+  public void shouldTransmitErrorIfInvalidStructureReceived() throws Exception {
+    JsonRpcException error = new JsonRpcException(-32600, "error");
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier))
+        .thenReturn(singletonList(error));
+
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(jsonRpcUnmarshaller).unmarshalArray(MESSAGE);
+    verify(errorTransmitter).transmit(ENDPOINT_ID, error);
   }
 
   @Test
   public void shouldDispatchResponseIfResponseReceived() throws Exception {
-    when(jsonRpcQualifier.isJsonRpcResponse(MESSAGE)).thenReturn(true);
-    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(false);
-    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
     JsonRpcResponse jsonRpcResponse = Mockito.mock(JsonRpcResponse.class);
-    when(jsonRpcUnmarshaller.unmarshalResponse(any())).thenReturn(jsonRpcResponse);
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier))
+        .thenReturn(singletonList(jsonRpcResponse));
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(responseDispatcher).dispatch(eq(ENDPOINT_ID), any(JsonRpcResponse.class));
+    verify(responseDispatcher).dispatch(ENDPOINT_ID, jsonRpcResponse);
   }
 
   @Test
   public void shouldDispatchRequestIfRequestReceived() throws Exception {
-    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
-    when(jsonRpcQualifier.isJsonRpcResponse(MESSAGE)).thenReturn(false);
-    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    JsonRpcRequest jsonRpcRequest = Mockito.mock(JsonRpcRequest.class);
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier))
+        .thenReturn(singletonList(jsonRpcRequest));
+
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+
+    verify(requestProcessor).process(eq(ENDPOINT_ID), eq(jsonRpcRequest), any(Runnable.class));
+  }
+
+  @Test
+  public void shouldTransmitErrorIfRequestIsRejected() throws Exception {
+    JsonRpcRequest jsonRpcRequest = Mockito.mock(JsonRpcRequest.class);
+    when(jsonRpcRequest.getId()).thenReturn("1");
+    when(jsonRpcUnmarshaller.unmarshal(MESSAGE, jsonRpcQualifier))
+        .thenReturn(singletonList(jsonRpcRequest));
+    doThrow(new JsonRpcException(-32000, "error"))
+        .when(requestProcessor)
+        .process(eq(ENDPOINT_ID), eq(jsonRpcRequest), any(Runnable.class));
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(requestProcessor).process(any());
+    verify(errorTransmitter).transmit(eq(ENDPOINT_ID), any(JsonRpcException.class));
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.commons;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.BiConsumer;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link JsonRpcPromise} */
+@Listeners(MockitoTestNGListener.class)
+public class JsonRpcPromiseTest {
+
+  static final String ENDPOINT_ID = "endpoint-id";
+
+  @Mock BiConsumer<String, String> successConsumer;
+  @Mock BiConsumer<String, JsonRpcError> failureConsumer;
+
+  JsonRpcPromise<String> promise;
+
+  @BeforeMethod
+  public void setUp() {
+    promise = new JsonRpcPromise<>();
+  }
+
+  @Test
+  public void shouldCallSuccessConsumerWhenResolvedAfterConsumerIsSet() {
+    promise.onSuccess(successConsumer).onFailure(failureConsumer);
+
+    promise.resolve(ENDPOINT_ID, "result");
+
+    verify(successConsumer).accept(ENDPOINT_ID, "result");
+    verify(failureConsumer, never()).accept(any(), any());
+  }
+
+  @Test
+  public void shouldCallSuccessConsumerWhenResolvedBeforeConsumerIsSet() {
+    promise.resolve(ENDPOINT_ID, "result");
+
+    promise.onSuccess(successConsumer).onFailure(failureConsumer);
+
+    verify(successConsumer).accept(ENDPOINT_ID, "result");
+    verify(failureConsumer, never()).accept(any(), any());
+  }
+
+  @Test
+  public void shouldCallFailureConsumerWhenRejectedBeforeConsumerIsSet() {
+    JsonRpcError error = new JsonRpcError(-27000, "error");
+    promise.reject(ENDPOINT_ID, error);
+
+    promise.onSuccess(successConsumer).onFailure(failureConsumer);
+
+    verify(failureConsumer).accept(ENDPOINT_ID, error);
+    verify(successConsumer, never()).accept(any(), any());
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldNotSettlePromiseTwice() {
+    promise.resolve(ENDPOINT_ID, "result");
+
+    promise.reject(ENDPOINT_ID, new JsonRpcError(-27000, "error"));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GsonJsonRpcUnmarshaller} */
+public class GsonJsonRpcUnmarshallerTest {
+
+  private GsonJsonRpcUnmarshaller unmarshaller;
+
+  @BeforeMethod
+  public void setUp() {
+    JsonParser jsonParser = new JsonParser();
+    unmarshaller = new GsonJsonRpcUnmarshaller(jsonParser);
+  }
+
+  @Test
+  public void shouldUnmarshalRequest() {
+    List<Object> messages =
+        unmarshaller.unmarshal(
+            "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"method\":\"m\",\"params\":{\"key\":\"value\"}}",
+            new GsonJsonRpcQualifier(new JsonParser()));
+
+    assertEquals(messages.size(), 1);
+    JsonRpcRequest request = (JsonRpcRequest) messages.get(0);
+    assertEquals(request.getId(), "1");
+    assertEquals(request.getMethod(), "m");
+    assertEquals(((JsonObject) request.getParams().getOne()).get("key").getAsString(), "value");
+  }
+
+  @Test
+  public void shouldUnmarshalArrayOfRequestAndResponses() {
+    List<Object> messages =
+        unmarshaller.unmarshal(
+            "[{\"jsonrpc\":\"2.0\",\"method\":\"m\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":[1,2]},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"3\",\"error\":{\"code\":-1,\"message\":\"e\"}}]",
+            new GsonJsonRpcQualifier(new JsonParser()));
+
+    assertEquals(messages.size(), 3);
+    JsonRpcRequest notification = (JsonRpcRequest) messages.get(0);
+    assertNull(notification.getId());
+    assertNull(notification.getParams());
+
+    JsonRpcResponse result = (JsonRpcResponse) messages.get(1);
+    assertEquals(result.getId(), "2");
+    assertEquals(result.getResult().getMany().size(), 2);
+
+    JsonRpcResponse error = (JsonRpcResponse) messages.get(2);
+    assertEquals(error.getError().getCode(), -1);
+    assertEquals(error.getError().getMessage(), "e");
+  }
+
+  @Test
+  public void shouldReturnErrorForStructureThatIsNeitherRequestNorResponse() {
+    List<Object> messages =
+        unmarshaller.unmarshal(
+            "{\"jsonrpc\":\"2.0\",\"id\":\"1\"}", new GsonJsonRpcQualifier(new JsonParser()));
+
+    assertEquals(messages.size(), 1);
+    assertTrue(messages.get(0) instanceof JsonRpcException);
+    assertEquals(((JsonRpcException) messages.get(0)).getId(), "1");
+  }
+
+  @Test(expectedExceptions = JsonRpcException.class)
+  public void shouldThrowExceptionIfMessageIsNotValidJson() {
+    unmarshaller.unmarshal("{\"jsonrpc\":", new GsonJsonRpcQualifier(new JsonParser()));
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ServerSideRequestProcessor} */
+public class ServerSideRequestProcessorTest {
+
+  private static final String HIGH_PRIORITY_METHOD = "textDocument/completion";
+  private static final String ORDERED_METHOD = "textDocument/didChange";
+  private static final String METHOD = "project/search";
+
+  private ServerSideRequestProcessor processor;
+  private CountDownLatch blockLatch;
+  private List<String> processed;
+  private CountDownLatch processedLatch;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    processor = newProcessor(1, 1);
+    blockLatch = new CountDownLatch(1);
+    processed = new CopyOnWriteArrayList<>();
+    processedLatch = new CountDownLatch(5);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    blockLatch.countDown();
+    processor.preDestroy();
+  }
+
+  @Test
+  public void shouldProcessEndpointsInRoundRobinOrderAndHighPriorityRequestsFirst()
+      throws Exception {
+    blockProcessing();
+
+    submit("a", METHOD, "a1");
+    submit("a", METHOD, "a2");
+    submit("b", METHOD, "b1");
+    submit("b", HIGH_PRIORITY_METHOD, "b2");
+    submit("c", HIGH_PRIORITY_METHOD, "c1");
+
+    blockLatch.countDown();
+
+    assertTrue(processedLatch.await(5, SECONDS));
+    assertEquals(processed, asList("c1", "a1", "b1", "b2", "a2"));
+  }
+
+  @Test
+  public void shouldProcessRequestsOfEndpointConcurrently() throws Exception {
+    recreateProcessor(2, 2);
+    blockEndpoint("a", METHOD, "a1");
+
+    submit("a", METHOD, "a2");
+
+    assertTrue(awaitProcessed(1));
+    assertEquals(processed, asList("a2"));
+  }
+
+  @Test
+  public void shouldLimitNumberOfConcurrentRequestsOfEndpoint() throws Exception {
+    recreateProcessor(2, 1);
+    blockEndpoint("a", METHOD, "a1");
+
+    submit("a", HIGH_PRIORITY_METHOD, "a2");
+    submit("b", METHOD, "b1");
+    assertTrue(awaitProcessed(1));
+    assertEquals(processed, asList("b1"));
+
+    blockLatch.countDown();
+
+    assertTrue(awaitProcessed(3));
+    assertEquals(processed, asList("b1", "a1", "a2"));
+  }
+
+  @Test
+  public void shouldProcessRequestsReceivedAfterOrderedRequestWhenItCompletes() throws Exception {
+    recreateProcessor(3, 3);
+    blockEndpoint("a", ORDERED_METHOD, "a1");
+
+    submit("a", ORDERED_METHOD, "a2");
+    submit("a", HIGH_PRIORITY_METHOD, "a3");
+    submit("b", METHOD, "b1");
+    assertTrue(awaitProcessed(1));
+    assertEquals(processed, asList("b1"));
+
+    blockLatch.countDown();
+
+    assertTrue(awaitProcessed(4));
+    assertEquals(processed, asList("b1", "a1", "a2", "a3"));
+  }
+
+  @Test
+  public void shouldNotDelayOrderedRequestBehindSlowRequestOfEndpoint() throws Exception {
+    recreateProcessor(2, 2);
+    blockEndpoint("a", METHOD, "a1");
+
+    submit("a", ORDERED_METHOD, "a2");
+
+    assertTrue(awaitProcessed(1));
+    assertEquals(processed, asList("a2"));
+  }
+
+  @Test(expectedExceptions = JsonRpcException.class)
+  public void shouldRejectRequestIfEndpointQueueIsFull() throws Exception {
+    blockProcessing();
+
+    submit("a", METHOD, "a1");
+    submit("a", METHOD, "a2");
+    submit("a", METHOD, "a3");
+  }
+
+  @Test
+  public void shouldAcceptRequestsOfOtherEndpointsIfEndpointQueueIsFull() throws Exception {
+    blockProcessing();
+
+    submit("a", METHOD, "a1");
+    submit("a", METHOD, "a2");
+    submit("b", METHOD, "b1");
+
+    assertEquals(processor.getQueueSize("a"), 2);
+    assertEquals(processor.getQueueSize("b"), 1);
+  }
+
+  private void recreateProcessor(int poolSize, int endpointConcurrency) {
+    processor.preDestroy();
+    processor = newProcessor(poolSize, endpointConcurrency);
+  }
+
+  private static ServerSideRequestProcessor newProcessor(int poolSize, int endpointConcurrency) {
+    ServerSideRequestProcessor processor =
+        new ServerSideRequestProcessor(
+            poolSize,
+            2,
+            endpointConcurrency,
+            new String[] {HIGH_PRIORITY_METHOD},
+            new String[] {ORDERED_METHOD});
+    processor.postConstruct();
+    return processor;
+  }
+
+  /** Submits request of the endpoint which is processed until the block latch is released. */
+  private void blockEndpoint(String endpointId, String method, String name)
+      throws InterruptedException {
+    CountDownLatch startedLatch = new CountDownLatch(1);
+    processor.process(
+        endpointId,
+        new JsonRpcRequest(null, method, null),
+        () -> {
+          startedLatch.countDown();
+          try {
+            blockLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          processed.add(name);
+        });
+    assertTrue(startedLatch.await(5, SECONDS));
+  }
+
+  private boolean awaitProcessed(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + SECONDS.toMillis(5);
+    while (processed.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    return processed.size() >= count;
+  }
+
+  /** Occupies the only processing thread until the block latch is released. */
+  private void blockProcessing() throws InterruptedException {
+    CountDownLatch startedLatch = new CountDownLatch(1);
+    processor.process(
+        () -> {
+          startedLatch.countDown();
+          try {
+            blockLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    assertTrue(startedLatch.await(5, SECONDS));
+  }
+
+  private void submit(String endpointId, String method, String name) {
+    processor.process(
+        endpointId,
+        new JsonRpcRequest(null, method, null),
+        () -> {
+          processed.add(name);
+          processedLatch.countDown();
+        });
+  }
+}
@@ -10,10 +10,17 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -26,6 +33,11 @@ public class EventServiceTest {
     bus = new EventService();
   }
 
+  @AfterMethod
+  public void tearDown() {
+    bus.shutdown();
+  }
+
   @Test
   public void testSimpleEvent() {
     final List<Object> events = new ArrayList<>();
@@ -192,6 +204,113 @@ public class EventServiceTest {
     bus.unsubscribe(sb, CustomEventImpl.class);
   }
 
+  @Test
+  public void shouldDeliverEventsToAsyncSubscriberInOrder() throws Exception {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch latch = new CountDownLatch(100);
+    bus.subscribeAsync(
+        new EventSubscriber<String>() {
+          @Override
+          public void onEvent(String event) {
+            events.add(event);
+            latch.countDown();
+          }
+        });
+
+    for (int i = 0; i < 100; i++) {
+      bus.publish(String.valueOf(i));
+    }
+
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(events.get(i), String.valueOf(i));
+    }
+  }
+
+  @Test
+  public void shouldNotBlockPublisherByAsyncSubscriber() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch received = new CountDownLatch(1);
+    final List<String> events = new ArrayList<>();
+    bus.subscribeAsync(
+        new EventSubscriber<String>() {
+          @Override
+          public void onEvent(String event) {
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            received.countDown();
+          }
+        });
+    bus.subscribe(
+        new EventSubscriber<String>() {
+          @Override
+          public void onEvent(String event) {
+            events.add(event);
+          }
+        });
+
+    bus.publish("hello");
+
+    Assert.assertEquals(events, singletonList("hello"));
+    release.countDown();
+    Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldUnsubscribeAsyncSubscriber() {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    EventSubscriber<String> subscriber =
+        new EventSubscriber<String>() {
+          @Override
+          public void onEvent(String event) {
+            events.add(event);
+          }
+        };
+    bus.subscribeAsync(subscriber);
+
+    bus.unsubscribe(subscriber);
+    bus.publish("hello");
+
+    Assert.assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void shouldUnsubscribeSubscriberRegisteredBothSyncAndAsync() throws Exception {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    EventSubscriber<String> subscriber =
+        new EventSubscriber<String>() {
+          @Override
+          public void onEvent(String event) {
+            events.add(event);
+          }
+        };
+    bus.subscribe(subscriber);
+    bus.subscribeAsync(subscriber);
+
+    bus.unsubscribe(subscriber);
+    bus.publish("hello");
+    Thread.sleep(100);
+
+    Assert.assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void shouldDeliverEventToSubscriberAddedAfterPublication() {
+    Listener first = new Listener();
+    Listener second = new Listener();
+    bus.subscribe(first);
+    bus.publish("first");
+
+    bus.subscribe(second);
+    bus.publish("second");
+
+    Assert.assertEquals(first.events, asList("first", "second"));
+    Assert.assertEquals(second.events, singletonList("second"));
+  }
+
   static class CustomEventSubscriber<T extends CustomEvent> implements EventSubscriber<T> {
     final List<String> events = new ArrayList<>();
 
@@ -365,6 +365,26 @@ public class DefaultHttpJsonRequestTest {
     assertEquals(map.get("param1"), asList("value1", "value2"));
   }
 
+  @Test
+  public void shouldRecordLatencyOfRequestsToEndpoint(ITestContext ctx) throws Exception {
+    final HttpEndpointsMetrics metrics = new HttpEndpointsMetrics();
+    final String url = getUrl(ctx);
+
+    new DefaultHttpJsonRequest(url + "/application-json", HttpMethod.GET, metrics).request();
+    new DefaultHttpJsonRequest(url + "/application-json", HttpMethod.GET, metrics).request();
+    try {
+      new DefaultHttpJsonRequest(url + "/404/response-code-test", HttpMethod.GET, metrics)
+          .request();
+    } catch (NotFoundException ignored) {
+    }
+
+    final Map<String, HttpEndpointsMetrics.EndpointMetrics> endpoints = metrics.getEndpoints();
+    assertEquals(endpoints.size(), 1);
+    final HttpEndpointsMetrics.EndpointMetrics endpoint = endpoints.values().iterator().next();
+    assertEquals(endpoint.getCount(), 3);
+    assertEquals(endpoint.getFailures(), 1);
+  }
+
   @Test
   public void shouldUseTokenFromCurrentContextForAuthorization(ITestContext ctx) throws Exception {
     final EnvironmentContext context = new EnvironmentContext();
@@ -10,6 +10,8 @@
  */
 package org.eclipse.che.api.core.rest;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -39,6 +41,18 @@ public class DefaultHttpJsonResponseTest {
     assertEquals(response.asString(), "string response");
   }
 
+  @Test
+  public void shouldDecodeResponseBytesAsUtf8() throws Exception {
+    final Link testLink =
+        createLink("POST", "http://localhost:8080/\u00e4\u00f6\u00fc", "\u0440\u0435\u043b");
+    final byte[] responseBody = DtoFactory.getInstance().toJson(testLink).getBytes(UTF_8);
+    final DefaultHttpJsonResponse response =
+        new DefaultHttpJsonResponse(responseBody, 200, emptyMap());
+
+    assertEquals(response.asDto(Link.class), testLink);
+    assertEquals(response.asString(), DtoFactory.getInstance().toJson(testLink));
+  }
+
   @Test
   public void shouldReturnJsonSerializableInstanceIfItWasRequested() throws Exception {
     final Link testLink = createLink("POST", "http://localhost:8080", "rel");
@@ -11,17 +11,26 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import static java.util.Collections.emptySet;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
 import java.util.Optional;
+import javax.websocket.CloseReason;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -37,29 +46,33 @@ import org.testng.annotations.Test;
 public class BasicWebSocketMessageTransmitterTest {
   private static final String MESSAGE = "message";
   private static final String ENDPOINT_ID = "id";
+  private static final int QUEUE_SIZE = 1;
 
   @Mock private WebSocketSessionRegistry registry;
   @Mock private MessagesReSender reSender;
-  @InjectMocks private BasicWebSocketMessageTransmitter transmitter;
 
   @Mock private Session session;
-  @Mock private RemoteEndpoint.Basic remote;
+  @Mock private RemoteEndpoint.Async remote;
+
+  private BasicWebSocketMessageTransmitter transmitter;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    when(session.getBasicRemote()).thenReturn(remote);
+    when(session.getAsyncRemote()).thenReturn(remote);
     when(session.isOpen()).thenReturn(true);
 
     when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
     when(registry.getSessions()).thenReturn(emptySet());
+
+    transmitter = new BasicWebSocketMessageTransmitter(registry, reSender, QUEUE_SIZE, "drop");
   }
 
   @Test
   public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session).getBasicRemote();
-    verify(remote).sendText(MESSAGE);
+    verify(session).getAsyncRemote();
+    verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
     verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
   }
 
@@ -69,8 +82,77 @@ public class BasicWebSocketMessageTransmitterTest {
 
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session, never()).getBasicRemote();
-    verify(remote, never()).sendText(MESSAGE);
+    verify(session, never()).getAsyncRemote();
+    verify(remote, never()).sendText(eq(MESSAGE), any(SendHandler.class));
     verify(reSender).add(ENDPOINT_ID, MESSAGE);
   }
+
+  @Test
+  public void shouldQueueMessagesWhileSendIsInProgress() throws IOException {
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 1);
+
+    verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
+    verify(remote, never()).sendText(eq(MESSAGE + 1), any(SendHandler.class));
+    assertEquals(transmitter.getQueueSize(ENDPOINT_ID), 1);
+  }
+
+  @Test
+  public void shouldSendQueuedMessageWhenPreviousSendIsCompleted() throws IOException {
+    doAnswer(
+            invocation -> {
+              ((SendHandler) invocation.getArgument(1)).onResult(new SendResult());
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 1);
+
+    verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
+    verify(remote).sendText(eq(MESSAGE + 1), any(SendHandler.class));
+    assertEquals(transmitter.getQueueSize(ENDPOINT_ID), 0);
+  }
+
+  @Test
+  public void shouldSendQueuedMessageWhenSendFails() throws IOException {
+    transmitter = new BasicWebSocketMessageTransmitter(registry, reSender, 3, "disconnect");
+    ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+    doNothing().when(remote).sendText(eq(MESSAGE), handler.capture());
+    doThrow(new IllegalStateException())
+        .when(remote)
+        .sendText(eq(MESSAGE + 1), any(SendHandler.class));
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 1);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 2);
+    handler.getValue().onResult(new SendResult());
+
+    verify(remote).sendText(eq(MESSAGE + 2), any(SendHandler.class));
+    assertEquals(transmitter.getQueueSize(ENDPOINT_ID), 0);
+  }
+
+  @Test
+  public void shouldDropMessageIfQueueIsFull() throws IOException {
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 1);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 2);
+
+    verify(remote, times(1)).sendText(anyString(), any(SendHandler.class));
+    verify(session, never()).close(any(CloseReason.class));
+    assertEquals(transmitter.getQueueSize(ENDPOINT_ID), QUEUE_SIZE);
+  }
+
+  @Test
+  public void shouldCloseSessionIfQueueIsFullAndPolicyIsDisconnect() throws IOException {
+    transmitter =
+        new BasicWebSocketMessageTransmitter(registry, reSender, QUEUE_SIZE, "disconnect");
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 1);
+    transmitter.transmit(ENDPOINT_ID, MESSAGE + 2);
+
+    verify(session).close(any(CloseReason.class));
+  }
 }
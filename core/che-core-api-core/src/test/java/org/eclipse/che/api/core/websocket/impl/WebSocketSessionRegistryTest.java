@@ -13,7 +13,9 @@ package org.eclipse.che.api.core.websocket.impl;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.*;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Optional;
+import java.util.Set;
 import javax.websocket.Session;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -82,4 +84,43 @@ public class WebSocketSessionRegistryTest {
     assertFalse(registry.getSessions().isEmpty());
     assertEquals(2, registry.getSessions().size());
   }
+
+  @Test
+  public void shouldGetEndpointIdBySession() {
+    registry.add("0", session);
+
+    assertEquals(registry.get(session), Optional.of("0"));
+  }
+
+  @Test
+  public void shouldRemoveSessionBySession() {
+    registry.add("0", session);
+
+    registry.remove(session);
+
+    assertFalse(registry.get("0").isPresent());
+    assertFalse(registry.get(session).isPresent());
+  }
+
+  @Test
+  public void shouldGetSessionsByClientId() {
+    Session otherSession = mock(Session.class);
+    registry.add("client<-:->endpoint", session);
+    registry.add("client<-:->other-endpoint", otherSession);
+    registry.add("other-client<-:->endpoint", mock(Session.class));
+
+    Set<Session> sessions = registry.getByPartialMatch("client");
+
+    assertEquals(sessions, ImmutableSet.of(session, otherSession));
+  }
+
+  @Test
+  public void shouldNotGetSessionByClientIdAfterItIsRemoved() {
+    registry.add("client<-:->endpoint", session);
+
+    registry.remove("client<-:->endpoint");
+
+    assertTrue(registry.getByPartialMatch("client").isEmpty());
+    assertFalse(registry.get(session).isPresent());
+  }
 }
@@ -10,12 +10,13 @@
  */
 package org.eclipse.che.ide.workspace.events;
 
-import static org.eclipse.che.api.workspace.shared.Constants.MACHINE_LOG_METHOD;
+import static org.eclipse.che.api.workspace.shared.Constants.MACHINE_LOG_BATCH_METHOD;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.web.bindery.event.shared.EventBus;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineLogBatchEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.MachineLogEvent;
 import org.eclipse.che.ide.processes.panel.EnvironmentOutputEvent;
 
@@ -26,12 +27,15 @@ class MachineLogHandler {
   MachineLogHandler(RequestHandlerConfigurator configurator, EventBus eventBus) {
     configurator
         .newConfiguration()
-        .methodName(MACHINE_LOG_METHOD)
-        .paramsAsDto(MachineLogEvent.class)
+        .methodName(MACHINE_LOG_BATCH_METHOD)
+        .paramsAsDto(MachineLogBatchEvent.class)
         .noResult()
         .withBiConsumer(
-            (endpointId, log) ->
+            (endpointId, batch) -> {
+              for (MachineLogEvent log : batch.getLogs()) {
                 eventBus.fireEvent(
-                    new EnvironmentOutputEvent(log.getText(), log.getMachineName())));
+                    new EnvironmentOutputEvent(log.getText(), batch.getMachineName()));
+              }
+            });
   }
 }
@@ -10,17 +10,31 @@
  */
 package org.eclipse.che.workspace.infrastructure.docker.logs;
 
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.lang.String.format;
 import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.infrastructure.docker.client.LogMessage.Type.DOCKER;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.workspace.server.DtoConverter;
+import org.eclipse.che.api.workspace.shared.dto.RuntimeIdentityDto;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineLogBatchEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.MachineLogEvent;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.infrastructure.docker.client.LogMessage;
 import org.eclipse.che.infrastructure.docker.client.MessageProcessor;
@@ -29,7 +43,10 @@ import org.eclipse.che.infrastructure.docker.client.ProgressMonitor;
 import org.eclipse.che.infrastructure.docker.client.json.ProgressStatus;
 
 /**
- * Produces machine logs publishers.
+ * Produces machine logs publishers. Logs of a machine are published in {@link MachineLogBatchEvent
+ * batches} which are limited by number of lines and by time a line waits to be published. Number
+ * of lines per second a workspace may produce is limited as well, lines above the limit are dropped
+ * and replaced with a line that tells how many lines are dropped.
  *
  * @author Anton Korneta
  */
@@ -37,10 +54,35 @@ import org.eclipse.che.infrastructure.docker.client.json.ProgressStatus;
 public class MachineLoggersFactory {
 
   private final EventService eventService;
+  private final int batchMaxLines;
+  private final LoadingCache<String, LogRateLimit> rateLimits;
+
+  /** Consumers that have lines waiting to be published. */
+  private final Set<MachineLogsBiConsumer> pending = newConcurrentHashSet();
 
   @Inject
-  public MachineLoggersFactory(EventService eventService) {
+  public MachineLoggersFactory(
+      EventService eventService,
+      @Named("che.infra.docker.logs.batch_max_lines") int batchMaxLines,
+      @Named("che.infra.docker.logs.max_lines_per_second") int maxLinesPerSecond) {
     this.eventService = eventService;
+    this.batchMaxLines = batchMaxLines;
+    this.rateLimits =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(1, MINUTES)
+            .build(CacheLoader.from(workspaceId -> new LogRateLimit(maxLinesPerSecond)));
+  }
+
+  /** Publishes lines that wait longer than batch delay. */
+  @ScheduleDelay(
+    initialDelayParameterName = "che.infra.docker.logs.batch_delay_ms",
+    delayParameterName = "che.infra.docker.logs.batch_delay_ms",
+    unit = MILLISECONDS
+  )
+  void flushLogs() {
+    for (MachineLogsBiConsumer consumer : pending) {
+      consumer.flush();
+    }
   }
 
   /**
@@ -101,26 +143,105 @@ public class MachineLoggersFactory {
     }
   }
 
-  /** Forms new instance of {@link MachineLogEvent} and publish it via {@link EventService}. */
+  /**
+   * Collects lines into instance of {@link MachineLogBatchEvent} and publishes it via {@link
+   * EventService} when batch is full or on the next {@link #flushLogs() flush}.
+   */
   private class MachineLogsBiConsumer implements BiConsumer<String, String> {
 
     private final String machineName;
-    private final RuntimeIdentity runtime;
+    private final RuntimeIdentityDto runtimeId;
+
+    /** Lines waiting to be published, guarded by this. */
+    private List<MachineLogEvent> lines = new ArrayList<>();
+    /** Number of lines dropped since the last published line, guarded by this. */
+    private int dropped;
 
     public MachineLogsBiConsumer(String machineName, RuntimeIdentity runtime) {
       this.machineName = machineName;
-      this.runtime = runtime;
+      this.runtimeId = DtoConverter.asDto(runtime);
     }
 
     @Override
-    public void accept(String stream, String text) {
+    public synchronized void accept(String stream, String text) {
+      if (!rateLimits.getUnchecked(runtimeId.getWorkspaceId()).tryAcquire()) {
+        dropped++;
+        pending.add(this);
+        return;
+      }
+
+      addDroppedLine();
+      lines.add(newLine(stream, text));
+      if (lines.size() >= batchMaxLines) {
+        publish();
+      } else {
+        pending.add(this);
+      }
+    }
+
+    private synchronized void flush() {
+      pending.remove(this);
+      addDroppedLine();
+      publish();
+    }
+
+    private void addDroppedLine() {
+      if (dropped > 0) {
+        String text = format("[DOCKER] %d lines are dropped due to rate limit", dropped);
+        lines.add(newLine(null, text));
+        dropped = 0;
+      }
+    }
+
+    private void publish() {
+      if (lines.isEmpty()) {
+        return;
+      }
+
+      List<MachineLogEvent> batch = lines;
+      lines = new ArrayList<>();
       eventService.publish(
-          DtoFactory.newDto(MachineLogEvent.class)
-              .withRuntimeId(DtoConverter.asDto(runtime))
-              .withStream(stream)
-              .withText(text)
-              .withTime(ZonedDateTime.now().format(ISO_OFFSET_DATE_TIME))
-              .withMachineName(machineName));
+          DtoFactory.newDto(MachineLogBatchEvent.class)
+              .withRuntimeId(runtimeId)
+              .withMachineName(machineName)
+              .withLogs(batch));
+    }
+
+    private MachineLogEvent newLine(String stream, String text) {
+      return DtoFactory.newDto(MachineLogEvent.class)
+          .withStream(stream)
+          .withText(text)
+          .withTime(ZonedDateTime.now().format(ISO_OFFSET_DATE_TIME));
+    }
+  }
+
+  /** Limits number of lines per second, non positive limit means no limit. */
+  private static class LogRateLimit {
+
+    private final int maxLinesPerSecond;
+
+    private long windowStart;
+    private int lines;
+
+    private LogRateLimit(int maxLinesPerSecond) {
+      this.maxLinesPerSecond = maxLinesPerSecond;
+    }
+
+    private synchronized boolean tryAcquire() {
+      if (maxLinesPerSecond <= 0) {
+        return true;
+      }
+
+      long now = System.currentTimeMillis();
+      if (now - windowStart >= 1000) {
+        windowStart = now;
+        lines = 0;
+      }
+      if (lines >= maxLinesPerSecond) {
+        return false;
+      }
+      lines++;
+      return true;
     }
   }
 }
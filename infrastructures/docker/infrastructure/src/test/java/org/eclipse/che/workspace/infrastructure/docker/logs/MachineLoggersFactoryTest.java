@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.docker.logs;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.model.impl.RuntimeIdentityImpl;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineLogBatchEvent;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineLogEvent;
+import org.eclipse.che.infrastructure.docker.client.LogMessage;
+import org.eclipse.che.infrastructure.docker.client.MessageProcessor;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link MachineLoggersFactory} */
+@Listeners(MockitoTestNGListener.class)
+public class MachineLoggersFactoryTest {
+
+  private static final String MACHINE_NAME = "dev-machine";
+  private static final RuntimeIdentityImpl RUNTIME_ID =
+      new RuntimeIdentityImpl("ws123", "env", "owner");
+
+  @Mock private EventService eventService;
+  @Captor private ArgumentCaptor<MachineLogBatchEvent> batchCaptor;
+
+  @Test
+  public void shouldPublishBatchWhenItIsFull() {
+    MachineLoggersFactory factory = new MachineLoggersFactory(eventService, 2, 0);
+    MessageProcessor<LogMessage> processor = factory.newLogsProcessor(MACHINE_NAME, RUNTIME_ID);
+
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line1"));
+    verify(eventService, never()).publish(any());
+
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line2"));
+
+    verify(eventService).publish(batchCaptor.capture());
+    MachineLogBatchEvent batch = batchCaptor.getValue();
+    assertEquals(batch.getMachineName(), MACHINE_NAME);
+    assertEquals(batch.getRuntimeId().getWorkspaceId(), RUNTIME_ID.getWorkspaceId());
+    assertEquals(texts(batch), Arrays.asList("line1", "line2"));
+  }
+
+  @Test
+  public void shouldPublishNotFullBatchOnFlush() {
+    MachineLoggersFactory factory = new MachineLoggersFactory(eventService, 100, 0);
+    MessageProcessor<LogMessage> processor = factory.newLogsProcessor(MACHINE_NAME, RUNTIME_ID);
+
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line1"));
+    factory.flushLogs();
+    factory.flushLogs();
+
+    verify(eventService, times(1)).publish(batchCaptor.capture());
+    assertEquals(texts(batchCaptor.getValue()), Arrays.asList("line1"));
+  }
+
+  @Test
+  public void shouldReplaceLinesAboveRateLimitWithDroppedLinesMarker() {
+    MachineLoggersFactory factory = new MachineLoggersFactory(eventService, 100, 1);
+    MessageProcessor<LogMessage> processor = factory.newLogsProcessor(MACHINE_NAME, RUNTIME_ID);
+
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line1"));
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line2"));
+    processor.process(new LogMessage(LogMessage.Type.STDOUT, "line3"));
+    factory.flushLogs();
+
+    verify(eventService).publish(batchCaptor.capture());
+    List<String> texts = texts(batchCaptor.getValue());
+    assertEquals(texts.size(), 2);
+    assertEquals(texts.get(0), "line1");
+    assertTrue(texts.get(1).contains("2 lines are dropped"));
+  }
+
+  private static List<String> texts(MachineLogBatchEvent batch) {
+    return batch.getLogs().stream().map(MachineLogEvent::getText).collect(toList());
+  }
+}
@@ -10,28 +10,152 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import static java.util.Collections.emptySet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
 
 /**
  * Implementation of {@link PermissionChecker} that use {@link PermissionsManager} for checking.
  *
+ * <p>Actions of users' permissions are cached, so checks of the same permissions don't hit the
+ * storage. Cached actions are invalidated on {@link PermissionsEvent}s which are published on
+ * permissions creation, update and removal. Permissions removed along with their users or instances
+ * don't produce events, that's why cached actions also expire after the configured time.
+ *
  * @author Sergii Leschenko
  */
+@Singleton
 public class PermissionCheckerImpl implements PermissionChecker {
   private final PermissionsManager permissionsManager;
+  private final EventService eventService;
+  private final Cache<PermissionsKey, Set<String>> actionsCache;
+  private final EventSubscriber<PermissionsEvent> invalidator;
+
+  /**
+   * Incremented on each invalidation, allows to detect that actions loaded from the storage could
+   * be modified concurrently and must not stay in cache.
+   */
+  private final AtomicLong invalidations;
 
   @Inject
-  public PermissionCheckerImpl(PermissionsManager permissionsManager) {
+  public PermissionCheckerImpl(
+      PermissionsManager permissionsManager,
+      EventService eventService,
+      @Named("che.permissions.cache.max_size") long cacheMaxSize,
+      @Named("che.permissions.cache.expire_after_write_sec") long cacheExpireAfterWriteSec) {
     this.permissionsManager = permissionsManager;
+    this.eventService = eventService;
+    this.actionsCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheExpireAfterWriteSec, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    this.invalidations = new AtomicLong();
+    this.invalidator = event -> invalidate(event.getPermissions());
+  }
+
+  @PostConstruct
+  void subscribe() {
+    eventService.subscribe(invalidator, PermissionsEvent.class);
+  }
+
+  @PreDestroy
+  void unsubscribe() {
+    eventService.unsubscribe(invalidator, PermissionsEvent.class);
   }
 
   @Override
   public boolean hasPermission(String user, String domain, String instance, String action)
       throws ServerException, NotFoundException, ConflictException {
-    return permissionsManager.exists(user, domain, instance, action)
-        || permissionsManager.exists("*", domain, instance, action);
+    if (!permissionsManager.getDomain(domain).getAllowedActions().contains(action)) {
+      return false;
+    }
+    return getActions(new PermissionsKey(user, domain, instance)).contains(action)
+        || getActions(new PermissionsKey("*", domain, instance)).contains(action);
+  }
+
+  /** Returns statistics of permissions cache, e.g. hits and misses count. */
+  public CacheStats getCacheStats() {
+    return actionsCache.stats();
+  }
+
+  private void invalidate(Permissions permissions) {
+    invalidations.incrementAndGet();
+    actionsCache.invalidate(
+        new PermissionsKey(
+            permissions.getUserId(), permissions.getDomainId(), permissions.getInstanceId()));
+  }
+
+  private Set<String> getActions(PermissionsKey key)
+      throws ServerException, NotFoundException, ConflictException {
+    Set<String> actions = actionsCache.getIfPresent(key);
+    if (actions != null) {
+      return actions;
+    }
+    long invalidationsBefore = invalidations.get();
+    try {
+      actions =
+          ImmutableSet.copyOf(
+              permissionsManager.get(key.userId, key.domainId, key.instanceId).getActions());
+    } catch (NotFoundException e) {
+      actions = emptySet();
+    }
+    actionsCache.put(key, actions);
+    if (invalidations.get() != invalidationsBefore) {
+      // permissions could be changed while they were fetched, so loaded actions may be stale
+      actionsCache.invalidate(key);
+    }
+    return actions;
+  }
+
+  private static final class PermissionsKey {
+    private final String userId;
+    private final String domainId;
+    private final String instanceId;
+
+    private PermissionsKey(String userId, String domainId, String instanceId) {
+      this.userId = userId;
+      this.domainId = domainId;
+      this.instanceId = instanceId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof PermissionsKey)) {
+        return false;
+      }
+      final PermissionsKey that = (PermissionsKey) obj;
+      return Objects.equals(userId, that.userId)
+          && Objects.equals(domainId, that.domainId)
+          && Objects.equals(instanceId, that.instanceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, domainId, instanceId);
+    }
   }
 }
@@ -11,15 +11,20 @@
 package org.eclipse.che.multiuser.api.permission.server;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEFAULTS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import javax.ws.rs.core.UriBuilder;
 import org.eclipse.che.api.core.rest.HttpJsonRequest;
@@ -64,21 +69,86 @@ public class HttpPermissionCheckerImplTest {
     when(request.request()).thenReturn(response);
     when(requestFactory.fromUrl(anyString())).thenReturn(request);
 
-    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory);
+    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, 100, 60, requestFactory);
   }
 
   @Test
-  public void shouldCheckPermissionsByHttpRequestToPermissionsService() throws Exception {
+  public void shouldCheckInstancePermissionsByHttpRequestToPermissionsService() throws Exception {
+    when(response.asList(anyObject()))
+        .thenReturn(
+            asList(
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain123")
+                    .withInstanceId("instance123")
+                    .withActions(asList("read", "test"))));
+
+    final boolean hasPermission =
+        httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+
+    assertEquals(hasPermission, true);
+    verify(requestFactory).fromUrl(eq(instancePermissionsUrl("instance123")));
+    verify(request).useGetMethod();
+    verify(request).request();
+    verifyNoMoreInteractions(request);
+  }
+
+  @Test
+  public void shouldPrefetchPermissionsOfAllTheDomainsOfInstance() throws Exception {
+    when(response.asList(anyObject()))
+        .thenReturn(
+            asList(
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain123")
+                    .withInstanceId("instance123")
+                    .withActions(asList("read", "test")),
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain456")
+                    .withInstanceId("instance123")
+                    .withActions(singletonList("use"))));
+
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain456", "instance123", "use"));
+    assertFalse(httpPermissionChecker.hasPermission("user123", "domain789", "instance123", "use"));
+    assertFalse(httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "use"));
+
+    // domain789 is not prefetched as user doesn't have permissions there
+    verify(requestFactory, times(2)).fromUrl(eq(instancePermissionsUrl("instance123")));
+  }
+
+  @Test
+  public void shouldFetchPermissionsAgainAfterInvalidation() throws Exception {
+    when(response.asList(anyObject()))
+        .thenReturn(
+            singletonList(
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain123")
+                    .withInstanceId("instance123")
+                    .withActions(singletonList("test"))))
+        .thenReturn(emptyList());
+
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    httpPermissionChecker.invalidate("user123", "domain123", "instance123");
+
+    assertFalse(httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    verify(requestFactory, times(2)).fromUrl(eq(instancePermissionsUrl("instance123")));
+  }
+
+  @Test
+  public void shouldCheckPermissionsOfDomainWithoutInstanceByHttpRequestToPermissionsService()
+      throws Exception {
     when(response.asDto(anyObject()))
         .thenReturn(
             DtoFactory.newDto(PermissionsDto.class)
                 .withUserId("user123")
                 .withDomainId("domain123")
-                .withInstanceId("instance123")
                 .withActions(asList("read", "test")));
 
     final boolean hasPermission =
-        httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+        httpPermissionChecker.hasPermission("user123", "domain123", null, "test");
 
     assertEquals(hasPermission, true);
     verify(requestFactory)
@@ -87,11 +157,18 @@ public class HttpPermissionCheckerImplTest {
                 UriBuilder.fromUri(API_ENDPOINT)
                     .path(PermissionsService.class)
                     .path(PermissionsService.class, "getCurrentUsersPermissions")
-                    .queryParam("instance", "instance123")
                     .build("domain123")
                     .toString()));
     verify(request).useGetMethod();
     verify(request).request();
     verifyNoMoreInteractions(request);
   }
+
+  private static String instancePermissionsUrl(String instance) {
+    return UriBuilder.fromUri(API_ENDPOINT)
+        .path(PermissionsService.class)
+        .path(PermissionsService.class, "getCurrentUsersInstancePermissions")
+        .build(instance)
+        .toString();
+  }
 }
@@ -10,49 +10,180 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import static java.util.Arrays.asList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
-import org.mockito.InjectMocks;
+import java.util.List;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsRemovedEvent;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsUpdatedEvent;
+import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 @Listeners(MockitoTestNGListener.class)
 public class PermissionCheckerImplTest {
   @Mock private PermissionsManager permissionsManager;
+  @Mock private AbstractPermissionsDomain<AbstractPermissions> permissionsDomain;
 
-  @InjectMocks private PermissionCheckerImpl permissionChecker;
+  private EventService eventService;
+  private PermissionCheckerImpl permissionChecker;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    eventService = new EventService();
+    permissionChecker = new PermissionCheckerImpl(permissionsManager, eventService, 100, 60);
+    permissionChecker.subscribe();
+
+    doReturn(permissionsDomain).when(permissionsManager).getDomain(anyString());
+    when(permissionsDomain.getAllowedActions()).thenReturn(asList("test", "read"));
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    permissionChecker.unsubscribe();
+  }
 
   @Test
   public void shouldCheckExistingDirectUsersPermissions() throws Exception {
-    when(permissionsManager.exists(anyString(), anyString(), anyString(), anyString()))
-        .thenReturn(true);
+    doReturn(permissions("user123", "test"))
+        .when(permissionsManager)
+        .get(eq("user123"), anyString(), anyString());
 
     boolean hasPermission =
         permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
 
     assertEquals(hasPermission, true);
-    verify(permissionsManager).exists("user123", "domain123", "instance123", "test");
+    verify(permissionsManager).get("user123", "domain123", "instance123");
+    verify(permissionsManager, never()).get("*", "domain123", "instance123");
   }
 
   @Test
   public void shouldCheckExistingPublicPermissionsIfThereIsNoDirectUsersPermissions()
       throws Exception {
-    when(permissionsManager.exists(eq("user123"), anyString(), anyString(), anyString()))
-        .thenReturn(false);
-    when(permissionsManager.exists(eq("*"), anyString(), anyString(), anyString()))
-        .thenReturn(true);
+    when(permissionsManager.get(eq("user123"), anyString(), anyString()))
+        .thenThrow(new NotFoundException("not found"));
+    doReturn(permissions("*", "test"))
+        .when(permissionsManager)
+        .get(eq("*"), anyString(), anyString());
 
     boolean hasPermission =
         permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
 
     assertEquals(hasPermission, true);
-    verify(permissionsManager).exists("user123", "domain123", "instance123", "test");
-    verify(permissionsManager).exists("*", "domain123", "instance123", "test");
+    verify(permissionsManager).get("user123", "domain123", "instance123");
+    verify(permissionsManager).get("*", "domain123", "instance123");
+  }
+
+  @Test
+  public void shouldNotCheckPermissionsIfActionIsNotAllowedByDomain() throws Exception {
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "delete"));
+
+    verify(permissionsManager, never()).get(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  public void shouldCacheFetchedPermissions() throws Exception {
+    doReturn(permissions("user123", "test"))
+        .when(permissionsManager)
+        .get(eq("user123"), anyString(), anyString());
+    when(permissionsManager.get(eq("*"), anyString(), anyString()))
+        .thenThrow(new NotFoundException("not found"));
+
+    assertTrue(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    assertTrue(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "read"));
+
+    verify(permissionsManager, times(1)).get("user123", "domain123", "instance123");
+    verify(permissionsManager, times(1)).get("*", "domain123", "instance123");
+    assertEquals(permissionChecker.getCacheStats().hitCount(), 2);
+  }
+
+  @Test
+  public void shouldCacheAbsenceOfPermissions() throws Exception {
+    when(permissionsManager.get(anyString(), anyString(), anyString()))
+        .thenThrow(new NotFoundException("not found"));
+
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+
+    verify(permissionsManager, times(1)).get("user123", "domain123", "instance123");
+    verify(permissionsManager, times(1)).get("*", "domain123", "instance123");
+  }
+
+  @Test
+  public void shouldInvalidateCachedPermissionsOnUpdate() throws Exception {
+    AbstractPermissions permissions = permissions("user123", "test");
+    doReturn(permissions).when(permissionsManager).get(eq("user123"), anyString(), anyString());
+    assertTrue(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+
+    AbstractPermissions updated = permissions("user123", "read");
+    doReturn(updated).when(permissionsManager).get(eq("user123"), anyString(), anyString());
+    when(permissionsManager.get(eq("*"), anyString(), anyString()))
+        .thenThrow(new NotFoundException("not found"));
+    eventService.publish(new PermissionsUpdatedEvent("admin", updated));
+
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    verify(permissionsManager, times(2)).get("user123", "domain123", "instance123");
+  }
+
+  @Test
+  public void shouldInvalidateCachedPermissionsOnRemove() throws Exception {
+    AbstractPermissions permissions = permissions("user123", "test");
+    doReturn(permissions).when(permissionsManager).get(eq("user123"), anyString(), anyString());
+    assertTrue(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+
+    when(permissionsManager.get(anyString(), anyString(), anyString()))
+        .thenThrow(new NotFoundException("not found"));
+    eventService.publish(new PermissionsRemovedEvent("admin", permissions));
+
+    assertFalse(permissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+  }
+
+  private static AbstractPermissions permissions(String userId, String... actions) {
+    return new TestPermissionsImpl(userId, "domain123", "instance123", asList(actions));
+  }
+
+  private static class TestPermissionsImpl extends AbstractPermissions {
+    private final String domainId;
+    private final String instanceId;
+    private final List<String> actions;
+
+    private TestPermissionsImpl(
+        String userId, String domainId, String instanceId, List<String> actions) {
+      super(userId);
+      this.domainId = domainId;
+      this.instanceId = instanceId;
+      this.actions = actions;
+    }
+
+    @Override
+    public String getInstanceId() {
+      return instanceId;
+    }
+
+    @Override
+    public String getDomainId() {
+      return domainId;
+    }
+
+    @Override
+    public List<String> getActions() {
+      return actions;
+    }
   }
 }
@@ -10,14 +10,18 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.name.Named;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.UriBuilder;
@@ -30,58 +34,126 @@ import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsDto;
  * Implementation of {@link PermissionChecker} that load permissions by http requests to {@link
  * PermissionsService}
  *
- * <p>It also caches permissions to avoid frequently requests to workspace master.
+ * <p>It also caches permissions to avoid frequently requests to workspace master. On a cache miss
+ * of an instance permissions all the current user's permissions of this instance are fetched with
+ * a single request, so checks of the other domains of the same instance don't produce requests.
+ * Cached permissions are invalidated by {@link WsMasterPermissionsEventsSubscriber} when workspace
+ * master notifies about their changes, otherwise they expire after configured time.
  *
  * @author Sergii Leschenko
  */
 @Singleton
 public class HttpPermissionCheckerImpl implements PermissionChecker {
-  private final LoadingCache<Key, Set<String>> permissionsCache;
+  private final String apiEndpoint;
+  private final HttpJsonRequestFactory requestFactory;
+  private final Cache<Key, Set<String>> permissionsCache;
+
+  /**
+   * Incremented on each invalidation, allows to detect that permissions fetched from workspace
+   * master could be changed concurrently and must not stay in cache.
+   */
+  private final AtomicLong invalidations = new AtomicLong();
 
   @Inject
   public HttpPermissionCheckerImpl(
-      @Named("che.api") String apiEndpoint, HttpJsonRequestFactory requestFactory) {
-    // TODO mb make configurable size of cache and expiration time
+      @Named("che.api") String apiEndpoint,
+      @Named("che.permissions.cache.max_size") long cacheMaxSize,
+      @Named("che.permissions.cache.expire_after_write_sec") long cacheExpireAfterWriteSec,
+      HttpJsonRequestFactory requestFactory) {
+    this.apiEndpoint = apiEndpoint;
+    this.requestFactory = requestFactory;
     this.permissionsCache =
         CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(1, TimeUnit.MINUTES)
-            .build(
-                new CacheLoader<Key, Set<String>>() {
-                  @Override
-                  public Set<String> load(Key key) throws Exception {
-                    UriBuilder currentUsersPermissions =
-                        UriBuilder.fromUri(apiEndpoint).path("permissions/" + key.domain);
-                    if (key.instance != null) {
-                      currentUsersPermissions.queryParam("instance", key.instance);
-                    }
-                    String userPermissionsUrl = currentUsersPermissions.build().toString();
-                    try {
-                      PermissionsDto usersPermissions =
-                          requestFactory
-                              .fromUrl(userPermissionsUrl)
-                              .useGetMethod()
-                              .request()
-                              .asDto(PermissionsDto.class);
-                      return new HashSet<>(usersPermissions.getActions());
-                    } catch (NotFoundException e) {
-                      // user doesn't have permissions
-                      return new HashSet<>();
-                    }
-                  }
-                });
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheExpireAfterWriteSec, TimeUnit.SECONDS)
+            .build();
   }
 
   @Override
   public boolean hasPermission(String user, String domain, String instance, String action)
       throws ServerException {
+    final Key key = new Key(user, domain, instance);
+    final long invalidationsBefore = invalidations.get();
     try {
-      return permissionsCache.get(new Key(user, domain, instance)).contains(action);
+      final Set<String> actions = permissionsCache.get(key, () -> load(key));
+      if (invalidations.get() != invalidationsBefore) {
+        // permissions could be changed while they were fetched
+        permissionsCache.invalidate(key);
+      }
+      return actions.contains(action);
     } catch (Exception e) {
       throw new ServerException(e.getMessage(), e);
     }
   }
 
+  /** Discards cached permissions of the user related to the instance of the domain. */
+  public void invalidate(String user, String domain, String instance) {
+    invalidations.incrementAndGet();
+    permissionsCache.invalidate(new Key(user, domain, instance));
+  }
+
+  /** Discards all the cached permissions. */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    permissionsCache.invalidateAll();
+  }
+
+  private Set<String> load(Key key) throws Exception {
+    if (key.instance == null) {
+      return fetchDomainPermissions(key.domain);
+    }
+
+    final long invalidationsBefore = invalidations.get();
+    final Map<String, Set<String>> domainsActions = fetchInstancePermissions(key.instance);
+    if (invalidations.get() == invalidationsBefore) {
+      // prefetch permissions of the other domains of the same instance
+      for (Map.Entry<String, Set<String>> domainActions : domainsActions.entrySet()) {
+        if (!domainActions.getKey().equals(key.domain)) {
+          permissionsCache.put(
+              new Key(key.user, domainActions.getKey(), key.instance), domainActions.getValue());
+        }
+      }
+    }
+    return domainsActions.getOrDefault(key.domain, Collections.emptySet());
+  }
+
+  private Set<String> fetchDomainPermissions(String domain) throws Exception {
+    final String userPermissionsUrl =
+        UriBuilder.fromUri(apiEndpoint).path("permissions/" + domain).build().toString();
+    try {
+      PermissionsDto usersPermissions =
+          requestFactory
+              .fromUrl(userPermissionsUrl)
+              .useGetMethod()
+              .request()
+              .asDto(PermissionsDto.class);
+      return ImmutableSet.copyOf(usersPermissions.getActions());
+    } catch (NotFoundException e) {
+      // user doesn't have permissions
+      return Collections.emptySet();
+    }
+  }
+
+  private Map<String, Set<String>> fetchInstancePermissions(String instance) throws Exception {
+    final String userPermissionsUrl =
+        UriBuilder.fromUri(apiEndpoint)
+            .path("permissions/instances")
+            .path(instance)
+            .build()
+            .toString();
+    final List<PermissionsDto> usersPermissions =
+        requestFactory
+            .fromUrl(userPermissionsUrl)
+            .useGetMethod()
+            .request()
+            .asList(PermissionsDto.class);
+    final Map<String, Set<String>> domainsActions = new HashMap<>();
+    for (PermissionsDto permissions : usersPermissions) {
+      domainsActions.put(permissions.getDomainId(), ImmutableSet.copyOf(permissions.getActions()));
+    }
+    return domainsActions;
+  }
+
   private static final class Key {
     private final String user;
     private final String domain;
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server;
+
+import com.google.inject.AbstractModule;
+
+/**
+ * Configures permissions checking of workspace agent by requests to workspace master, cached
+ * permissions are invalidated by the events of workspace master.
+ */
+public class HttpPermissionCheckerModule extends AbstractModule {
+  @Override
+  protected void configure() {
+    bind(PermissionChecker.class).to(HttpPermissionCheckerImpl.class);
+    bind(WsMasterPermissionsEventsSubscriber.class).asEagerSingleton();
+  }
+}
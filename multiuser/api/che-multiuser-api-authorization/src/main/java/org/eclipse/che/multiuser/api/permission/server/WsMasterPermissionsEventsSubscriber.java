@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.eclipse.che.multiuser.api.permission.shared.Constants.PERMISSIONS_CHANGED_METHOD;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.ClientEndpoint;
+import javax.websocket.ContainerProvider;
+import javax.websocket.Session;
+import javax.ws.rs.core.UriBuilder;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.notification.dto.EventSubscription;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageReceiver;
+import org.eclipse.che.api.core.websocket.impl.BasicWebSocketEndpoint;
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.eclipse.che.api.core.websocket.impl.WebsocketIdService;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsChangedEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps websocket connection from workspace agent to workspace master and subscribes to the
+ * changes of the workspace permissions, so {@link HttpPermissionCheckerImpl} invalidates changed
+ * permissions as soon as they are changed. Connection is checked periodically and reestablished
+ * when it is lost, all the cached permissions are discarded then as changes could be missed.
+ */
+@Singleton
+public class WsMasterPermissionsEventsSubscriber {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(WsMasterPermissionsEventsSubscriber.class);
+
+  static final String ENDPOINT_ID = "ws-master-permissions";
+
+  private final URI websocketUri;
+  private final Map<String, String> subscriptionScope;
+  private final HttpPermissionCheckerImpl permissionChecker;
+  private final RequestTransmitter requestTransmitter;
+  private final WebsocketIdService identificationService;
+  private final String combinedEndpointId;
+  private final Endpoint endpoint;
+
+  private volatile Session session;
+
+  @Inject
+  public WsMasterPermissionsEventsSubscriber(
+      @Named("che.api") String apiEndpoint,
+      @Named("machine.token") String machineToken,
+      @Named("env.CHE_WORKSPACE_ID") String workspaceId,
+      HttpPermissionCheckerImpl permissionChecker,
+      RequestTransmitter requestTransmitter,
+      WebsocketIdService identificationService,
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      WebSocketMessageReceiver receiver) {
+    String clientId = WebsocketIdService.randomClientId();
+    URI apiUri = URI.create(apiEndpoint);
+    this.websocketUri =
+        UriBuilder.fromUri(apiUri)
+            .scheme("https".equals(apiUri.getScheme()) ? "wss" : "ws")
+            .path("websocket")
+            .queryParam("token", machineToken)
+            .queryParam("clientId", clientId)
+            .build();
+    // workspace master sends changes only to the holders of the workspace machine token
+    this.subscriptionScope = new HashMap<>();
+    this.subscriptionScope.put("instanceId", workspaceId);
+    this.subscriptionScope.put("token", machineToken);
+    this.permissionChecker = permissionChecker;
+    this.requestTransmitter = requestTransmitter;
+    this.identificationService = identificationService;
+    this.combinedEndpointId = identificationService.getCombinedId(ENDPOINT_ID, clientId);
+    this.endpoint = new Endpoint(registry, reSender, receiver, identificationService);
+  }
+
+  @Inject
+  private void configureHandler(RequestHandlerConfigurator requestHandlerConfigurator) {
+    requestHandlerConfigurator
+        .newConfiguration()
+        .methodName(PERMISSIONS_CHANGED_METHOD)
+        .paramsAsDto(PermissionsChangedEventDto.class)
+        .noResult()
+        .withBiConsumer(this::onPermissionsChanged);
+  }
+
+  @ScheduleDelay(
+    initialDelay = 0,
+    delayParameterName = "che.permissions.events.reconnect_delay_sec"
+  )
+  void ensureSubscribed() {
+    Session current = session;
+    if (current != null && current.isOpen()) {
+      return;
+    }
+    try {
+      session = ContainerProvider.getWebSocketContainer().connectToServer(endpoint, websocketUri);
+    } catch (Exception e) {
+      LOG.warn("Can't connect to workspace master to receive permissions changes", e);
+      return;
+    }
+    subscribe();
+  }
+
+  /** Subscribes to the workspace permissions changes using the current connection. */
+  void subscribe() {
+    // changes could be missed while there was no connection
+    permissionChecker.invalidateAll();
+    requestTransmitter
+        .newRequest()
+        .endpointId(combinedEndpointId)
+        .methodName("subscribe")
+        .paramsAsDto(
+            newDto(EventSubscription.class)
+                .withMethod(PERMISSIONS_CHANGED_METHOD)
+                .withScope(subscriptionScope))
+        .sendAndSkipResult();
+  }
+
+  @PreDestroy
+  void disconnect() {
+    Session current = session;
+    if (current != null && current.isOpen()) {
+      try {
+        current.close();
+      } catch (IOException e) {
+        LOG.warn("Can't close connection to workspace master", e);
+      }
+    }
+  }
+
+  void onPermissionsChanged(String endpointId, PermissionsChangedEventDto event) {
+    if (!ENDPOINT_ID.equals(identificationService.extractEndpointId(endpointId))) {
+      // notifications are accepted only from workspace master
+      return;
+    }
+    permissionChecker.invalidate(event.getUserId(), event.getDomainId(), event.getInstanceId());
+  }
+
+  /** Client endpoint of the connection to workspace master. */
+  @ClientEndpoint
+  public static class Endpoint extends BasicWebSocketEndpoint {
+    private Endpoint(
+        WebSocketSessionRegistry registry,
+        MessagesReSender reSender,
+        WebSocketMessageReceiver receiver,
+        WebsocketIdService identificationService) {
+      super(registry, reSender, receiver, identificationService);
+    }
+
+    @Override
+    protected String getEndpointId() {
+      return ENDPOINT_ID;
+    }
+  }
+}
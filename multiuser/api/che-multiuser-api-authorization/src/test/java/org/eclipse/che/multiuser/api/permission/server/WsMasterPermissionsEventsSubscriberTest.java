@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server;
+
+import static org.eclipse.che.multiuser.api.permission.server.WsMasterPermissionsEventsSubscriber.ENDPOINT_ID;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageReceiver;
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender;
+import org.eclipse.che.api.core.websocket.impl.WebSocketSessionRegistry;
+import org.eclipse.che.api.core.websocket.impl.WebsocketIdService;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsChangedEventDto;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link WsMasterPermissionsEventsSubscriber}. */
+@Listeners(MockitoTestNGListener.class)
+public class WsMasterPermissionsEventsSubscriberTest {
+  private static final String API_ENDPOINT = "http://localhost:8000/api";
+
+  @Mock private HttpPermissionCheckerImpl permissionChecker;
+  @Mock private RequestTransmitter requestTransmitter;
+  @Mock private WebSocketSessionRegistry registry;
+  @Mock private MessagesReSender reSender;
+  @Mock private WebSocketMessageReceiver receiver;
+
+  private WebsocketIdService identificationService;
+  private WsMasterPermissionsEventsSubscriber subscriber;
+
+  @BeforeMethod
+  public void setUp() {
+    identificationService = new WebsocketIdService();
+    subscriber =
+        new WsMasterPermissionsEventsSubscriber(
+            API_ENDPOINT,
+            "machine-token",
+            "workspace123",
+            permissionChecker,
+            requestTransmitter,
+            identificationService,
+            registry,
+            reSender,
+            receiver);
+  }
+
+  @Test
+  public void shouldInvalidateChangedPermissionsOnEventFromWorkspaceMaster() {
+    subscriber.onPermissionsChanged(
+        identificationService.getCombinedId(ENDPOINT_ID, "client"), event());
+
+    verify(permissionChecker).invalidate("user123", "workspace", "workspace123");
+  }
+
+  @Test
+  public void shouldIgnoreEventsFromOtherEndpoints() {
+    subscriber.onPermissionsChanged(
+        identificationService.getCombinedId("ide", "client"), event());
+
+    verifyZeroInteractions(permissionChecker);
+  }
+
+  private static PermissionsChangedEventDto event() {
+    return DtoFactory.newDto(PermissionsChangedEventDto.class)
+        .withUserId("user123")
+        .withDomainId("workspace")
+        .withInstanceId("workspace123");
+  }
+}
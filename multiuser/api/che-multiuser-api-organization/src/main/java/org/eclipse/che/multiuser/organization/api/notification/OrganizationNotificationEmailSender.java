@@ -33,7 +33,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Notify users about organization changes.
+ * Notify users about organization changes. Events are handled asynchronously, so publishers don't
+ * wait for the users lookup and emails composing.
  *
  * @author Anton Korneta
  * @author Sergii Leshchenko
@@ -66,7 +67,7 @@ public class OrganizationNotificationEmailSender implements EventSubscriber<Orga
 
   @Inject
   public void subscribe(EventService eventService) {
-    eventService.subscribe(this);
+    eventService.subscribeAsync(this);
   }
 
   @Override
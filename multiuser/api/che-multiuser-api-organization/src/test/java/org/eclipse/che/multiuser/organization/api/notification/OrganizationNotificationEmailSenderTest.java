@@ -75,7 +75,7 @@ public class OrganizationNotificationEmailSenderTest {
     emailSender.subscribe(eventService);
 
     // then
-    verify(eventService).subscribe(emailSender);
+    verify(eventService).subscribeAsync(emailSender);
   }
 
   @Test
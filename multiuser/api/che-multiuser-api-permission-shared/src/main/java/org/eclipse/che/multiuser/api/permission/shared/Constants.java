@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.shared;
+
+/** Constants for Permissions API */
+public final class Constants {
+
+  /** JSON RPC method used to notify remote subscribers about permissions changes. */
+  public static final String PERMISSIONS_CHANGED_METHOD = "permissions/changed";
+
+  private Constants() {}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.multiuser.api.permission.shared.event.EventType;
+
+/**
+ * DTO for events of permissions changes which are sent to remote subscribers. Identifies changed
+ * permissions without their actions, so subscribers are expected to fetch them if needed.
+ */
+@DTO
+public interface PermissionsChangedEventDto {
+
+  EventType getType();
+
+  void setType(EventType type);
+
+  PermissionsChangedEventDto withType(EventType type);
+
+  String getUserId();
+
+  void setUserId(String userId);
+
+  PermissionsChangedEventDto withUserId(String userId);
+
+  String getDomainId();
+
+  void setDomainId(String domainId);
+
+  PermissionsChangedEventDto withDomainId(String domainId);
+
+  String getInstanceId();
+
+  void setInstanceId(String instanceId);
+
+  PermissionsChangedEventDto withInstanceId(String instanceId);
+}
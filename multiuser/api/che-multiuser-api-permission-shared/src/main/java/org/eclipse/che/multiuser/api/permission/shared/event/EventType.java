@@ -18,5 +18,7 @@ package org.eclipse.che.multiuser.api.permission.shared.event;
 public enum EventType {
   PERMISSIONS_ADDED,
 
+  PERMISSIONS_UPDATED,
+
   PERMISSIONS_REMOVED
 }
@@ -37,6 +37,7 @@ import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsRemovedEvent;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsUpdatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
 import org.eclipse.che.multiuser.api.permission.server.spi.PermissionsDao;
 import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
@@ -131,6 +132,30 @@ public class PermissionsManager {
     return getPermissionsDao(domainId).get(userId, instanceId);
   }
 
+  /**
+   * Returns user's permissions for specified instance in all the domains which require instance.
+   *
+   * @param userId user id
+   * @param instanceId instance id
+   * @return userId's permissions for specified instanceId or empty list if there are no such
+   *     permissions
+   * @throws ServerException when any error occurs during permissions fetching
+   */
+  public List<AbstractPermissions> getByUserAndInstance(String userId, String instanceId)
+      throws ServerException {
+    final List<AbstractPermissions> result = new ArrayList<>();
+    for (AbstractPermissionsDomain<? extends AbstractPermissions> domain : domains) {
+      if (domain.isInstanceRequired()) {
+        try {
+          result.add(domainToDao.get(domain.getId()).get(userId, instanceId));
+        } catch (NotFoundException ignored) {
+          // user doesn't have permissions in this domain
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Returns users' permissions for specified instance
    *
@@ -232,10 +257,12 @@ public class PermissionsManager {
         permissionsDomain.newInstance(userId, instanceId, permissions.getActions());
     checkActionsSupporting(permissionsDomain, permission.getActions());
     final Optional<T> existing = dao.store(permission);
+    Subject subject = EnvironmentContext.getCurrent().getSubject();
+    final String initiator = subject.isAnonymous() ? null : subject.getUserName();
     if (!existing.isPresent()) {
-      Subject subject = EnvironmentContext.getCurrent().getSubject();
-      final String initiator = subject.isAnonymous() ? null : subject.getUserName();
       eventService.publish(new PermissionsCreatedEvent(initiator, permissions));
+    } else {
+      eventService.publish(new PermissionsUpdatedEvent(initiator, permissions));
     }
   }
 
@@ -149,6 +149,31 @@ public class PermissionsService extends Service {
             EnvironmentContext.getCurrent().getSubject().getUserId(), domain, instance));
   }
 
+  @GET
+  @Path("/instances/{instance}")
+  @Produces(APPLICATION_JSON)
+  @ApiOperation(
+    value =
+        "Get permissions of current user which are related to specified instance "
+            + "in all the domains which require instance",
+    response = PermissionsDto.class,
+    responseContainer = "List"
+  )
+  @ApiResponses({
+    @ApiResponse(code = 200, message = "The permissions successfully fetched"),
+    @ApiResponse(code = 500, message = "Internal server error occurred during permissions fetching")
+  })
+  public List<PermissionsDto> getCurrentUsersInstancePermissions(
+      @ApiParam(value = "Instance id to retrieve user's permissions") @PathParam("instance")
+          String instance)
+      throws ServerException {
+    return permissionsManager
+        .getByUserAndInstance(EnvironmentContext.getCurrent().getSubject().getUserId(), instance)
+        .stream()
+        .map(this::toDto)
+        .collect(Collectors.toList());
+  }
+
   @GET
   @Path("/{domain}/all")
   @Produces(APPLICATION_JSON)
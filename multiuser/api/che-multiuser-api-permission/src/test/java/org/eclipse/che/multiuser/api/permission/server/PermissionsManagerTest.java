@@ -220,6 +220,25 @@ public class PermissionsManagerTest {
     assertEquals(permissions, fetchedPermissions);
   }
 
+  @Test
+  public void shouldBeAbleToGetPermissionsByUserAndInstance() throws Exception {
+    final TestPermissionsImpl permissions =
+        new TestPermissionsImpl("user", "test", "test123", singletonList("read"));
+    when(permissionsDao.get("user", "test123")).thenReturn(permissions);
+
+    final List<AbstractPermissions> fetchedPermissions =
+        permissionsManager.getByUserAndInstance("user", "test123");
+
+    assertEquals(fetchedPermissions, singletonList(permissions));
+  }
+
+  @Test
+  public void shouldReturnEmptyListWhenUserDoesNotHavePermissionsForInstance() throws Exception {
+    when(permissionsDao.get("user", "test123")).thenThrow(new NotFoundException("not found"));
+
+    assertTrue(permissionsManager.getByUserAndInstance("user", "test123").isEmpty());
+  }
+
   @Test
   public void shouldBeAbleToGetPermissionsByInstance() throws Exception {
     final TestPermissionsImpl firstPermissions =
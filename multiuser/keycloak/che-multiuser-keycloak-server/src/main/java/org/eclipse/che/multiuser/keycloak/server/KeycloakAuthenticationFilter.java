@@ -10,6 +10,13 @@
  */
 package org.eclipse.che.multiuser.keycloak.server;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import io.jsonwebtoken.Claims;
@@ -28,6 +35,7 @@ import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.Date;
 import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -39,10 +47,17 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.eclipse.che.commons.auth.token.RequestTokenExtractor;
+import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.eclipse.che.multiuser.keycloak.shared.KeycloakConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Verifies JWT of a request with the public key of Keycloak realm. Verified tokens are cached by
+ * hash of the token until they expire, so the signature of a token is verified once instead of on
+ * each request. The public key is read without locking, it is updated periodically in background
+ * and when a token can't be verified with the current key.
+ */
 @Singleton
 public class KeycloakAuthenticationFilter extends AbstractKeycloakFilter {
   private static final Gson GSON = new Gson();
@@ -50,22 +65,34 @@ public class KeycloakAuthenticationFilter extends AbstractKeycloakFilter {
 
   private static final Logger LOG = LoggerFactory.getLogger(KeycloakAuthenticationFilter.class);
 
+  /** Max time a token without expiration is kept in the cache of verified tokens. */
+  private static final long MAX_VERIFIED_TOKEN_CACHE_TIME_MIN = 5;
+
   private String authServerUrl;
   private String realm;
   private long allowedClockSkewSec;
-  private PublicKey publicKey = null;
   private RequestTokenExtractor tokenExtractor;
 
+  private final Cache<String, Jws<Claims>> verifiedTokens;
+  private final Object publicKeyLock = new Object();
+  private volatile PublicKey publicKey;
+
   @Inject
   public KeycloakAuthenticationFilter(
       @Named(KeycloakConstants.AUTH_SERVER_URL_SETTING) String authServerUrl,
       @Named(KeycloakConstants.REALM_SETTING) String realm,
       @Named(KeycloakConstants.ALLOWED_CLOCK_SKEW_SEC) long allowedClockSkewSec,
+      @Named("che.keycloak.verified_tokens_cache_size") long verifiedTokensCacheSize,
       RequestTokenExtractor tokenExtractor) {
     this.authServerUrl = authServerUrl;
     this.realm = realm;
     this.allowedClockSkewSec = allowedClockSkewSec;
     this.tokenExtractor = tokenExtractor;
+    this.verifiedTokens =
+        CacheBuilder.newBuilder()
+            .maximumSize(verifiedTokensCacheSize)
+            .expireAfterWrite(MAX_VERIFIED_TOKEN_CACHE_TIME_MIN, MINUTES)
+            .build();
   }
 
   @Override
@@ -86,74 +113,134 @@ public class KeycloakAuthenticationFilter extends AbstractKeycloakFilter {
       return;
     }
 
-    Jws<Claims> jwt;
-    try {
-      jwt =
-          Jwts.parser()
-              .setAllowedClockSkewSeconds(allowedClockSkewSec)
-              .setSigningKey(getJwtPublicKey(false))
-              .parseClaimsJws(token);
-      LOG.debug("JWT = ", jwt);
-      // OK, we can trust this JWT
-    } catch (SignatureException
-        | NoSuchAlgorithmException
-        | InvalidKeySpecException
-        | IllegalArgumentException e) {
-      // don't trust the JWT!
-      LOG.error("Failed verifying the JWT token", e);
+    final String tokenHash = Hashing.sha256().hashString(token, UTF_8).toString();
+    Jws<Claims> jwt = getVerifiedJwt(tokenHash);
+    if (jwt == null) {
+      PublicKey key = null;
       try {
-        LOG.info("Retrying after updating the public key", e);
-        jwt =
-            Jwts.parser()
-                .setAllowedClockSkewSeconds(allowedClockSkewSec)
-                .setSigningKey(getJwtPublicKey(true))
-                .parseClaimsJws(token);
+        key = getJwtPublicKey();
+        jwt = parseJwt(token, key);
         LOG.debug("JWT = ", jwt);
         // OK, we can trust this JWT
       } catch (SignatureException
           | NoSuchAlgorithmException
           | InvalidKeySpecException
-          | IllegalArgumentException ee) {
+          | IllegalArgumentException e) {
         // don't trust the JWT!
-        LOG.error("Failed verifying the JWT token after public key update", e);
-        send403(res);
-        return;
+        LOG.error("Failed verifying the JWT token", e);
+        try {
+          LOG.info("Retrying after updating the public key", e);
+          jwt = parseJwt(token, updateJwtPublicKey(key));
+          LOG.debug("JWT = ", jwt);
+          // OK, we can trust this JWT
+        } catch (SignatureException
+            | NoSuchAlgorithmException
+            | InvalidKeySpecException
+            | IllegalArgumentException ee) {
+          // don't trust the JWT!
+          LOG.error("Failed verifying the JWT token after public key update", e);
+          send403(res);
+          return;
+        }
       }
+      verifiedTokens.put(tokenHash, jwt);
     }
     request.setAttribute("token", jwt);
     chain.doFilter(req, res);
   }
 
-  private synchronized PublicKey getJwtPublicKey(boolean reset)
-      throws NoSuchAlgorithmException, InvalidKeySpecException {
-    if (reset) {
-      publicKey = null;
+  /** Returns already verified JWT if it is not expired yet, null otherwise. */
+  private Jws<Claims> getVerifiedJwt(String tokenHash) {
+    Jws<Claims> jwt = verifiedTokens.getIfPresent(tokenHash);
+    if (jwt == null) {
+      return null;
     }
-    if (publicKey == null) {
-      HttpURLConnection conn = null;
-      try {
-        URL url = new URL(authServerUrl + "/realms/" + realm);
-        LOG.info("Pulling realm public key from URL : {}", url);
-        conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        Map<String, String> realmSettings;
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-          realmSettings = GSON.fromJson(in, STRING_MAP_TYPE);
-        }
-        String encodedPublicKey = realmSettings.get("public_key");
-        byte[] decoded = Base64.getDecoder().decode(encodedPublicKey);
-        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decoded);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        publicKey = kf.generatePublic(keySpec);
-      } catch (IOException e) {
-        LOG.error("Exception during retrieval of the Keycloak realm public key", e);
-      } finally {
-        if (conn != null) {
-          conn.disconnect();
+    Date expiration = jwt.getBody().getExpiration();
+    if (expiration != null
+        && expiration.getTime() + allowedClockSkewSec * 1000 <= System.currentTimeMillis()) {
+      // expired token is parsed again to be rejected the same way as not cached one
+      verifiedTokens.invalidate(tokenHash);
+      return null;
+    }
+    return jwt;
+  }
+
+  @VisibleForTesting
+  Jws<Claims> parseJwt(String token, PublicKey key) {
+    return Jwts.parser()
+        .setAllowedClockSkewSeconds(allowedClockSkewSec)
+        .setSigningKey(key)
+        .parseClaimsJws(token);
+  }
+
+  private PublicKey getJwtPublicKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
+    PublicKey key = publicKey;
+    return key != null ? key : updateJwtPublicKey(null);
+  }
+
+  /**
+   * Retrieves the public key of the realm unless it was already updated by another thread after
+   * the given key had been read. Verified tokens are dropped if the key is changed.
+   *
+   * @param staleKey key that can't be used to verify a token
+   */
+  private PublicKey updateJwtPublicKey(PublicKey staleKey)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    synchronized (publicKeyLock) {
+      PublicKey current = publicKey;
+      if (current != staleKey) {
+        return current;
+      }
+      PublicKey retrieved = retrievePublicKey();
+      if (retrieved != null && !retrieved.equals(current)) {
+        publicKey = retrieved;
+        if (current != null) {
+          verifiedTokens.invalidateAll();
         }
       }
+      return publicKey;
+    }
+  }
+
+  /** Periodically updates the public key, so rotation of realm keys doesn't fail requests. */
+  @ScheduleRate(
+    initialDelayParameterName = "che.keycloak.public_key_update_period_min",
+    periodParameterName = "che.keycloak.public_key_update_period_min",
+    unit = MINUTES
+  )
+  void refreshJwtPublicKey() {
+    try {
+      updateJwtPublicKey(publicKey);
+    } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+      LOG.error("Failed to update the Keycloak realm public key", e);
+    }
+  }
+
+  @VisibleForTesting
+  PublicKey retrievePublicKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
+    HttpURLConnection conn = null;
+    try {
+      URL url = new URL(authServerUrl + "/realms/" + realm);
+      LOG.info("Pulling realm public key from URL : {}", url);
+      conn = (HttpURLConnection) url.openConnection();
+      conn.setRequestMethod("GET");
+      Map<String, String> realmSettings;
+      try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
+        realmSettings = GSON.fromJson(in, STRING_MAP_TYPE);
+      }
+      String encodedPublicKey = realmSettings.get("public_key");
+      byte[] decoded = Base64.getDecoder().decode(encodedPublicKey);
+      X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decoded);
+      KeyFactory kf = KeyFactory.getInstance("RSA");
+      return kf.generatePublic(keySpec);
+    } catch (IOException e) {
+      LOG.error("Exception during retrieval of the Keycloak realm public key", e);
+      return null;
+    } finally {
+      if (conn != null) {
+        conn.disconnect();
+      }
     }
-    return publicKey;
   }
 
   private void send403(ServletResponse res) throws IOException {
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.keycloak.server;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.che.commons.auth.token.RequestTokenExtractor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link KeycloakAuthenticationFilter} */
+@Listeners(MockitoTestNGListener.class)
+public class KeycloakAuthenticationFilterTest {
+
+  @Mock private RequestTokenExtractor tokenExtractor;
+  @Mock private FilterChain chain;
+  @Mock private HttpServletRequest request;
+  @Mock private HttpServletResponse response;
+
+  private KeyPair keyPair;
+  private KeycloakAuthenticationFilter filter;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(1024);
+    keyPair = generator.generateKeyPair();
+
+    filter =
+        spy(
+            new KeycloakAuthenticationFilter(
+                "http://keycloak:8080/auth", "che", 3, 10, tokenExtractor));
+    doReturn(keyPair.getPublic()).when(filter).retrievePublicKey();
+    when(request.getScheme()).thenReturn("http");
+  }
+
+  @Test
+  public void shouldVerifyTokenOnlyOnce() throws Exception {
+    String token = createToken(keyPair);
+    when(tokenExtractor.getToken(request)).thenReturn(token);
+
+    filter.doFilter(request, response, chain);
+    filter.doFilter(request, response, chain);
+
+    verify(filter, times(1)).parseJwt(eq(token), any(PublicKey.class));
+    verify(filter, times(1)).retrievePublicKey();
+    verify(request, times(2)).setAttribute(eq("token"), any(Jws.class));
+    verify(chain, times(2)).doFilter(request, response);
+  }
+
+  @Test
+  public void shouldRejectTokenSignedWithUnknownKeyAfterPublicKeyUpdate() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(1024);
+    String token = createToken(generator.generateKeyPair());
+    when(tokenExtractor.getToken(request)).thenReturn(token);
+
+    filter.doFilter(request, response, chain);
+    filter.doFilter(request, response, chain);
+
+    // public key is retrieved at first and then on each failed verification
+    verify(filter, times(3)).retrievePublicKey();
+    verify(response, times(2)).sendError(403);
+    verify(chain, never()).doFilter(request, response);
+  }
+
+  @Test
+  public void shouldUsePublicKeyUpdatedInBackground() throws Exception {
+    String token = createToken(keyPair);
+    when(tokenExtractor.getToken(request)).thenReturn(token);
+
+    filter.refreshJwtPublicKey();
+    filter.doFilter(request, response, chain);
+
+    verify(filter, times(1)).retrievePublicKey();
+    verify(chain).doFilter(request, response);
+  }
+
+  private static String createToken(KeyPair keyPair) {
+    return Jwts.builder()
+        .setSubject("user123")
+        .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5)))
+        .signWith(SignatureAlgorithm.RS256, keyPair.getPrivate())
+        .compact();
+  }
+}
@@ -31,6 +31,7 @@ public class MachineAuthModule extends AbstractModule {
     bindInterceptor(subclassesOf(WorkspaceRuntimes.class), names("startAsync"), tokenInterceptor);
 
     bind(MachineSessionInvalidator.class).asEagerSingleton();
+    bind(PermissionsEventsJsonRpcMessenger.class).asEagerSingleton();
 
     bind(MachineTokenProvider.class).to(MachineTokenProviderImpl.class);
   }
@@ -95,6 +95,22 @@ public class MachineTokenRegistry {
     }
   }
 
+  /**
+   * Checks whether the token is a machine token of the given workspace.
+   *
+   * @param workspaceId id of workspace the token should belong to
+   * @param token machine token to check
+   * @return true if the token was generated for some user of the workspace, false otherwise
+   */
+  public boolean isWorkspaceToken(String workspaceId, String token) {
+    lock.readLock().lock();
+    try {
+      return tokens.row(workspaceId).containsValue(token);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
   /**
    * Invalidates machine security tokens for all users of given workspace.
    *
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.machine.authentication.server;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.eclipse.che.multiuser.api.permission.shared.Constants.PERMISSIONS_CHANGED_METHOD;
+
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionManager;
+import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsChangedEventDto;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+
+/**
+ * Sends {@link PermissionsChangedEventDto permissions changes} using JSON RPC to the workspace
+ * agents, so they invalidate cached permissions of their workspace. Changes of a workspace are
+ * routed to the subscribers which scope contains the workspace id as {@code instanceId} and sent
+ * only to those of them which scope contains a machine token of this workspace as {@code token}.
+ */
+@Singleton
+public class PermissionsEventsJsonRpcMessenger {
+  private final EventService eventService;
+  private final MachineTokenRegistry tokenRegistry;
+
+  @Inject
+  public PermissionsEventsJsonRpcMessenger(
+      EventService eventService, MachineTokenRegistry tokenRegistry) {
+    this.eventService = eventService;
+    this.tokenRegistry = tokenRegistry;
+  }
+
+  @Inject
+  void subscribe(RemoteSubscriptionManager remoteSubscriptionManager) {
+    remoteSubscriptionManager.register(
+        PERMISSIONS_CHANGED_METHOD,
+        PermissionsChangedEventDto.class,
+        "instanceId",
+        PermissionsChangedEventDto::getInstanceId,
+        this::isAuthorized);
+    eventService.subscribe(this::publishChange, PermissionsEvent.class);
+  }
+
+  private boolean isAuthorized(PermissionsChangedEventDto event, Map<String, String> scope) {
+    String token = scope.get("token");
+    return token != null && tokenRegistry.isWorkspaceToken(event.getInstanceId(), token);
+  }
+
+  private void publishChange(PermissionsEvent event) {
+    Permissions permissions = event.getPermissions();
+    eventService.publish(
+        newDto(PermissionsChangedEventDto.class)
+            .withType(event.getType())
+            .withUserId(permissions.getUserId())
+            .withDomainId(permissions.getDomainId())
+            .withInstanceId(permissions.getInstanceId()));
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.machine.authentication.server;
+
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.multiuser.api.permission.shared.Constants.PERMISSIONS_CHANGED_METHOD;
+import static org.eclipse.che.multiuser.api.permission.shared.event.EventType.PERMISSIONS_ADDED;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionManager;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
+import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsChangedEventDto;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link PermissionsEventsJsonRpcMessenger}. */
+@Listeners(MockitoTestNGListener.class)
+public class PermissionsEventsJsonRpcMessengerTest {
+
+  @Mock private RemoteSubscriptionManager remoteSubscriptionManager;
+  @Mock private Permissions permissions;
+
+  @Captor
+  private ArgumentCaptor<BiPredicate<PermissionsChangedEventDto, Map<String, String>>> predicate;
+
+  @Captor private ArgumentCaptor<Function<PermissionsChangedEventDto, String>> scopeValue;
+
+  private EventService eventService;
+  private MachineTokenRegistry tokenRegistry;
+  private List<PermissionsChangedEventDto> published;
+
+  @BeforeMethod
+  public void setUp() {
+    eventService = new EventService();
+    tokenRegistry = new MachineTokenRegistry();
+    published = new ArrayList<>();
+    eventService.subscribe(published::add, PermissionsChangedEventDto.class);
+
+    new PermissionsEventsJsonRpcMessenger(eventService, tokenRegistry)
+        .subscribe(remoteSubscriptionManager);
+
+    verify(remoteSubscriptionManager)
+        .register(
+            eq(PERMISSIONS_CHANGED_METHOD),
+            eq(PermissionsChangedEventDto.class),
+            eq("instanceId"),
+            scopeValue.capture(),
+            predicate.capture());
+  }
+
+  @Test
+  public void shouldPublishPermissionsChanges() {
+    when(permissions.getUserId()).thenReturn("user123");
+    when(permissions.getDomainId()).thenReturn("workspace");
+    when(permissions.getInstanceId()).thenReturn("workspace123");
+
+    eventService.publish(new PermissionsCreatedEvent("admin", permissions));
+
+    assertEquals(published.size(), 1);
+    assertEquals(published.get(0), event("workspace123").withType(PERMISSIONS_ADDED));
+  }
+
+  @Test
+  public void shouldRouteChangesToSubscribersOfTheirInstance() {
+    assertEquals(scopeValue.getValue().apply(event("workspace123")), "workspace123");
+  }
+
+  @Test
+  public void shouldSendChangesToHolderOfWorkspaceMachineToken() {
+    String token = tokenRegistry.generateToken("user123", "workspace123");
+
+    assertTrue(
+        predicate.getValue().test(event("workspace123"), scope("workspace123", token)));
+  }
+
+  @Test
+  public void shouldNotSendChangesToSubscriberWithoutMachineToken() {
+    tokenRegistry.generateToken("user123", "workspace123");
+    Map<String, String> scope = singletonMap("instanceId", "workspace123");
+
+    assertFalse(predicate.getValue().test(event("workspace123"), scope));
+  }
+
+  @Test
+  public void shouldNotSendChangesToHolderOfOtherWorkspaceMachineToken() {
+    tokenRegistry.generateToken("user123", "workspace123");
+    String token = tokenRegistry.generateToken("user123", "workspace234");
+
+    assertFalse(
+        predicate.getValue().test(event("workspace123"), scope("workspace123", token)));
+  }
+
+  @Test
+  public void shouldNotSendChangesOfOtherInstances() {
+    String token = tokenRegistry.generateToken("user123", "workspace123");
+
+    assertFalse(
+        predicate.getValue().test(event("workspace234"), scope("workspace123", token)));
+  }
+
+  private static PermissionsChangedEventDto event(String instanceId) {
+    return DtoFactory.newDto(PermissionsChangedEventDto.class)
+        .withUserId("user123")
+        .withDomainId("workspace")
+        .withInstanceId(instanceId);
+  }
+
+  private static Map<String, String> scope(String instanceId, String token) {
+    return ImmutableMap.of("instanceId", instanceId, "token", token);
+  }
+}
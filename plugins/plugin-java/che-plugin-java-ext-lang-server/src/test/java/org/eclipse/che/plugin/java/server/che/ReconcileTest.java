@@ -65,7 +65,11 @@ public class ReconcileTest extends BaseTest {
 
     EditorWorkingCopyManager editorWorkingCopyManager =
         new EditorWorkingCopyManager(
-            eventService, requestTransmitter, mock(FsManager.class), mock(ProjectManager.class));
+            eventService,
+            requestTransmitter,
+            mock(FsManager.class),
+            mock(ProjectManager.class),
+            128);
     reconciler =
         new JavaReconciler(
             new SemanticHighlightingReconciler(),
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.git;
+
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.isDirectory;
+import static java.util.Collections.emptyList;
+import static org.eclipse.che.api.fs.server.WsPathUtils.SEPARATOR;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADDED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.fs.server.PathTransformer;
+import org.eclipse.che.api.git.exception.GitException;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
+import org.eclipse.che.api.project.server.impl.RegisteredProject;
+import org.eclipse.che.api.watcher.server.FileWatcherManager;
+import org.slf4j.Logger;
+
+/**
+ * Keeps git status of projects in memory. Status of a whole repository is read once and then kept
+ * up to date incrementally: file watcher events of the working tree directories mark single items
+ * as dirty and only dirty items are asked from git on the next lookup, while changes of index, HEAD
+ * or its reflog make the whole status to be read again.
+ */
+@Singleton
+public class GitStatusCache {
+
+  private static final Logger LOG = getLogger(GitStatusCache.class);
+
+  private static final String GIT_DIR = ".git";
+  private static final String LOGS_DIR = "logs";
+  private static final String INDEX_FILE = "index";
+  private static final String HEAD_FILE = "HEAD";
+  private static final String ORIG_HEAD_FILE = "ORIG_HEAD";
+
+  /** When more items than this are dirty it is cheaper to read the status of whole repository. */
+  private static final int MAX_DIRTY_ITEMS = 100;
+
+  private final GitConnectionFactory gitConnectionFactory;
+  private final PathTransformer pathTransformer;
+  private final ProjectManager projectManager;
+  private final FileWatcherManager manager;
+
+  private final Map<String, ProjectStatus> statuses = new ConcurrentHashMap<>();
+
+  private int repositoryWatchId;
+  private int workingTreeWatchId;
+
+  @Inject
+  public GitStatusCache(
+      GitConnectionFactory gitConnectionFactory,
+      PathTransformer pathTransformer,
+      ProjectManager projectManager,
+      FileWatcherManager manager) {
+    this.gitConnectionFactory = gitConnectionFactory;
+    this.pathTransformer = pathTransformer;
+    this.projectManager = projectManager;
+    this.manager = manager;
+  }
+
+  @PostConstruct
+  public void startWatcher() {
+    Consumer<String> consumer = this::invalidate;
+    repositoryWatchId =
+        manager.registerByMatcher(repositoryStateMatcher(), consumer, consumer, consumer);
+    workingTreeWatchId =
+        manager.registerByMatcher(workingTreeMatcher(), consumer, consumer, consumer);
+  }
+
+  @PreDestroy
+  public void stopWatcher() {
+    manager.unRegisterByMatcher(repositoryWatchId);
+    manager.unRegisterByMatcher(workingTreeWatchId);
+  }
+
+  /**
+   * Returns statuses of project items.
+   *
+   * @param projectWsPath absolute workspace path of a project
+   * @param itemPaths paths of items relative to the project
+   * @return map with item path relative to the project as a key and its status as a value
+   * @throws GitException if git status can't be read
+   */
+  public Map<String, VcsStatus> getStatus(String projectWsPath, Collection<String> itemPaths)
+      throws GitException {
+    return statuses
+        .computeIfAbsent(projectWsPath, it -> new ProjectStatus())
+        .getStatus(pathTransformer.transform(projectWsPath).toString(), itemPaths);
+  }
+
+  /**
+   * Invalidates cached status of a workspace item. Changes of files that hold repository state
+   * invalidate status of the whole project.
+   *
+   * @param wsPath absolute workspace path of a changed item
+   */
+  public void invalidate(String wsPath) {
+    Optional<RegisteredProject> project = projectManager.getClosest(wsPath);
+    if (!project.isPresent()) {
+      return;
+    }
+
+    String projectWsPath = project.get().getPath();
+    ProjectStatus status = statuses.get(projectWsPath);
+    if (status == null) {
+      return;
+    }
+
+    String itemPath = wsPath.substring(projectWsPath.length());
+    itemPath = itemPath.startsWith(SEPARATOR) ? itemPath.substring(1) : itemPath;
+    if (itemPath.isEmpty()) {
+      statuses.remove(projectWsPath);
+    } else if (itemPath.equals(GIT_DIR) || itemPath.startsWith(GIT_DIR + SEPARATOR)) {
+      if (isRepositoryStateFile(itemPath)) {
+        status.invalidateAll();
+      }
+    } else {
+      status.invalidate(itemPath);
+    }
+  }
+
+  private static boolean isRepositoryStateFile(String itemPath) {
+    return itemPath.equals(GIT_DIR + SEPARATOR + INDEX_FILE)
+        || itemPath.equals(GIT_DIR + SEPARATOR + HEAD_FILE)
+        || itemPath.equals(GIT_DIR + SEPARATOR + ORIG_HEAD_FILE)
+        || itemPath.equals(GIT_DIR + SEPARATOR + LOGS_DIR + SEPARATOR + HEAD_FILE);
+  }
+
+  /** Matches directories of project working trees which are under git control. */
+  private PathMatcher workingTreeMatcher() {
+    return it -> {
+      if (!isDirectory(it)) {
+        return false;
+      }
+      for (Path name : it) {
+        if (GIT_DIR.equals(name.toString())) {
+          return false;
+        }
+      }
+      try {
+        Optional<RegisteredProject> project =
+            projectManager.getClosest(pathTransformer.transform(it));
+        return project.isPresent()
+            && exists(pathTransformer.transform(project.get().getPath()).resolve(GIT_DIR));
+      } catch (RuntimeException e) {
+        LOG.debug("Can't find project of {}: {}", it, e.getMessage());
+        return false;
+      }
+    };
+  }
+
+  private PathMatcher repositoryStateMatcher() {
+    return it -> {
+      if (isDirectory(it) || it.getParent() == null) {
+        return false;
+      }
+      String name = it.getFileName().toString();
+      String parent = it.getParent().getFileName().toString();
+      if (GIT_DIR.equals(parent)) {
+        return INDEX_FILE.equals(name) || HEAD_FILE.equals(name) || ORIG_HEAD_FILE.equals(name);
+      }
+      return LOGS_DIR.equals(parent)
+          && HEAD_FILE.equals(name)
+          && it.getParent().getParent() != null
+          && GIT_DIR.equals(it.getParent().getParent().getFileName().toString());
+    };
+  }
+
+  /**
+   * Status of a single project. Only items which status differs from {@link
+   * VcsStatus#NOT_MODIFIED} are stored.
+   */
+  private class ProjectStatus {
+    private final Map<String, VcsStatus> changes = new HashMap<>();
+    private final Set<String> dirty = newConcurrentHashSet();
+    private final AtomicInteger revision = new AtomicInteger();
+
+    /** Revision the stored changes are read for, guarded by this. */
+    private int readRevision = -1;
+
+    private void invalidate(String itemPath) {
+      dirty.add(itemPath);
+    }
+
+    private void invalidateAll() {
+      revision.incrementAndGet();
+    }
+
+    private synchronized Map<String, VcsStatus> getStatus(
+        String projectFsPath, Collection<String> itemPaths) throws GitException {
+      int current = revision.get();
+      if (current != readRevision || dirty.size() > MAX_DIRTY_ITEMS) {
+        readRevision = -1;
+        dirty.clear();
+        Status status = gitConnectionFactory.getConnection(projectFsPath).status(emptyList());
+        changes.clear();
+        put(status);
+        readRevision = current;
+      } else if (!dirty.isEmpty()) {
+        List<String> paths = new ArrayList<>(dirty);
+        dirty.removeAll(paths);
+        Status status;
+        try {
+          status = gitConnectionFactory.getConnection(projectFsPath).status(paths);
+        } catch (GitException e) {
+          dirty.addAll(paths);
+          throw e;
+        }
+        for (String path : paths) {
+          changes.keySet().removeIf(it -> it.equals(path) || it.startsWith(path + SEPARATOR));
+        }
+        put(status);
+      }
+
+      Map<String, VcsStatus> result = new HashMap<>();
+      for (String itemPath : itemPaths) {
+        result.put(itemPath, changes.getOrDefault(itemPath, NOT_MODIFIED));
+      }
+      return result;
+    }
+
+    private void put(Status status) {
+      status.getModified().forEach(it -> changes.put(it, MODIFIED));
+      status.getChanged().forEach(it -> changes.put(it, MODIFIED));
+      status.getAdded().forEach(it -> changes.put(it, ADDED));
+      status.getUntracked().forEach(it -> changes.put(it, UNTRACKED));
+    }
+  }
+}
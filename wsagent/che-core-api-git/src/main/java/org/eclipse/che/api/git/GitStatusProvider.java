@@ -13,10 +13,6 @@ package org.eclipse.che.api.git;
 import static java.util.Collections.singletonList;
 import static org.eclipse.che.api.fs.server.WsPathUtils.SEPARATOR;
 import static org.eclipse.che.api.fs.server.WsPathUtils.resolve;
-import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADDED;
-import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
-import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
-import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,31 +20,25 @@ import java.util.Map;
 import javax.inject.Inject;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.git.exception.GitException;
-import org.eclipse.che.api.git.shared.Status;
 import org.eclipse.che.api.project.server.ProjectManager;
 import org.eclipse.che.api.project.server.VcsStatusProvider;
 import org.eclipse.che.api.project.server.impl.RegisteredProject;
 
 /**
- * Git implementation of {@link VcsStatusProvider}.
+ * Git implementation of {@link VcsStatusProvider}. Statuses are served from {@link
+ * GitStatusCache}.
  *
  * @author Igor Vinokur
  */
 public class GitStatusProvider implements VcsStatusProvider {
 
-  private final GitConnectionFactory gitConnectionFactory;
-  private final PathTransformer pathTransformer;
+  private final GitStatusCache statusCache;
   private final ProjectManager projectManager;
 
   @Inject
-  public GitStatusProvider(
-      GitConnectionFactory gitConnectionFactory,
-      PathTransformer pathTransformer,
-      ProjectManager projectManager) {
-    this.gitConnectionFactory = gitConnectionFactory;
-    this.pathTransformer = pathTransformer;
+  public GitStatusProvider(GitStatusCache statusCache, ProjectManager projectManager) {
+    this.statusCache = statusCache;
     this.projectManager = projectManager;
   }
 
@@ -64,21 +54,9 @@ public class GitStatusProvider implements VcsStatusProvider {
           projectManager
               .getClosest(wsPath)
               .orElseThrow(() -> new NotFoundException("Can't find project"));
-      String projectFsPath = pathTransformer.transform(project.getPath()).toString();
       wsPath = wsPath.substring(wsPath.startsWith(SEPARATOR) ? 1 : 0);
       String itemPath = wsPath.substring(wsPath.indexOf(SEPARATOR) + 1);
-      Status status =
-          gitConnectionFactory.getConnection(projectFsPath).status(singletonList(itemPath));
-      if (status.getUntracked().contains(itemPath)) {
-        return UNTRACKED;
-      } else if (status.getAdded().contains(itemPath)) {
-        return ADDED;
-      } else if (status.getModified().contains(itemPath)
-          || status.getChanged().contains(itemPath)) {
-        return MODIFIED;
-      } else {
-        return NOT_MODIFIED;
-      }
+      return statusCache.getStatus(project.getPath(), singletonList(itemPath)).get(itemPath);
     } catch (GitException | NotFoundException e) {
       throw new ServerException(e.getMessage());
     }
@@ -93,22 +71,9 @@ public class GitStatusProvider implements VcsStatusProvider {
           projectManager
               .getClosest(wsPath)
               .orElseThrow(() -> new NotFoundException("Can't find project"));
-      String projectFsPath = pathTransformer.transform(project.getPath()).toString();
-      Status status = gitConnectionFactory.getConnection(projectFsPath).status(paths);
-      paths.forEach(
-          path -> {
-            String itemWsPath = resolve(project.getPath(), path);
-            if (status.getUntracked().contains(path)) {
-              statusMap.put(itemWsPath, UNTRACKED);
-            } else if (status.getAdded().contains(path)) {
-              statusMap.put(itemWsPath, ADDED);
-            } else if (status.getModified().contains(path) || status.getChanged().contains(path)) {
-              statusMap.put(itemWsPath, MODIFIED);
-            } else {
-              statusMap.put(itemWsPath, NOT_MODIFIED);
-            }
-          });
-
+      statusCache
+          .getStatus(project.getPath(), paths)
+          .forEach((path, status) -> statusMap.put(resolve(project.getPath(), path), status));
     } catch (GitException | NotFoundException e) {
       throw new ServerException(e.getMessage());
     }
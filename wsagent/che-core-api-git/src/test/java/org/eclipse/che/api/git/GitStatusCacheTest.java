@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.git;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.eclipse.che.api.fs.server.PathTransformer;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
+import org.eclipse.che.api.project.server.impl.RegisteredProject;
+import org.eclipse.che.api.watcher.server.FileWatcherManager;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GitStatusCache} */
+@Listeners(MockitoTestNGListener.class)
+public class GitStatusCacheTest {
+
+  private static final String PROJECT_WS_PATH = "/project";
+  private static final String FILE = "src/file";
+  private static final String OTHER_FILE = "src/other";
+
+  @Mock private GitConnectionFactory gitConnectionFactory;
+  @Mock private GitConnection gitConnection;
+  @Mock private PathTransformer pathTransformer;
+  @Mock private ProjectManager projectManager;
+  @Mock private FileWatcherManager fileWatcherManager;
+  @Mock private RegisteredProject project;
+  @Captor private ArgumentCaptor<PathMatcher> matcherCaptor;
+  @Captor private ArgumentCaptor<Consumer<String>> consumerCaptor;
+
+  private File projectDir;
+  private GitStatusCache statusCache;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    projectDir = Files.createTempDir();
+    when(pathTransformer.transform(PROJECT_WS_PATH)).thenReturn(projectDir.toPath());
+    when(gitConnectionFactory.getConnection(projectDir.toString())).thenReturn(gitConnection);
+    when(projectManager.getClosest(anyString())).thenReturn(Optional.of(project));
+    when(project.getPath()).thenReturn(PROJECT_WS_PATH);
+
+    statusCache =
+        new GitStatusCache(
+            gitConnectionFactory, pathTransformer, projectManager, fileWatcherManager);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    IoUtil.deleteRecursive(projectDir);
+  }
+
+  @Test
+  public void shouldReadStatusOfWholeRepositoryOnlyOnce() throws Exception {
+    Status status = status(singletonList(FILE), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(status);
+
+    statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+    Map<String, VcsStatus> result =
+        statusCache.getStatus(PROJECT_WS_PATH, asList(FILE, OTHER_FILE));
+
+    verify(gitConnection, times(1)).status(emptyList());
+    assertEquals(result.get(FILE), MODIFIED);
+    assertEquals(result.get(OTHER_FILE), NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldReadStatusOfInvalidatedItemOnly() throws Exception {
+    Status status = status(singletonList(FILE), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(status);
+    Status itemStatus = status(emptyList(), singletonList(OTHER_FILE));
+    when(gitConnection.status(singletonList(OTHER_FILE))).thenReturn(itemStatus);
+
+    statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+    statusCache.invalidate(PROJECT_WS_PATH + "/" + OTHER_FILE);
+    Map<String, VcsStatus> result =
+        statusCache.getStatus(PROJECT_WS_PATH, asList(FILE, OTHER_FILE));
+
+    verify(gitConnection, times(1)).status(emptyList());
+    verify(gitConnection).status(singletonList(OTHER_FILE));
+    assertEquals(result.get(FILE), MODIFIED);
+    assertEquals(result.get(OTHER_FILE), UNTRACKED);
+  }
+
+  @Test
+  public void shouldReadStatusOfWholeRepositoryAgainWhenIndexIsChanged() throws Exception {
+    Status status = status(singletonList(FILE), emptyList());
+    Status committedStatus = status(emptyList(), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(status, committedStatus);
+
+    statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+    statusCache.invalidate(PROJECT_WS_PATH + "/.git/index");
+    Map<String, VcsStatus> result = statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+
+    verify(gitConnection, times(2)).status(emptyList());
+    assertEquals(result.get(FILE), NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldInvalidateItemsReportedByWorkingTreeWatcher() throws Exception {
+    File gitDir = new File(projectDir, ".git");
+    File srcDir = new File(projectDir, "src");
+    assertTrue(gitDir.mkdir());
+    assertTrue(srcDir.mkdir());
+    when(pathTransformer.transform(any(Path.class))).thenReturn(PROJECT_WS_PATH + "/src");
+    Status status = status(singletonList(FILE), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(status);
+    when(gitConnection.status(singletonList(FILE))).thenReturn(status);
+
+    statusCache.startWatcher();
+    verify(fileWatcherManager, times(2))
+        .registerByMatcher(
+            matcherCaptor.capture(),
+            consumerCaptor.capture(),
+            consumerCaptor.capture(),
+            consumerCaptor.capture());
+    PathMatcher workingTreeMatcher = matcherCaptor.getAllValues().get(1);
+    Consumer<String> modifyConsumer = consumerCaptor.getAllValues().get(4);
+
+    assertTrue(workingTreeMatcher.matches(srcDir.toPath()));
+    assertFalse(workingTreeMatcher.matches(gitDir.toPath()));
+
+    statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+    modifyConsumer.accept(PROJECT_WS_PATH + "/" + FILE);
+    statusCache.getStatus(PROJECT_WS_PATH, singletonList(FILE));
+
+    verify(gitConnection).status(singletonList(FILE));
+  }
+
+  private static Status status(List<String> modified, List<String> untracked) {
+    Status status = mock(Status.class);
+    when(status.getModified()).thenReturn(modified);
+    when(status.getChanged()).thenReturn(emptyList());
+    when(status.getAdded()).thenReturn(emptyList());
+    when(status.getUntracked()).thenReturn(untracked);
+    return status;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -56,6 +57,11 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   private static final Logger LOG = LoggerFactory.getLogger(LanguageServerRegistryImpl.class);
 
+  /** Maximum number of routes cached per project when servers match files by path. */
+  private static final int MAX_CACHED_ROUTES = 1000;
+
+  private static final Map<String, Pattern> PATH_PATTERNS = new ConcurrentHashMap<>();
+
   private final String workspaceId;
   private final String apiEndpoint;
   private final HttpJsonRequestFactory httpJsonRequestFactory;
@@ -69,6 +75,12 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   private final Map<String, List<InitializedLanguageServer>> initializedServers;
 
+  /**
+   * Copy of {@link #initializedServers} by project which is replaced as a whole when a server gets
+   * initialized, so lookups of applicable servers don't need to hold any lock.
+   */
+  private volatile Map<String, ProjectRoutes> routes = Collections.emptyMap();
+
   private final Provider<ProjectManager> projectManagerProvider;
   private final ServerInitializer initializer;
   private EventService eventService;
@@ -141,6 +153,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
                           initializedServers.computeIfAbsent(projectPath, k -> new ArrayList<>());
                       initialized.add(
                           new InitializedLanguageServer(id, pair.first, pair.second, launcher));
+                      updateRoutes(projectPath, initialized);
                       requiredToLaunch.remove(launcher);
                       initializedServers.notifyAll();
                     }
@@ -270,19 +283,25 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       return Collections.emptyList();
     }
 
-    Map<Integer, List<InitializedLanguageServer>> result = new HashMap<>();
-
-    List<InitializedLanguageServer> servers = null;
-    synchronized (initializedServers) {
-      List<InitializedLanguageServer> list = initializedServers.get(projectPath);
-      if (list == null) {
-        return Collections.emptyList();
-      }
-      servers = new ArrayList<InitializedLanguageServer>(list);
+    ProjectRoutes projectRoutes = routes.get(projectPath);
+    if (projectRoutes == null) {
+      return Collections.emptyList();
     }
+    return projectRoutes.route(fileUri, language.getLanguageId());
+  }
+
+  /** Must be called while holding the lock of {@link #initializedServers}. */
+  private void updateRoutes(String projectPath, List<InitializedLanguageServer> servers) {
+    Map<String, ProjectRoutes> newRoutes = new HashMap<>(routes);
+    newRoutes.put(projectPath, new ProjectRoutes(servers));
+    routes = Collections.unmodifiableMap(newRoutes);
+  }
+
+  private List<Collection<InitializedLanguageServer>> findApplicableServers(
+      List<InitializedLanguageServer> servers, String fileUri, String languageId) {
+    Map<Integer, List<InitializedLanguageServer>> result = new HashMap<>();
     for (InitializedLanguageServer server : servers) {
-      int score =
-          matchScore(server.getLauncher().getDescription(), fileUri, language.getLanguageId());
+      int score = matchScore(server.getLauncher().getDescription(), fileUri, languageId);
       if (score > 0) {
         List<InitializedLanguageServer> list = result.get(score);
         if (list == null) {
@@ -293,12 +312,13 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       }
     }
     // sort lists highest score first
-    return result
-        .entrySet()
-        .stream()
-        .sorted((left, right) -> right.getKey() - left.getKey())
-        .map(entry -> entry.getValue())
-        .collect(Collectors.toList());
+    return Collections.unmodifiableList(
+        result
+            .entrySet()
+            .stream()
+            .sorted((left, right) -> right.getKey() - left.getKey())
+            .map(entry -> Collections.unmodifiableList(entry.getValue()))
+            .collect(Collectors.toList()));
   }
 
   private int matchScore(LanguageServerDescription desc, String path, String languageId) {
@@ -322,7 +342,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
         if (pattern.equals(path)) {
           return 10;
         }
-        Pattern regex = Pattern.compile(pattern);
+        Pattern regex = PATH_PATTERNS.computeIfAbsent(pattern, Pattern::compile);
         if (regex.matcher(path).matches()) {
           match = Math.max(match, 5);
         }
@@ -377,8 +397,8 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   @Override
   public InitializedLanguageServer getServer(String id) {
-    for (List<InitializedLanguageServer> list : initializedServers.values()) {
-      for (InitializedLanguageServer initializedLanguageServer : list) {
+    for (ProjectRoutes projectRoutes : routes.values()) {
+      for (InitializedLanguageServer initializedLanguageServer : projectRoutes.servers) {
         if (initializedLanguageServer.getId().equals(id)) {
           return initializedLanguageServer;
         }
@@ -406,4 +426,39 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       LOG.error("Did not manage to get workspace configuration: {}", workspaceId, e);
     }
   }
+
+  /**
+   * Initialized servers of a project along with the servers applicable to files of the project
+   * which are computed once per language, or once per file when some of the servers match files by
+   * path.
+   */
+  private class ProjectRoutes {
+    private final List<InitializedLanguageServer> servers;
+    private final boolean matchByPath;
+    private final Map<String, List<Collection<InitializedLanguageServer>>> applicableServers =
+        new ConcurrentHashMap<>();
+
+    private ProjectRoutes(List<InitializedLanguageServer> servers) {
+      this.servers = Collections.unmodifiableList(new ArrayList<>(servers));
+      this.matchByPath =
+          servers
+              .stream()
+              .map(server -> server.getLauncher().getDescription())
+              .flatMap(description -> description.getDocumentFilters().stream())
+              .anyMatch(filter -> filter.getScheme() != null || filter.getPathRegex() != null);
+    }
+
+    private List<Collection<InitializedLanguageServer>> route(String fileUri, String languageId) {
+      String key = matchByPath ? languageId + ':' + fileUri : languageId;
+      List<Collection<InitializedLanguageServer>> result = applicableServers.get(key);
+      if (result == null) {
+        if (applicableServers.size() >= MAX_CACHED_ROUTES) {
+          applicableServers.clear();
+        }
+        result = findApplicableServers(servers, fileUri, languageId);
+        applicableServers.put(key, result);
+      }
+      return result;
+    }
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges consecutive changes of a document which come within the given delay into a single change
+ * set, so language servers re-analyze the document once per burst of typing instead of once per
+ * keystroke.
+ *
+ * <p>Pending changes of a document must be flushed with {@link #flush(String)} before any other
+ * notification or request related to the document is sent to language servers, so they always see
+ * the changes in the order they were made.
+ */
+class DidChangeCoalescer {
+  private static final Logger LOG = LoggerFactory.getLogger(DidChangeCoalescer.class);
+
+  private final long delayMillis;
+  private final Consumer<DidChangeTextDocumentParams> forwarder;
+  private final Map<String, DocumentChanges> documents = new ConcurrentHashMap<>();
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final LongAdder received = new LongAdder();
+  private final LongAdder forwarded = new LongAdder();
+
+  /**
+   * @param delayMillis time to wait for the next change of a document before forwarding the
+   *     pending ones, changes are forwarded immediately when it is not positive
+   * @param forwarder sends changes of a document to language servers
+   */
+  DidChangeCoalescer(long delayMillis, Consumer<DidChangeTextDocumentParams> forwarder) {
+    this.delayMillis = delayMillis;
+    this.forwarder = forwarder;
+    this.scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setNameFormat("LanguageServerDidChangeCoalescer")
+                .setDaemon(true)
+                .build());
+    this.scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Adds changes of the document with the given uri to the pending ones. Changes which race with
+   * {@link #close(String)} of the document and lose are forwarded immediately.
+   */
+  void add(String uri, DidChangeTextDocumentParams params) {
+    received.increment();
+    if (delayMillis <= 0) {
+      forward(uri, params);
+      return;
+    }
+    DocumentChanges changes = documents.computeIfAbsent(uri, it -> new DocumentChanges());
+    synchronized (changes) {
+      if (changes.closed) {
+        forward(uri, params);
+      } else if (changes.pending == null) {
+        changes.pending = params;
+        params.setContentChanges(new ArrayList<>(params.getContentChanges()));
+        changes.flushTask =
+            scheduler.schedule(() -> flush(uri, changes), delayMillis, MILLISECONDS);
+      } else {
+        merge(changes.pending, params);
+      }
+    }
+  }
+
+  /** Forwards pending changes of the document with the given uri, if there are any. */
+  void flush(String uri) {
+    DocumentChanges changes = documents.get(uri);
+    if (changes != null) {
+      flush(uri, changes);
+    }
+  }
+
+  /** Forwards pending changes of all the documents. */
+  void flushAll() {
+    documents.forEach(this::flush);
+  }
+
+  /**
+   * Forwards pending changes of the document with the given uri and stops tracking it. Pending
+   * changes are flushed and the document is removed atomically, so none of the concurrently added
+   * changes is left pending after the document is closed.
+   */
+  void close(String uri) {
+    DocumentChanges changes = documents.get(uri);
+    if (changes == null) {
+      return;
+    }
+    synchronized (changes) {
+      flush(uri, changes);
+      changes.closed = true;
+      documents.remove(uri, changes);
+    }
+  }
+
+  /** Returns number of change notifications received from clients. */
+  long getReceivedCount() {
+    return received.sum();
+  }
+
+  /** Returns number of change notifications forwarded to language servers. */
+  long getForwardedCount() {
+    return forwarded.sum();
+  }
+
+  /** Returns how many received notifications are forwarded as one on average. */
+  double getCoalescingRatio() {
+    long forwardedCount = forwarded.sum();
+    return forwardedCount == 0 ? 1 : (double) received.sum() / forwardedCount;
+  }
+
+  /** Forwards all the pending changes and stops the scheduler. */
+  void shutdown() {
+    flushAll();
+    scheduler.shutdownNow();
+  }
+
+  private void flush(String uri, DocumentChanges changes) {
+    synchronized (changes) {
+      if (changes.pending != null) {
+        changes.flushTask.cancel(false);
+        DidChangeTextDocumentParams pending = changes.pending;
+        changes.pending = null;
+        changes.flushTask = null;
+        forward(uri, pending);
+      }
+    }
+  }
+
+  private void forward(String uri, DidChangeTextDocumentParams params) {
+    forwarded.increment();
+    LOG.debug(
+        "Forwarding {} changes of {}, coalescing ratio {}",
+        params.getContentChanges().size(),
+        uri,
+        getCoalescingRatio());
+    forwarder.accept(params);
+  }
+
+  private static void merge(DidChangeTextDocumentParams pending, DidChangeTextDocumentParams next) {
+    pending.getTextDocument().setVersion(next.getTextDocument().getVersion());
+    List<TextDocumentContentChangeEvent> contentChanges = pending.getContentChanges();
+    for (TextDocumentContentChangeEvent change : next.getContentChanges()) {
+      if (change.getRange() == null) {
+        // full content of the document replaces all the previous changes
+        contentChanges.clear();
+      }
+      contentChanges.add(change);
+    }
+  }
+
+  private static class DocumentChanges {
+    private DidChangeTextDocumentParams pending;
+    private ScheduledFuture<?> flushTask;
+    private boolean closed;
+  }
+}
@@ -15,6 +15,10 @@ import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.pr
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.prefixURI;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removePrefixUri;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removeUriScheme;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.inParallel;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.inSequence;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.withResult;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.withTimeout;
 
 import com.google.inject.Singleton;
 import java.io.File;
@@ -26,17 +30,22 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcPromise;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
 import org.eclipse.che.api.languageserver.registry.InitializedLanguageServer;
@@ -59,7 +68,6 @@ import org.eclipse.che.api.languageserver.shared.model.ExtendedTextEdit;
 import org.eclipse.che.api.languageserver.shared.model.ExtendedWorkspaceEdit;
 import org.eclipse.che.api.languageserver.shared.model.RenameResult;
 import org.eclipse.che.api.languageserver.util.LSOperation;
-import org.eclipse.che.api.languageserver.util.OperationUtil;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IRegion;
@@ -103,12 +111,17 @@ public class TextDocumentService {
 
   private final LanguageServerRegistry languageServerRegistry;
   private final RequestHandlerConfigurator requestHandler;
+  private final DidChangeCoalescer didChangeCoalescer;
+  private final Map<String, CompletableFuture<?>> pendingRequests = new ConcurrentHashMap<>();
 
   @Inject
   public TextDocumentService(
-      LanguageServerRegistry languageServerRegistry, RequestHandlerConfigurator requestHandler) {
+      LanguageServerRegistry languageServerRegistry,
+      RequestHandlerConfigurator requestHandler,
+      @Named("che.languageserver.did_change.coalescing_delay_ms") long didChangeDelayMillis) {
     this.languageServerRegistry = languageServerRegistry;
     this.requestHandler = requestHandler;
+    this.didChangeCoalescer = new DidChangeCoalescer(didChangeDelayMillis, this::forwardDidChange);
   }
 
   @PostConstruct
@@ -139,22 +152,28 @@ public class TextDocumentService {
         ExtendedCompletionItem.class,
         ExtendedCompletionItemDto.class,
         this::completionItemResolve);
-    dtoToDto(
-        "documentHighlight",
-        TextDocumentPositionParams.class,
-        DocumentHighlight.class,
-        this::documentHighlight);
-    dtoToDto(
+    positionToDto(
+        "documentHighlight", DocumentHighlight.class, this::documentHighlight, () -> null);
+    positionToDto(
         "completion",
-        TextDocumentPositionParams.class,
         ExtendedCompletionListDto.class,
-        this::completion);
-    dtoToDto("hover", TextDocumentPositionParams.class, HoverDto.class, this::hover);
-    dtoToDto(
-        "signatureHelp",
-        TextDocumentPositionParams.class,
-        SignatureHelpDto.class,
-        this::signatureHelp);
+        this::completion,
+        () -> {
+          ExtendedCompletionListDto outdated = new ExtendedCompletionListDto();
+          outdated.setItems(new ArrayList<>());
+          outdated.setInComplete(true);
+          return outdated;
+        });
+    positionToDto(
+        "hover",
+        HoverDto.class,
+        this::hover,
+        () -> {
+          HoverDto outdated = new HoverDto();
+          outdated.setContents(new ArrayList<>());
+          return outdated;
+        });
+    positionToDto("signatureHelp", SignatureHelpDto.class, this::signatureHelp, () -> null);
 
     dtoToDto("rename", RenameParams.class, RenameResultDto.class, this::rename);
 
@@ -164,9 +183,31 @@ public class TextDocumentService {
     dtoToNothing("didSave", DidSaveTextDocumentParams.class, this::didSave);
   }
 
-  private List<CommandDto> codeAction(CodeActionParams params) {
+  @PreDestroy
+  void shutdown() {
+    didChangeCoalescer.shutdown();
+  }
+
+  /**
+   * Forwards pending changes of the document with the given uri to language servers, must be
+   * called before sending them requests which depend on the document state.
+   */
+  void flushPendingChanges(String uri) {
+    didChangeCoalescer.flush(uri);
+  }
+
+  /**
+   * Forwards pending changes of all the documents to language servers, must be called before
+   * sending them workspace-level requests which depend on the state of the open documents.
+   */
+  void flushPendingChanges() {
+    didChangeCoalescer.flushAll();
+  }
+
+  private CompletableFuture<List<CommandDto>> codeAction(CodeActionParams params) {
     TextDocumentIdentifier textDocument = params.getTextDocument();
     String uri = prefixURI(textDocument.getUri());
+    didChangeCoalescer.flush(uri);
     textDocument.setUri(uri);
     List<CommandDto> result = new ArrayList<>();
     try {
@@ -192,24 +233,26 @@ public class TextDocumentService {
             @Override
             public boolean handleResult(
                 InitializedLanguageServer element, List<? extends Command> res) {
-              for (Command cmd : res) {
-                result.add(new CommandDto(cmd));
+              if (res != null) {
+                for (Command cmd : res) {
+                  result.add(new CommandDto(cmd));
+                }
               }
               return false;
             };
           };
-      OperationUtil.doInParallel(servers, op, 10000);
-      return result;
+      return withResult(inParallel(servers, op, 10000), () -> result);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private ExtendedCompletionListDto completion(
+  private CompletableFuture<ExtendedCompletionListDto> completion(
       TextDocumentPositionParams textDocumentPositionParams) {
     try {
       TextDocumentIdentifier textDocument = textDocumentPositionParams.getTextDocument();
       String uri = prefixURI(textDocument.getUri());
+      didChangeCoalescer.flush(uri);
       textDocument.setUri(uri);
       textDocumentPositionParams.setUri(prefixURI(textDocumentPositionParams.getUri()));
       ExtendedCompletionListDto[] result = new ExtendedCompletionListDto[1];
@@ -225,63 +268,59 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<ExtendedCompletionListDto> start(
                 Collection<InitializedLanguageServer> element) {
-              return CompletableFuture.supplyAsync(
-                  () -> {
-                    ExtendedCompletionListDto res = new ExtendedCompletionListDto();
-                    List<ExtendedCompletionItem> items = new ArrayList<>();
-                    res.setItems(items);
-                    LSOperation<
-                            InitializedLanguageServer, Either<List<CompletionItem>, CompletionList>>
-                        op2 =
-                            new LSOperation<
-                                InitializedLanguageServer,
-                                Either<List<CompletionItem>, CompletionList>>() {
-
-                              @Override
-                              public boolean canDo(InitializedLanguageServer element) {
-                                return element
-                                        .getInitializeResult()
-                                        .getCapabilities()
-                                        .getCompletionProvider()
-                                    != null;
-                              }
-
-                              @Override
-                              public CompletableFuture<Either<List<CompletionItem>, CompletionList>>
-                                  start(InitializedLanguageServer element) {
-                                return element
-                                    .getServer()
-                                    .getTextDocumentService()
-                                    .completion(textDocumentPositionParams);
-                              }
-
-                              @Override
-                              public boolean handleResult(
-                                  InitializedLanguageServer element,
-                                  Either<List<CompletionItem>, CompletionList> result) {
-                                List<CompletionItem> itemList;
-                                if (result.isRight()) {
-                                  res.setInComplete(
-                                      res.isInComplete() && result.getRight().isIncomplete());
-                                  itemList = result.getRight().getItems();
-                                } else {
-                                  itemList = result.getLeft();
-                                }
-
-                                for (CompletionItem item : itemList) {
-                                  ExtendedCompletionItemDto exItem =
-                                      new ExtendedCompletionItemDto();
-                                  exItem.setItem(new CompletionItemDto(item));
-                                  exItem.setLanguageServerId(element.getId());
-                                  items.add(exItem);
-                                }
-                                return false;
-                              }
-                            };
-                    OperationUtil.doInParallel(element, op2, 30000);
-
-                    return res;
-                  });
+              ExtendedCompletionListDto res = new ExtendedCompletionListDto();
+              List<ExtendedCompletionItem> items = new ArrayList<>();
+              res.setItems(items);
+              LSOperation<InitializedLanguageServer, Either<List<CompletionItem>, CompletionList>>
+                  op2 =
+                      new LSOperation<
+                          InitializedLanguageServer,
+                          Either<List<CompletionItem>, CompletionList>>() {
+
+                        @Override
+                        public boolean canDo(InitializedLanguageServer element) {
+                          return element
+                                  .getInitializeResult()
+                                  .getCapabilities()
+                                  .getCompletionProvider()
+                              != null;
+                        }
+
+                        @Override
+                        public CompletableFuture<Either<List<CompletionItem>, CompletionList>>
+                            start(InitializedLanguageServer element) {
+                          return element
+                              .getServer()
+                              .getTextDocumentService()
+                              .completion(textDocumentPositionParams);
+                        }
+
+                        @Override
+                        public boolean handleResult(
+                            InitializedLanguageServer element,
+                            Either<List<CompletionItem>, CompletionList> result) {
+                          if (result == null) {
+                            return false;
+                          }
+                          List<CompletionItem> itemList;
+                          if (result.isRight()) {
+                            res.setInComplete(
+                                res.isInComplete() && result.getRight().isIncomplete());
+                            itemList = result.getRight().getItems();
+                          } else {
+                            itemList = result.getLeft();
+                          }
+
+                          for (CompletionItem item : itemList) {
+                            ExtendedCompletionItemDto exItem = new ExtendedCompletionItemDto();
+                            exItem.setItem(new CompletionItemDto(item));
+                            exItem.setLanguageServerId(element.getId());
+                            items.add(exItem);
+                          }
+                          return false;
+                        }
+                      };
+              return withResult(inParallel(element, op2, 10000), () -> res);
             }
 
             @Override
@@ -291,16 +330,18 @@ public class TextDocumentService {
               return !list.getItems().isEmpty();
             }
           };
-      OperationUtil.doInSequence(
-          languageServerRegistry.getApplicableLanguageServers(uri), op, 10000);
-      return result[0];
+      return withResult(
+          inSequence(languageServerRegistry.getApplicableLanguageServers(uri), op, 30000),
+          () -> result[0]);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<SymbolInformationDto> documentSymbol(DocumentSymbolParams documentSymbolParams) {
+  private CompletableFuture<List<SymbolInformationDto>> documentSymbol(
+      DocumentSymbolParams documentSymbolParams) {
     String uri = prefixURI(documentSymbolParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     documentSymbolParams.getTextDocument().setUri(uri);
     List<SymbolInformationDto> result = new ArrayList<>();
     try {
@@ -310,46 +351,50 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getDocumentSymbolProvider());
-            }
-
-            @Override
-            public CompletableFuture<List<? extends SymbolInformation>> start(
-                InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .documentSymbol(documentSymbolParams);
-            }
+      return withResult(
+          inParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getDocumentSymbolProvider());
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends SymbolInformation> locations) {
-              locations.forEach(
-                  o -> {
-                    o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
-                    result.add(new SymbolInformationDto(o));
-                  });
-              return true;
-            }
-          },
-          10000);
-      return result;
+                @Override
+                public CompletableFuture<List<? extends SymbolInformation>> start(
+                    InitializedLanguageServer element) {
+                  return element
+                      .getServer()
+                      .getTextDocumentService()
+                      .documentSymbol(documentSymbolParams);
+                }
 
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element,
+                    List<? extends SymbolInformation> locations) {
+                  if (locations != null) {
+                    locations.forEach(
+                        o -> {
+                          o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
+                          result.add(new SymbolInformationDto(o));
+                        });
+                  }
+                  return true;
+                }
+              },
+              10000),
+          () -> result);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<LocationDto> references(ReferenceParams referenceParams) {
+  private CompletableFuture<List<LocationDto>> references(ReferenceParams referenceParams) {
     String uri = prefixURI(referenceParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     referenceParams.getTextDocument().setUri(uri);
     List<LocationDto> result = new ArrayList<>();
     try {
@@ -359,42 +404,47 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getReferencesProvider());
-            }
+      return withResult(
+          inParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getReferencesProvider());
+                }
 
-            @Override
-            public CompletableFuture<List<? extends Location>> start(
-                InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().references(referenceParams);
-            }
+                @Override
+                public CompletableFuture<List<? extends Location>> start(
+                    InitializedLanguageServer element) {
+                  return element.getServer().getTextDocumentService().references(referenceParams);
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends Location> locations) {
-              locations.forEach(
-                  o -> {
-                    o.setUri(removePrefixUri(o.getUri()));
-                    result.add(new LocationDto(o));
-                  });
-              return true;
-            }
-          },
-          30000);
-      return result;
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element, List<? extends Location> locations) {
+                  if (locations != null) {
+                    locations.forEach(
+                        o -> {
+                          o.setUri(removePrefixUri(o.getUri()));
+                          result.add(new LocationDto(o));
+                        });
+                  }
+                  return true;
+                }
+              },
+              30000),
+          () -> result);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<LocationDto> definition(TextDocumentPositionParams textDocumentPositionParams) {
+  private CompletableFuture<List<LocationDto>> definition(
+      TextDocumentPositionParams textDocumentPositionParams) {
     String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     textDocumentPositionParams.getTextDocument().setUri(uri);
     try {
       List<InitializedLanguageServer> servers =
@@ -404,67 +454,72 @@ public class TextDocumentService {
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
       List<LocationDto> result = new ArrayList<>();
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getDefinitionProvider());
-            }
+      return withResult(
+          inParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getDefinitionProvider());
+                }
 
-            @Override
-            public CompletableFuture<List<? extends Location>> start(
-                InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .definition(textDocumentPositionParams);
-            }
+                @Override
+                public CompletableFuture<List<? extends Location>> start(
+                    InitializedLanguageServer element) {
+                  return element
+                      .getServer()
+                      .getTextDocumentService()
+                      .definition(textDocumentPositionParams);
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends Location> locations) {
-              locations.forEach(
-                  o -> {
-                    o.setUri(removePrefixUri(o.getUri()));
-                    result.add(new LocationDto(o));
-                  });
-              return true;
-            }
-          },
-          30000);
-      return result;
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element, List<? extends Location> locations) {
+                  if (locations != null) {
+                    locations.forEach(
+                        o -> {
+                          o.setUri(removePrefixUri(o.getUri()));
+                          result.add(new LocationDto(o));
+                        });
+                  }
+                  return true;
+                }
+              },
+              30000),
+          () -> result);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private ExtendedCompletionItemDto completionItemResolve(ExtendedCompletionItem unresolved) {
-    try {
-      InitializedLanguageServer server =
-          languageServerRegistry.getServer(unresolved.getLanguageServerId());
-
-      if (server != null) {
-        ExtendedCompletionItem res = new ExtendedCompletionItem();
-        res.setItem(
-            server
-                .getServer()
-                .getTextDocumentService()
-                .resolveCompletionItem(unresolved.getItem())
-                .get());
-        res.setLanguageServerId(unresolved.getLanguageServerId());
-        return new ExtendedCompletionItemDto(res);
-      }
-      return new ExtendedCompletionItemDto(unresolved);
-    } catch (InterruptedException | ExecutionException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+  private CompletableFuture<ExtendedCompletionItemDto> completionItemResolve(
+      ExtendedCompletionItem unresolved) {
+    InitializedLanguageServer server =
+        languageServerRegistry.getServer(unresolved.getLanguageServerId());
+
+    if (server != null) {
+      return withTimeout(
+              server
+                  .getServer()
+                  .getTextDocumentService()
+                  .resolveCompletionItem(unresolved.getItem()),
+              5000)
+          .thenApply(
+              item -> {
+                ExtendedCompletionItem res = new ExtendedCompletionItem();
+                res.setItem(item);
+                res.setLanguageServerId(unresolved.getLanguageServerId());
+                return new ExtendedCompletionItemDto(res);
+              });
     }
+    return CompletableFuture.completedFuture(new ExtendedCompletionItemDto(unresolved));
   }
 
-  private HoverDto hover(TextDocumentPositionParams positionParams) {
+  private CompletableFuture<HoverDto> hover(TextDocumentPositionParams positionParams) {
     String uri = prefixURI(positionParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     positionParams.getTextDocument().setUri(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
     HoverDto result = new HoverDto();
@@ -477,38 +532,41 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, Hover>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(element.getInitializeResult().getCapabilities().getHoverProvider());
-            }
+      return withResult(
+          inParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, Hover>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(element.getInitializeResult().getCapabilities().getHoverProvider());
+                }
 
-            @Override
-            public CompletableFuture<Hover> start(InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().hover(positionParams);
-            }
+                @Override
+                public CompletableFuture<Hover> start(InitializedLanguageServer element) {
+                  return element.getServer().getTextDocumentService().hover(positionParams);
+                }
 
-            @Override
-            public boolean handleResult(InitializedLanguageServer element, Hover hover) {
-              if (hover != null) {
-                HoverDto hoverDto = new HoverDto(hover);
-                result.getContents().addAll(hoverDto.getContents());
-              }
-              return true;
-            }
-          },
-          10000);
-      return result;
+                @Override
+                public boolean handleResult(InitializedLanguageServer element, Hover hover) {
+                  if (hover != null) {
+                    HoverDto hoverDto = new HoverDto(hover);
+                    result.getContents().addAll(hoverDto.getContents());
+                  }
+                  return true;
+                }
+              },
+              10000),
+          () -> result);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private SignatureHelpDto signatureHelp(TextDocumentPositionParams positionParams) {
+  private CompletableFuture<SignatureHelpDto> signatureHelp(
+      TextDocumentPositionParams positionParams) {
     String uri = prefixURI(positionParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     positionParams.getTextDocument().setUri(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
     SignatureHelpDto[] result = new SignatureHelpDto[1];
@@ -542,18 +600,19 @@ public class TextDocumentService {
               return false;
             }
           };
-      OperationUtil.doInSequence(servers, op, 10000);
-      return result[0];
+      return withResult(inSequence(servers, op, 10000), () -> result[0]);
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<TextEditDto> formatting(DocumentFormattingParams documentFormattingParams) {
+  private CompletableFuture<List<TextEditDto>> formatting(
+      DocumentFormattingParams documentFormattingParams) {
     try {
       String uri = prefixURI(documentFormattingParams.getTextDocument().getUri());
+      didChangeCoalescer.flush(uri);
       documentFormattingParams.getTextDocument().setUri(uri);
-      InitializedLanguageServer server =
+      Optional<InitializedLanguageServer> server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
               .stream()
@@ -564,33 +623,29 @@ public class TextDocumentService {
                           s.getInitializeResult()
                               .getCapabilities()
                               .getDocumentFormattingProvider()))
-              .findFirst()
-              .get();
-      return server == null
-          ? Collections.emptyList()
-          : server
-              .getServer()
-              .getTextDocumentService()
-              .formatting(documentFormattingParams)
-              .get(5000, TimeUnit.MILLISECONDS)
-              .stream()
-              .map(TextEditDto::new)
-              .collect(Collectors.toList());
-
-    } catch (InterruptedException
-        | ExecutionException
-        | LanguageServerException
-        | TimeoutException e) {
+              .findFirst();
+      return server.isPresent()
+          ? toTextEditDtos(
+              withTimeout(
+                  server
+                      .get()
+                      .getServer()
+                      .getTextDocumentService()
+                      .formatting(documentFormattingParams),
+                  5000))
+          : CompletableFuture.completedFuture(Collections.emptyList());
+    } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<TextEditDto> rangeFormatting(
+  private CompletableFuture<List<TextEditDto>> rangeFormatting(
       DocumentRangeFormattingParams documentRangeFormattingParams) {
     try {
       String uri = prefixURI(documentRangeFormattingParams.getTextDocument().getUri());
+      didChangeCoalescer.flush(uri);
       documentRangeFormattingParams.getTextDocument().setUri(uri);
-      InitializedLanguageServer server =
+      Optional<InitializedLanguageServer> server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
               .stream()
@@ -601,29 +656,29 @@ public class TextDocumentService {
                           s.getInitializeResult()
                               .getCapabilities()
                               .getDocumentRangeFormattingProvider()))
-              .findFirst()
-              .get();
-      return server == null
-          ? Collections.emptyList()
-          : server
-              .getServer()
-              .getTextDocumentService()
-              .rangeFormatting(documentRangeFormattingParams)
-              .get()
-              .stream()
-              .map(TextEditDto::new)
-              .collect(Collectors.toList());
-    } catch (InterruptedException | ExecutionException | LanguageServerException e) {
+              .findFirst();
+      return server.isPresent()
+          ? toTextEditDtos(
+              withTimeout(
+                  server
+                      .get()
+                      .getServer()
+                      .getTextDocumentService()
+                      .rangeFormatting(documentRangeFormattingParams),
+                  5000))
+          : CompletableFuture.completedFuture(Collections.emptyList());
+    } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private List<TextEditDto> onTypeFormatting(
+  private CompletableFuture<List<TextEditDto>> onTypeFormatting(
       DocumentOnTypeFormattingParams documentOnTypeFormattingParams) {
     try {
       String uri = prefixURI(documentOnTypeFormattingParams.getTextDocument().getUri());
+      didChangeCoalescer.flush(uri);
       documentOnTypeFormattingParams.getTextDocument().setUri(uri);
-      InitializedLanguageServer server =
+      Optional<InitializedLanguageServer> server =
           languageServerRegistry
               .getApplicableLanguageServers(uri)
               .stream()
@@ -634,30 +689,39 @@ public class TextDocumentService {
                               .getCapabilities()
                               .getDocumentOnTypeFormattingProvider()
                           != null)
-              .findFirst()
-              .get();
-      return server == null
-          ? Collections.emptyList()
-          : server
-              .getServer()
-              .getTextDocumentService()
-              .onTypeFormatting(documentOnTypeFormattingParams)
-              .get()
-              .stream()
-              .map(TextEditDto::new)
-              .collect(Collectors.toList());
-    } catch (InterruptedException | ExecutionException | LanguageServerException e) {
+              .findFirst();
+      return server.isPresent()
+          ? toTextEditDtos(
+              withTimeout(
+                  server
+                      .get()
+                      .getServer()
+                      .getTextDocumentService()
+                      .onTypeFormatting(documentOnTypeFormattingParams),
+                  5000))
+          : CompletableFuture.completedFuture(Collections.emptyList());
+    } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
+  private CompletableFuture<List<TextEditDto>> toTextEditDtos(
+      CompletableFuture<List<? extends TextEdit>> edits) {
+    return edits.thenApply(
+        result -> result.stream().map(TextEditDto::new).collect(Collectors.toList()));
+  }
+
   private void didChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
+    String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
+    didChangeTextDocumentParams.getTextDocument().setUri(uri);
+    didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
+    didChangeCoalescer.add(uri, didChangeTextDocumentParams);
+  }
+
+  private void forwardDidChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
     try {
-      String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
-      didChangeTextDocumentParams.getTextDocument().setUri(uri);
-      didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
       languageServerRegistry
-          .getApplicableLanguageServers(uri)
+          .getApplicableLanguageServers(didChangeTextDocumentParams.getTextDocument().getUri())
           .stream()
           .flatMap(Collection::stream)
           .map(InitializedLanguageServer::getServer)
@@ -691,6 +755,7 @@ public class TextDocumentService {
   private void didClose(DidCloseTextDocumentParams didCloseTextDocumentParams) {
     try {
       String uri = prefixURI(didCloseTextDocumentParams.getTextDocument().getUri());
+      didChangeCoalescer.close(uri);
       didCloseTextDocumentParams.getTextDocument().setUri(uri);
       languageServerRegistry
           .getApplicableLanguageServers(uri)
@@ -709,6 +774,7 @@ public class TextDocumentService {
   private void didSave(DidSaveTextDocumentParams didSaveTextDocumentParams) {
     try {
       String uri = prefixURI(didSaveTextDocumentParams.getTextDocument().getUri());
+      didChangeCoalescer.flush(uri);
       didSaveTextDocumentParams.getTextDocument().setUri(uri);
       languageServerRegistry
           .getApplicableLanguageServers(uri)
@@ -724,13 +790,14 @@ public class TextDocumentService {
     }
   }
 
-  private DocumentHighlightDto documentHighlight(
+  private CompletableFuture<DocumentHighlight> documentHighlight(
       TextDocumentPositionParams textDocumentPositionParams) {
     try {
       String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
+      didChangeCoalescer.flush(uri);
       textDocumentPositionParams.getTextDocument().setUri(uri);
       @SuppressWarnings("unchecked")
-      List<DocumentHighlightDto>[] result = new List[1];
+      List<DocumentHighlightDto>[] result = new List[] {Collections.emptyList()};
       LSOperation<Collection<InitializedLanguageServer>, List<DocumentHighlightDto>> op =
           new LSOperation<Collection<InitializedLanguageServer>, List<DocumentHighlightDto>>() {
 
@@ -742,43 +809,39 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<List<DocumentHighlightDto>> start(
                 Collection<InitializedLanguageServer> element) {
-              return CompletableFuture.supplyAsync(
-                  () -> {
-                    List<DocumentHighlightDto> res = new ArrayList<>();
-                    LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>> op2 =
-                        new LSOperation<
-                            InitializedLanguageServer, List<? extends DocumentHighlight>>() {
-
-                          @Override
-                          public boolean canDo(InitializedLanguageServer element) {
-                            return truish(
-                                element
-                                    .getInitializeResult()
-                                    .getCapabilities()
-                                    .getDocumentHighlightProvider());
-                          }
-
-                          @Override
-                          public CompletableFuture<List<? extends DocumentHighlight>> start(
-                              InitializedLanguageServer element) {
-                            return element
-                                .getServer()
-                                .getTextDocumentService()
-                                .documentHighlight(textDocumentPositionParams);
-                          }
-
-                          @Override
-                          public boolean handleResult(
-                              InitializedLanguageServer element,
-                              List<? extends DocumentHighlight> result) {
-
-                            return false;
-                          }
-                        };
-                    OperationUtil.doInParallel(element, op2, 10000);
-
-                    return res;
-                  });
+              List<DocumentHighlightDto> res = new ArrayList<>();
+              LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>> op2 =
+                  new LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>>() {
+
+                    @Override
+                    public boolean canDo(InitializedLanguageServer element) {
+                      return truish(
+                          element
+                              .getInitializeResult()
+                              .getCapabilities()
+                              .getDocumentHighlightProvider());
+                    }
+
+                    @Override
+                    public CompletableFuture<List<? extends DocumentHighlight>> start(
+                        InitializedLanguageServer element) {
+                      return element
+                          .getServer()
+                          .getTextDocumentService()
+                          .documentHighlight(textDocumentPositionParams);
+                    }
+
+                    @Override
+                    public boolean handleResult(
+                        InitializedLanguageServer element,
+                        List<? extends DocumentHighlight> result) {
+                      if (result != null) {
+                        result.forEach(highlight -> res.add(new DocumentHighlightDto(highlight)));
+                      }
+                      return false;
+                    }
+                  };
+              return withResult(inParallel(element, op2, 10000), () -> res);
             }
 
             @Override
@@ -788,20 +851,17 @@ public class TextDocumentService {
               return !list.isEmpty();
             }
           };
-      OperationUtil.doInSequence(
-          languageServerRegistry.getApplicableLanguageServers(uri), op, 10000);
-
-      if (!result[0].isEmpty()) {
-        return result[0].get(0);
-      }
-      return null;
+      return withResult(
+          inSequence(languageServerRegistry.getApplicableLanguageServers(uri), op, 30000),
+          () -> result[0].isEmpty() ? null : result[0].get(0));
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
   }
 
-  private RenameResultDto rename(RenameParams renameParams) {
+  private CompletableFuture<RenameResultDto> rename(RenameParams renameParams) {
     String uri = prefixURI(renameParams.getTextDocument().getUri());
+    didChangeCoalescer.flush(uri);
     renameParams.getTextDocument().setUri(uri);
     Map<String, ExtendedWorkspaceEdit> edits = new ConcurrentHashMap<>();
     try {
@@ -832,11 +892,12 @@ public class TextDocumentService {
               return true;
             }
           };
-      OperationUtil.doInParallel(servers, op, TimeUnit.SECONDS.toMillis(30));
+      return withResult(
+          inParallel(servers, op, TimeUnit.SECONDS.toMillis(30)),
+          () -> new RenameResultDto(new RenameResult(edits)));
     } catch (LanguageServerException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
-    return new RenameResultDto(new RenameResult(edits));
   }
 
   private void addRenameResult(
@@ -919,23 +980,76 @@ public class TextDocumentService {
   }
 
   private <P, R> void dtoToDtoList(
-      String name, Class<P> pClass, Class<R> rClass, Function<P, List<R>> function) {
+      String name,
+      Class<P> pClass,
+      Class<R> rClass,
+      Function<P, CompletableFuture<List<R>>> function) {
     requestHandler
         .newConfiguration()
         .methodName("textDocument/" + name)
         .paramsAsDto(pClass)
-        .resultAsListOfDto(rClass)
-        .withFunction(function);
+        .resultAsPromiseListOfDto(rClass)
+        .withPromiseBiFunction(
+            (endpointId, params) -> toPromise(endpointId, function.apply(params), null));
   }
 
   private <P, R> void dtoToDto(
-      String name, Class<P> pClass, Class<R> rClass, Function<P, R> function) {
+      String name, Class<P> pClass, Class<R> rClass, Function<P, CompletableFuture<R>> function) {
     requestHandler
         .newConfiguration()
         .methodName("textDocument/" + name)
         .paramsAsDto(pClass)
-        .resultAsDto(rClass)
-        .withFunction(function);
+        .resultAsPromiseDto(rClass)
+        .withPromiseBiFunction(
+            (endpointId, params) -> toPromise(endpointId, function.apply(params), null));
+  }
+
+  /**
+   * Configures request method which result depends on the position in a document. As the result is
+   * outdated as soon as the next request for the same document comes from the same endpoint, the
+   * previous request is cancelled then and is responded with the outdated result.
+   */
+  private <R> void positionToDto(
+      String name,
+      Class<R> rClass,
+      Function<TextDocumentPositionParams, CompletableFuture<R>> function,
+      Supplier<R> outdatedResult) {
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/" + name)
+        .paramsAsDto(TextDocumentPositionParams.class)
+        .resultAsPromiseDto(rClass)
+        .withPromiseBiFunction(
+            (endpointId, params) -> {
+              String key = name + '@' + endpointId + '@' + params.getTextDocument().getUri();
+              CompletableFuture<R> future = function.apply(params);
+              CompletableFuture<?> previous = pendingRequests.put(key, future);
+              if (previous != null) {
+                previous.cancel(true);
+              }
+              future.whenComplete((result, error) -> pendingRequests.remove(key, future));
+              return toPromise(endpointId, future, outdatedResult);
+            });
+  }
+
+  private <R> JsonRpcPromise<R> toPromise(
+      String endpointId, CompletableFuture<R> future, Supplier<R> cancelledResult) {
+    JsonRpcPromise<R> promise = new JsonRpcPromise<>();
+    future.whenComplete(
+        (result, error) -> {
+          if (error == null) {
+            promise.resolve(endpointId, result);
+          } else if (future.isCancelled() && cancelledResult != null) {
+            promise.resolve(endpointId, cancelledResult.get());
+          } else {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            promise.reject(
+                endpointId,
+                new JsonRpcError(
+                    -27000, cause.getMessage() == null ? cause.toString() : cause.getMessage()));
+          }
+        });
+    return promise;
   }
 
   private boolean truish(Boolean b) {
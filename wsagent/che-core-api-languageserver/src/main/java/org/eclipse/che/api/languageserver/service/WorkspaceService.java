@@ -60,6 +60,7 @@ public class WorkspaceService {
 
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceService.class);
   private final FsManager fsManager;
+  private final TextDocumentService textDocumentService;
   private LanguageServerRegistry registry;
   private RequestHandlerConfigurator requestHandler;
 
@@ -67,10 +68,12 @@ public class WorkspaceService {
   public WorkspaceService(
       LanguageServerRegistry registry,
       RequestHandlerConfigurator requestHandler,
-      FsManager fsManager) {
+      FsManager fsManager,
+      TextDocumentService textDocumentService) {
     this.registry = registry;
     this.requestHandler = requestHandler;
     this.fsManager = fsManager;
+    this.textDocumentService = textDocumentService;
   }
 
   @PostConstruct
@@ -100,6 +103,7 @@ public class WorkspaceService {
     try {
       String path = LanguageServiceUtils.removePrefixUri(params.getUri());
       String wsPath = absolutize(path);
+      textDocumentService.flushPendingChanges(prefixURI(path));
 
       if (fsManager.existsAsFile(wsPath)) {
         List<TextEdit> undo = new ArrayList<>();
@@ -134,6 +138,7 @@ public class WorkspaceService {
   private List<SymbolInformationDto> symbol(ExtendedWorkspaceSymbolParams workspaceSymbolParams) {
     List<SymbolInformationDto> result = new ArrayList<>();
     List<InitializedLanguageServer> servers;
+    textDocumentService.flushPendingChanges();
     try {
       servers =
           registry
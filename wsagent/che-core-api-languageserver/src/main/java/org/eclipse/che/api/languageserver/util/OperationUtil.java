@@ -10,19 +10,41 @@
  */
 package org.eclipse.che.api.languageserver.util;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class OperationUtil {
   private static final Logger LOG = LoggerFactory.getLogger(OperationUtil.class);
 
+  /** Cancels the operations which don't complete in time, doesn't block any of the callers. */
+  private static final ScheduledThreadPoolExecutor TIMEOUTS =
+      new ScheduledThreadPoolExecutor(
+          1,
+          new ThreadFactoryBuilder()
+              .setNameFormat("LanguageServerOperationTimeouts")
+              .setDaemon(true)
+              .build());
+
+  static {
+    TIMEOUTS.setRemoveOnCancelPolicy(true);
+  }
+
   /**
    * Execute the given operation on each element of the collection in sequence. Stops as soon as
    * {@link LSOperation#canDo(Object)} returns true.
@@ -38,7 +60,8 @@ public class OperationUtil {
       if (op.canDo(element)) {
         CompletableFuture<R> future = op.start(element);
         try {
-          R result = future.get(Math.max(endTime - timeoutMillis, 1), TimeUnit.MILLISECONDS);
+          long remaining = Math.max(endTime - System.currentTimeMillis(), 1);
+          R result = future.get(remaining, TimeUnit.MILLISECONDS);
           if (op.handleResult(element, result)) {
             return;
           }
@@ -116,4 +139,154 @@ public class OperationUtil {
       lock.notifyAll();
     }
   }
+
+  /**
+   * Asynchronous version of {@link #doInSequence(Collection, LSOperation, long)}, the operation is
+   * started on the next element when the previous one completes, so none of the threads is blocked
+   * while waiting for the results.
+   *
+   * @return future which completes when one of the results is valid, all the operations complete
+   *     or the timeout elapses; cancelling it cancels the running operation
+   */
+  public static <C, R> CompletableFuture<Void> inSequence(
+      Collection<C> collection, LSOperation<C, R> op, long timeoutMillis) {
+    CompletableFuture<Void> completion = new CompletableFuture<>();
+    startNext(collection.iterator(), op, System.currentTimeMillis() + timeoutMillis, completion);
+    return completion;
+  }
+
+  /**
+   * Asynchronous version of {@link #doInParallel(Collection, LSOperation, long)}. Results are
+   * handled one at a time as soon as they arrive, failures in any of the operations are ignored and
+   * the operations which don't complete in time are cancelled.
+   *
+   * @return future which completes when all the operations complete or the timeout elapses;
+   *     cancelling it cancels all the pending operations, no results are handled after that
+   */
+  public static <C, R> CompletableFuture<Void> inParallel(
+      Collection<C> collection, LSOperation<C, R> op, long timeoutMillis) {
+    CompletableFuture<Void> completion = new CompletableFuture<>();
+    List<CompletableFuture<R>> started = new ArrayList<>();
+    List<CompletableFuture<Void>> handled = new ArrayList<>();
+    for (C element : collection) {
+      if (op.canDo(element)) {
+        CompletableFuture<R> future = op.start(element);
+        started.add(future);
+        handled.add(
+            future.handle(
+                (result, error) -> {
+                  synchronized (completion) {
+                    if (error == null && !completion.isDone()) {
+                      handleResult(op, element, result);
+                    }
+                  }
+                  logFailure(future, error);
+                  return null;
+                }));
+      }
+    }
+    ScheduledFuture<?> timeout =
+        TIMEOUTS.schedule(() -> cancelAll(started), timeoutMillis, MILLISECONDS);
+    completion.whenComplete(
+        (result, error) -> {
+          timeout.cancel(false);
+          cancelAll(started);
+        });
+    CompletableFuture.allOf(handled.toArray(new CompletableFuture[handled.size()]))
+        .thenRun(
+            () -> {
+              synchronized (completion) {
+                completion.complete(null);
+              }
+            });
+    return completion;
+  }
+
+  /**
+   * Returns future which completes with the supplied result as soon as the given operation
+   * completes. Unlike dependent stages, cancelling the returned future cancels the operation too.
+   */
+  public static <T> CompletableFuture<T> withResult(
+      CompletableFuture<?> operation, Supplier<T> result) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    operation.whenComplete(
+        (ignored, error) -> {
+          if (error == null) {
+            future.complete(result.get());
+          } else {
+            future.completeExceptionally(error);
+          }
+        });
+    future.whenComplete((ignored, error) -> operation.cancel(true));
+    return future;
+  }
+
+  /** Cancels the given future unless it completes in the given time. */
+  public static <T> CompletableFuture<T> withTimeout(
+      CompletableFuture<T> future, long timeoutMillis) {
+    ScheduledFuture<?> timeout =
+        TIMEOUTS.schedule(() -> future.cancel(true), timeoutMillis, MILLISECONDS);
+    future.whenComplete((result, error) -> timeout.cancel(false));
+    return future;
+  }
+
+  private static <C, R> void startNext(
+      Iterator<C> elements,
+      LSOperation<C, R> op,
+      long endTime,
+      CompletableFuture<Void> completion) {
+    while (elements.hasNext() && !completion.isDone()) {
+      C element = elements.next();
+      long remaining = endTime - System.currentTimeMillis();
+      if (remaining <= 0) {
+        break;
+      }
+      if (op.canDo(element)) {
+        CompletableFuture<R> future = withTimeout(op.start(element), remaining);
+        completion.whenComplete((ignored, error) -> future.cancel(true));
+        future.whenComplete(
+            (result, error) -> {
+              if (completion.isDone()) {
+                return;
+              }
+              if (error == null && handleResult(op, element, result)) {
+                completion.complete(null);
+              } else {
+                logFailure(future, error);
+                startNext(elements, op, endTime, completion);
+              }
+            });
+        return;
+      }
+    }
+    completion.complete(null);
+  }
+
+  /**
+   * Handles the result of the operation, the exceptions thrown by the handler are logged and
+   * treated as an invalid result, so they neither break nor stall the rest of the operations.
+   */
+  private static <C, R> boolean handleResult(LSOperation<C, R> op, C element, R result) {
+    try {
+      return op.handleResult(element, result);
+    } catch (RuntimeException e) {
+      LOG.error("Exception occurred while handling result of op", e);
+      return false;
+    }
+  }
+
+  private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+    for (CompletableFuture<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private static void logFailure(CompletableFuture<?> future, Throwable error) {
+    if (error != null && !future.isCancelled()) {
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      if (!(cause instanceof CancellationException)) {
+        LOG.info("Exception occurred in op", cause);
+      }
+    }
+  }
 }
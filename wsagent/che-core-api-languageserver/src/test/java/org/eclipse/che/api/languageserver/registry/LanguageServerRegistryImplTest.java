@@ -19,9 +19,12 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import javax.inject.Provider;
 import org.eclipse.che.api.core.model.workspace.Workspace;
@@ -141,4 +144,16 @@ public class LanguageServerRegistryImplTest {
     Mockito.verify(initializer)
         .initialize(eq(languageServerLauncher), any(LanguageClient.class), eq(PROJECT_PATH));
   }
+
+  @Test
+  public void shouldReuseApplicableServersComputedForLanguage() throws Exception {
+    registry.initialize(PREFIX + FILE_PATH);
+
+    List<Collection<InitializedLanguageServer>> servers =
+        registry.getApplicableLanguageServers(PREFIX + FILE_PATH);
+
+    assertEquals(servers.size(), 1);
+    assertEquals(servers.get(0).iterator().next().getServer(), languageServer);
+    assertSame(registry.getApplicableLanguageServers(PREFIX + "/projects/1/other.txt"), servers);
+  }
 }
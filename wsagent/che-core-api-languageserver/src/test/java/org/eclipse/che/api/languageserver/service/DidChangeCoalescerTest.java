@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link DidChangeCoalescer} */
+public class DidChangeCoalescerTest {
+
+  private static final String URI = "file:///projects/project/file.ts";
+
+  private final List<DidChangeTextDocumentParams> forwarded = new CopyOnWriteArrayList<>();
+
+  private DidChangeCoalescer coalescer;
+
+  @AfterMethod
+  public void tearDown() {
+    coalescer.shutdown();
+    forwarded.clear();
+  }
+
+  @Test
+  public void shouldMergeChangesUntilFlushed() {
+    coalescer = new DidChangeCoalescer(SECONDS.toMillis(10), forwarded::add);
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+    coalescer.add(URI, params(2, insert(1, "b")));
+    assertTrue(forwarded.isEmpty());
+    coalescer.flush(URI);
+
+    assertEquals(forwarded.size(), 1);
+    assertEquals((int) forwarded.get(0).getTextDocument().getVersion(), 2);
+    assertEquals(forwarded.get(0).getContentChanges(), asList(insert(0, "a"), insert(1, "b")));
+    assertEquals(coalescer.getCoalescingRatio(), 2.0);
+  }
+
+  @Test
+  public void shouldReplacePendingChangesWithFullContentChange() {
+    coalescer = new DidChangeCoalescer(SECONDS.toMillis(10), forwarded::add);
+    TextDocumentContentChangeEvent fullContent = new TextDocumentContentChangeEvent("ab");
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+    coalescer.add(URI, params(2, fullContent));
+    coalescer.close(URI);
+
+    assertEquals(forwarded.size(), 1);
+    assertEquals(forwarded.get(0).getContentChanges(), singletonList(fullContent));
+  }
+
+  @Test
+  public void shouldForwardChangesOfClosedDocumentImmediately() {
+    coalescer = new DidChangeCoalescer(SECONDS.toMillis(10), forwarded::add);
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+    coalescer.close(URI);
+    coalescer.add(URI, params(2, insert(1, "b")));
+
+    assertEquals(forwarded.size(), 2);
+    assertEquals(forwarded.get(1).getContentChanges(), singletonList(insert(1, "b")));
+  }
+
+  @Test
+  public void shouldNotLeaveChangesPendingWhenDocumentIsClosedConcurrently() throws Exception {
+    coalescer = new DidChangeCoalescer(SECONDS.toMillis(10), forwarded::add);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 1000; i++) {
+        String uri = URI + i;
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?> add =
+            executor.submit(
+                () -> {
+                  start.await();
+                  coalescer.add(uri, params(1, insert(0, "a")));
+                  return null;
+                });
+        Future<?> close =
+            executor.submit(
+                () -> {
+                  start.await();
+                  coalescer.close(uri);
+                  return null;
+                });
+        start.countDown();
+        add.get(10, SECONDS);
+        close.get(10, SECONDS);
+        coalescer.close(uri);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(forwarded.size(), 1000);
+  }
+
+  @Test
+  public void shouldFlushChangesOfAllDocuments() {
+    coalescer = new DidChangeCoalescer(SECONDS.toMillis(10), forwarded::add);
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+    coalescer.add(URI + ".bak", params(1, insert(0, "b")));
+    coalescer.flushAll();
+
+    assertEquals(forwarded.size(), 2);
+  }
+
+  @Test
+  public void shouldForwardChangesWhenDelayElapses() throws Exception {
+    CountDownLatch forwardedLatch = new CountDownLatch(1);
+    coalescer =
+        new DidChangeCoalescer(
+            50,
+            params -> {
+              forwarded.add(params);
+              forwardedLatch.countDown();
+            });
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+
+    assertTrue(forwardedLatch.await(10, SECONDS));
+    assertEquals(forwarded.size(), 1);
+  }
+
+  @Test
+  public void shouldForwardChangesImmediatelyWhenCoalescingIsDisabled() {
+    coalescer = new DidChangeCoalescer(0, forwarded::add);
+
+    coalescer.add(URI, params(1, insert(0, "a")));
+    coalescer.add(URI, params(2, insert(1, "b")));
+
+    assertEquals(forwarded.size(), 2);
+    assertEquals(coalescer.getCoalescingRatio(), 1.0);
+  }
+
+  private static DidChangeTextDocumentParams params(
+      int version, TextDocumentContentChangeEvent change) {
+    VersionedTextDocumentIdentifier document = new VersionedTextDocumentIdentifier();
+    document.setUri(URI);
+    document.setVersion(version);
+    return new DidChangeTextDocumentParams(document, singletonList(change));
+  }
+
+  private static TextDocumentContentChangeEvent insert(int offset, String text) {
+    Position position = new Position(0, offset);
+    return new TextDocumentContentChangeEvent(new Range(position, position), 0, text);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcPromise;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
+import org.eclipse.che.api.languageserver.registry.InitializedLanguageServer;
+import org.eclipse.che.api.languageserver.registry.LanguageServerRegistry;
+import org.eclipse.che.api.languageserver.server.dto.DtoServerImpls.ExtendedCompletionListDto;
+import org.eclipse.che.api.languageserver.server.dto.DtoServerImpls.HoverDto;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TextDocumentService} */
+@Listeners(MockitoTestNGListener.class)
+public class TextDocumentServiceTest {
+
+  private static final String FILE = "/project/file.ts";
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private RequestHandlerConfigurator requestHandler;
+
+  @Mock private LanguageServerRegistry registry;
+  @Mock private org.eclipse.lsp4j.services.TextDocumentService first;
+  @Mock private org.eclipse.lsp4j.services.TextDocumentService second;
+
+  private TextDocumentService service;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(registry.getApplicableLanguageServers(anyString()))
+        .thenReturn(singletonList(asList(server("first", first), server("second", second))));
+
+    service = new TextDocumentService(registry, requestHandler, 0);
+    service.configureMethods();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  public void shouldMergeCompletionItemsOfAllServers() throws Exception {
+    when(first.completion(any()))
+        .thenReturn(completedFuture(Either.forLeft(singletonList(new CompletionItem("a")))));
+    CompletionList list = new CompletionList(false, singletonList(new CompletionItem("b")));
+    when(second.completion(any())).thenReturn(completedFuture(Either.forRight(list)));
+
+    ExtendedCompletionListDto result =
+        result(handler("completion", ExtendedCompletionListDto.class).apply("endpoint", params()));
+
+    List<String> labels =
+        result.getItems().stream().map(item -> item.getItem().getLabel()).collect(toList());
+    assertEquals(labels, asList("a", "b"));
+  }
+
+  @Test
+  public void shouldAnswerSupersededCompletionWithOutdatedResult() throws Exception {
+    CompletableFuture<Either<List<CompletionItem>, CompletionList>> pending =
+        new CompletableFuture<>();
+    when(first.completion(any()))
+        .thenReturn(pending)
+        .thenReturn(completedFuture(Either.forLeft(singletonList(new CompletionItem("a")))));
+    when(second.completion(any())).thenReturn(completedFuture(Either.forLeft(emptyList())));
+    BiFunction<String, TextDocumentPositionParams, JsonRpcPromise<ExtendedCompletionListDto>>
+        completion = handler("completion", ExtendedCompletionListDto.class);
+
+    JsonRpcPromise<ExtendedCompletionListDto> superseded = completion.apply("endpoint", params());
+    JsonRpcPromise<ExtendedCompletionListDto> current = completion.apply("endpoint", params());
+
+    assertTrue(pending.isCancelled());
+    ExtendedCompletionListDto outdated = result(superseded);
+    assertTrue(outdated.getItems().isEmpty());
+    assertTrue(outdated.isInComplete());
+    assertEquals(result(current).getItems().size(), 1);
+  }
+
+  @Test
+  public void shouldAnswerSupersededHoverWithOutdatedResult() throws Exception {
+    CompletableFuture<Hover> pending = new CompletableFuture<>();
+    when(first.hover(any())).thenReturn(pending);
+    when(second.hover(any())).thenReturn(completedFuture(null));
+    BiFunction<String, TextDocumentPositionParams, JsonRpcPromise<HoverDto>> hover =
+        handler("hover", HoverDto.class);
+
+    JsonRpcPromise<HoverDto> superseded = hover.apply("endpoint", params());
+    hover.apply("endpoint", params());
+
+    assertTrue(pending.isCancelled());
+    assertTrue(result(superseded).getContents().isEmpty());
+  }
+
+  @Test
+  public void shouldNotCancelRequestsOfOtherEndpoints() throws Exception {
+    CompletableFuture<Hover> pending = new CompletableFuture<>();
+    when(first.hover(any())).thenReturn(pending);
+    when(second.hover(any())).thenReturn(completedFuture(null));
+    BiFunction<String, TextDocumentPositionParams, JsonRpcPromise<HoverDto>> hover =
+        handler("hover", HoverDto.class);
+
+    hover.apply("endpoint", params());
+    hover.apply("other-endpoint", params());
+
+    assertFalse(pending.isCancelled());
+  }
+
+  @SuppressWarnings("unchecked")
+  private <R> BiFunction<String, TextDocumentPositionParams, JsonRpcPromise<R>> handler(
+      String method, Class<R> rClass) {
+    ArgumentCaptor<BiFunction> function = ArgumentCaptor.forClass(BiFunction.class);
+    verify(
+            requestHandler
+                .newConfiguration()
+                .methodName("textDocument/" + method)
+                .paramsAsDto(TextDocumentPositionParams.class)
+                .resultAsPromiseDto(rClass))
+        .withPromiseBiFunction(function.capture());
+    return function.getValue();
+  }
+
+  private static <R> R result(JsonRpcPromise<R> promise) throws Exception {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    promise.onSuccess(value -> result.complete(value));
+    promise.onFailure(error -> result.completeExceptionally(new Exception(error.getMessage())));
+    return result.get(10, SECONDS);
+  }
+
+  private static TextDocumentPositionParams params() {
+    return new TextDocumentPositionParams(new TextDocumentIdentifier(FILE), new Position(0, 0));
+  }
+
+  private static InitializedLanguageServer server(
+      String id, org.eclipse.lsp4j.services.TextDocumentService textDocumentService) {
+    ServerCapabilities capabilities = new ServerCapabilities();
+    capabilities.setCompletionProvider(new CompletionOptions());
+    capabilities.setHoverProvider(true);
+    LanguageServer server = mock(LanguageServer.class);
+    when(server.getTextDocumentService()).thenReturn(textDocumentService);
+    InitializeResult initializeResult = new InitializeResult();
+    initializeResult.setCapabilities(capabilities);
+    return new InitializedLanguageServer(id, server, initializeResult, null);
+  }
+}
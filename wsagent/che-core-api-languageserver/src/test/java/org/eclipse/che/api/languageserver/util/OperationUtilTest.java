@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.util;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.inParallel;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.inSequence;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.withResult;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.withTimeout;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.Test;
+
+/** Tests for {@link OperationUtil} */
+public class OperationUtilTest {
+
+  @Test
+  public void shouldHandleResultsOfAllOperationsInParallel() throws Exception {
+    Operation op = new Operation(false);
+    CompletableFuture<String> second = op.respond("second", new CompletableFuture<>());
+    op.respond("first", completedFuture("1"));
+
+    CompletableFuture<Void> completion = inParallel(asList("first", "second"), op, 10_000);
+    second.complete("2");
+    completion.get(10, SECONDS);
+
+    assertEquals(op.results, asList("1", "2"));
+  }
+
+  @Test
+  public void shouldIgnoreFailedOperationsInParallel() throws Exception {
+    Operation op = new Operation(false);
+    CompletableFuture<String> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("failed"));
+    op.respond("first", failed);
+    op.respond("second", completedFuture("2"));
+
+    inParallel(asList("first", "second"), op, 10_000).get(10, SECONDS);
+
+    assertEquals(op.results, asList("2"));
+  }
+
+  @Test
+  public void shouldCancelParallelOperationsWhichDontCompleteInTime() throws Exception {
+    Operation op = new Operation(false);
+    CompletableFuture<String> pending = op.respond("first", new CompletableFuture<>());
+    op.respond("second", completedFuture("2"));
+
+    inParallel(asList("first", "second"), op, 100).get(10, SECONDS);
+
+    assertTrue(pending.isCancelled());
+    assertEquals(op.results, asList("2"));
+  }
+
+  @Test
+  public void shouldCompleteParallelOperationsWhenResultHandlingFails() throws Exception {
+    Operation op = new Operation(false);
+    op.respond("first", completedFuture("1"));
+    CompletableFuture<String> second = op.respond("second", new CompletableFuture<>());
+    op.failOn("first");
+
+    CompletableFuture<Void> completion = inParallel(asList("first", "second"), op, 10_000);
+    second.complete("2");
+    completion.get(10, SECONDS);
+
+    assertEquals(op.results, asList("2"));
+  }
+
+  @Test
+  public void shouldStopSequenceOnFirstValidResult() throws Exception {
+    Operation op = new Operation(true);
+    op.respond("first", completedFuture(null));
+    op.respond("second", completedFuture("2"));
+    op.respond("third", completedFuture("3"));
+
+    inSequence(asList("first", "second", "third"), op, 10_000).get(10, SECONDS);
+
+    assertEquals(op.results, asList("2"));
+    assertEquals(op.started, asList("first", "second"));
+  }
+
+  @Test
+  public void shouldContinueSequenceWhenResultHandlingFails() throws Exception {
+    Operation op = new Operation(true);
+    op.respond("first", completedFuture("1"));
+    op.respond("second", completedFuture("2"));
+    op.failOn("first");
+
+    inSequence(asList("first", "second"), op, 10_000).get(10, SECONDS);
+
+    assertEquals(op.results, asList("2"));
+    assertEquals(op.started, asList("first", "second"));
+  }
+
+  @Test
+  public void shouldCancelSequenceOperationWhichDoesntCompleteInTime() throws Exception {
+    Operation op = new Operation(true);
+    CompletableFuture<String> pending = op.respond("first", new CompletableFuture<>());
+
+    inSequence(asList("first"), op, 100).get(10, SECONDS);
+
+    assertTrue(pending.isCancelled());
+  }
+
+  @Test
+  public void shouldCancelOperationsWhenResultIsCancelled() {
+    Operation op = new Operation(false);
+    CompletableFuture<String> first = op.respond("first", new CompletableFuture<>());
+    CompletableFuture<String> second = op.respond("second", new CompletableFuture<>());
+
+    CompletableFuture<List<String>> result =
+        withResult(inParallel(asList("first", "second"), op, 10_000), () -> op.results);
+    result.cancel(true);
+    first.complete("1");
+
+    assertTrue(second.isCancelled());
+    assertTrue(op.results.isEmpty());
+  }
+
+  @Test
+  public void shouldCancelNestedOperationsWhenResultIsCancelled() {
+    Operation inner = new Operation(false);
+    CompletableFuture<String> pending = inner.respond("inner", new CompletableFuture<>());
+    LSOperation<String, Void> outer =
+        new LSOperation<String, Void>() {
+          @Override
+          public boolean canDo(String element) {
+            return true;
+          }
+
+          @Override
+          public CompletableFuture<Void> start(String element) {
+            return withResult(inParallel(asList("inner"), inner, 10_000), () -> null);
+          }
+
+          @Override
+          public boolean handleResult(String element, Void result) {
+            return true;
+          }
+        };
+
+    withResult(inSequence(asList("outer"), outer, 10_000), () -> null).cancel(true);
+
+    assertTrue(pending.isCancelled());
+  }
+
+  @Test
+  public void shouldCompleteResultWithSuppliedValue() throws Exception {
+    CompletableFuture<Void> operation = new CompletableFuture<>();
+
+    CompletableFuture<String> result = withResult(operation, () -> "result");
+    operation.complete(null);
+
+    assertEquals(result.get(10, SECONDS), "result");
+  }
+
+  @Test(expectedExceptions = CancellationException.class)
+  public void shouldCancelOperationWhichDoesntCompleteInTime() throws Exception {
+    withTimeout(new CompletableFuture<>(), 100).get(10, SECONDS);
+  }
+
+  /**
+   * Responds with the registered futures and collects non-null results, fails to handle results of
+   * the registered failing elements.
+   */
+  private static class Operation implements LSOperation<String, String> {
+    private final Map<String, CompletableFuture<String>> responses = new HashMap<>();
+    private final Set<String> failing = new HashSet<>();
+    private final List<String> started = new ArrayList<>();
+    private final List<String> results = new CopyOnWriteArrayList<>();
+    private final boolean stopOnResult;
+
+    private Operation(boolean stopOnResult) {
+      this.stopOnResult = stopOnResult;
+    }
+
+    private CompletableFuture<String> respond(String element, CompletableFuture<String> response) {
+      responses.put(element, response);
+      return response;
+    }
+
+    private void failOn(String element) {
+      failing.add(element);
+    }
+
+    @Override
+    public boolean canDo(String element) {
+      return true;
+    }
+
+    @Override
+    public CompletableFuture<String> start(String element) {
+      started.add(element);
+      return responses.get(element);
+    }
+
+    @Override
+    public boolean handleResult(String element, String result) {
+      if (failing.contains(element)) {
+        throw new IllegalStateException("Failed to handle result of " + element);
+      }
+      if (result == null) {
+        return false;
+      }
+      results.add(result);
+      return stopOnResult;
+    }
+  }
+}
@@ -33,4 +33,14 @@ public interface ProjectSearchRequestDto {
   int getSkipCount();
 
   ProjectSearchRequestDto withSkipCount(int skipCount);
+
+  /** Token of the page to continue search from, takes precedence over skip count if set. */
+  String getAfter();
+
+  ProjectSearchRequestDto withAfter(String after);
+
+  /** Client defined identifier used to correlate streamed search hits with the request. */
+  String getSearchId();
+
+  ProjectSearchRequestDto withSearchId(String searchId);
 }
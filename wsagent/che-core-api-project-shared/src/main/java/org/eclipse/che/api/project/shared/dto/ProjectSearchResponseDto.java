@@ -22,4 +22,14 @@ public interface ProjectSearchResponseDto {
   long getTotalHits();
 
   ProjectSearchResponseDto withTotalHits(long totalHits);
+
+  /** Token for retrieving the next page of search result, {@code null} if there are no more. */
+  String getNextPageToken();
+
+  ProjectSearchResponseDto withNextPageToken(String nextPageToken);
+
+  /** Identifier of the search request this response (or streamed chunk) belongs to. */
+  String getSearchId();
+
+  ProjectSearchResponseDto withSearchId(String searchId);
 }
@@ -18,19 +18,38 @@ import com.google.common.io.ByteStreams;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.function.LongConsumer;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.project.shared.dto.EditorChangesDto;
 
 /**
  * In-memory implementation of working copy for opened editor on client.
  *
+ * <p>The content is kept as a {@link Rope}, so editor changes are applied without copying the whole
+ * content. The content is encoded to bytes only when it is requested. Content of an idle working
+ * copy may be spilled to a scratch file, it is loaded back on the next access.
+ *
  * @author Roman Nikitenko
  */
 public class EditorWorkingCopy {
   private String path;
   private String projectPath;
-  private byte[] content;
+  /** Content of the working copy, {@code null} when it is spilled to {@link #spillFile}. */
+  private volatile Rope content;
+  /** Encoded content, {@code null} when it isn't requested since the last change. */
+  private byte[] contentBytes;
+
+  private Path spillFile;
+  private volatile long lastAccessTime = System.nanoTime();
+  /** Value of {@link #getMemorySize()}, updated on each change of the content. */
+  private long memorySize;
+  /** Receives changes of {@link #memorySize}, {@code null} when memory size isn't reported. */
+  private LongConsumer memorySizeListener;
 
   /**
    * Creates a working copy for opened editor on client.
@@ -42,7 +61,7 @@ public class EditorWorkingCopy {
   public EditorWorkingCopy(String path, String projectPath, byte[] content) {
     this.path = path;
     this.projectPath = projectPath;
-    this.content = Arrays.copyOf(content, content.length);
+    updateContent(Arrays.copyOf(content, content.length));
   }
 
   /**
@@ -51,10 +70,8 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public byte[] getContentAsBytes() {
-    if (content == null) {
-      content = new byte[0];
-    }
-    return Arrays.copyOf(content, content.length);
+    final byte[] bytes = encodeContent();
+    return Arrays.copyOf(bytes, bytes.length);
   }
 
   /**
@@ -63,7 +80,7 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public String getContentAsString() {
-    return new String(getContentAsBytes());
+    return content().toString();
   }
 
   /**
@@ -72,7 +89,17 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public InputStream getContent() {
-    return new ByteArrayInputStream(getContentAsBytes());
+    return new ByteArrayInputStream(encodeContent());
+  }
+
+  /**
+   * Gets immutable snapshot of the working copy content. The snapshot is not affected by the
+   * further changes of the working copy.
+   *
+   * @return current content of the working copy
+   */
+  public Rope getSnapshot() {
+    return content();
   }
 
   /**
@@ -81,8 +108,11 @@ public class EditorWorkingCopy {
    * @param content content
    * @return current working copy after updating content
    */
-  EditorWorkingCopy updateContent(byte[] content) {
-    this.content = content;
+  synchronized EditorWorkingCopy updateContent(byte[] content) {
+    discardSpillFile();
+    this.content = Rope.of(new String(content, Charset.defaultCharset()));
+    this.contentBytes = content;
+    updateMemorySize();
     return this;
   }
 
@@ -92,8 +122,11 @@ public class EditorWorkingCopy {
    * @param content content
    * @return current working copy after updating content
    */
-  EditorWorkingCopy updateContent(String content) {
-    updateContent(content.getBytes());
+  synchronized EditorWorkingCopy updateContent(String content) {
+    discardSpillFile();
+    this.content = Rope.of(content);
+    this.contentBytes = null;
+    updateMemorySize();
     return this;
   }
 
@@ -126,22 +159,128 @@ public class EditorWorkingCopy {
       int offset = changes.getOffset();
       int removedCharCount = changes.getRemovedCharCount();
 
-      String newContent = null;
-      String oldContent = getContentAsString();
+      Rope newContent = null;
+      Rope oldContent = content();
       EditorChangesDto.Type type = changes.getType();
       if (type == INSERT) {
-        newContent = new StringBuilder(oldContent).insert(offset, text).toString();
+        newContent = oldContent.insert(offset, text);
       }
 
       if (type == REMOVE && removedCharCount > 0) {
         newContent =
-            new StringBuilder(oldContent).delete(offset, offset + removedCharCount).toString();
+            oldContent.delete(offset, Math.min(offset + removedCharCount, oldContent.length()));
       }
 
       if (newContent != null) {
-        updateContent(newContent);
+        content = newContent;
+        contentBytes = null;
+        updateMemorySize();
+      }
+    }
+  }
+
+  /**
+   * Writes content of the working copy to the given file and releases it from memory. The content
+   * is read back from the file on the next access.
+   *
+   * @param file file to write the content to
+   * @throws IOException when the content can't be written, the working copy stays in memory then
+   */
+  synchronized void spill(Path file) throws IOException {
+    if (content == null) {
+      return;
+    }
+    Files.write(file, encodeContent());
+    spillFile = file;
+    content = null;
+    contentBytes = null;
+    updateMemorySize();
+  }
+
+  /** Returns {@code true} when content of the working copy is spilled to a scratch file. */
+  boolean isSpilled() {
+    return content == null;
+  }
+
+  /** Returns approximate size of memory in bytes occupied by the content of the working copy. */
+  synchronized long getMemorySize() {
+    return memorySize;
+  }
+
+  /**
+   * Reports the current memory size of the working copy and then each its change to the given
+   * listener, so the memory occupied by many working copies is known without visiting them.
+   *
+   * @param listener receives differences of the memory size in bytes, {@code null} stops reporting
+   *     and releases the whole memory size from the previous listener
+   */
+  synchronized void setMemorySizeListener(LongConsumer listener) {
+    if (memorySizeListener != null) {
+      memorySizeListener.accept(-memorySize);
+    }
+    memorySizeListener = listener;
+    if (listener != null) {
+      listener.accept(memorySize);
+    }
+  }
+
+  private void updateMemorySize() {
+    long size =
+        content == null
+            ? 0
+            : 2L * content.length() + (contentBytes == null ? 0 : contentBytes.length);
+    if (memorySizeListener != null && size != memorySize) {
+      memorySizeListener.accept(size - memorySize);
+    }
+    memorySize = size;
+  }
+
+  /** Returns value of {@link System#nanoTime()} at the moment of the last access to the content. */
+  long getLastAccessTime() {
+    return lastAccessTime;
+  }
+
+  /** Deletes the scratch file if content of the working copy is spilled. */
+  synchronized void discardSpillFile() {
+    if (spillFile != null) {
+      try {
+        Files.deleteIfExists(spillFile);
+      } catch (IOException ignored) {
+        // scratch directory is cleaned up on shutdown
       }
+      spillFile = null;
+    }
+  }
+
+  private Rope content() {
+    lastAccessTime = System.nanoTime();
+    Rope current = content;
+    return current != null ? current : restore();
+  }
+
+  private synchronized Rope restore() {
+    if (content == null) {
+      final byte[] bytes;
+      try {
+        bytes = Files.readAllBytes(spillFile);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            format("Can not read the content of '%s' from %s", getPath(), spillFile), e);
+      }
+      discardSpillFile();
+      content = Rope.of(new String(bytes, Charset.defaultCharset()));
+      contentBytes = bytes;
+      updateMemorySize();
+    }
+    return content;
+  }
+
+  private synchronized byte[] encodeContent() {
+    if (contentBytes == null) {
+      contentBytes = content().getBytes(Charset.defaultCharset());
+      updateMemorySize();
     }
+    return contentBytes;
   }
 
   /** Returns the path to the persistent working copy */
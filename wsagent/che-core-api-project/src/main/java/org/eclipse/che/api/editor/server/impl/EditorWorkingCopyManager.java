@@ -12,18 +12,26 @@ package org.eclipse.che.api.editor.server.impl;
 
 import static java.io.File.separator;
 import static java.nio.charset.Charset.defaultCharset;
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.project.shared.Constants.CHE_DIR;
 
 import com.google.common.hash.Hashing;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -46,6 +54,9 @@ import org.slf4j.LoggerFactory;
 /**
  * The class contains methods to simplify the work with editor working copies.
  *
+ * <p>Memory occupied by working copies is limited, when the limit is exceeded the least recently
+ * used working copies are spilled to scratch files and are loaded back on the next access.
+ *
  * @author Roman Nikitenko
  */
 @Singleton
@@ -57,22 +68,28 @@ public class EditorWorkingCopyManager {
 
   private final FsManager fsManager;
   private final ProjectManager projectManager;
-  private final Map<String, EditorWorkingCopy> workingCopiesStorage = new HashMap<>();
+  private final Map<String, EditorWorkingCopy> workingCopiesStorage = new ConcurrentHashMap<>();
+  private final long memoryLimit;
+  /** Memory occupied by the working copies, each working copy reports changes of its size. */
+  private final AtomicLong residentSize = new AtomicLong();
 
   private EventService eventService;
   private RequestTransmitter transmitter;
   private EventSubscriber<FileTrackingOperationEvent> fileOperationEventSubscriber;
+  private Path spillDir;
 
   @Inject
   public EditorWorkingCopyManager(
       EventService eventService,
       RequestTransmitter transmitter,
       FsManager fsManager,
-      ProjectManager projectManager) {
+      ProjectManager projectManager,
+      @Named("che.editor.working_copies.memory_limit_mb") long memoryLimitMb) {
     this.eventService = eventService;
     this.transmitter = transmitter;
     this.fsManager = fsManager;
     this.projectManager = projectManager;
+    this.memoryLimit = memoryLimitMb * 1024 * 1024;
 
     fileOperationEventSubscriber =
         new EventSubscriber<FileTrackingOperationEvent>() {
@@ -94,7 +111,29 @@ public class EditorWorkingCopyManager {
    */
   @Nullable
   public EditorWorkingCopy getWorkingCopy(String filePath) {
-    return workingCopiesStorage.get(filePath);
+    EditorWorkingCopy workingCopy = workingCopiesStorage.get(filePath);
+    if (workingCopy != null && workingCopy.isSpilled()) {
+      // content is going to be loaded back to memory
+      workingCopy.getSnapshot();
+      enforceMemoryLimit(workingCopy);
+    }
+    return workingCopy;
+  }
+
+  /** Returns number of the working copies which content is kept in memory. */
+  public int getResidentCount() {
+    return (int) workingCopiesStorage.values().stream().filter(wc -> !wc.isSpilled()).count();
+  }
+
+  /** Returns number of the working copies which content is spilled to scratch files. */
+  public int getSpilledCount() {
+    return (int)
+        workingCopiesStorage.values().stream().filter(EditorWorkingCopy::isSpilled).count();
+  }
+
+  /** Returns approximate size of memory in bytes occupied by the working copies. */
+  public long getResidentSize() {
+    return residentSize.get();
   }
 
   void onEditorContentUpdated(String endpointId, EditorChangesDto changes) {
@@ -112,6 +151,7 @@ public class EditorWorkingCopyManager {
       }
 
       workingCopy.applyChanges(changes);
+      enforceMemoryLimit(workingCopy);
       eventService.publish(new EditorWorkingCopyUpdatedEvent(endpointId, changes));
 
     } catch (IOException | ForbiddenException | ConflictException | ServerException e) {
@@ -164,6 +204,8 @@ public class EditorWorkingCopyManager {
               }
             }
             workingCopiesStorage.remove(path);
+            workingCopy.setMemorySizeListener(null);
+            workingCopy.discardSpillFile();
             break;
           }
 
@@ -271,11 +313,60 @@ public class EditorWorkingCopyManager {
 
     EditorWorkingCopy workingCopy =
         new EditorWorkingCopy(workingCopyPath, projectPath, fileContentAsBytes);
-    workingCopiesStorage.put(filePath, workingCopy);
+    EditorWorkingCopy existing = workingCopiesStorage.putIfAbsent(filePath, workingCopy);
+    if (existing != null) {
+      // created concurrently
+      return existing;
+    }
+    workingCopy.setMemorySizeListener(residentSize::addAndGet);
+    enforceMemoryLimit(workingCopy);
 
     return workingCopy;
   }
 
+  /**
+   * Spills the least recently used working copies to scratch files if the memory occupied by
+   * working copies exceeds the limit. The given working copy is kept in memory as it is in use.
+   */
+  private void enforceMemoryLimit(EditorWorkingCopy inUse) {
+    if (residentSize.get() > memoryLimit) {
+      spillLeastRecentlyUsed(inUse);
+    }
+  }
+
+  private synchronized void spillLeastRecentlyUsed(EditorWorkingCopy inUse) {
+    if (residentSize.get() <= memoryLimit) {
+      // spilled concurrently
+      return;
+    }
+    List<EditorWorkingCopy> leastRecentlyUsed =
+        workingCopiesStorage
+            .values()
+            .stream()
+            .filter(wc -> wc != inUse && !wc.isSpilled())
+            .sorted(comparingLong(EditorWorkingCopy::getLastAccessTime))
+            .collect(toList());
+    for (EditorWorkingCopy workingCopy : leastRecentlyUsed) {
+      if (residentSize.get() <= memoryLimit) {
+        return;
+      }
+      Path spillFile = null;
+      try {
+        if (spillDir == null) {
+          spillDir = Files.createTempDirectory("che-working-copies");
+        }
+        spillFile = Files.createTempFile(spillDir, "working-copy", ".tmp");
+        workingCopy.spill(spillFile);
+      } catch (IOException e) {
+        LOG.error("Can not spill working copy {}: {}", workingCopy.getPath(), e.getMessage());
+        if (spillFile != null) {
+          FileUtils.deleteQuietly(spillFile.toFile());
+        }
+        return;
+      }
+    }
+  }
+
   private void createPersistentWorkingCopy(String originalFilePath)
       throws ServerException, ForbiddenException, ConflictException {
     try {
@@ -318,7 +409,10 @@ public class EditorWorkingCopyManager {
   }
 
   @PreDestroy
-  private void unsubscribe() {
+  void unsubscribe() {
     eventService.unsubscribe(fileOperationEventSubscriber);
+    if (spillDir != null) {
+      FileUtils.deleteQuietly(spillDir.toFile());
+    }
   }
 }
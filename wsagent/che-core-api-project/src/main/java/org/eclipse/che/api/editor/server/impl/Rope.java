@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.Charset;
+
+/**
+ * Immutable text stored as a balanced tree of string chunks.
+ *
+ * <p>Insertion and removal of text create a new rope which shares all the unaffected chunks with
+ * the original one, so they take logarithmic time of the text length and the original rope stays
+ * valid. That makes every rope a cheap snapshot of the text. The text is materialized to a string
+ * only when it is requested and then it is cached.
+ */
+public final class Rope implements CharSequence {
+
+  /** Maximum length of a chunk of text kept in a single leaf. */
+  static final int MAX_LEAF_LENGTH = 1024;
+
+  private static final Rope EMPTY = new Rope(new Leaf(""));
+
+  private final Node root;
+  private volatile String text;
+
+  private Rope(Node root) {
+    this.root = root;
+  }
+
+  /** Returns rope which contains no text. */
+  public static Rope empty() {
+    return EMPTY;
+  }
+
+  /** Returns rope which contains given text. */
+  public static Rope of(CharSequence text) {
+    requireNonNull(text, "Required non-null text");
+    if (text.length() == 0) {
+      return EMPTY;
+    }
+    return new Rope(build(text, 0, text.length()));
+  }
+
+  @Override
+  public int length() {
+    return root.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    checkIndex(index, length() - 1);
+    return root.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return substring(start, end);
+  }
+
+  /**
+   * Returns the text between the given offsets.
+   *
+   * @param start the beginning offset, inclusive
+   * @param end the ending offset, exclusive
+   * @throws IndexOutOfBoundsException when offsets are out of the text bounds
+   */
+  public String substring(int start, int end) {
+    checkRange(start, end);
+    if (start == 0 && end == length()) {
+      return toString();
+    }
+    final StringBuilder sb = new StringBuilder(end - start);
+    root.appendTo(sb, start, end);
+    return sb.toString();
+  }
+
+  /**
+   * Returns rope with the given text inserted at the offset, this rope stays unchanged.
+   *
+   * @param offset offset to insert the text at
+   * @param text text to insert
+   * @throws IndexOutOfBoundsException when offset is out of the text bounds
+   */
+  public Rope insert(int offset, CharSequence text) {
+    requireNonNull(text, "Required non-null text");
+    checkIndex(offset, length());
+    if (text.length() == 0) {
+      return this;
+    }
+    return new Rope(insert(root, offset, text));
+  }
+
+  /**
+   * Returns rope with the text between the given offsets removed, this rope stays unchanged.
+   *
+   * @param start the beginning offset, inclusive
+   * @param end the ending offset, exclusive
+   * @throws IndexOutOfBoundsException when offsets are out of the text bounds
+   */
+  public Rope delete(int start, int end) {
+    checkRange(start, end);
+    if (start == end) {
+      return this;
+    }
+    if (start == 0 && end == length()) {
+      return EMPTY;
+    }
+    return new Rope(delete(root, start, end));
+  }
+
+  /** Encodes the text into a sequence of bytes using the given charset. */
+  public byte[] getBytes(Charset charset) {
+    return toString().getBytes(charset);
+  }
+
+  @Override
+  public String toString() {
+    String result = text;
+    if (result == null) {
+      final StringBuilder sb = new StringBuilder(length());
+      root.appendTo(sb, 0, length());
+      text = result = sb.toString();
+    }
+    return result;
+  }
+
+  /** Returns height of the tree, used to check that the tree stays balanced. */
+  int height() {
+    return root.height();
+  }
+
+  private void checkIndex(int index, int max) {
+    if (index < 0 || index > max) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length());
+    }
+  }
+
+  private void checkRange(int start, int end) {
+    if (start < 0 || end > length() || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Start: " + start + ", end: " + end + ", length: " + length());
+    }
+  }
+
+  private static Node build(CharSequence text, int start, int end) {
+    if (end - start <= MAX_LEAF_LENGTH) {
+      return new Leaf(text.subSequence(start, end).toString());
+    }
+    final int middle = (start + end) >>> 1;
+    return new Concat(build(text, start, middle), build(text, middle, end));
+  }
+
+  private static Node insert(Node node, int offset, CharSequence text) {
+    if (node instanceof Leaf) {
+      final String chunk = ((Leaf) node).chunk;
+      final String merged =
+          new StringBuilder(chunk.length() + text.length())
+              .append(chunk, 0, offset)
+              .append(text)
+              .append(chunk, offset, chunk.length())
+              .toString();
+      return build(merged, 0, merged.length());
+    }
+    final Concat concat = (Concat) node;
+    final int leftLength = concat.left.length();
+    if (offset <= leftLength) {
+      return join(insert(concat.left, offset, text), concat.right);
+    }
+    return join(concat.left, insert(concat.right, offset - leftLength, text));
+  }
+
+  private static Node delete(Node node, int start, int end) {
+    if (node instanceof Leaf) {
+      final String chunk = ((Leaf) node).chunk;
+      return new Leaf(chunk.substring(0, start) + chunk.substring(end));
+    }
+    final Concat concat = (Concat) node;
+    final int leftLength = concat.left.length();
+    Node left = concat.left;
+    Node right = concat.right;
+    if (start < leftLength) {
+      left = delete(left, start, Math.min(end, leftLength));
+    }
+    if (end > leftLength) {
+      right = delete(right, Math.max(start - leftLength, 0), end - leftLength);
+    }
+    return join(left, right);
+  }
+
+  /**
+   * Concatenates two balanced trees into a balanced one. Descends along the spine of the taller
+   * tree until the heights are close enough and rebalances the nodes on the way back.
+   */
+  private static Node join(Node left, Node right) {
+    if (left.length() == 0) {
+      return right;
+    }
+    if (right.length() == 0) {
+      return left;
+    }
+    if (left.height() > right.height() + 1) {
+      final Concat concat = (Concat) left;
+      return balance(concat.left, join(concat.right, right));
+    }
+    if (right.height() > left.height() + 1) {
+      final Concat concat = (Concat) right;
+      return balance(join(left, concat.left), concat.right);
+    }
+    if (left instanceof Leaf
+        && right instanceof Leaf
+        && left.length() + right.length() <= MAX_LEAF_LENGTH) {
+      // keeps small chunks produced by editing from fragmenting the tree
+      return new Leaf(((Leaf) left).chunk + ((Leaf) right).chunk);
+    }
+    return new Concat(left, right);
+  }
+
+  /** Concatenates two balanced trees which heights differ by two at most. */
+  private static Node balance(Node left, Node right) {
+    if (left.height() > right.height() + 1) {
+      final Concat l = (Concat) left;
+      if (l.left.height() >= l.right.height()) {
+        return new Concat(l.left, new Concat(l.right, right));
+      }
+      final Concat lr = (Concat) l.right;
+      return new Concat(new Concat(l.left, lr.left), new Concat(lr.right, right));
+    }
+    if (right.height() > left.height() + 1) {
+      final Concat r = (Concat) right;
+      if (r.right.height() >= r.left.height()) {
+        return new Concat(new Concat(left, r.left), r.right);
+      }
+      final Concat rl = (Concat) r.left;
+      return new Concat(new Concat(left, rl.left), new Concat(rl.right, r.right));
+    }
+    return new Concat(left, right);
+  }
+
+  private abstract static class Node {
+    abstract int length();
+
+    abstract int height();
+
+    abstract char charAt(int index);
+
+    abstract void appendTo(StringBuilder sb, int start, int end);
+  }
+
+  private static final class Leaf extends Node {
+    private final String chunk;
+
+    private Leaf(String chunk) {
+      this.chunk = chunk;
+    }
+
+    @Override
+    int length() {
+      return chunk.length();
+    }
+
+    @Override
+    int height() {
+      return 0;
+    }
+
+    @Override
+    char charAt(int index) {
+      return chunk.charAt(index);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int start, int end) {
+      sb.append(chunk, start, end);
+    }
+  }
+
+  private static final class Concat extends Node {
+    private final Node left;
+    private final Node right;
+    private final int length;
+    private final int height;
+
+    private Concat(Node left, Node right) {
+      this.left = left;
+      this.right = right;
+      this.length = left.length() + right.length();
+      this.height = Math.max(left.height(), right.height()) + 1;
+    }
+
+    @Override
+    int length() {
+      return length;
+    }
+
+    @Override
+    int height() {
+      return height;
+    }
+
+    @Override
+    char charAt(int index) {
+      final int leftLength = left.length();
+      return index < leftLength ? left.charAt(index) : right.charAt(index - leftLength);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int start, int end) {
+      final int leftLength = left.length();
+      if (start < leftLength) {
+        left.appendTo(sb, start, Math.min(end, leftLength));
+      }
+      if (end > leftLength) {
+        right.appendTo(sb, Math.max(start - leftLength, 0), end - leftLength);
+      }
+    }
+  }
+}
@@ -19,6 +19,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -89,6 +90,26 @@ public interface FsManager {
       String wsPath, InputStream packed, boolean overwrite, boolean withParents, boolean skipRoot)
       throws NotFoundException, ServerException, ConflictException;
 
+  /**
+   * Unzips an input stream to a specified workspace path reporting progress of extraction
+   *
+   * @param wsPath absolute workspace directory path
+   * @param progress consumer of human readable progress messages
+   * @throws NotFoundException is thrown if destination does not exist
+   * @throws ConflictException is thrown if destination is not a directory
+   * @throws ServerException is thrown if an error occurred during operation execution
+   */
+  default void unzip(
+      String wsPath,
+      InputStream packed,
+      boolean overwrite,
+      boolean withParents,
+      boolean skipRoot,
+      Consumer<String> progress)
+      throws NotFoundException, ServerException, ConflictException {
+    unzip(wsPath, packed, overwrite, withParents, skipRoot);
+  }
+
   /**
    * Update a file with an updater
    *
@@ -21,6 +21,7 @@ import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
@@ -102,6 +103,20 @@ public class ExecutiveFsManager implements FsManager {
     zipArchiver.unzip(fsPath, packed, overwrite, withParents, skipRoot);
   }
 
+  @Override
+  public void unzip(
+      String wsPath,
+      InputStream packed,
+      boolean overwrite,
+      boolean withParents,
+      boolean skipRoot,
+      Consumer<String> progress)
+      throws NotFoundException, ServerException, ConflictException {
+    Path fsPath = pathTransformer.transform(wsPath);
+
+    zipArchiver.unzip(fsPath, packed, overwrite, withParents, skipRoot, progress);
+  }
+
   @Override
   public void update(String wsPath, BiConsumer<InputStream, OutputStream> updater)
       throws NotFoundException, ConflictException, ServerException {
@@ -18,6 +18,7 @@ import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
@@ -99,6 +100,27 @@ public class ValidatingFsManager implements FsManager {
   public void unzip(
       String wsPath, InputStream packed, boolean overwrite, boolean withParents, boolean skipRoot)
       throws NotFoundException, ConflictException, ServerException {
+    checkUnzipDestination(wsPath, withParents);
+
+    suspendingFsManager.unzip(wsPath, packed, overwrite, withParents, skipRoot);
+  }
+
+  @Override
+  public void unzip(
+      String wsPath,
+      InputStream packed,
+      boolean overwrite,
+      boolean withParents,
+      boolean skipRoot,
+      Consumer<String> progress)
+      throws NotFoundException, ConflictException, ServerException {
+    checkUnzipDestination(wsPath, withParents);
+
+    suspendingFsManager.unzip(wsPath, packed, overwrite, withParents, skipRoot, progress);
+  }
+
+  private void checkUnzipDestination(String wsPath, boolean withParents)
+      throws NotFoundException, ConflictException {
     Path fsPath = pathTransformer.transform(wsPath);
 
     boolean exists = fsOperations.exists(fsPath);
@@ -110,8 +132,6 @@ public class ValidatingFsManager implements FsManager {
     if (exists && !isDirectory) {
       throw new ConflictException("Can't unzip item, parent is not directory: " + wsPath);
     }
-
-    suspendingFsManager.unzip(wsPath, packed, overwrite, withParents, skipRoot);
   }
 
   public void delete(String wsPath, boolean quietly)
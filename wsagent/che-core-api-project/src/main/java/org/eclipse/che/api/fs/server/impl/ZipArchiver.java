@@ -10,98 +10,330 @@
  */
 package org.eclipse.che.api.fs.server.impl;
 
-import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newInputStream;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 
+/**
+ * Packs file system items into zip archives and extracts them back.
+ *
+ * <p>Archive is not stored anywhere while being created: it is written by a separate thread into a
+ * pipe that is read by the consumer of the stream returned by {@link #zip(Path)}, so the first
+ * bytes are available right away and disk usage does not grow. Files that are already compressed
+ * (archives, images, etc.) are added without compression.
+ *
+ * <p>Archive being extracted is stored into a temporary file once, its entries are then extracted
+ * in parallel using random access to the archive.
+ */
 @Singleton
 class ZipArchiver {
 
-  private static void zip(File zipInFile, String fileName, ZipOutputStream zos) throws IOException {
-    if (zipInFile.isDirectory()) {
-      File[] files = zipInFile.listFiles();
-      for (File file : files == null ? new File[0] : files) {
-        zip(file, file.getAbsolutePath(), zos);
+  private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+  private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+  private static final Set<String> COMPRESSED_EXTENSIONS =
+      ImmutableSet.of(
+          "zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z", "rar", "png", "jpg", "jpeg",
+          "gif", "ico", "mp3", "mp4", "avi", "pdf", "woff", "woff2");
+
+  private final int compressionLevel;
+  private final ExecutorService executor;
+
+  @Inject
+  ZipArchiver(@Named("che.fs.zip.compression_level") int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+    this.executor =
+        newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(ZipArchiver.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  private static boolean isCompressed(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return dot != -1 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+  }
+
+  private void zip(Path item, String entryName, ZipOutputStream zos) throws IOException {
+    if (Files.isDirectory(item)) {
+      zos.putNextEntry(new ZipEntry(entryName + '/'));
+      zos.closeEntry();
+      try (DirectoryStream<Path> children = Files.newDirectoryStream(item)) {
+        for (Path child : children) {
+          zip(child, entryName + '/' + child.getFileName(), zos);
+        }
       }
       return;
     }
 
-    try (FileInputStream fis = new FileInputStream(zipInFile); ) {
-      ZipEntry zipEntry = new ZipEntry(fileName);
-      zos.putNextEntry(zipEntry);
-      IOUtils.copy(fis, zos);
+    zos.setLevel(isCompressed(item) ? Deflater.NO_COMPRESSION : compressionLevel);
+    ZipEntry zipEntry = new ZipEntry(entryName);
+    zipEntry.setTime(Files.getLastModifiedTime(item).toMillis());
+    zos.putNextEntry(zipEntry);
+    Files.copy(item, zos);
+    zos.closeEntry();
+  }
+
+  /**
+   * Writes zip archive of a file system item to the output stream, entries are named relatively to
+   * the parent of the item. The output stream is not closed.
+   */
+  void zip(Path fsPath, OutputStream output) throws IOException {
+    try (ZipOutputStream zos = new ZipOutputStream(new CloseShieldOutputStream(output))) {
+      zip(fsPath, fsPath.getFileName().toString(), zos);
     }
   }
 
   InputStream zip(Path fsPath) throws ServerException {
     try {
-      File inFile = fsPath.toFile();
-      File outFile = createTempFile(fsPath.getFileName().toString(), ".zip").toFile();
+      PipedInputStream pipedInput = new PipedInputStream(PIPE_BUFFER_SIZE);
+      PipedOutputStream pipedOutput = new PipedOutputStream(pipedInput);
+      ZipInputPipe zipInputPipe = new ZipInputPipe(pipedInput);
 
-      try (FileOutputStream fos = new FileOutputStream(outFile);
-          ZipOutputStream zos = new ZipOutputStream(fos)) {
-        zip(inFile, inFile.getName(), zos);
-      }
+      executor.execute(
+          () -> {
+            try {
+              zip(fsPath, pipedOutput);
+            } catch (IOException e) {
+              zipInputPipe.fail(new IOException("Failed to zip item: " + fsPath, e));
+            } finally {
+              IOUtils.closeQuietly(pipedOutput);
+            }
+          });
 
-      return newInputStream(outFile.toPath());
+      return zipInputPipe;
     } catch (IOException e) {
       throw new ServerException("Failed to zip item: " + fsPath, e);
     }
   }
 
+  /**
+   * Reading side of the pipe, rethrows error that occurred while writing archive instead of
+   * reporting end of stream for an incomplete archive.
+   */
+  private static class ZipInputPipe extends FilterInputStream {
+    private volatile IOException failure;
+
+    private ZipInputPipe(PipedInputStream in) {
+      super(in);
+    }
+
+    private void fail(IOException failure) {
+      this.failure = failure;
+    }
+
+    private int checkFailure(int result) throws IOException {
+      if (result == -1 && failure != null) {
+        throw failure;
+      }
+      return result;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return checkFailure(super.read());
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return checkFailure(super.read(b, off, len));
+    }
+  }
+
   void unzip(
       Path fsPath, InputStream content, boolean overwrite, boolean withParents, boolean skipRoot)
       throws ServerException {
+    unzip(fsPath, content, overwrite, withParents, skipRoot, message -> {});
+  }
+
+  /**
+   * Extracts zip archive into a directory. Content is stored into a temporary file first so entries
+   * can be read independently of each other: directories are created up front and files are
+   * extracted in parallel. A progress message is passed to the consumer each time another tenth of
+   * files is extracted.
+   */
+  void unzip(
+      Path fsPath,
+      InputStream content,
+      boolean overwrite,
+      boolean withParents,
+      boolean skipRoot,
+      Consumer<String> progress)
+      throws ServerException {
+    Path spooled = null;
     try {
       if (withParents) {
         Files.createDirectories(fsPath);
       }
 
-      try (ZipInputStream zis = new ZipInputStream(content)) {
-        ZipEntry zipEntry = zis.getNextEntry();
-
-        String prefixToSkip = null;
-        if (zipEntry.isDirectory() && skipRoot) {
-          prefixToSkip = zipEntry.getName();
-          zipEntry = zis.getNextEntry();
-        }
-
-        while (zipEntry != null) {
-          String name =
-              prefixToSkip != null
-                  ? zipEntry.getName().replaceFirst(prefixToSkip, "")
-                  : zipEntry.getName();
-          Path path = fsPath.resolve(name);
-
-          if (overwrite) {
-            Files.deleteIfExists(path);
-          }
-          if (zipEntry.isDirectory()) {
-            Files.createDirectory(path);
-          } else {
-            try (FileOutputStream fos = new FileOutputStream(path.toFile())) {
-              IOUtils.copy(zis, fos);
-            }
-          }
+      spooled = Files.createTempFile("che-unzip-", ".zip");
+      Files.copy(content, spooled, REPLACE_EXISTING);
 
-          zipEntry = zis.getNextEntry();
-        }
+      try (ZipFile zipFile = new ZipFile(spooled.toFile())) {
+        extract(zipFile, fsPath, overwrite, skipRoot, progress);
       }
     } catch (IOException e) {
       throw new ServerException("Failed to unzip item " + fsPath, e);
+    } finally {
+      if (spooled != null) {
+        FileUtils.deleteQuietly(spooled.toFile());
+      }
+    }
+  }
+
+  private void extract(
+      ZipFile zipFile, Path fsPath, boolean overwrite, boolean skipRoot, Consumer<String> progress)
+      throws IOException {
+    List<? extends ZipEntry> entries = Collections.list(zipFile.entries());
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    String prefixToSkip = null;
+    if (entries.get(0).isDirectory() && skipRoot) {
+      prefixToSkip = entries.get(0).getName();
+    }
+
+    Path root = fsPath.normalize();
+    Set<Path> directories = new TreeSet<>();
+    Map<ZipEntry, Path> files = new LinkedHashMap<>();
+    for (ZipEntry zipEntry : entries) {
+      String name = zipEntry.getName();
+      if (prefixToSkip != null && name.startsWith(prefixToSkip)) {
+        name = name.substring(prefixToSkip.length());
+      }
+      if (name.isEmpty()) {
+        continue;
+      }
+
+      Path path = root.resolve(name).normalize();
+      if (!path.startsWith(root)) {
+        throw new IOException("Zip entry is outside of target directory: " + zipEntry.getName());
+      }
+      if (zipEntry.isDirectory()) {
+        directories.add(path);
+      } else {
+        directories.add(path.getParent());
+        files.put(zipEntry, path);
+      }
+    }
+
+    for (Path directory : directories) {
+      if (overwrite && Files.exists(directory) && !Files.isDirectory(directory)) {
+        Files.delete(directory);
+      }
+      Files.createDirectories(directory);
+    }
+
+    int total = files.size();
+    int parallelism = Math.max(1, Math.min(total, Runtime.getRuntime().availableProcessors()));
+    List<List<Entry<ZipEntry, Path>>> parts = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      parts.add(new ArrayList<>());
+    }
+    int index = 0;
+    for (Entry<ZipEntry, Path> file : files.entrySet()) {
+      parts.get(index++ % parallelism).add(file);
+    }
+
+    AtomicInteger extracted = new AtomicInteger();
+    int reportStep = Math.max(1, total / 10);
+    List<Future<?>> futures = new ArrayList<>(parallelism);
+    for (List<Entry<ZipEntry, Path>> part : parts) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (Entry<ZipEntry, Path> file : part) {
+                  extract(zipFile, file.getKey(), file.getValue(), overwrite);
+                  int count = extracted.incrementAndGet();
+                  if (count % reportStep == 0 || count == total) {
+                    synchronized (progress) {
+                      progress.accept(String.format("Extracted %d of %d files", count, total));
+                    }
+                  }
+                }
+                return null;
+              }));
+    }
+
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      futures.forEach(future -> future.cancel(true));
+      throw new IOException("Extraction is interrupted", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+  }
+
+  private static void extract(ZipFile zipFile, ZipEntry zipEntry, Path path, boolean overwrite)
+      throws IOException {
+    if (overwrite && Files.isDirectory(path)) {
+      FileUtils.deleteDirectory(path.toFile());
+    }
+    try (ReadableByteChannel input = Channels.newChannel(zipFile.getInputStream(zipEntry));
+        FileChannel output = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      long position = 0;
+      long transferred;
+      while ((transferred = output.transferFrom(input, position, TRANSFER_CHUNK_SIZE)) > 0) {
+        position += transferred;
+      }
     }
   }
 }
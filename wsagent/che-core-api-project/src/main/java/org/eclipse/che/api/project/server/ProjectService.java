@@ -665,9 +665,12 @@ public class ProjectService {
           @QueryParam("maxItems")
           @DefaultValue("-1")
           int maxItems,
-      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount)
+      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount,
+      @ApiParam(value = "Token of the page to continue search from, overrides skip count")
+          @QueryParam("after")
+          String after)
       throws NotFoundException, ServerException, BadRequestException {
 
-    return getProjectServiceApi().search(wsPath, name, text, maxItems, skipCount);
+    return getProjectServiceApi().search(wsPath, name, text, maxItems, skipCount, after);
   }
 }
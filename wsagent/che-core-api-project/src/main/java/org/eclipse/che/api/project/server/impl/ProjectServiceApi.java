@@ -22,6 +22,7 @@ import static org.eclipse.che.api.project.server.impl.FileItemUtils.parseFile;
 import static org.eclipse.che.api.project.server.impl.ProjectDtoConverter.asDto;
 import static org.eclipse.che.api.project.server.notification.ProjectItemModifiedEvent.EventType.UPDATED;
 import static org.eclipse.che.api.project.shared.Constants.EVENT_IMPORT_OUTPUT_PROGRESS;
+import static org.eclipse.che.api.project.shared.Constants.EVENT_SEARCH_STREAM_HITS;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 import com.google.inject.assistedinject.Assisted;
@@ -95,6 +96,8 @@ import org.slf4j.LoggerFactory;
 public class ProjectServiceApi {
   private static final Logger LOG = LoggerFactory.getLogger(ProjectServiceApi.class);
 
+  private static final int SEARCH_STREAM_CHUNK_SIZE = 20;
+
   private static Tika TIKA;
 
   private final ServiceContext serviceContext;
@@ -608,25 +611,30 @@ public class ProjectServiceApi {
   public ProjectSearchResponseDto search(
       String wsPath, String name, String text, int maxItems, int skipCount)
       throws BadRequestException, ServerException, NotFoundException {
-    if (skipCount < 0) {
-      throw new BadRequestException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
-    }
-    wsPath = absolutize(wsPath);
+    return search(wsPath, name, text, maxItems, skipCount, null);
+  }
 
-    QueryExpression expr =
-        new QueryExpression()
-            .setPath(wsPath)
-            .setName(name)
-            .setText(text)
-            .setMaxItems(maxItems)
-            .setSkipCount(skipCount)
-            .setIncludePositions(true);
+  /**
+   * Preform search with specified parameters
+   *
+   * @param wsPath search root
+   * @param name file name
+   * @param text text
+   * @param maxItems maximum number of items
+   * @param skipCount number of items to be skipped, ignored if page token is set
+   * @param after token of the page to continue search from
+   */
+  public ProjectSearchResponseDto search(
+      String wsPath, String name, String text, int maxItems, int skipCount, String after)
+      throws BadRequestException, ServerException, NotFoundException {
+    QueryExpression expr = createQueryExpression(wsPath, name, text, maxItems, skipCount, after);
 
     try {
       SearchResult result = searcher.search(expr);
       List<SearchResultEntry> searchResultEntries = result.getResults();
       return DtoFactory.newDto(ProjectSearchResponseDto.class)
           .withTotalHits(result.getTotalHits())
+          .withNextPageToken(result.getNextPageToken().orNull())
           .withItemReferences(prepareResults(searchResultEntries));
     } catch (InvalidQueryException e) {
       throw new BadRequestException(e.getMessage());
@@ -636,42 +644,132 @@ public class ProjectServiceApi {
     }
   }
 
+  /**
+   * Preform search and send found items to the endpoint in chunks of {@link
+   * #SEARCH_STREAM_CHUNK_SIZE} as soon as they are found, so the client doesn't have to wait for
+   * the whole page to be prepared. Returned response holds total hits and next page token only.
+   */
+  public ProjectSearchResponseDto searchAndStream(
+      String endpointId, ProjectSearchRequestDto request)
+      throws BadRequestException, ServerException, NotFoundException {
+    QueryExpression expr =
+        createQueryExpression(
+            request.getPath(),
+            request.getName(),
+            request.getText(),
+            request.getMaxItems(),
+            request.getSkipCount(),
+            request.getAfter());
+    String searchId = request.getSearchId();
+
+    List<SearchResultDto> chunk = new ArrayList<>(SEARCH_STREAM_CHUNK_SIZE);
+    try {
+      SearchResult result =
+          searcher.search(
+              expr,
+              entry -> {
+                SearchResultDto searchResultDto = asSearchResultDto(entry);
+                if (searchResultDto != null) {
+                  chunk.add(searchResultDto);
+                }
+                if (chunk.size() == SEARCH_STREAM_CHUNK_SIZE) {
+                  transmitSearchHits(endpointId, searchId, chunk);
+                  chunk.clear();
+                }
+              });
+      if (!chunk.isEmpty()) {
+        transmitSearchHits(endpointId, searchId, chunk);
+      }
+      return DtoFactory.newDto(ProjectSearchResponseDto.class)
+          .withSearchId(searchId)
+          .withTotalHits(result.getTotalHits())
+          .withNextPageToken(result.getNextPageToken().orNull());
+    } catch (InvalidQueryException e) {
+      throw new BadRequestException(e.getMessage());
+    } catch (QueryExecutionException e) {
+      LOG.warn(e.getLocalizedMessage());
+      throw new ServerException(e.getMessage());
+    }
+  }
+
+  private QueryExpression createQueryExpression(
+      String wsPath, String name, String text, int maxItems, int skipCount, String after)
+      throws BadRequestException {
+    if (skipCount < 0) {
+      throw new BadRequestException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+    }
+    wsPath = absolutize(wsPath);
+
+    return new QueryExpression()
+        .setPath(wsPath)
+        .setName(name)
+        .setText(text)
+        .setMaxItems(maxItems)
+        .setSkipCount(skipCount)
+        .setAfter(after)
+        .setIncludePositions(true);
+  }
+
+  private void transmitSearchHits(
+      String endpointId, String searchId, List<SearchResultDto> searchResults) {
+    ProjectSearchResponseDto hits =
+        newDto(ProjectSearchResponseDto.class)
+            .withSearchId(searchId)
+            .withItemReferences(new ArrayList<>(searchResults));
+
+    transmitter
+        .newRequest()
+        .endpointId(endpointId)
+        .methodName(EVENT_SEARCH_STREAM_HITS)
+        .paramsAsDto(hits)
+        .sendAndSkipResult();
+  }
+
   /**
    * Prepare result for client, add additional information like line number and line content where
    * found given text
    */
-  private List<SearchResultDto> prepareResults(List<SearchResultEntry> searchResultEntries)
-      throws NotFoundException {
+  private List<SearchResultDto> prepareResults(List<SearchResultEntry> searchResultEntries) {
     List<SearchResultDto> results = new ArrayList<>(searchResultEntries.size());
     for (SearchResultEntry searchResultEntry : searchResultEntries) {
-      String path = searchResultEntry.getFilePath();
-      if (fsManager.existsAsFile(path)) {
-        ItemReference asDto = fsDtoConverter.asDto(path);
-        ItemReference itemReference = injectFileLinks(asDto);
-        List<OffsetData> datas = searchResultEntry.getData();
-        List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
-        for (OffsetData data : datas) {
-          SearchOccurrenceDto searchOccurrenceDto =
-              DtoFactory.getInstance()
-                  .createDto(SearchOccurrenceDto.class)
-                  .withPhrase(data.getPhrase())
-                  .withScore(data.getScore())
-                  .withStartOffset(data.getStartOffset())
-                  .withEndOffset(data.getEndOffset())
-                  .withLineNumber(data.getLineNum())
-                  .withLineContent(data.getLine());
-          searchOccurrences.add(searchOccurrenceDto);
-        }
-        SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
-        results.add(
-            searchResultDto
-                .withItemReference(itemReference)
-                .withSearchOccurrences(searchOccurrences));
+      SearchResultDto searchResultDto = asSearchResultDto(searchResultEntry);
+      if (searchResultDto != null) {
+        results.add(searchResultDto);
       }
     }
     return results;
   }
 
+  /** Returns {@code null} if the found file does not exist anymore. */
+  private SearchResultDto asSearchResultDto(SearchResultEntry searchResultEntry) {
+    String path = searchResultEntry.getFilePath();
+    if (!fsManager.existsAsFile(path)) {
+      return null;
+    }
+    ItemReference itemReference;
+    try {
+      itemReference = injectFileLinks(fsDtoConverter.asDto(path));
+    } catch (NotFoundException e) {
+      return null;
+    }
+    List<OffsetData> datas = searchResultEntry.getData();
+    List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
+    for (OffsetData data : datas) {
+      SearchOccurrenceDto searchOccurrenceDto =
+          DtoFactory.getInstance()
+              .createDto(SearchOccurrenceDto.class)
+              .withPhrase(data.getPhrase())
+              .withScore(data.getScore())
+              .withStartOffset(data.getStartOffset())
+              .withEndOffset(data.getEndOffset())
+              .withLineNumber(data.getLineNum())
+              .withLineContent(data.getLine());
+      searchOccurrences.add(searchOccurrenceDto);
+    }
+    SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
+    return searchResultDto.withItemReference(itemReference).withSearchOccurrences(searchOccurrences);
+  }
+
   @Inject
   private void configureProjectSearchRequestHandler(
       RequestHandlerConfigurator requestHandlerConfigurator) {
@@ -681,6 +779,20 @@ public class ProjectServiceApi {
         .paramsAsDto(ProjectSearchRequestDto.class)
         .resultAsDto(ProjectSearchResponseDto.class)
         .withFunction(this::search);
+
+    requestHandlerConfigurator
+        .newConfiguration()
+        .methodName("project/search/stream")
+        .paramsAsDto(ProjectSearchRequestDto.class)
+        .resultAsDto(ProjectSearchResponseDto.class)
+        .withBiFunction(
+            (endpointId, request) -> {
+              try {
+                return searchAndStream(endpointId, request);
+              } catch (ServerException | NotFoundException | BadRequestException e) {
+                throw new JsonRpcException(-27000, e.getMessage());
+              }
+            });
   }
 
   public ProjectSearchResponseDto search(ProjectSearchRequestDto request) {
@@ -689,9 +801,10 @@ public class ProjectServiceApi {
     String text = request.getText();
     int maxItems = request.getMaxItems();
     int skipCount = request.getSkipCount();
+    String after = request.getAfter();
 
     try {
-      return search(path, name, text, maxItems, skipCount);
+      return search(path, name, text, maxItems, skipCount, after);
     } catch (ServerException | NotFoundException | BadRequestException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
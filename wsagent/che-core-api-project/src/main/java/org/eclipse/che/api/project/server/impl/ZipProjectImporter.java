@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -28,10 +29,13 @@ import org.eclipse.che.api.core.model.workspace.config.SourceStorage;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.fs.server.FsManager;
 import org.eclipse.che.api.project.server.ProjectImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** @author Vitaly Parfonov */
 @Singleton
 public class ZipProjectImporter implements ProjectImporter {
+  private static final Logger LOG = LoggerFactory.getLogger(ZipProjectImporter.class);
 
   private final FsManager fsManager;
 
@@ -85,14 +89,24 @@ public class ZipProjectImporter implements ProjectImporter {
       throw new IOException(String.format("Can't find %s", location));
     }
 
-    try (InputStream zip = url.openStream()) {
+    try (InputStream zip = url.openStream();
+        LineConsumer lineConsumer = supplier != null ? supplier.get() : LineConsumer.DEV_NULL) {
       boolean skipFirstLevel = false;
       Map<String, String> parameters = src.getParameters();
       if (parameters != null && parameters.containsKey("skipFirstLevel")) {
         skipFirstLevel = Boolean.parseBoolean(parameters.get("skipFirstLevel"));
       }
 
-      fsManager.unzip(dst, zip, skipFirstLevel);
+      Consumer<String> progress =
+          message -> {
+            try {
+              lineConsumer.writeLine(message);
+            } catch (IOException e) {
+              LOG.debug("Can't send import progress of {}: {}", dst, e.getMessage());
+            }
+          };
+
+      fsManager.unzip(dst, zip, true, true, skipFirstLevel, progress);
     }
   }
 
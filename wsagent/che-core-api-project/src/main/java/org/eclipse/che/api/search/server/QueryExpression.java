@@ -16,6 +16,7 @@ public class QueryExpression {
   private String path;
   private String text;
   private int skipCount;
+  private String after;
   private int maxItems;
   private boolean includePositions;
 
@@ -68,6 +69,20 @@ public class QueryExpression {
     return this;
   }
 
+  /**
+   * Opaque token that points to the last item of the previous page of search result. If set,
+   * search result starts right after that item and {@link #getSkipCount()} is ignored. Paging by
+   * token does not require the previous pages to be searched again.
+   */
+  public String getAfter() {
+    return after;
+  }
+
+  public QueryExpression setAfter(String after) {
+    this.after = after;
+    return this;
+  }
+
   /** Max number of results that might be returned after executing this query. */
   public int getMaxItems() {
     return maxItems;
@@ -102,6 +117,9 @@ public class QueryExpression {
         + '\''
         + ", skipCount="
         + skipCount
+        + ", after='"
+        + after
+        + '\''
         + ", maxItems="
         + maxItems
         + '}';
@@ -25,16 +25,19 @@ public class SearchResult {
 
   private final List<SearchResultEntry> results;
   private final Optional<QueryExpression> nextPageQueryExpression;
+  private final Optional<String> nextPageToken;
   private final long totalHits;
   private final long elapsedTimeMillis;
 
   private SearchResult(
       List<SearchResultEntry> results,
       Optional<QueryExpression> nextPageQueryExpression,
+      Optional<String> nextPageToken,
       long totalHits,
       long elapsedTimeMillis) {
     this.results = results;
     this.nextPageQueryExpression = nextPageQueryExpression;
+    this.nextPageToken = nextPageToken;
     this.totalHits = totalHits;
     this.elapsedTimeMillis = elapsedTimeMillis;
   }
@@ -74,8 +77,17 @@ public class SearchResult {
     return nextPageQueryExpression;
   }
 
+  /**
+   * Optional token for retrieving next page, see {@link QueryExpression#setAfter(String)}.
+   * Absent if there are no more results.
+   */
+  public Optional<String> getNextPageToken() {
+    return nextPageToken;
+  }
+
   public static class SearchResultBuilder {
     private QueryExpression nextPageQueryExpression;
+    private String nextPageToken;
     private List<SearchResultEntry> results;
     private long totalHits;
     private long elapsedTimeMillis;
@@ -88,6 +100,11 @@ public class SearchResult {
       return this;
     }
 
+    public SearchResultBuilder withNextPageToken(String nextPageToken) {
+      this.nextPageToken = nextPageToken;
+      return this;
+    }
+
     public SearchResultBuilder withResults(List<SearchResultEntry> results) {
       this.results = results;
       return this;
@@ -114,7 +131,11 @@ public class SearchResult {
         results = emptyList();
       }
       return new SearchResult(
-          results, optionalPageNexQueryExpression, totalHits, elapsedTimeMillis);
+          results,
+          optionalPageNexQueryExpression,
+          Optional.fromNullable(nextPageToken),
+          totalHits,
+          elapsedTimeMillis);
     }
   }
 }
@@ -11,7 +11,9 @@
 package org.eclipse.che.api.search.server;
 
 import java.nio.file.Path;
+import java.util.function.Consumer;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.search.server.impl.SearchResultEntry;
 
 public interface Searcher {
   /**
@@ -23,6 +25,17 @@ public interface Searcher {
    */
   SearchResult search(QueryExpression query) throws InvalidQueryException, QueryExecutionException;
 
+  /**
+   * Executes query and passes every matched item to the given consumer as soon as it is found.
+   * Returned result contains total hits and next page information but no items.
+   *
+   * @param query query expression
+   * @param consumer consumer of matched items
+   * @return results of search without matched items
+   */
+  SearchResult search(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws InvalidQueryException, QueryExecutionException;
+
   /**
    * Add VirtualFile to index.
    *
@@ -46,4 +59,15 @@ public interface Searcher {
    * @throws ServerException if an error occurs
    */
   void update(Path fsPath);
+
+  /**
+   * Schedules asynchronous indexing of a file or a folder. Implementations may coalesce repeated
+   * requests for the same path that are not processed yet. By default the item is indexed
+   * synchronously with {@link #update(Path)}.
+   *
+   * @param fsPath path of a file or a folder to index
+   */
+  default void scheduleUpdate(Path fsPath) {
+    update(fsPath);
+  }
 }
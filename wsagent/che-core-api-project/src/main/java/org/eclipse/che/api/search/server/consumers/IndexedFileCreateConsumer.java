@@ -28,6 +28,6 @@ public class IndexedFileCreateConsumer implements Consumer<Path> {
 
   @Override
   public void accept(Path fsPath) {
-    searcher.add(fsPath);
+    searcher.scheduleUpdate(fsPath);
   }
 }
@@ -28,6 +28,6 @@ public class IndexedFileUpdateConsumer implements Consumer<Path> {
 
   @Override
   public void accept(Path fsPath) {
-    searcher.update(fsPath);
+    searcher.scheduleUpdate(fsPath);
   }
 }
@@ -11,10 +11,15 @@
 package org.eclipse.che.api.search.server.impl;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.fs.server.WsPathUtils.nameOf;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -29,12 +34,23 @@ import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -48,17 +64,22 @@ import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
@@ -73,6 +94,7 @@ import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.TokenSources;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.search.server.InvalidQueryException;
@@ -81,6 +103,7 @@ import org.eclipse.che.api.search.server.QueryExecutionException;
 import org.eclipse.che.api.search.server.QueryExpression;
 import org.eclipse.che.api.search.server.SearchResult;
 import org.eclipse.che.api.search.server.Searcher;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +111,18 @@ import org.slf4j.LoggerFactory;
 /**
  * Lucene based searcher.
  *
+ * <p>Text extraction and index updates are performed by a bounded pool of indexing workers. Tree
+ * walkers (initial indexing, folder creation) act as producers and are throttled by the bounded
+ * indexing queue: when it is full the producer indexes the file itself. Repeated update requests
+ * for the same path that are still waiting in the queue are coalesced into a single indexing
+ * operation. Index changes are committed either when the number of uncommitted changes reaches
+ * the configured batch size or periodically, whatever comes first.
+ *
+ * <p>The index is kept on disk between restarts. Each indexed document stores the size and the
+ * modification time of the file, which serve as a manifest of indexed files.
+ * On startup only files that are new or whose size or modification time differ from the manifest
+ * are re-indexed, documents of files that no longer exist are removed from the index.
+ *
  * @author andrew00x
  * @author Sergii Kabashniuk
  */
@@ -100,6 +135,10 @@ public class LuceneSearcher implements Searcher {
   private static final String PATH_FIELD = "path";
   private static final String NAME_FIELD = "name";
   private static final String TEXT_FIELD = "text";
+  private static final String SIZE_FIELD = "size";
+  private static final String MODIFIED_FIELD = "modified";
+  private static final Set<String> MANIFEST_FIELDS =
+      ImmutableSet.of(PATH_FIELD, SIZE_FIELD, MODIFIED_FIELD);
 
   private final Set<PathMatcher> excludePatterns;
   private final File indexDirectory;
@@ -111,13 +150,20 @@ public class LuceneSearcher implements Searcher {
   private final Analyzer analyzer;
   private final CountDownLatch initialIndexingLatch = new CountDownLatch(1);
   private final Sort sort;
+  private final ThreadPoolExecutor indexingExecutor;
+  private final Set<Path> pendingPaths = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger uncommittedChanges = new AtomicInteger();
+  private final int commitBatchSize;
 
   @Inject
   public LuceneSearcher(
       @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
       @Named("vfs.local.fs_index_root_dir") File indexDirectory,
       @Named("che.user.workspaces.storage") File root,
-      PathTransformer pathTransformer)
+      PathTransformer pathTransformer,
+      @Named("che.search.indexing.threads") int indexingThreads,
+      @Named("che.search.indexing.queue_size") int indexingQueueSize,
+      @Named("che.search.indexing.commit_batch_size") int commitBatchSize)
       throws IOException {
 
     if (indexDirectory.exists()) {
@@ -144,6 +190,23 @@ public class LuceneSearcher implements Searcher {
     this.searcherManager =
         new SearcherManager(luceneIndexWriter, true, true, new SearcherFactory());
     this.sort = new Sort(SortField.FIELD_SCORE, new SortField(PATH_FIELD, SortField.Type.STRING));
+    this.commitBatchSize = commitBatchSize;
+
+    int threads =
+        indexingThreads > 0 ? indexingThreads : Runtime.getRuntime().availableProcessors();
+    this.indexingExecutor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            MILLISECONDS,
+            new ArrayBlockingQueue<>(indexingQueueSize),
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat("LuceneSearcherIndexer-%d")
+                .setDaemon(true)
+                .build(),
+            new CallerRunsPolicy());
   }
 
   @PostConstruct
@@ -154,9 +217,12 @@ public class LuceneSearcher implements Searcher {
             () -> {
               try {
                 long start = System.currentTimeMillis();
-                add(root.toPath());
+                synchronizeIndex(root.toPath());
+                commit();
                 LOG.info(
                     "Initial indexing complete after {} msec ", System.currentTimeMillis() - start);
+              } catch (IOException e) {
+                LOG.warn("Can't commit initial index because {} ", e.getMessage());
               } finally {
                 initialIndexingLatch.countDown();
               }
@@ -171,14 +237,134 @@ public class LuceneSearcher implements Searcher {
     return initialIndexingLatch;
   }
 
+  @PreDestroy
+  @VisibleForTesting
+  void shutdown() {
+    indexingExecutor.shutdown();
+    try {
+      if (!indexingExecutor.awaitTermination(10, SECONDS)) {
+        indexingExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      indexingExecutor.shutdownNow();
+    }
+    try {
+      searcherManager.close();
+      luceneIndexWriter.close();
+    } catch (IOException e) {
+      LOG.warn("Can't close index because {} ", e.getMessage());
+    }
+  }
+
+  /**
+   * Brings index that is left from the previous run in line with the file system. Files that are
+   * absent in the index or differ from the indexed ones by size or modification time are
+   * re-indexed, documents of files that do not exist anymore are deleted.
+   */
+  private void synchronizeIndex(Path rootPath) throws IOException {
+    Map<String, IndexedFile> manifest = readManifest();
+    LOG.info("Found {} files in the existing index", manifest.size());
+
+    Phaser phaser = new Phaser(1);
+    int[] reindexed = new int[1];
+    walk(
+        rootPath,
+        file -> {
+          if (!isNotExcluded(file)) {
+            return;
+          }
+          IndexedFile indexed = manifest.remove(pathTransformer.transform(file));
+          if (indexed != null && indexed.isUpToDate(file)) {
+            return;
+          }
+          reindexed[0]++;
+          phaser.register();
+          execute(
+              () -> {
+                try {
+                  addFile(file);
+                } finally {
+                  phaser.arriveAndDeregister();
+                }
+              });
+        });
+    phaser.arriveAndAwaitAdvance();
+
+    for (String wsPath : manifest.keySet()) {
+      luceneIndexWriter.deleteDocuments(new Term(PATH_FIELD, wsPath));
+    }
+    LOG.info("Re-indexed {} files, removed {} files from index", reindexed[0], manifest.size());
+  }
+
+  private Map<String, IndexedFile> readManifest() throws IOException {
+    Map<String, IndexedFile> manifest = new HashMap<>();
+    IndexSearcher luceneSearcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
+      for (LeafReaderContext context : luceneSearcher.getIndexReader().leaves()) {
+        LeafReader reader = context.reader();
+        Bits liveDocs = reader.getLiveDocs();
+        for (int i = 0; i < reader.maxDoc(); i++) {
+          if (liveDocs != null && !liveDocs.get(i)) {
+            continue;
+          }
+          Document doc = reader.document(i, MANIFEST_FIELDS);
+          IndexableField size = doc.getField(SIZE_FIELD);
+          IndexableField modified = doc.getField(MODIFIED_FIELD);
+          if (size == null || modified == null) {
+            // indexed by a version that did not store manifest data, will be re-indexed
+            continue;
+          }
+          manifest.put(
+              doc.get(PATH_FIELD),
+              new IndexedFile(
+                  size.numericValue().longValue(), modified.numericValue().longValue()));
+        }
+      }
+    } finally {
+      searcherManager.release(luceneSearcher);
+    }
+    return manifest;
+  }
+
   @ScheduleRate(period = 30, initialDelay = 30)
   private void commitIndex() throws IOException {
+    if (luceneIndexWriter.hasUncommittedChanges()) {
+      commit();
+    }
+  }
+
+  private void commit() throws IOException {
+    uncommittedChanges.set(0);
     luceneIndexWriter.commit();
   }
 
+  /** Commits index when the number of uncommitted changes reaches configured batch size. */
+  private void onIndexChanged() throws IOException {
+    if (uncommittedChanges.incrementAndGet() >= commitBatchSize) {
+      commit();
+    }
+  }
+
   @Override
   public SearchResult search(QueryExpression query)
       throws InvalidQueryException, QueryExecutionException {
+    List<SearchResultEntry> results = newArrayList();
+    SearchResult result = search(query, results::add);
+    return SearchResult.aSearchResult()
+        .withResults(results)
+        .withTotalHits(result.getTotalHits())
+        .withNextPageQueryExpression(result.getNextPageQueryExpression().orNull())
+        .withNextPageToken(result.getNextPageToken().orNull())
+        .withElapsedTimeMillis(result.getElapsedTimeMillis())
+        .build();
+  }
+
+  @Override
+  public SearchResult search(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws InvalidQueryException, QueryExecutionException {
     IndexSearcher luceneSearcher = null;
     try {
       final long startTime = System.currentTimeMillis();
@@ -189,7 +375,9 @@ public class LuceneSearcher implements Searcher {
 
       ScoreDoc after = null;
       final int numSkipDocs = Math.max(0, query.getSkipCount());
-      if (numSkipDocs > 0) {
+      if (query.getAfter() != null) {
+        after = decodePageToken(query.getAfter());
+      } else if (numSkipDocs > 0) {
         after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
       }
 
@@ -198,97 +386,42 @@ public class LuceneSearcher implements Searcher {
       TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs, sort, true, true);
       final long totalHitsNum = topDocs.totalHits;
 
-      List<SearchResultEntry> results = newArrayList();
-      List<OffsetData> offsetData = Collections.emptyList();
       for (int i = 0; i < topDocs.scoreDocs.length; i++) {
         ScoreDoc scoreDoc = topDocs.scoreDocs[i];
         int docId = scoreDoc.doc;
         Document doc = luceneSearcher.doc(docId);
+        List<OffsetData> offsetData = Collections.emptyList();
         if (query.isIncludePositions()) {
-          offsetData = new ArrayList<>();
-          String txt = doc.get(TEXT_FIELD);
-          if (txt != null) {
-            IndexReader reader = luceneSearcher.getIndexReader();
-
-            TokenStream tokenStream =
-                TokenSources.getTokenStream(
-                    TEXT_FIELD,
-                    reader.getTermVectors(docId),
-                    txt,
-                    luceneIndexWriter.getAnalyzer(),
-                    -1);
-
-            CharTermAttribute termAtt = tokenStream.addAttribute(CharTermAttribute.class);
-            OffsetAttribute offsetAtt = tokenStream.addAttribute(OffsetAttribute.class);
-
-            QueryScorer queryScorer = new QueryScorer(luceneQuery);
-            // TODO think about this constant
-            queryScorer.setMaxDocCharsToAnalyze(1_000_000);
-            TokenStream newStream = queryScorer.init(tokenStream);
-            if (newStream != null) {
-              tokenStream = newStream;
-            }
-            queryScorer.startFragment(null);
-
-            tokenStream.reset();
-
-            int startOffset, endOffset;
-            // TODO think about this constant
-            for (boolean next = tokenStream.incrementToken();
-                next && (offsetAtt.startOffset() < 1_000_000);
-                next = tokenStream.incrementToken()) {
-              startOffset = offsetAtt.startOffset();
-              endOffset = offsetAtt.endOffset();
-
-              if ((endOffset > txt.length()) || (startOffset > txt.length())) {
-                throw new QueryExecutionException(
-                    "Token "
-                        + termAtt.toString()
-                        + " exceeds length of provided text size "
-                        + txt.length());
-              }
-
-              float res = queryScorer.getTokenScore();
-              if (res > 0.0F && startOffset <= endOffset) {
-                String tokenText = txt.substring(startOffset, endOffset);
-                Scanner sc = new Scanner(txt);
-                int lineNum = 1;
-                long len = 0;
-                String foundLine = "";
-                while (sc.hasNextLine()) {
-                  foundLine = sc.nextLine();
-
-                  len += foundLine.length();
-                  if (len > startOffset) {
-                    break;
-                  }
-                  lineNum++;
-                }
-                offsetData.add(
-                    new OffsetData(tokenText, startOffset, endOffset, res, lineNum, foundLine));
-              }
-            }
-          }
+          offsetData = getOffsetData(luceneSearcher, luceneQuery, docId, doc);
         }
 
         String filePath = doc.getField(PATH_FIELD).stringValue();
         LOG.debug("Doc {} path {} score {} ", docId, filePath, scoreDoc.score);
-        results.add(new SearchResultEntry(filePath, offsetData));
+        consumer.accept(new SearchResultEntry(filePath, offsetData));
       }
 
       final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
 
-      boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
       QueryExpression nextPageQueryExpression = null;
+      String nextPageToken = null;
+      if (topDocs.scoreDocs.length == numDocs) {
+        nextPageToken = encodePageToken((FieldDoc) topDocs.scoreDocs[numDocs - 1]);
+      }
+      // when paging by token the number of skipped documents is unknown, so
+      // the presence of the next page is defined by the size of the current one
+      boolean hasMoreToRetrieve =
+          query.getAfter() != null
+              ? nextPageToken != null
+              : numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
       if (hasMoreToRetrieve) {
         nextPageQueryExpression =
-            createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length);
+            createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length, nextPageToken);
       }
 
       return SearchResult.aSearchResult()
-          .withResults(results)
           .withTotalHits(totalHitsNum)
           .withNextPageQueryExpression(nextPageQueryExpression)
+          .withNextPageToken(hasMoreToRetrieve ? nextPageToken : null)
           .withElapsedTimeMillis(elapsedTimeMillis)
           .build();
     } catch (ParseException e) {
@@ -304,6 +437,95 @@ public class LuceneSearcher implements Searcher {
     }
   }
 
+  private List<OffsetData> getOffsetData(
+      IndexSearcher luceneSearcher, Query luceneQuery, int docId, Document doc)
+      throws IOException, QueryExecutionException {
+    List<OffsetData> offsetData = new ArrayList<>();
+    String txt = doc.get(TEXT_FIELD);
+    if (txt == null) {
+      return offsetData;
+    }
+    IndexReader reader = luceneSearcher.getIndexReader();
+
+    TokenStream tokenStream =
+        TokenSources.getTokenStream(
+            TEXT_FIELD, reader.getTermVectors(docId), txt, luceneIndexWriter.getAnalyzer(), -1);
+
+    CharTermAttribute termAtt = tokenStream.addAttribute(CharTermAttribute.class);
+    OffsetAttribute offsetAtt = tokenStream.addAttribute(OffsetAttribute.class);
+
+    QueryScorer queryScorer = new QueryScorer(luceneQuery);
+    // TODO think about this constant
+    queryScorer.setMaxDocCharsToAnalyze(1_000_000);
+    TokenStream newStream = queryScorer.init(tokenStream);
+    if (newStream != null) {
+      tokenStream = newStream;
+    }
+    queryScorer.startFragment(null);
+
+    tokenStream.reset();
+
+    int startOffset, endOffset;
+    // TODO think about this constant
+    for (boolean next = tokenStream.incrementToken();
+        next && (offsetAtt.startOffset() < 1_000_000);
+        next = tokenStream.incrementToken()) {
+      startOffset = offsetAtt.startOffset();
+      endOffset = offsetAtt.endOffset();
+
+      if ((endOffset > txt.length()) || (startOffset > txt.length())) {
+        throw new QueryExecutionException(
+            "Token "
+                + termAtt.toString()
+                + " exceeds length of provided text size "
+                + txt.length());
+      }
+
+      float res = queryScorer.getTokenScore();
+      if (res > 0.0F && startOffset <= endOffset) {
+        String tokenText = txt.substring(startOffset, endOffset);
+        Scanner sc = new Scanner(txt);
+        int lineNum = 1;
+        long len = 0;
+        String foundLine = "";
+        while (sc.hasNextLine()) {
+          foundLine = sc.nextLine();
+
+          len += foundLine.length();
+          if (len > startOffset) {
+            break;
+          }
+          lineNum++;
+        }
+        offsetData.add(new OffsetData(tokenText, startOffset, endOffset, res, lineNum, foundLine));
+      }
+    }
+    return offsetData;
+  }
+
+  /**
+   * Page token holds sort values of the last document of a page, i.e. its score and path, which
+   * uniquely identify position of the document in search results.
+   */
+  private String encodePageToken(FieldDoc last) {
+    float score = (Float) last.fields[0];
+    String path = ((BytesRef) last.fields[1]).utf8ToString();
+    String token = Float.floatToIntBits(score) + ":" + last.doc + ":" + path;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(UTF_8));
+  }
+
+  private FieldDoc decodePageToken(String pageToken) throws InvalidQueryException {
+    try {
+      String token = new String(Base64.getUrlDecoder().decode(pageToken), UTF_8);
+      String[] parts = token.split(":", 3);
+      float score = Float.intBitsToFloat(Integer.parseInt(parts[0]));
+      int doc = Integer.parseInt(parts[1]);
+      return new FieldDoc(doc, score, new Object[] {score, new BytesRef(parts[2])});
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      throw new InvalidQueryException("Invalid page token: " + pageToken, e);
+    }
+  }
+
   private Query createLuceneQuery(QueryExpression query) throws ParseException, IOException {
     BooleanQuery.Builder luceneQueryBuilder = new BooleanQuery.Builder();
     final String name = query.getName();
@@ -347,12 +569,14 @@ public class LuceneSearcher implements Searcher {
     return scoreDoc;
   }
 
-  private QueryExpression createNextPageQuery(QueryExpression originalQuery, int newSkipCount) {
+  private QueryExpression createNextPageQuery(
+      QueryExpression originalQuery, int newSkipCount, String nextPageToken) {
     return new QueryExpression()
         .setText(originalQuery.getText())
         .setName(originalQuery.getName())
         .setPath(originalQuery.getPath())
         .setSkipCount(newSkipCount)
+        .setAfter(nextPageToken)
         .setMaxItems(originalQuery.getMaxItems());
   }
 
@@ -361,19 +585,21 @@ public class LuceneSearcher implements Searcher {
 
     try {
       if (fsPath.toFile().isDirectory()) {
-        try {
-          Files.walkFileTree(
-              fsPath,
-              new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                  addFile(file);
-                  return FileVisitResult.CONTINUE;
-                }
-              });
-        } catch (IOException ignore) {
-          LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
-        }
+        Phaser phaser = new Phaser(1);
+        walk(
+            fsPath,
+            file -> {
+              phaser.register();
+              execute(
+                  () -> {
+                    try {
+                      addFile(file);
+                    } finally {
+                      phaser.arriveAndDeregister();
+                    }
+                  });
+            });
+        phaser.arriveAndAwaitAdvance();
       } else {
         addFile(fsPath);
       }
@@ -386,6 +612,34 @@ public class LuceneSearcher implements Searcher {
     }
   }
 
+  /**
+   * Submits indexing task to the indexing workers. If indexing queue is full the task is executed
+   * by the calling thread, if workers are already stopped the task is executed in place as well.
+   */
+  private void execute(Runnable task) {
+    if (indexingExecutor.isShutdown()) {
+      task.run();
+    } else {
+      indexingExecutor.execute(task);
+    }
+  }
+
+  private void walk(Path fsPath, Consumer<Path> fileConsumer) {
+    try {
+      Files.walkFileTree(
+          fsPath,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              fileConsumer.accept(file);
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException ignore) {
+      LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
+    }
+  }
+
   private void addFile(Path fsPath) {
     if (!fsPath.toFile().exists()) {
       return;
@@ -400,16 +654,21 @@ public class LuceneSearcher implements Searcher {
     try (Reader reader =
         new BufferedReader(new InputStreamReader(new FileInputStream(fsPath.toFile()), "utf-8"))) {
       String name = nameOf(wsPath);
+      BasicFileAttributes attributes = Files.readAttributes(fsPath, BasicFileAttributes.class);
       Document doc = new Document();
       doc.add(new StringField(PATH_FIELD, wsPath, Field.Store.YES));
       doc.add(new SortedDocValuesField(PATH_FIELD, new BytesRef(wsPath)));
       doc.add(new TextField(NAME_FIELD, name, Field.Store.YES));
+      doc.add(new StoredField(SIZE_FIELD, attributes.size()));
+      doc.add(new StoredField(MODIFIED_FIELD, attributes.lastModifiedTime().toMillis()));
       try {
-        doc.add(new TextField(TEXT_FIELD, CharStreams.toString(reader), Field.Store.YES));
+        String text = CharStreams.toString(reader);
+        doc.add(new TextField(TEXT_FIELD, text, Field.Store.YES));
       } catch (MalformedInputException e) {
         LOG.warn("Can't index file: {}", wsPath);
       }
       luceneIndexWriter.updateDocument(new Term(PATH_FIELD, wsPath), doc);
+      onIndexChanged();
 
     } catch (IOException oome) {
       LOG.warn("Can't index file: {}", wsPath);
@@ -429,6 +688,7 @@ public class LuceneSearcher implements Searcher {
       deleteFileOrFolder.add(new TermQuery(new Term(PATH_FIELD, wsPath)), Occur.SHOULD);
       deleteFileOrFolder.add(new PrefixQuery(new Term(PATH_FIELD, wsPath + "/")), Occur.SHOULD);
       luceneIndexWriter.deleteDocuments(deleteFileOrFolder.build());
+      onIndexChanged();
       printStatistic();
     } catch (IOException e) {
       LOG.warn("Can't delete index for file: {}", wsPath);
@@ -464,6 +724,23 @@ public class LuceneSearcher implements Searcher {
     addFile(fsPath);
   }
 
+  @Override
+  public void scheduleUpdate(Path fsPath) {
+    if (!pendingPaths.add(fsPath)) {
+      LOG.debug("Indexing of {} is already pending", fsPath);
+      return;
+    }
+    execute(
+        () -> {
+          pendingPaths.remove(fsPath);
+          if (fsPath.toFile().isDirectory()) {
+            walk(fsPath, this::scheduleUpdate);
+          } else {
+            addFile(fsPath);
+          }
+        });
+  }
+
   private boolean isNotExcluded(Path fsPath) {
     for (PathMatcher matcher : excludePatterns) {
       if (matcher.matches(fsPath)) {
@@ -472,4 +749,24 @@ public class LuceneSearcher implements Searcher {
     }
     return true;
   }
+
+  /** Size and modification time of a file at the moment it was indexed. */
+  private static class IndexedFile {
+    private final long size;
+    private final long modified;
+
+    private IndexedFile(long size, long modified) {
+      this.size = size;
+      this.modified = modified;
+    }
+
+    private boolean isUpToDate(Path fsPath) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(fsPath, BasicFileAttributes.class);
+        return size == attributes.size() && modified == attributes.lastModifiedTime().toMillis();
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
 }
@@ -10,22 +10,20 @@
  */
 package org.eclipse.che.api.watcher.server.impl;
 
-import static java.nio.file.FileVisitResult.CONTINUE;
-import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
-import static java.nio.file.Files.exists;
-import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 
 import com.google.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -38,11 +36,24 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>Walker keeps a snapshot of the tree (modification time and size of files, modification time
+ * and entries of directories) and compares file system against it on each run. Directory is listed
+ * again only if its modification time differs from the one stored in the snapshot, otherwise the
+ * entries from the snapshot are used. Files are checked on each run because modification of file
+ * content does not change modification time of its directory.
  */
 @Singleton
 public class FileTreeWalker {
   private static final Logger LOG = LoggerFactory.getLogger(FileTreeWalker.class);
 
+  /**
+   * Directory that is modified within this interval before it was listed is listed again on the
+   * next run, as file systems with coarse timestamps may not change its modification time on
+   * further modifications.
+   */
+  private static final long RACY_MODIFICATION_INTERVAL_MS = 2_000;
+
   private final File root;
 
   private final Set<Consumer<Path>> directoryUpdateConsumers;
@@ -55,8 +66,10 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final Map<Path, FileState> files = new HashMap<>();
+  private final Map<Path, DirectoryState> directories = new HashMap<>();
+
+  private WalkStatistics statistics = new WalkStatistics();
 
   @Inject
   public FileTreeWalker(
@@ -85,77 +98,259 @@ public class FileTreeWalker {
 
   @ScheduleRate(period = 10)
   void walk() {
+    WalkStatistics current = new WalkStatistics();
+    long start = System.currentTimeMillis();
     try {
       LOG.debug("Tree walk started");
-
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
-
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
-
-      walkFileTree(
-          root.toPath(),
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
-
-              return CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
-
-              return CONTINUE;
-            }
-          });
+      if (!matches(directoryExcludes, root.toPath())) {
+        walkDirectory(root.toPath(), current);
+      }
       LOG.debug("Tree walk finished");
+    } catch (Exception e) {
+      LOG.error("Error while walking file tree", e);
+    }
+    current.elapsedTimeMillis = System.currentTimeMillis() - start;
+    statistics = current;
+    LOG.debug("Tree walk statistics: {}", current);
+  }
+
+  /** Statistics of the last tree walk. */
+  WalkStatistics getStatistics() {
+    return statistics;
+  }
+
+  private void walkDirectory(Path dir, WalkStatistics stats) {
+    BasicFileAttributes attrs = readAttributes(dir);
+    if (attrs == null || !attrs.isDirectory()) {
+      deleteDirectory(dir, stats);
+      return;
+    }
+
+    long modified = attrs.lastModifiedTime().toMillis();
+    DirectoryState state = directories.get(dir);
+    if (state == null) {
+      state = new DirectoryState();
+      directories.put(dir, state);
+      stats.created++;
+      directoryCreateConsumers.forEach(it -> it.accept(dir));
+      if (!listDirectory(dir, state, modified, stats)) {
+        return;
+      }
+    } else if (state.modified != modified
+        || state.listed - modified < RACY_MODIFICATION_INTERVAL_MS) {
+      if (state.modified != modified) {
+        stats.updated++;
+        directoryUpdateConsumers.forEach(it -> it.accept(dir));
+      }
+      if (!listDirectory(dir, state, modified, stats)) {
+        return;
+      }
+    } else {
+      stats.directoriesSkipped++;
+    }
+
+    for (Path file : new ArrayList<>(state.files)) {
+      checkFile(file, state, stats);
+    }
+    for (Path subdirectory : new ArrayList<>(state.directories)) {
+      walkDirectory(subdirectory, stats);
+      if (!directories.containsKey(subdirectory)) {
+        state.directories.remove(subdirectory);
+      }
+    }
+  }
+
+  /**
+   * Reads directory entries and updates snapshot. Entries that are not present anymore are
+   * reported as deleted, new files are reported as created, new directories are reported when
+   * walked.
+   *
+   * @return {@code false} if directory can't be read, its entries are not changed in this case
+   */
+  private boolean listDirectory(
+      Path dir, DirectoryState state, long modified, WalkStatistics stats) {
+    stats.directoriesListed++;
+
+    Set<Path> actualFiles = new HashSet<>();
+    Set<Path> actualDirectories = new HashSet<>();
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+      for (Path entry : entries) {
+        if (Files.isDirectory(entry, NOFOLLOW_LINKS)) {
+          if (!matches(directoryExcludes, entry)) {
+            actualDirectories.add(entry);
+          }
+        } else if (!matches(fileExcludes, entry)) {
+          actualFiles.add(entry);
+        }
+      }
     } catch (NoSuchFileException e) {
       LOG.debug(
           "Trying to process a file, however seems like it is already not present: {}",
           e.getMessage());
-    } catch (Exception e) {
-      LOG.error("Error while walking file tree", e);
+      deleteDirectory(dir, stats);
+      return false;
+    } catch (IOException e) {
+      LOG.error("Error while reading directory {}", dir, e);
+      state.modified = modified;
+      state.listed = System.currentTimeMillis();
+      return false;
     }
+
+    for (Path file : state.files) {
+      if (!actualFiles.contains(file)) {
+        deleteFile(file, stats);
+      }
+    }
+    for (Path subdirectory : state.directories) {
+      if (!actualDirectories.contains(subdirectory)) {
+        deleteDirectory(subdirectory, stats);
+      }
+    }
+
+    state.files = actualFiles;
+    state.directories = actualDirectories;
+    state.modified = modified;
+    state.listed = System.currentTimeMillis();
+    return true;
   }
 
-  private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
-      Set<Consumer<Path>> updateConsumer,
-      Set<Consumer<Path>> createConsumer,
-      Path path,
-      BasicFileAttributes attrs) {
-    Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
-
-    if (items.containsKey(path)) {
-      Long lastModifiedStored = items.get(path);
-      if (!lastModifiedActual.equals(lastModifiedStored)) {
-        items.put(path, lastModifiedActual);
-        updateConsumer.forEach(it -> it.accept(path));
+  private void checkFile(Path file, DirectoryState parent, WalkStatistics stats) {
+    stats.filesChecked++;
+    BasicFileAttributes attrs = readAttributes(file);
+    if (attrs == null) {
+      parent.files.remove(file);
+      deleteFile(file, stats);
+      return;
+    }
+
+    long modified = attrs.lastModifiedTime().toMillis();
+    long size = attrs.size();
+    FileState state = files.get(file);
+    if (state == null) {
+      files.put(file, new FileState(modified, size));
+      stats.created++;
+      fileCreateConsumers.forEach(it -> it.accept(file));
+    } else if (state.modified != modified || state.size != size) {
+      files.put(file, new FileState(modified, size));
+      stats.updated++;
+      fileUpdateConsumers.forEach(it -> it.accept(file));
+    }
+  }
+
+  private void deleteFile(Path file, WalkStatistics stats) {
+    if (files.remove(file) != null) {
+      stats.deleted++;
+      fileDeleteConsumers.forEach(it -> it.accept(file));
+    }
+  }
+
+  private void deleteDirectory(Path dir, WalkStatistics stats) {
+    DirectoryState state = directories.remove(dir);
+    if (state == null) {
+      return;
+    }
+    for (Path file : state.files) {
+      deleteFile(file, stats);
+    }
+    for (Path subdirectory : state.directories) {
+      deleteDirectory(subdirectory, stats);
+    }
+    stats.deleted++;
+    directoryDeleteConsumers.forEach(it -> it.accept(dir));
+  }
+
+  private static BasicFileAttributes readAttributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static boolean matches(Set<PathMatcher> matchers, Path path) {
+    for (PathMatcher matcher : matchers) {
+      if (matcher.matches(path)) {
+        return true;
       }
-    } else {
-      items.put(path, lastModifiedActual);
-      createConsumer.forEach(it -> it.accept(path));
+    }
+    return false;
+  }
+
+  private static class FileState {
+    private final long modified;
+    private final long size;
+
+    private FileState(long modified, long size) {
+      this.modified = modified;
+      this.size = size;
+    }
+  }
+
+  private static class DirectoryState {
+    private long modified;
+    private long listed;
+    private Set<Path> files = new HashSet<>();
+    private Set<Path> directories = new HashSet<>();
+  }
+
+  /** Numbers describing a single tree walk. */
+  static class WalkStatistics {
+    private int directoriesListed;
+    private int directoriesSkipped;
+    private int filesChecked;
+    private int created;
+    private int updated;
+    private int deleted;
+    private long elapsedTimeMillis;
+
+    /** Number of directories which entries were read from file system. */
+    int getDirectoriesListed() {
+      return directoriesListed;
+    }
+
+    /** Number of directories which entries were taken from the snapshot. */
+    int getDirectoriesSkipped() {
+      return directoriesSkipped;
+    }
+
+    int getFilesChecked() {
+      return filesChecked;
+    }
+
+    int getCreated() {
+      return created;
+    }
+
+    int getUpdated() {
+      return updated;
+    }
+
+    int getDeleted() {
+      return deleted;
+    }
+
+    long getElapsedTimeMillis() {
+      return elapsedTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "WalkStatistics{"
+          + "directoriesListed="
+          + directoriesListed
+          + ", directoriesSkipped="
+          + directoriesSkipped
+          + ", filesChecked="
+          + filesChecked
+          + ", created="
+          + created
+          + ", updated="
+          + updated
+          + ", deleted="
+          + deleted
+          + ", elapsedTimeMillis="
+          + elapsedTimeMillis
+          + '}';
     }
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent.Kind;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesced file watcher events that are not passed to the handler yet. Pending changes are
+ * accessed by the watcher thread only, while the known entries of watched directories, which are
+ * needed to find out the deletions missed during events overflow, are updated on registration from
+ * any thread.
+ */
+class FileWatcherChangeSet {
+  private static final Logger LOG = LoggerFactory.getLogger(FileWatcherChangeSet.class);
+
+  private final Map<Path, Kind<?>> changes = new LinkedHashMap<>();
+  private final Map<Path, Set<Path>> entries = new ConcurrentHashMap<>();
+
+  private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
+  private final FileWatcherEventHandler handler;
+  private final long coalescingDelayMs;
+  private final long maxLatencyMs;
+  private final int maxSize;
+  private final LongSupplier clock;
+
+  private long firstChangeTime;
+
+  FileWatcherChangeSet(
+      FileWatcherExcludePatternsRegistry excludePatternsRegistry,
+      FileWatcherEventHandler handler,
+      long coalescingDelayMs,
+      long maxLatencyMs,
+      int maxSize) {
+    this(
+        excludePatternsRegistry,
+        handler,
+        coalescingDelayMs,
+        maxLatencyMs,
+        maxSize,
+        () -> System.nanoTime() / 1_000_000);
+  }
+
+  /** @param clock supplies current time in milliseconds */
+  FileWatcherChangeSet(
+      FileWatcherExcludePatternsRegistry excludePatternsRegistry,
+      FileWatcherEventHandler handler,
+      long coalescingDelayMs,
+      long maxLatencyMs,
+      int maxSize,
+      LongSupplier clock) {
+    this.excludePatternsRegistry = excludePatternsRegistry;
+    this.handler = handler;
+    this.coalescingDelayMs = coalescingDelayMs;
+    this.maxLatencyMs = maxLatencyMs;
+    this.maxSize = maxSize;
+    this.clock = clock;
+  }
+
+  boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * Returns time in milliseconds to wait for the next event before the pending changes are passed
+   * to the handler, it is the coalescing delay unless the first pending change waits for almost the
+   * max latency already.
+   */
+  long getPollTimeout() {
+    long remaining = firstChangeTime + maxLatencyMs - clock.getAsLong();
+    return Math.max(0, Math.min(coalescingDelayMs, remaining));
+  }
+
+  /**
+   * Returns true if the pending changes should be passed to the handler without waiting for the
+   * coalescing delay, because there are too many of them or the first one waits for the max latency.
+   */
+  boolean isFlushRequired() {
+    return changes.size() >= maxSize
+        || (!changes.isEmpty() && clock.getAsLong() - firstChangeTime >= maxLatencyMs);
+  }
+
+  /** Starts tracking entries of the directory, so deletions can be found by rescanning it. */
+  void track(Path dir) {
+    Set<Path> known = ConcurrentHashMap.newKeySet();
+    known.addAll(list(dir));
+    entries.put(dir.toAbsolutePath(), known);
+  }
+
+  /** Stops tracking entries of the directory. */
+  void untrack(Path dir) {
+    entries.remove(dir.toAbsolutePath());
+  }
+
+  /**
+   * Merges event with the one that is already pending for the same path. The resulting event kind
+   * reflects the difference between the item state before the first event and after the last one.
+   */
+  void add(Path path, Kind<?> kind) {
+    Set<Path> known = entries.get(path.getParent());
+    if (known != null) {
+      if (kind == ENTRY_CREATE) {
+        known.add(path);
+      } else if (kind == ENTRY_DELETE) {
+        known.remove(path);
+      }
+    }
+
+    if (changes.isEmpty()) {
+      firstChangeTime = clock.getAsLong();
+    }
+    Kind<?> previous = changes.remove(path);
+    if (previous == null) {
+      changes.put(path, kind);
+    } else if (previous == ENTRY_CREATE) {
+      if (kind != ENTRY_DELETE) {
+        changes.put(path, ENTRY_CREATE);
+      }
+    } else if (previous == ENTRY_DELETE && kind == ENTRY_CREATE) {
+      changes.put(path, Files.isDirectory(path) ? ENTRY_CREATE : ENTRY_MODIFY);
+    } else {
+      changes.put(path, kind);
+    }
+  }
+
+  /**
+   * Compares the existing entries of a directory with the known ones after events overflow. Entries
+   * that disappeared are reported as deleted, new ones as created, the rest of the entries and
+   * directory itself as modified.
+   */
+  void rescan(Path dir) {
+    Path absoluteDir = dir.toAbsolutePath();
+    Set<Path> existing = list(absoluteDir);
+    Set<Path> known = entries.get(absoluteDir);
+    if (known != null) {
+      for (Path path : known) {
+        if (!existing.contains(path)) {
+          add(path, ENTRY_DELETE);
+        }
+      }
+    }
+    for (Path path : existing) {
+      add(path, known == null || known.contains(path) ? ENTRY_MODIFY : ENTRY_CREATE);
+    }
+    add(absoluteDir, ENTRY_MODIFY);
+  }
+
+  /** Passes pending changes to the handler. */
+  void flush() {
+    LOG.debug("Passing {} coalesced events to handler", changes.size());
+    try {
+      for (Entry<Path, Kind<?>> change : changes.entrySet()) {
+        handler.handle(change.getKey(), change.getValue());
+      }
+    } finally {
+      changes.clear();
+    }
+  }
+
+  private Set<Path> list(Path dir) {
+    Set<Path> existing = new HashSet<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path entry : stream) {
+        Path path = entry.toAbsolutePath();
+        if (!excludePatternsRegistry.isExcluded(path)) {
+          existing.add(path);
+        }
+      }
+    } catch (IOException e) {
+      LOG.error("Can't list entries of directory '{}'", dir, e);
+    }
+    return existing;
+  }
+}
@@ -17,6 +17,7 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -32,15 +33,14 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
@@ -53,6 +53,14 @@ import org.slf4j.LoggerFactory;
  * ordinary java file system paths in counter to che virtual file system which may have custom root
  * element and structure. Transforming one we of path representation into another and backwards is
  * the responsibility of upper services.
+ *
+ * <p>Events are not passed to the handler one by one as soon as they are reported. They are
+ * collected into a change set until there are no new events during the coalescing delay, the
+ * change set becomes too large or the first collected event waits for the max latency. Events
+ * related to the same path are merged, e.g. creation followed by modification is reported as
+ * creation only and creation followed by deletion is not reported at all. If the underlying watch
+ * service reports events overflow for a directory, the directory is rescanned and its entries are
+ * compared with the ones known before, so deleted, created and modified entries are reported.
  */
 @Singleton
 public class FileWatcherService {
@@ -62,10 +70,11 @@ public class FileWatcherService {
   private final AtomicBoolean running = new AtomicBoolean();
 
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+  private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
 
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
-  private final FileWatcherEventHandler handler;
+  private final FileWatcherChangeSet changes;
   private final WatchService service;
   private final Modifier[] eventModifiers;
   private final Kind<?>[] eventKinds;
@@ -76,9 +85,14 @@ public class FileWatcherService {
   public FileWatcherService(
       FileWatcherExcludePatternsRegistry excludePatternsRegistry,
       FileWatcherEventHandler handler,
-      WatchService service) {
+      WatchService service,
+      @Named("che.fs.watcher.coalescing_delay_ms") long coalescingDelayMs,
+      @Named("che.fs.watcher.max_latency_ms") long maxLatencyMs,
+      @Named("che.fs.watcher.max_change_set_size") int maxChangeSetSize) {
     this.excludePatternsRegistry = excludePatternsRegistry;
-    this.handler = handler;
+    this.changes =
+        new FileWatcherChangeSet(
+            excludePatternsRegistry, handler, coalescingDelayMs, maxLatencyMs, maxChangeSetSize);
     this.service = service;
 
     this.eventModifiers = getWatchEventModifiers();
@@ -182,22 +196,24 @@ public class FileWatcherService {
       return;
     }
     LOG.debug("Registering directory '{}'", dir);
-    if (keys.values().contains(dir)) {
-      int previous = registrations.get(dir);
-      LOG.debug(
-          "Directory is already being watched, increasing watch counter, previous value: {}",
-          previous);
-      registrations.put(dir, previous + 1);
-    } else {
-      try {
-        LOG.debug("Starting watching directory '{}'", dir);
-        synchronized (keys) {
+    synchronized (keys) {
+      if (watchKeys.containsKey(dir)) {
+        int previous = registrations.get(dir);
+        LOG.debug(
+            "Directory is already being watched, increasing watch counter, previous value: {}",
+            previous);
+        registrations.put(dir, previous + 1);
+      } else {
+        try {
+          LOG.debug("Starting watching directory '{}'", dir);
           WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
           keys.put(watchKey, dir);
+          watchKeys.put(dir, watchKey);
           registrations.put(dir, 1);
+          changes.track(dir);
+        } catch (IOException e) {
+          LOG.error("Can't register dir {} in file watch service", dir, e);
         }
-      } catch (IOException e) {
-        LOG.error("Can't register dir {} in file watch service", dir, e);
       }
     }
   }
@@ -216,37 +232,42 @@ public class FileWatcherService {
   void unRegister(Path dir) {
     LOG.debug("Canceling directory '{}' registration", dir);
 
-    Predicate<Entry<WatchKey, Path>> equalsDir = it -> it.getValue().equals(dir);
+    synchronized (keys) {
+      if (!exists(dir)) {
+        LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
 
-    if (!exists(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
-
-      registrations.remove(dir);
+        registrations.remove(dir);
+        cancel(dir);
 
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
+        return;
+      }
 
-      return;
-    }
+      if (!registrations.containsKey(dir)) {
+        LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
+        return;
+      }
 
-    if (!registrations.containsKey(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
-      return;
+      int previous = registrations.get(dir);
+      if (previous == 1) {
+        LOG.debug("Stopping watching directory '{}'", dir);
+        registrations.remove(dir);
+        cancel(dir);
+      } else {
+        LOG.debug(
+            "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
+            previous);
+        registrations.put(dir, previous - 1);
+      }
     }
+  }
 
-    int previous = registrations.get(dir);
-    if (previous == 1) {
-      LOG.debug("Stopping watching directory '{}'", dir);
-      registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
-    } else {
-      LOG.debug(
-          "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
-          previous);
-      registrations.put(dir, previous - 1);
+  private void cancel(Path dir) {
+    WatchKey watchKey = watchKeys.remove(dir);
+    if (watchKey != null) {
+      watchKey.cancel();
+      keys.remove(watchKey);
     }
+    changes.untrack(dir);
   }
 
   private void run() {
@@ -255,12 +276,17 @@ public class FileWatcherService {
 
     while (running.get()) {
       try {
-        WatchKey watchKey = service.take();
-        Path dir;
-        synchronized (keys) {
-          dir = keys.get(watchKey);
+        WatchKey watchKey =
+            changes.isEmpty()
+                ? service.take()
+                : service.poll(changes.getPollTimeout(), MILLISECONDS);
+        if (watchKey == null) {
+          changes.flush();
+          continue;
         }
 
+        Path dir = keys.get(watchKey);
+
         if (dir == null) {
           resetAndRemove(watchKey, dir);
 
@@ -281,7 +307,8 @@ public class FileWatcherService {
           Kind<?> kind = event.kind();
 
           if (kind == OVERFLOW) {
-            LOG.warn("Detected file system events overflowing");
+            LOG.warn("Detected file system events overflowing for '{}', rescanning", dir);
+            changes.rescan(dir);
             continue;
           }
 
@@ -294,10 +321,14 @@ public class FileWatcherService {
             continue;
           }
 
-          handler.handle(path, kind);
+          changes.add(path, kind);
         }
 
         resetAndRemove(watchKey, dir);
+
+        if (changes.isFlushRequired()) {
+          changes.flush();
+        }
       } catch (InterruptedException e) {
         running.compareAndSet(true, false);
         LOG.debug(
@@ -311,10 +342,15 @@ public class FileWatcherService {
 
   private void resetAndRemove(WatchKey watchKey, Path dir) {
     if (!watchKey.reset()) {
-      if (dir != null) {
-        registrations.remove(dir);
+      synchronized (keys) {
+        if (dir != null) {
+          registrations.remove(dir);
+          if (watchKeys.remove(dir, watchKey)) {
+            changes.untrack(dir);
+          }
+        }
+        keys.remove(watchKey);
       }
-      keys.remove(watchKey);
     }
   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.INSERT;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.fs.server.FsManager;
+import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.project.server.impl.RegisteredProject;
+import org.eclipse.che.api.project.shared.dto.EditorChangesDto;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests of {@link EditorWorkingCopyManager}. */
+@Listeners(MockitoTestNGListener.class)
+public class EditorWorkingCopyManagerTest {
+  private static final int FILE_SIZE = 300 * 1024;
+
+  @Mock private RequestTransmitter transmitter;
+  @Mock private FsManager fsManager;
+  @Mock private ProjectManager projectManager;
+  @Mock private RegisteredProject project;
+
+  private EditorWorkingCopyManager manager;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(project.getPath()).thenReturn("/project");
+    when(projectManager.getClosest(anyString())).thenReturn(Optional.of(project));
+    when(fsManager.read(anyString()))
+        .thenAnswer(invocation -> new ByteArrayInputStream(content(FILE_SIZE)));
+
+    manager =
+        new EditorWorkingCopyManager(new EventService(), transmitter, fsManager, projectManager, 1);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    manager.unsubscribe();
+  }
+
+  @Test
+  public void shouldSpillLeastRecentlyUsedWorkingCopyWhenMemoryLimitIsExceeded() {
+    manager.onEditorContentUpdated("endpoint", changes("/project/first.txt"));
+    manager.onEditorContentUpdated("endpoint", changes("/project/second.txt"));
+
+    assertEquals(manager.getResidentCount(), 1);
+    assertEquals(manager.getSpilledCount(), 1);
+    assertTrue(manager.getResidentSize() <= 1024 * 1024);
+  }
+
+  @Test
+  public void shouldLoadSpilledWorkingCopyBackOnAccess() {
+    manager.onEditorContentUpdated("endpoint", changes("/project/first.txt"));
+    manager.onEditorContentUpdated("endpoint", changes("/project/second.txt"));
+
+    EditorWorkingCopy first = manager.getWorkingCopy("/project/first.txt");
+
+    assertFalse(first.isSpilled());
+    assertEquals(first.getContentAsString(), "!" + new String(content(FILE_SIZE)));
+    assertEquals(manager.getResidentCount(), 1);
+    assertEquals(manager.getSpilledCount(), 1);
+  }
+
+  private static EditorChangesDto changes(String file) {
+    EditorChangesDto changes = mock(EditorChangesDto.class);
+    when(changes.getFileLocation()).thenReturn(file);
+    when(changes.getProjectPath()).thenReturn("/project");
+    when(changes.getType()).thenReturn(INSERT);
+    when(changes.getOffset()).thenReturn(0);
+    when(changes.getText()).thenReturn("!");
+    return changes;
+  }
+
+  private static byte[] content(int size) {
+    byte[] content = new byte[size];
+    Arrays.fill(content, (byte) 'a');
+    return content;
+  }
+}
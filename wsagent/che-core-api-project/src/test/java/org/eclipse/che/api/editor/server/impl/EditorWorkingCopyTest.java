@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.INSERT;
+import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.REMOVE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.che.api.project.shared.dto.EditorChangesDto;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests of {@link EditorWorkingCopy}. */
+public class EditorWorkingCopyTest {
+
+  private EditorWorkingCopy workingCopy;
+
+  @BeforeMethod
+  public void setUp() {
+    workingCopy = new EditorWorkingCopy("project.file", "/project", "hello world".getBytes());
+  }
+
+  @Test
+  public void shouldApplyInsertAndRemoveChanges() {
+    workingCopy.applyChanges(changes(INSERT, 5, ",", 0));
+    workingCopy.applyChanges(changes(REMOVE, 6, "", 6));
+
+    assertEquals(workingCopy.getContentAsString(), "hello,");
+    assertEquals(workingCopy.getContentAsBytes(), "hello,".getBytes());
+  }
+
+  @Test
+  public void shouldNotChangeSnapshotOnFurtherChanges() {
+    final Rope snapshot = workingCopy.getSnapshot();
+
+    workingCopy.applyChanges(changes(INSERT, 0, "say ", 0));
+
+    assertEquals(snapshot.toString(), "hello world");
+    assertEquals(workingCopy.getSnapshot().toString(), "say hello world");
+  }
+
+  @Test
+  public void shouldRemoveCharsUpToTheEndOfContent() {
+    workingCopy.applyChanges(changes(REMOVE, 5, "", 100));
+
+    assertEquals(workingCopy.getContentAsString(), "hello");
+  }
+
+  @Test
+  public void shouldReportChangesOfMemorySize() throws Exception {
+    AtomicLong reported = new AtomicLong();
+    workingCopy.setMemorySizeListener(reported::addAndGet);
+    assertEquals(reported.get(), workingCopy.getMemorySize());
+
+    workingCopy.applyChanges(changes(INSERT, 5, ",", 0));
+    assertEquals(reported.get(), workingCopy.getMemorySize());
+
+    Path spillFile = Files.createTempFile("working-copy", ".tmp");
+    try {
+      workingCopy.spill(spillFile);
+      assertEquals(reported.get(), 0);
+
+      workingCopy.getSnapshot();
+      assertEquals(reported.get(), workingCopy.getMemorySize());
+    } finally {
+      Files.deleteIfExists(spillFile);
+    }
+
+    workingCopy.setMemorySizeListener(null);
+    assertEquals(reported.get(), 0);
+  }
+
+  private static EditorChangesDto changes(
+      EditorChangesDto.Type type, int offset, String text, int removedCharCount) {
+    final EditorChangesDto changes = mock(EditorChangesDto.class);
+    when(changes.getType()).thenReturn(type);
+    when(changes.getOffset()).thenReturn(offset);
+    when(changes.getText()).thenReturn(text);
+    when(changes.getRemovedCharCount()).thenReturn(removedCharCount);
+    return changes;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static org.eclipse.che.api.editor.server.impl.Rope.MAX_LEAF_LENGTH;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Random;
+import org.testng.annotations.Test;
+
+/** Tests of {@link Rope}. */
+public class RopeTest {
+
+  @Test
+  public void shouldInsertText() {
+    final Rope rope = Rope.of("hello world").insert(5, ",").insert(12, "!");
+
+    assertEquals(rope.toString(), "hello, world!");
+    assertEquals(rope.length(), 13);
+  }
+
+  @Test
+  public void shouldDeleteText() {
+    final Rope rope = Rope.of("hello, world!").delete(5, 6).delete(11, 12);
+
+    assertEquals(rope.toString(), "hello world");
+  }
+
+  @Test
+  public void shouldKeepOriginalRopeUnchanged() {
+    final Rope original = Rope.of(text(10 * MAX_LEAF_LENGTH));
+
+    final Rope changed = original.insert(MAX_LEAF_LENGTH, "inserted").delete(0, 100);
+
+    assertEquals(original.toString(), text(10 * MAX_LEAF_LENGTH));
+    assertEquals(changed.length(), original.length() + "inserted".length() - 100);
+  }
+
+  @Test
+  public void shouldReturnCharactersAndSubstrings() {
+    final String text = text(5 * MAX_LEAF_LENGTH + 17);
+    final Rope rope = Rope.of(text);
+
+    assertEquals(rope.charAt(MAX_LEAF_LENGTH + 3), text.charAt(MAX_LEAF_LENGTH + 3));
+    assertEquals(
+        rope.substring(MAX_LEAF_LENGTH - 10, 3 * MAX_LEAF_LENGTH),
+        text.substring(MAX_LEAF_LENGTH - 10, 3 * MAX_LEAF_LENGTH));
+  }
+
+  @Test
+  public void shouldApplyRandomChangesAsStringBuilderDoes() {
+    final Random random = new Random(42);
+    final StringBuilder expected = new StringBuilder(text(20 * MAX_LEAF_LENGTH));
+    Rope rope = Rope.of(expected);
+
+    for (int i = 0; i < 20_000; i++) {
+      final int offset = random.nextInt(expected.length() + 1);
+      if (random.nextInt(3) == 0 && expected.length() > 0) {
+        final int end = Math.min(expected.length(), offset + random.nextInt(2 * MAX_LEAF_LENGTH));
+        expected.delete(offset, end);
+        rope = rope.delete(offset, end);
+      } else {
+        final String inserted = text(random.nextInt(10) == 0 ? 3 * MAX_LEAF_LENGTH : 1);
+        expected.insert(offset, inserted);
+        rope = rope.insert(offset, inserted);
+      }
+    }
+
+    assertEquals(rope.toString(), expected.toString());
+    final int leaves = Math.max(1, rope.length() / MAX_LEAF_LENGTH) * 4;
+    assertTrue(rope.height() <= 2 * (32 - Integer.numberOfLeadingZeros(leaves)));
+  }
+
+  @Test
+  public void shouldStayBalancedWhenTypingAtTheEnd() {
+    Rope rope = Rope.empty();
+    for (int i = 0; i < 100 * MAX_LEAF_LENGTH; i++) {
+      rope = rope.insert(rope.length(), "a");
+    }
+
+    assertEquals(rope.length(), 100 * MAX_LEAF_LENGTH);
+    assertTrue(rope.height() <= 12);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void shouldThrowExceptionWhenInsertingOutOfBounds() {
+    Rope.of("text").insert(5, "a");
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void shouldThrowExceptionWhenDeletingOutOfBounds() {
+    Rope.of("text").delete(2, 5);
+  }
+
+  private static String text(int length) {
+    final StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append((char) ('a' + i % 26));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.fs.server.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.che.api.core.ServerException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ZipArchiver} */
+public class ZipArchiverTest {
+
+  private static final String DIR_NAME = "dirname";
+  private static final String FILE_NAME = "filename";
+  private static final String TEXT_MESSAGE = "text message";
+
+  private ZipArchiver zipArchiver;
+
+  private File srcDir;
+  private File dstDir;
+
+  @BeforeMethod
+  public void setUp() {
+    zipArchiver = new ZipArchiver(Deflater.DEFAULT_COMPRESSION);
+    srcDir = Files.createTempDir();
+    dstDir = Files.createTempDir();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    zipArchiver.stop();
+    FileUtils.deleteDirectory(srcDir);
+    FileUtils.deleteDirectory(dstDir);
+  }
+
+  @Test
+  public void shouldZipDirectoryWithEntriesRelativeToItsParent() throws Exception {
+    Path dir = srcDir.toPath().resolve(DIR_NAME);
+    java.nio.file.Files.createDirectories(dir);
+    java.nio.file.Files.write(dir.resolve(FILE_NAME), TEXT_MESSAGE.getBytes(UTF_8));
+
+    try (ZipInputStream zis = new ZipInputStream(zipArchiver.zip(dir))) {
+      ZipEntry dirEntry = zis.getNextEntry();
+      assertEquals(dirEntry.getName(), DIR_NAME + '/');
+
+      ZipEntry fileEntry = zis.getNextEntry();
+      assertEquals(fileEntry.getName(), DIR_NAME + '/' + FILE_NAME);
+      assertEquals(IOUtils.toString(zis, UTF_8), TEXT_MESSAGE);
+
+      assertNull(zis.getNextEntry());
+    }
+  }
+
+  @Test
+  public void shouldUnzipArchiveCreatedByZip() throws Exception {
+    Path dir = srcDir.toPath().resolve(DIR_NAME);
+    java.nio.file.Files.createDirectories(dir);
+    java.nio.file.Files.write(dir.resolve(FILE_NAME), TEXT_MESSAGE.getBytes(UTF_8));
+    java.nio.file.Files.write(dir.resolve(FILE_NAME + ".zip"), TEXT_MESSAGE.getBytes(UTF_8));
+
+    try (InputStream zip = zipArchiver.zip(dir)) {
+      zipArchiver.unzip(dstDir.toPath(), zip, false, false, true);
+    }
+
+    assertEquals(
+        new String(java.nio.file.Files.readAllBytes(dstDir.toPath().resolve(FILE_NAME)), UTF_8),
+        TEXT_MESSAGE);
+    assertEquals(
+        new String(
+            java.nio.file.Files.readAllBytes(dstDir.toPath().resolve(FILE_NAME + ".zip")), UTF_8),
+        TEXT_MESSAGE);
+  }
+
+  @Test
+  public void shouldUnzipNestedEntriesAndReportProgress() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+      for (int i = 0; i < 20; i++) {
+        zos.putNextEntry(new ZipEntry("a/b" + i % 3 + "/" + FILE_NAME + i));
+        zos.write(TEXT_MESSAGE.getBytes(UTF_8));
+        zos.closeEntry();
+      }
+    }
+    List<String> progress = new ArrayList<>();
+
+    zipArchiver.unzip(
+        dstDir.toPath(),
+        new ByteArrayInputStream(bytes.toByteArray()),
+        false,
+        false,
+        false,
+        progress::add);
+
+    for (int i = 0; i < 20; i++) {
+      Path file = dstDir.toPath().resolve("a/b" + i % 3 + "/" + FILE_NAME + i);
+      assertEquals(new String(java.nio.file.Files.readAllBytes(file), UTF_8), TEXT_MESSAGE);
+    }
+    assertEquals(progress.size(), 10);
+    assertTrue(progress.contains("Extracted 20 of 20 files"));
+  }
+
+  @Test(expectedExceptions = ServerException.class)
+  public void shouldNotUnzipEntryOutsideOfTargetDirectory() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+      zos.putNextEntry(new ZipEntry("../" + FILE_NAME));
+      zos.write(TEXT_MESSAGE.getBytes(UTF_8));
+      zos.closeEntry();
+    }
+
+    try {
+      zipArchiver.unzip(
+          dstDir.toPath(), new ByteArrayInputStream(bytes.toByteArray()), false, false, false);
+    } finally {
+      assertFalse(dstDir.toPath().resolveSibling(FILE_NAME).toFile().exists());
+    }
+  }
+}
@@ -49,6 +49,7 @@ public class ProjectServiceTest {
 
   private static final int MAX_ITEMS = 0;
   private static final int SKIP_COUNT = 0;
+  private static final String AFTER = "after";
   private static final int DEPTH = 0;
 
   private static final boolean INCLUDE_FILES = false;
@@ -249,8 +250,8 @@ public class ProjectServiceTest {
 
   @Test
   public void shouldCallSearch() throws Exception {
-    projectService.search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT);
+    projectService.search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT, AFTER);
 
-    verify(projectServiceApi).search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT);
+    verify(projectServiceApi).search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT, AFTER);
   }
 }
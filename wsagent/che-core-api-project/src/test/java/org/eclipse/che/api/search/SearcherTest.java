@@ -21,6 +21,7 @@ package org.eclipse.che.api.search;
  */
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import com.google.common.base.Optional;
@@ -76,7 +77,8 @@ public class SearcherTest {
     excludePatterns = Collections.emptySet();
     pathTransformer = new RootAwarePathTransformer(workspaceStorage);
     searcher =
-        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, pathTransformer);
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, workspaceStorage, pathTransformer, 2, 100, 1000);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
@@ -419,6 +421,46 @@ public class SearcherTest {
     assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
   }
 
+  @Test
+  public void shouldBeAbleToRetrievesSearchResultWithPageTokens()
+      throws InvalidQueryException, QueryExecutionException, IOException {
+    for (int i = 0; i < 125; i++) {
+      contentBuilder.createFile(
+          String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+    }
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    SearchResult firstPage =
+        searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(10));
+    assertEquals(firstPage.getFilePaths().size(), 10);
+    assertTrue(firstPage.getNextPageToken().isPresent());
+
+    SearchResult secondPage =
+        searcher.search(
+            new QueryExpression()
+                .setText("spaceflight")
+                .setMaxItems(10)
+                .setAfter(firstPage.getNextPageToken().get()));
+    assertEquals(secondPage.getFilePaths().size(), 10);
+
+    SearchResult lastPage =
+        searcher.search(
+            new QueryExpression()
+                .setText("spaceflight")
+                .setMaxItems(10)
+                .setAfter(secondPage.getNextPageToken().get()));
+    assertEquals(lastPage.getFilePaths().size(), 5);
+    assertFalse(lastPage.getNextPageToken().isPresent());
+
+    assertTrue(Collections.disjoint(firstPage.getFilePaths(), secondPage.getFilePaths()));
+    assertTrue(Collections.disjoint(secondPage.getFilePaths(), lastPage.getFilePaths()));
+  }
+
+  @Test(expectedExceptions = InvalidQueryException.class)
+  public void shouldThrowInvalidQueryExceptionForMalformedPageToken() throws Exception {
+    searcher.search(new QueryExpression().setText("spaceflight").setAfter("not-a-token"));
+  }
+
   public void assertFind(QueryExpression query, SearchResultEntry... expectedResults)
       throws InvalidQueryException, QueryExecutionException {
     SearchResult result = searcher.search(query);
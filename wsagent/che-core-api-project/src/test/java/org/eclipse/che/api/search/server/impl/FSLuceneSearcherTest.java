@@ -21,6 +21,7 @@ package org.eclipse.che.api.search.server.impl;
  */
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptyList;
 import static org.eclipse.che.api.search.SearcherTest.TEST_CONTENT;
 import static org.testng.Assert.assertEquals;
 
@@ -55,7 +56,8 @@ public class FSLuceneSearcherTest {
     excludePatterns = new HashSet<>();
     pathTransformer = new RootAwarePathTransformer(workspaceStorage);
     searcher =
-        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, pathTransformer);
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, workspaceStorage, pathTransformer, 2, 100, 1000);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
@@ -82,6 +84,31 @@ public class FSLuceneSearcherTest {
     assertEquals(newArrayList("/folder/zzz.txt"), paths);
   }
 
+  @Test
+  public void shouldSynchronizeExistingIndexWithFileSystemOnInitialization() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", TEST_CONTENT[1])
+        .createFile("zzz.txt", TEST_CONTENT[1]);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+    searcher.shutdown();
+
+    contentBuilder.deleteFileInCurrentFolder("zzz.txt").createFile("yyy.txt", TEST_CONTENT[1]);
+
+    // when
+    searcher =
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, workspaceStorage, pathTransformer, 2, 100, 1000);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+
+    // then
+    List<String> paths = searcher.search(new QueryExpression().setText("think")).getFilePaths();
+    assertEquals(newArrayList("/folder/xxx.txt", "/folder/yyy.txt"), paths);
+  }
+
   @Test
   public void shouldBeAbleToExcludesFilesFromIndexWithFilter() throws Exception {
     // given
@@ -99,4 +126,26 @@ public class FSLuceneSearcherTest {
     // then
     assertEquals(newArrayList("/folder/xxx.txt", "/folder/zzz.txt"), paths);
   }
+
+  @Test
+  public void shouldBeAbleToIndexScheduledFolderAsynchronously() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", TEST_CONTENT[2])
+        .createFile("zzz.txt", TEST_CONTENT[1]);
+
+    // when
+    searcher.scheduleUpdate(contentBuilder.getCurrentFolder());
+    searcher.scheduleUpdate(contentBuilder.getCurrentFolder());
+
+    // then
+    List<String> paths = emptyList();
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (paths.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      paths = searcher.search(new QueryExpression().setText("think")).getFilePaths();
+    }
+    assertEquals(newArrayList("/folder/zzz.txt"), paths);
+  }
 }
@@ -13,6 +13,7 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.io.File.createTempFile;
 import static java.lang.Thread.sleep;
 import static org.apache.commons.io.FileUtils.write;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -169,6 +170,35 @@ public class FileTreeWalkerTest {
     verify(directoryDeleteConsumerMock).accept(file.toPath());
   }
 
+  @Test
+  public void shouldNotListDirectoryThatIsNotModified() throws Exception {
+    rootFolder.newFolder(TEST_FOLDER_NAME);
+    fileTreeWalker.walk();
+    sleep(2 * FS_LATENCY_DELAY);
+    fileTreeWalker.walk();
+
+    fileTreeWalker.walk();
+
+    assertEquals(0, fileTreeWalker.getStatistics().getDirectoriesListed());
+    assertEquals(2, fileTreeWalker.getStatistics().getDirectoriesSkipped());
+  }
+
+  @Test
+  public void shouldRunFileUpdateConsumerForFileInNotModifiedDirectory() throws Exception {
+    fileUpdateConsumers.add(fileUpdateConsumerMock);
+
+    File file = rootFolder.newFile(TEST_FILE_NAME);
+    fileTreeWalker.walk();
+    sleep(2 * FS_LATENCY_DELAY);
+    fileTreeWalker.walk();
+
+    write(file, TEST_FILE_CONTENT);
+    fileTreeWalker.walk();
+
+    verify(fileUpdateConsumerMock).accept(file.toPath());
+    assertEquals(0, fileTreeWalker.getStatistics().getDirectoriesListed());
+  }
+
   @Test
   public void shouldProperlySkipExcludedFile() throws Exception {
     fileExcludes.add(it -> it.getFileName().toString().equals(TEST_FILE_NAME));
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Tests for {@link FileWatcherChangeSet} */
+@RunWith(MockitoJUnitRunner.class)
+public class FileWatcherChangeSetTest {
+  private static final long COALESCING_DELAY = 100;
+  private static final long MAX_LATENCY = 1_000;
+  private static final int MAX_SIZE = 3;
+
+  @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
+
+  @Mock FileWatcherEventHandler handler;
+  @Mock FileWatcherExcludePatternsRegistry excludePatternsRegistry;
+
+  AtomicLong time = new AtomicLong();
+  FileWatcherChangeSet changes;
+  Path root;
+
+  @Before
+  public void setUp() throws Exception {
+    root = rootFolder.getRoot().toPath().toAbsolutePath();
+    changes =
+        new FileWatcherChangeSet(
+            excludePatternsRegistry,
+            handler,
+            COALESCING_DELAY,
+            MAX_LATENCY,
+            MAX_SIZE,
+            time::get);
+  }
+
+  @Test
+  public void shouldReportCreationFollowedByModificationAsCreation() throws Exception {
+    Path file = root.resolve("file");
+
+    changes.add(file, ENTRY_CREATE);
+    changes.add(file, ENTRY_MODIFY);
+    changes.add(file, ENTRY_MODIFY);
+    changes.flush();
+
+    verify(handler).handle(file, ENTRY_CREATE);
+    verifyNoMoreInteractions(handler);
+    assertTrue(changes.isEmpty());
+  }
+
+  @Test
+  public void shouldNotReportCreationFollowedByDeletion() throws Exception {
+    Path file = root.resolve("file");
+
+    changes.add(file, ENTRY_CREATE);
+    changes.add(file, ENTRY_DELETE);
+    changes.flush();
+
+    verify(handler, never()).handle(any(), any());
+  }
+
+  @Test
+  public void shouldReportDeletionFollowedByCreationOfFileAsModification() throws Exception {
+    Path file = rootFolder.newFile("file").toPath().toAbsolutePath();
+
+    changes.add(file, ENTRY_DELETE);
+    changes.add(file, ENTRY_CREATE);
+    changes.flush();
+
+    verify(handler).handle(file, ENTRY_MODIFY);
+    verifyNoMoreInteractions(handler);
+  }
+
+  @Test
+  public void shouldWaitForCoalescingDelayWhileEventsKeepComing() throws Exception {
+    changes.add(root.resolve("file"), ENTRY_CREATE);
+    time.addAndGet(COALESCING_DELAY / 2);
+    changes.add(root.resolve("file"), ENTRY_MODIFY);
+
+    assertEquals(COALESCING_DELAY, changes.getPollTimeout());
+    assertFalse(changes.isFlushRequired());
+  }
+
+  @Test
+  public void shouldRequireFlushWhenFirstChangeWaitsForMaxLatency() throws Exception {
+    Path file = root.resolve("file");
+    changes.add(file, ENTRY_CREATE);
+
+    for (long elapsed = 0; elapsed < MAX_LATENCY; elapsed += COALESCING_DELAY / 2) {
+      assertFalse(changes.isFlushRequired());
+      assertTrue(changes.getPollTimeout() <= MAX_LATENCY - elapsed);
+      time.addAndGet(COALESCING_DELAY / 2);
+      changes.add(file, ENTRY_MODIFY);
+    }
+
+    assertTrue(changes.isFlushRequired());
+    assertEquals(0, changes.getPollTimeout());
+  }
+
+  @Test
+  public void shouldMeasureLatencyFromFirstChangeAfterFlush() throws Exception {
+    changes.add(root.resolve("file"), ENTRY_CREATE);
+    time.addAndGet(MAX_LATENCY);
+    changes.flush();
+
+    changes.add(root.resolve("other"), ENTRY_CREATE);
+
+    assertFalse(changes.isFlushRequired());
+    assertEquals(COALESCING_DELAY, changes.getPollTimeout());
+  }
+
+  @Test
+  public void shouldRequireFlushWhenChangeSetIsTooLarge() throws Exception {
+    for (int i = 0; i < MAX_SIZE; i++) {
+      assertFalse(changes.isFlushRequired());
+      changes.add(root.resolve("file" + i), ENTRY_CREATE);
+    }
+
+    assertTrue(changes.isFlushRequired());
+  }
+
+  @Test
+  public void shouldReportDeletedCreatedAndModifiedEntriesOnRescan() throws Exception {
+    Path deleted = rootFolder.newFile("deleted").toPath().toAbsolutePath();
+    Path modified = rootFolder.newFile("modified").toPath().toAbsolutePath();
+    changes.track(root);
+
+    Files.delete(deleted);
+    Path created = rootFolder.newFile("created").toPath().toAbsolutePath();
+    changes.rescan(root);
+    changes.flush();
+
+    verify(handler).handle(deleted, ENTRY_DELETE);
+    verify(handler).handle(created, ENTRY_CREATE);
+    verify(handler).handle(modified, ENTRY_MODIFY);
+    verify(handler).handle(root, ENTRY_MODIFY);
+    verifyNoMoreInteractions(handler);
+  }
+
+  @Test
+  public void shouldTrackEntriesReportedByEventsForRescan() throws Exception {
+    changes.track(root);
+    Path file = rootFolder.newFile("file").toPath().toAbsolutePath();
+    changes.add(file, ENTRY_CREATE);
+    changes.flush();
+
+    Files.delete(file);
+    changes.rescan(root);
+    changes.flush();
+
+    verify(handler).handle(file, ENTRY_DELETE);
+  }
+
+  @Test
+  public void shouldNotReportDeletionsOnRescanOfUntrackedDirectory() throws Exception {
+    Path file = rootFolder.newFile("file").toPath().toAbsolutePath();
+    changes.track(root);
+    changes.untrack(root);
+
+    Files.delete(file);
+    changes.rescan(root);
+    changes.flush();
+
+    verify(handler).handle(root, ENTRY_MODIFY);
+    verifyNoMoreInteractions(handler);
+  }
+}
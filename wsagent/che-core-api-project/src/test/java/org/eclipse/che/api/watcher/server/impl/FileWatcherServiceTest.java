@@ -55,7 +55,9 @@ public class FileWatcherServiceTest {
 
   @BeforeClass
   public void setUp() throws Exception {
-    service = new FileWatcherService(fileWatcherExcludePatternsRegistry, handler, watchService);
+    service =
+        new FileWatcherService(
+            fileWatcherExcludePatternsRegistry, handler, watchService, 100, 1000, 1000);
 
     service.start();
   }
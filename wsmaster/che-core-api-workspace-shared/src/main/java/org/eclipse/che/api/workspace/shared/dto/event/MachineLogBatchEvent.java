@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.shared.dto.event;
+
+import java.util.List;
+import org.eclipse.che.api.workspace.shared.dto.RuntimeIdentityDto;
+import org.eclipse.che.dto.shared.DTO;
+
+/** Defines event format for a batch of machine logs produced by a single machine. */
+@DTO
+public interface MachineLogBatchEvent {
+
+  /** Returns the name of the machine that produces the logs. */
+  String getMachineName();
+
+  void setMachineName(String machineName);
+
+  MachineLogBatchEvent withMachineName(String machineName);
+
+  /** Returns runtime identity. */
+  RuntimeIdentityDto getRuntimeId();
+
+  void setRuntimeId(RuntimeIdentityDto runtimeId);
+
+  MachineLogBatchEvent withRuntimeId(RuntimeIdentityDto runtimeId);
+
+  /** Returns log events in the order they are produced. */
+  List<MachineLogEvent> getLogs();
+
+  void setLogs(List<MachineLogEvent> logs);
+
+  MachineLogBatchEvent withLogs(List<MachineLogEvent> logs);
+}
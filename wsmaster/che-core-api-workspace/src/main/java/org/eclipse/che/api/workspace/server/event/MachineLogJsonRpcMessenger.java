@@ -10,18 +10,25 @@
  */
 package org.eclipse.che.api.workspace.server.event;
 
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.workspace.shared.Constants.MACHINE_LOG_BATCH_METHOD;
 import static org.eclipse.che.api.workspace.shared.Constants.MACHINE_LOG_METHOD;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
-import java.util.Map;
+import java.util.List;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.notification.RemoteSubscriptionManager;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineLogBatchEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.MachineLogEvent;
 
 /**
  * Register subscriber on {@link MachineLogEvent machine log event} for resending this type of event
- * via JSON-RPC to clients.
+ * via JSON-RPC to clients. Subscribers of {@link MachineLogBatchEvent batches} receive batches as
+ * they are and single log events wrapped into batches of one, subscribers of single log events
+ * receive batches line by line.
  *
  * @author Anton Korneta
  */
@@ -37,10 +44,52 @@ public class MachineLogJsonRpcMessenger {
 
   @PostConstruct
   private void postConstruct() {
-    subscriptionManager.register(MACHINE_LOG_METHOD, MachineLogEvent.class, this::predicate);
+    subscriptionManager.register(
+        MACHINE_LOG_METHOD, MachineLogEvent.class, "workspaceId", this::workspaceId);
+    subscriptionManager.register(
+        MACHINE_LOG_METHOD,
+        MachineLogBatchEvent.class,
+        "workspaceId",
+        this::workspaceId,
+        this::toLines);
+    subscriptionManager.register(
+        MACHINE_LOG_BATCH_METHOD, MachineLogBatchEvent.class, "workspaceId", this::workspaceId);
+    subscriptionManager.register(
+        MACHINE_LOG_BATCH_METHOD,
+        MachineLogEvent.class,
+        "workspaceId",
+        this::workspaceId,
+        this::toBatch);
   }
 
-  private boolean predicate(MachineLogEvent event, Map<String, String> scope) {
-    return event.getRuntimeId().getWorkspaceId().equals(scope.get("workspaceId"));
+  private String workspaceId(MachineLogEvent event) {
+    return event.getRuntimeId().getWorkspaceId();
+  }
+
+  private String workspaceId(MachineLogBatchEvent event) {
+    return event.getRuntimeId().getWorkspaceId();
+  }
+
+  private List<MachineLogEvent> toLines(MachineLogBatchEvent event) {
+    return event
+        .getLogs()
+        .stream()
+        .map(
+            log ->
+                newDto(MachineLogEvent.class)
+                    .withRuntimeId(event.getRuntimeId())
+                    .withMachineName(event.getMachineName())
+                    .withStream(log.getStream())
+                    .withText(log.getText())
+                    .withTime(log.getTime()))
+        .collect(Collectors.toList());
+  }
+
+  private List<MachineLogBatchEvent> toBatch(MachineLogEvent event) {
+    return singletonList(
+        newDto(MachineLogBatchEvent.class)
+            .withRuntimeId(event.getRuntimeId())
+            .withMachineName(event.getMachineName())
+            .withLogs(singletonList(event)));
   }
 }
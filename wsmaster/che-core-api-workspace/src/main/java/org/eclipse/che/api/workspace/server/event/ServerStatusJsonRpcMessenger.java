@@ -12,7 +12,6 @@ package org.eclipse.che.api.workspace.server.event;
 
 import static org.eclipse.che.api.workspace.shared.Constants.SERVER_STATUS_CHANGED_METHOD;
 
-import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,10 +31,10 @@ public class ServerStatusJsonRpcMessenger {
   @PostConstruct
   private void postConstruct() {
     remoteSubscriptionManager.register(
-        SERVER_STATUS_CHANGED_METHOD, ServerStatusEvent.class, this::predicate);
+        SERVER_STATUS_CHANGED_METHOD, ServerStatusEvent.class, "workspaceId", this::workspaceId);
   }
 
-  private boolean predicate(ServerStatusEvent event, Map<String, String> scope) {
-    return event.getIdentity().getWorkspaceId().equals(scope.get("workspaceId"));
+  private String workspaceId(ServerStatusEvent event) {
+    return event.getIdentity().getWorkspaceId();
   }
 }
@@ -10,24 +10,53 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
+import static java.util.Collections.emptyMap;
+
 import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.hc.probe.AsyncProbeClient;
 
 /**
  * Server checker that uses http connection response code as a criteria of availability of a server.
- * If response code is not less than 200 and less than 400 server is treated as available.
+ * If response code is not less than 200 and less than 400 server is treated as available. Plain
+ * HTTP servers are checked by {@link AsyncProbeClient} when it is provided, so the checks don't
+ * occupy threads while waiting for the servers responses.
  *
  * @author Alexander Garagatyi
  */
 public class HttpConnectionServerChecker extends ServerChecker {
   private static final String CONNECTION_HEADER = "Connection";
   private static final String CONNECTION_CLOSE = "close";
+  /** Limit of a non-blocking check, the same as connect and read timeouts of a blocking one. */
+  private static final long ASYNC_CHECK_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(6);
+
   private final URL url;
+  private final ScheduledExecutorService executor;
+  private final AsyncProbeClient probeClient;
+
+  public HttpConnectionServerChecker(
+      URL url,
+      String machineName,
+      String serverRef,
+      long period,
+      long timeout,
+      int successThreshold,
+      TimeUnit timeUnit,
+      ScheduledExecutorService executor) {
+    this(url, machineName, serverRef, period, timeout, successThreshold, timeUnit, executor, null);
+  }
 
+  /**
+   * Creates checker which checks plain HTTP servers by the given client.
+   *
+   * @param probeClient client that performs non-blocking checks, blocking checks are performed if
+   *     it is null
+   */
   public HttpConnectionServerChecker(
       URL url,
       String machineName,
@@ -36,9 +65,12 @@ public class HttpConnectionServerChecker extends ServerChecker {
       long timeout,
       int successThreshold,
       TimeUnit timeUnit,
-      Timer timer) {
-    super(machineName, serverRef, period, timeout, successThreshold, timeUnit, timer);
+      ScheduledExecutorService executor,
+      AsyncProbeClient probeClient) {
+    super(machineName, serverRef, period, timeout, successThreshold, timeUnit, executor);
     this.url = url;
+    this.executor = executor;
+    this.probeClient = probeClient;
   }
 
   @Override
@@ -60,15 +92,27 @@ public class HttpConnectionServerChecker extends ServerChecker {
     }
   }
 
+  @Override
+  protected CompletableFuture<Boolean> isAvailableAsync() {
+    if (probeClient == null || !"http".equals(url.getProtocol())) {
+      return super.isAvailableAsync();
+    }
+    return probeClient.get(
+        url, emptyMap(), ASYNC_CHECK_TIMEOUT_MS, executor, this::isSuccessfulResponseCode);
+  }
+
   boolean isConnectionSuccessful(HttpURLConnection conn) {
     try {
-      int responseCode = conn.getResponseCode();
-      return responseCode >= 200 && responseCode < 400;
+      return isSuccessfulResponseCode(conn.getResponseCode());
     } catch (IOException e) {
       return false;
     }
   }
 
+  boolean isSuccessfulResponseCode(int responseCode) {
+    return responseCode >= 200 && responseCode < 400;
+  }
+
   @VisibleForTesting
   HttpURLConnection createConnection(URL url) throws IOException {
     return (HttpURLConnection) url.openConnection();
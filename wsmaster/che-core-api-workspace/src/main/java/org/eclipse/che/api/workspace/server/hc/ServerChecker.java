@@ -10,9 +10,10 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -30,7 +31,10 @@ public abstract class ServerChecker {
   private final long deadLine;
   private final int successThreshold;
   private final CompletableFuture<String> reportFuture;
-  private final Timer timer;
+  private final ScheduledExecutorService executor;
+
+  private volatile boolean stopped;
+  private volatile ScheduledFuture<?> nextCheck;
 
   /**
    * Creates server checker instance.
@@ -43,6 +47,7 @@ public abstract class ServerChecker {
    * @param timeout max time allowed for the server availability checks to last before server is
    *     treated unavailable, measured in {@code timeUnit}
    * @param timeUnit measurement unit for {@code period} and {@code timeout} parameters
+   * @param executor executor that performs the checks, may be shared with other checkers
    */
   protected ServerChecker(
       String machineName,
@@ -51,11 +56,11 @@ public abstract class ServerChecker {
       long timeout,
       int successThreshold,
       TimeUnit timeUnit,
-      Timer timer) {
+      ScheduledExecutorService executor) {
     this.machineName = machineName;
     this.serverRef = serverRef;
     this.successThreshold = successThreshold;
-    this.timer = timer;
+    this.executor = executor;
     this.period = TimeUnit.MILLISECONDS.convert(period, timeUnit);
     this.reportFuture = new CompletableFuture<>();
     this.deadLine = System.currentTimeMillis() + TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
@@ -66,7 +71,16 @@ public abstract class ServerChecker {
    * checking times out.
    */
   public void start() {
-    timer.schedule(new ServerCheckingTask(0), 0);
+    schedule(new ServerCheckingTask(0), 0);
+  }
+
+  /** Stops server availability checking without completion of the report future. */
+  public void stop() {
+    stopped = true;
+    ScheduledFuture<?> next = nextCheck;
+    if (next != null) {
+      next.cancel(false);
+    }
   }
 
   /**
@@ -88,6 +102,17 @@ public abstract class ServerChecker {
    */
   public abstract boolean isAvailable();
 
+  /**
+   * Checks whether the server is treated as available without blocking the calling thread. By
+   * default the check is performed by {@link #isAvailable()} in the calling thread, checkers that
+   * can be performed in a non-blocking manner should override this method.
+   *
+   * @return future that is completed with true if server is available, false otherwise
+   */
+  protected CompletableFuture<Boolean> isAvailableAsync() {
+    return CompletableFuture.completedFuture(isAvailable());
+  }
+
   /**
    * Returns {@code CompletableFuture} that will be completed when server become available or
    * unavailable. When server become available completable future returns server reference.
@@ -106,7 +131,22 @@ public abstract class ServerChecker {
     return System.currentTimeMillis() > deadLine;
   }
 
-  private class ServerCheckingTask extends TimerTask {
+  private void schedule(Runnable task, long delay) {
+    if (stopped) {
+      return;
+    }
+    try {
+      nextCheck = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      reportFuture.completeExceptionally(
+          new InfrastructureException(
+              String.format(
+                  "Server '%s' in machine '%s' can't be checked, checks are shut down.",
+                  serverRef, machineName)));
+    }
+  }
+
+  private class ServerCheckingTask implements Runnable {
     private int currentNumberOfSequentialSuccessfullPings;
 
     public ServerCheckingTask(int currentNumberOfSequentialSuccessfullPings) {
@@ -115,20 +155,36 @@ public abstract class ServerChecker {
 
     @Override
     public void run() {
+      if (stopped) {
+        return;
+      }
       if (isTimedOut()) {
         reportFuture.completeExceptionally(
             new InfrastructureException(
                 String.format(
                     "Server '%s' in machine '%s' not available.", serverRef, machineName)));
-      } else if (isAvailable()) {
+      } else {
+        // the result is handled by the executor, so consumers of the report future are not run
+        // by the thread which completes the check
+        isAvailableAsync()
+            .whenComplete(
+                (available, error) -> schedule(() -> handleResult(error == null && available), 0));
+      }
+    }
+
+    private void handleResult(boolean available) {
+      if (stopped) {
+        return;
+      }
+      if (available) {
         currentNumberOfSequentialSuccessfullPings++;
         if (currentNumberOfSequentialSuccessfullPings == successThreshold) {
           reportFuture.complete(serverRef);
         } else {
-          timer.schedule(new ServerCheckingTask(currentNumberOfSequentialSuccessfullPings), period);
+          schedule(new ServerCheckingTask(currentNumberOfSequentialSuccessfullPings), period);
         }
       } else {
-        timer.schedule(new ServerCheckingTask(0), period);
+        schedule(new ServerCheckingTask(0), period);
       }
     }
   }
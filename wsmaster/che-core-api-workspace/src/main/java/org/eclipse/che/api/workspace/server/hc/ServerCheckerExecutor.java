@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+
+/**
+ * Provides pool of threads shared by {@link ServerChecker}s of all the runtimes, so starting
+ * runtimes don't create threads for their servers checks.
+ */
+@Singleton
+public class ServerCheckerExecutor {
+  private final ScheduledThreadPoolExecutor executor;
+
+  @Inject
+  public ServerCheckerExecutor(@Named("che.workspace.server.checker_pool_size") int poolSize) {
+    executor =
+        new ScheduledThreadPoolExecutor(
+            poolSize,
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat("ServersChecker-%s")
+                .setDaemon(true)
+                .build());
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  /** Returns executor to schedule servers checks with. */
+  public ScheduledExecutorService getExecutor() {
+    return executor;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
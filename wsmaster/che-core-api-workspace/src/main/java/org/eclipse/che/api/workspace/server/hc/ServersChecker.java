@@ -19,9 +19,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
@@ -30,6 +30,7 @@ import javax.inject.Named;
 import javax.ws.rs.core.UriBuilder;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.model.workspace.runtime.Server;
+import org.eclipse.che.api.workspace.server.hc.probe.AsyncProbeClient;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
 import org.eclipse.che.api.workspace.server.token.MachineTokenProvider;
@@ -49,7 +50,9 @@ public class ServersChecker {
   private final MachineTokenProvider machineTokenProvider;
   private final int serverPingSuccessThreshold;
 
-  private Timer timer;
+  private final ScheduledExecutorService executor;
+  private final AsyncProbeClient probeClient;
+
   private long resultTimeoutSeconds;
   private CompletableFuture result;
 
@@ -58,6 +61,8 @@ public class ServersChecker {
    *
    * @param machineName name of machine whose servers will be checked by this method
    * @param servers map of servers in a machine
+   * @param serverCheckerExecutor provides executor shared by servers checks of all the runtimes
+   * @param probeClient performs HTTP checks of servers without blocking threads
    */
   @Inject
   public ServersChecker(
@@ -65,11 +70,14 @@ public class ServersChecker {
       @Assisted String machineName,
       @Assisted Map<String, ? extends Server> servers,
       MachineTokenProvider machineTokenProvider,
-      @Named("che.workspace.server.ping_success_threshold") int serverPingSuccessThreshold) {
+      @Named("che.workspace.server.ping_success_threshold") int serverPingSuccessThreshold,
+      ServerCheckerExecutor serverCheckerExecutor,
+      AsyncProbeClient probeClient) {
     this.runtimeIdentity = runtimeIdentity;
     this.machineName = machineName;
     this.servers = servers;
-    this.timer = new Timer("ServersChecker", true);
+    this.executor = serverCheckerExecutor.getExecutor();
+    this.probeClient = probeClient;
     this.machineTokenProvider = machineTokenProvider;
     this.serverPingSuccessThreshold = serverPingSuccessThreshold;
   }
@@ -84,7 +92,6 @@ public class ServersChecker {
    * @throws InfrastructureException if check of a server failed due to an error
    */
   public void startAsync(Consumer<String> serverReadinessHandler) throws InfrastructureException {
-    timer = new Timer("ServersChecker", true);
     List<ServerChecker> serverCheckers = getServerCheckers();
     // should be completed with an exception if a server considered unavailable
     CompletableFuture<Void> firstNonAvailable = new CompletableFuture<>();
@@ -99,7 +106,7 @@ public class ServersChecker {
                         .exceptionally(
                             e -> {
                               // cleanup checkers tasks
-                              timer.cancel();
+                              serverCheckers.forEach(ServerChecker::stop);
                               firstNonAvailable.completeExceptionally(e);
                               return null;
                             }))
@@ -203,10 +210,26 @@ public class ServersChecker {
     // workaround needed because terminal server doesn't have endpoint to check it readiness
     if ("terminal".equals(serverRef)) {
       return new TerminalHttpConnectionServerChecker(
-          url, machineName, serverRef, 3, 180, serverPingSuccessThreshold, TimeUnit.SECONDS, timer);
+          url,
+          machineName,
+          serverRef,
+          3,
+          180,
+          serverPingSuccessThreshold,
+          TimeUnit.SECONDS,
+          executor,
+          probeClient);
     }
     // TODO do not hardcode timeouts, use server conf instead
     return new HttpConnectionServerChecker(
-        url, machineName, serverRef, 3, 180, serverPingSuccessThreshold, TimeUnit.SECONDS, timer);
+        url,
+        machineName,
+        serverRef,
+        3,
+        180,
+        serverPingSuccessThreshold,
+        TimeUnit.SECONDS,
+        executor,
+        probeClient);
   }
 }
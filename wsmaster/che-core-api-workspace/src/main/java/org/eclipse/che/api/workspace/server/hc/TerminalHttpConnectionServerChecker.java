@@ -10,11 +10,10 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.hc.probe.AsyncProbeClient;
 
 /**
  * This class is used as {@link ServerChecker} for terminal server as it doesn't have an endpoint
@@ -32,17 +31,34 @@ class TerminalHttpConnectionServerChecker extends HttpConnectionServerChecker {
       long timeout,
       int successThreshold,
       TimeUnit timeUnit,
-      Timer timer) {
-    super(url, machineName, serverRef, period, timeout, successThreshold, timeUnit, timer);
+      ScheduledExecutorService executor) {
+    this(url, machineName, serverRef, period, timeout, successThreshold, timeUnit, executor, null);
+  }
+
+  TerminalHttpConnectionServerChecker(
+      URL url,
+      String machineName,
+      String serverRef,
+      long period,
+      long timeout,
+      int successThreshold,
+      TimeUnit timeUnit,
+      ScheduledExecutorService executor,
+      AsyncProbeClient probeClient) {
+    super(
+        url,
+        machineName,
+        serverRef,
+        period,
+        timeout,
+        successThreshold,
+        timeUnit,
+        executor,
+        probeClient);
   }
 
   @Override
-  boolean isConnectionSuccessful(HttpURLConnection conn) {
-    try {
-      int responseCode = conn.getResponseCode();
-      return responseCode == 404;
-    } catch (IOException e) {
-      return false;
-    }
+  boolean isSuccessfulResponseCode(int responseCode) {
+    return responseCode == 404;
   }
 }
@@ -0,0 +1,552 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntPredicate;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+
+/**
+ * Non-blocking HTTP client of server probes. All the connections are served by a single selector
+ * thread which also times the exchanges out, so the number of concurrent probes is not limited by
+ * a number of threads. Connections of servers that keep them alive are pooled per server address
+ * and reused by the following probes of the server.
+ *
+ * <p>Only plain HTTP is supported, probes of other schemes are performed by {@link Probe}
+ * implementations in a blocking manner.
+ */
+@Singleton
+public class AsyncProbeClient {
+  private static final Logger LOG = getLogger(AsyncProbeClient.class);
+
+  private static final int MAX_RESPONSE_HEAD_SIZE = 16 * 1024;
+  private static final long IDLE_CONNECTION_TIMEOUT_NANOS = SECONDS.toNanos(30);
+
+  /** Actions to be performed by the selector thread. */
+  private final Queue<Runnable> actions = new ConcurrentLinkedQueue<>();
+  /** Exchanges ordered by their deadlines, used by the selector thread only. */
+  private final PriorityQueue<Exchange> deadlines =
+      new PriorityQueue<>(Comparator.comparingLong((Exchange exchange) -> exchange.deadline));
+  /** Idle keep-alive connections of servers, used by the selector thread only. */
+  private final Map<InetSocketAddress, Deque<IdleConnection>> idleConnections = new HashMap<>();
+
+  private Selector selector;
+  private Thread selectorThread;
+  private volatile boolean running;
+  private long nextIdleConnectionsCleanup;
+
+  @PostConstruct
+  void start() throws IOException {
+    selector = Selector.open();
+    running = true;
+    selectorThread = new Thread(this::run, "ServerProbesSelector");
+    selectorThread.setDaemon(true);
+    selectorThread.setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance());
+    selectorThread.start();
+  }
+
+  @PreDestroy
+  void stop() {
+    running = false;
+    selector.wakeup();
+    try {
+      selectorThread.join(SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Sends GET request to the specified URL.
+   *
+   * @param url URL to send request to, must be of HTTP scheme
+   * @param headers headers of the request
+   * @param timeout max time in milliseconds the exchange may take including connection
+   * @param executor executor that resolves the server address, since DNS lookup may block
+   * @return future that is completed with true when server responds with code >=200 and <400, and
+   *     with false when server responds with another code, is not reachable or doesn't respond in
+   *     time. Completion of the future by a caller aborts the exchange
+   */
+  public CompletableFuture<Boolean> get(
+      URL url, Map<String, String> headers, long timeout, Executor executor) {
+    return get(url, headers, timeout, executor, status -> status >= 200 && status < 400);
+  }
+
+  /**
+   * Sends GET request to the specified URL.
+   *
+   * @param url URL to send request to, must be of HTTP scheme
+   * @param headers headers of the request
+   * @param timeout max time in milliseconds the exchange may take including connection
+   * @param executor executor that resolves the server address, since DNS lookup may block
+   * @param successfulStatus tests whether the response status code means success
+   * @return future that is completed with true when server responds with a successful code, and
+   *     with false when server responds with another code, is not reachable or doesn't respond in
+   *     time. Completion of the future by a caller aborts the exchange
+   */
+  public CompletableFuture<Boolean> get(
+      URL url,
+      Map<String, String> headers,
+      long timeout,
+      Executor executor,
+      IntPredicate successfulStatus) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    if (!running) {
+      result.complete(false);
+      return result;
+    }
+    int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+    ByteBuffer request = ByteBuffer.wrap(createRequest(url, port, headers).getBytes(ISO_8859_1));
+    long deadline = System.nanoTime() + MILLISECONDS.toNanos(timeout);
+    try {
+      executor.execute(
+          () -> {
+            if (result.isDone()) {
+              return;
+            }
+            InetSocketAddress address = new InetSocketAddress(url.getHost(), port);
+            if (address.isUnresolved()) {
+              result.complete(false);
+              return;
+            }
+            Exchange exchange = new Exchange(address, request, result, successfulStatus, deadline);
+            execute(() -> begin(exchange));
+            // exchange may be aborted by the caller, release its connection as soon as possible
+            result.whenComplete((success, error) -> execute(() -> abort(exchange)));
+          });
+    } catch (RejectedExecutionException e) {
+      result.complete(false);
+    }
+    return result;
+  }
+
+  private static String createRequest(URL url, int port, Map<String, String> headers) {
+    String path = url.getFile().isEmpty() ? "/" : url.getFile();
+    StringBuilder request = new StringBuilder();
+    request.append("GET ").append(path).append(" HTTP/1.1\r\n");
+    request.append("Host: ").append(url.getHost());
+    if (port != url.getDefaultPort()) {
+      request.append(':').append(port);
+    }
+    request.append("\r\n");
+    boolean hasConnectionHeader = false;
+    if (headers != null) {
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        request.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        hasConnectionHeader |= "Connection".equalsIgnoreCase(header.getKey());
+      }
+    }
+    if (!hasConnectionHeader) {
+      request.append("Connection: keep-alive\r\n");
+    }
+    return request.append("\r\n").toString();
+  }
+
+  private void execute(Runnable action) {
+    actions.offer(action);
+    selector.wakeup();
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        selector.select(getSelectTimeout());
+
+        Runnable action;
+        while ((action = actions.poll()) != null) {
+          action.run();
+        }
+
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          Exchange exchange = (Exchange) key.attachment();
+          if (key.isValid() && exchange != null) {
+            handle(exchange, key);
+          }
+        }
+
+        long now = System.nanoTime();
+        expireExchanges(now);
+        expireIdleConnections(now);
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Error occurred while serving server probes. " + e.getMessage(), e);
+      }
+    }
+    closeAll();
+  }
+
+  private long getSelectTimeout() {
+    Exchange next = deadlines.peek();
+    if (next == null) {
+      return NANOSECONDS.toMillis(IDLE_CONNECTION_TIMEOUT_NANOS);
+    }
+    return Math.max(1, NANOSECONDS.toMillis(next.deadline - System.nanoTime()) + 1);
+  }
+
+  private void begin(Exchange exchange) {
+    if (exchange.result.isDone()) {
+      return;
+    }
+    deadlines.offer(exchange);
+    try {
+      SocketChannel channel = pollIdleConnection(exchange.address);
+      if (channel != null) {
+        exchange.reused = true;
+        exchange.channel = channel;
+        exchange.state = State.WRITING;
+        channel.keyFor(selector).interestOps(SelectionKey.OP_WRITE).attach(exchange);
+      } else {
+        connect(exchange);
+      }
+    } catch (IOException e) {
+      finish(exchange, false, false);
+    }
+  }
+
+  private void connect(Exchange exchange) throws IOException {
+    SocketChannel channel = SocketChannel.open();
+    exchange.channel = channel;
+    exchange.reused = false;
+    channel.configureBlocking(false);
+    if (channel.connect(exchange.address)) {
+      exchange.state = State.WRITING;
+      channel.register(selector, SelectionKey.OP_WRITE, exchange);
+    } else {
+      exchange.state = State.CONNECTING;
+      channel.register(selector, SelectionKey.OP_CONNECT, exchange);
+    }
+  }
+
+  private void handle(Exchange exchange, SelectionKey key) {
+    try {
+      if (key.isConnectable() && exchange.channel.finishConnect()) {
+        exchange.state = State.WRITING;
+        key.interestOps(SelectionKey.OP_WRITE);
+      } else if (key.isWritable()) {
+        exchange.channel.write(exchange.request);
+        if (!exchange.request.hasRemaining()) {
+          exchange.state = State.READING_HEAD;
+          key.interestOps(SelectionKey.OP_READ);
+        }
+      } else if (key.isReadable()) {
+        read(exchange);
+      }
+    } catch (IOException e) {
+      retryOrFail(exchange);
+    }
+  }
+
+  private void read(Exchange exchange) throws IOException {
+    ByteBuffer buffer = exchange.response;
+    if (!buffer.hasRemaining()) {
+      if (buffer.capacity() >= MAX_RESPONSE_HEAD_SIZE) {
+        finish(exchange, false, false);
+        return;
+      }
+      ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+      buffer.flip();
+      exchange.response = buffer = bigger.put(buffer);
+    }
+
+    int read = exchange.channel.read(buffer);
+    if (read == -1) {
+      retryOrFail(exchange);
+      return;
+    }
+
+    if (exchange.state == State.READING_HEAD) {
+      parseHead(exchange);
+    } else {
+      drain(exchange);
+    }
+  }
+
+  /** Parses status line and headers of the response as soon as the whole head is received. */
+  private void parseHead(Exchange exchange) {
+    ByteBuffer buffer = exchange.response;
+    int headEnd = indexOfHeadEnd(buffer);
+    if (headEnd == -1) {
+      return;
+    }
+
+    String[] lines = new String(buffer.array(), 0, headEnd, ISO_8859_1).split("\r\n");
+    String[] statusLine = lines[0].split(" ", 3);
+    int status;
+    try {
+      status = statusLine.length > 1 ? Integer.parseInt(statusLine[1]) : -1;
+    } catch (NumberFormatException e) {
+      status = -1;
+    }
+    boolean keepAlive = "HTTP/1.1".equals(statusLine[0]);
+    long contentLength = -1;
+    boolean chunked = false;
+    for (int i = 1; i < lines.length; i++) {
+      int colon = lines[i].indexOf(':');
+      if (colon == -1) {
+        continue;
+      }
+      String name = lines[i].substring(0, colon).trim();
+      String value = lines[i].substring(colon + 1).trim();
+      if ("Content-Length".equalsIgnoreCase(name)) {
+        try {
+          contentLength = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+          keepAlive = false;
+        }
+      } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+        chunked = !"identity".equalsIgnoreCase(value);
+      } else if ("Connection".equalsIgnoreCase(name)) {
+        keepAlive = "keep-alive".equalsIgnoreCase(value);
+      }
+    }
+    if (status == 204 || status == 304 || (status >= 100 && status < 200)) {
+      contentLength = 0;
+    }
+
+    boolean success = status != -1 && exchange.successfulStatus.test(status);
+    // probe result doesn't depend on body, so the result is reported right away and the body
+    // is read only to be able to reuse the connection
+    exchange.result.complete(success);
+    if (chunked || !keepAlive || contentLength < 0) {
+      finish(exchange, success, false);
+      return;
+    }
+
+    buffer.flip();
+    buffer.position(headEnd + 4);
+    exchange.bodyRemaining = contentLength - buffer.remaining();
+    buffer.clear();
+    if (exchange.bodyRemaining <= 0) {
+      // connection can't be reused if server sent more than declared
+      finish(exchange, success, exchange.bodyRemaining == 0);
+    } else {
+      exchange.state = State.DRAINING;
+    }
+  }
+
+  private void drain(Exchange exchange) {
+    ByteBuffer buffer = exchange.response;
+    buffer.flip();
+    exchange.bodyRemaining -= buffer.remaining();
+    buffer.clear();
+    if (exchange.bodyRemaining <= 0) {
+      finish(exchange, exchange.result.getNow(false), exchange.bodyRemaining == 0);
+    }
+  }
+
+  private static int indexOfHeadEnd(ByteBuffer buffer) {
+    byte[] bytes = buffer.array();
+    for (int i = 0; i + 3 < buffer.position(); i++) {
+      if (bytes[i] == '\r'
+          && bytes[i + 1] == '\n'
+          && bytes[i + 2] == '\r'
+          && bytes[i + 3] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Pooled connection may be closed by server at any moment, so the exchange is retried once with
+   * a new connection if it fails before any response bytes are received.
+   */
+  private void retryOrFail(Exchange exchange) {
+    if (exchange.reused
+        && exchange.state != State.DRAINING
+        && exchange.response.position() == 0
+        && !exchange.result.isDone()) {
+      closeQuietly(exchange.channel);
+      exchange.request.rewind();
+      try {
+        connect(exchange);
+        return;
+      } catch (IOException e) {
+        // fail the exchange
+      }
+    }
+    finish(exchange, false, false);
+  }
+
+  private void finish(Exchange exchange, boolean success, boolean reuseConnection) {
+    if (exchange.state == State.DONE) {
+      return;
+    }
+    exchange.state = State.DONE;
+    SocketChannel channel = exchange.channel;
+    if (channel != null) {
+      if (reuseConnection && running) {
+        channel.keyFor(selector).interestOps(0).attach(null);
+        idleConnections
+            .computeIfAbsent(exchange.address, address -> new ArrayDeque<>())
+            .push(new IdleConnection(channel, System.nanoTime() + IDLE_CONNECTION_TIMEOUT_NANOS));
+      } else {
+        closeQuietly(channel);
+      }
+    }
+    exchange.result.complete(success);
+  }
+
+  /** Aborts the exchange which result is completed before the response is received. */
+  private void abort(Exchange exchange) {
+    if (exchange.state != State.DRAINING) {
+      finish(exchange, false, false);
+    }
+  }
+
+  private void expireExchanges(long now) {
+    Exchange exchange;
+    while ((exchange = deadlines.peek()) != null && exchange.deadline - now <= 0) {
+      deadlines.poll();
+      finish(exchange, false, false);
+    }
+  }
+
+  private SocketChannel pollIdleConnection(InetSocketAddress address) {
+    Deque<IdleConnection> connections = idleConnections.get(address);
+    if (connections == null) {
+      return null;
+    }
+    long now = System.nanoTime();
+    IdleConnection connection;
+    while ((connection = connections.poll()) != null) {
+      if (connection.expiration - now > 0 && connection.channel.isOpen()) {
+        break;
+      }
+      closeQuietly(connection.channel);
+    }
+    if (connections.isEmpty()) {
+      idleConnections.remove(address);
+    }
+    return connection == null ? null : connection.channel;
+  }
+
+  private void expireIdleConnections(long now) {
+    if (nextIdleConnectionsCleanup - now > 0) {
+      return;
+    }
+    nextIdleConnectionsCleanup = now + IDLE_CONNECTION_TIMEOUT_NANOS / 2;
+    idleConnections
+        .values()
+        .removeIf(
+            connections -> {
+              connections.removeIf(
+                  connection -> {
+                    if (connection.expiration - now <= 0) {
+                      closeQuietly(connection.channel);
+                      return true;
+                    }
+                    return false;
+                  });
+              return connections.isEmpty();
+            });
+  }
+
+  private void closeAll() {
+    Exchange exchange;
+    while ((exchange = deadlines.poll()) != null) {
+      finish(exchange, false, false);
+    }
+    idleConnections
+        .values()
+        .forEach(connections -> connections.forEach(c -> closeQuietly(c.channel)));
+    idleConnections.clear();
+    try {
+      selector.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close server probes selector. " + e.getMessage());
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    }
+  }
+
+  private enum State {
+    CONNECTING,
+    WRITING,
+    READING_HEAD,
+    /** Result is reported, rest of the response is read to reuse the connection. */
+    DRAINING,
+    DONE
+  }
+
+  /** State of a single request-response exchange, used by the selector thread only. */
+  private static class Exchange {
+    private final InetSocketAddress address;
+    private final ByteBuffer request;
+    private final CompletableFuture<Boolean> result;
+    private final IntPredicate successfulStatus;
+    private final long deadline;
+
+    private State state;
+    private SocketChannel channel;
+    private boolean reused;
+    private ByteBuffer response = ByteBuffer.allocate(1024);
+    private long bodyRemaining;
+
+    private Exchange(
+        InetSocketAddress address,
+        ByteBuffer request,
+        CompletableFuture<Boolean> result,
+        IntPredicate successfulStatus,
+        long deadline) {
+      this.address = address;
+      this.request = request;
+      this.result = result;
+      this.successfulStatus = successfulStatus;
+      this.deadline = deadline;
+    }
+  }
+
+  private static class IdleConnection {
+    private final SocketChannel channel;
+    private final long expiration;
+
+    private IdleConnection(SocketChannel channel, long expiration) {
+      this.channel = channel;
+      this.expiration = expiration;
+    }
+  }
+}
@@ -10,27 +10,31 @@
  */
 package org.eclipse.che.api.workspace.server.hc.probe;
 
+import com.google.common.io.ByteStreams;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
- * Probes a HTTP(s) URL for a response with code >=200 and <400
+ * Probes a HTTP(s) URL for a response with code >=200 and <400. Plain HTTP URLs are probed by
+ * {@link AsyncProbeClient} when the probe is performed asynchronously. Connections are kept alive
+ * in both cases, so the following probes of a server reuse them.
  *
  * @author Alexander Garagatyi
  */
 public class HttpProbe extends Probe {
 
-  private static final String CONNECTION_HEADER = "Connection";
-  private static final String CONNECTION_CLOSE = "close";
-
   private final URL url;
   private final int timeout;
   private final Map<String, String> headers;
 
-  private HttpURLConnection httpURLConnection;
+  private volatile HttpURLConnection httpURLConnection;
+  private volatile CompletableFuture<Boolean> asyncResult;
 
   /**
    * Creates probe
@@ -45,23 +49,28 @@ public class HttpProbe extends Probe {
     if (headers != null) {
       this.headers.putAll(headers);
     }
-    this.headers.put(CONNECTION_HEADER, CONNECTION_CLOSE);
+  }
+
+  @Override
+  CompletableFuture<Boolean> probeAsync(AsyncProbeClient client, Executor executor) {
+    if (!"http".equals(url.getProtocol())) {
+      return super.probeAsync(client, executor);
+    }
+    asyncResult = client.get(url, headers, timeout, executor);
+    return asyncResult;
   }
 
   @Override
   public boolean doProbe() {
     try {
-      httpURLConnection = (HttpURLConnection) url.openConnection();
-      httpURLConnection.setConnectTimeout(timeout);
-      httpURLConnection.setReadTimeout(timeout);
-      headers.forEach((name, value) -> httpURLConnection.setRequestProperty(name, value));
-      return isConnectionSuccessful(httpURLConnection);
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      httpURLConnection = connection;
+      connection.setConnectTimeout(timeout);
+      connection.setReadTimeout(timeout);
+      headers.forEach(connection::setRequestProperty);
+      return isConnectionSuccessful(connection);
     } catch (IOException e) {
       return false;
-    } finally {
-      if (httpURLConnection != null) {
-        httpURLConnection.disconnect();
-      }
     }
   }
 
@@ -72,15 +81,38 @@ public class HttpProbe extends Probe {
    */
   @Override
   public void cancel() {
-    httpURLConnection.disconnect();
+    CompletableFuture<Boolean> result = asyncResult;
+    HttpURLConnection connection = httpURLConnection;
+    if (result != null) {
+      result.complete(false);
+    } else if (connection != null) {
+      connection.disconnect();
+    } else {
+      super.cancel();
+    }
   }
 
   private boolean isConnectionSuccessful(HttpURLConnection conn) {
     try {
       int responseCode = conn.getResponseCode();
+      consumeResponse(conn, responseCode);
       return responseCode >= 200 && responseCode < 400;
     } catch (IOException e) {
       return false;
     }
   }
+
+  /**
+   * Reads the rest of the response, so the connection is returned to the keep-alive cache of JDK
+   * instead of being closed.
+   */
+  private void consumeResponse(HttpURLConnection conn, int responseCode) {
+    try (InputStream body = responseCode >= 400 ? conn.getErrorStream() : conn.getInputStream()) {
+      if (body != null) {
+        ByteStreams.exhaust(body);
+      }
+    } catch (IOException ignored) {
+      // connection is not reused
+    }
+  }
 }
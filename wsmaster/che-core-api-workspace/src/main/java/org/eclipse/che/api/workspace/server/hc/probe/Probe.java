@@ -10,6 +10,9 @@
  */
 package org.eclipse.che.api.workspace.server.hc.probe;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * One-time probe for a server. Should not be used directly but rather by a probe scheduling
  * framework.
@@ -18,6 +21,8 @@ package org.eclipse.che.api.workspace.server.hc.probe;
  */
 public abstract class Probe {
 
+  private boolean started;
+  private boolean cancelled;
   private Thread probeThread;
 
   /**
@@ -27,19 +32,43 @@ public abstract class Probe {
    * @throws IllegalStateException if called second time
    */
   final boolean probe() {
-    if (probeThread != null) {
-      throw new IllegalStateException(
-          "This probe can be used only once, but second usage is detected!");
+    synchronized (this) {
+      if (started) {
+        throw new IllegalStateException(
+            "This probe can be used only once, but second usage is detected!");
+      }
+      started = true;
+      if (cancelled) {
+        return false;
+      }
+      probeThread = Thread.currentThread();
     }
-    probeThread = Thread.currentThread();
     try {
       return doProbe();
     } finally {
+      synchronized (this) {
+        // the thread must not be interrupted once the probe is finished
+        probeThread = null;
+      }
       // clear interrupted state
       Thread.interrupted();
     }
   }
 
+  /**
+   * Checks {@link Probe} without blocking the calling thread. By default the probe is performed by
+   * {@link #probe()} in the provided executor, implementations that can be performed by {@link
+   * AsyncProbeClient} should override this method. Note that it must not be called more than one
+   * time.
+   *
+   * @param client client that performs non-blocking probes
+   * @param executor executor for probes that can't be performed without blocking
+   * @return future that is completed with true if probe finishes successfully, false otherwise
+   */
+  CompletableFuture<Boolean> probeAsync(AsyncProbeClient client, Executor executor) {
+    return CompletableFuture.supplyAsync(this::probe, executor);
+  }
+
   /**
    * Returns {@code true} if probe finishes successfully, {@code false} otherwise. Must return false
    * when probe is interrupted even if interruption is not respected by probe implementation.
@@ -49,9 +78,13 @@ public abstract class Probe {
   /**
    * Interrupts execution of the probe. May be useful when probing takes too much time. Doesn't
    * guarantee that interruption is respected by the probe or will lead to the immediate stop of
-   * usage of a thread where {@link #probe()} is called.
+   * usage of a thread where {@link #probe()} is called. Probe that is not started yet returns false
+   * without probing.
    */
-  public void cancel() {
-    probeThread.interrupt();
+  public synchronized void cancel() {
+    cancelled = true;
+    if (probeThread != null) {
+      probeThread.interrupt();
+    }
   }
 }
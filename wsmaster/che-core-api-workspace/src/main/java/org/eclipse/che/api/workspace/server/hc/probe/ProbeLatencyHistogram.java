@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of probes latencies with fixed buckets. The last bucket counts latencies
+ * greater than the highest bound.
+ */
+public class ProbeLatencyHistogram {
+  private static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+  private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MS.length + 1);
+
+  /** Records latency of a probe in milliseconds. */
+  public void record(long latencyMs) {
+    int bucket = 0;
+    while (bucket < BOUNDS_MS.length && latencyMs > BOUNDS_MS[bucket]) {
+      bucket++;
+    }
+    counts.incrementAndGet(bucket);
+  }
+
+  /** Returns inclusive upper bounds of the buckets in milliseconds except the last one. */
+  public long[] getBucketBounds() {
+    return BOUNDS_MS.clone();
+  }
+
+  /** Returns number of recorded latencies per bucket. */
+  public long[] getCounts() {
+    long[] result = new long[counts.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = counts.get(i);
+    }
+    return result;
+  }
+
+  /** Returns number of all the recorded latencies. */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("ProbeLatencyHistogram{");
+    for (int i = 0; i < counts.length(); i++) {
+      sb.append(i < BOUNDS_MS.length ? "<=" + BOUNDS_MS[i] : ">" + BOUNDS_MS[i - 1])
+          .append("ms=")
+          .append(counts.get(i))
+          .append(i < BOUNDS_MS.length ? ", " : "}");
+    }
+    return sb.toString();
+  }
+}
@@ -10,49 +10,87 @@
  */
 package org.eclipse.che.api.workspace.server.hc.probe;
 
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.workspace.server.hc.probe.ProbeResult.ProbeStatus;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
 
 /**
- * Schedules workspace servers probes checks asynchronously.
+ * Schedules workspace servers probes checks asynchronously. Probes are performed by {@link
+ * AsyncProbeClient} when possible, so they don't occupy threads while waiting for the servers
+ * responses. Probes that can't be performed without blocking and processing of probes results
+ * happen in a pool of threads.
  *
  * @author Alexander Garagatyi
  */
 @Singleton
 public class ProbeScheduler {
-  private final ScheduledThreadPoolExecutor probesExecutor;
+  private static final Logger LOG = getLogger(ProbeScheduler.class);
+
+  private final AsyncProbeClient probeClient;
   /**
-   * Use single thread for a scheduling of tasks interruption by timeout. Single thread can be used
-   * since it is supposed that interruption is a very quick call. Separate thread is needed to
-   * prevent a situation when executor is full of jobs and current ones are hanging but we need to
-   * time them out.
+   * Single thread is used for scheduling of probes and their timeouts since it is supposed that
+   * both starting of a probe and its interruption are very quick calls.
    */
-  private final Timer timeouts;
-  /** Mapping of workspaceId to a list of futures with probes of a workspace. */
-  private final Map<String, List<ScheduledFuture>> probesFutures;
+  private final ScheduledThreadPoolExecutor timer;
+  /** Performs blocking probes and processes probes results. */
+  private final ExecutorService probesExecutor;
+  /** Mapping of workspaceId to a list of tasks with probes of a workspace. */
+  private final Map<String, List<Task>> probesTasks;
+  /** Mapping of server name to latencies of its probes. */
+  private final Map<String, ProbeLatencyHistogram> latencies;
 
   @Inject
-  public ProbeScheduler(@Named("che.workspace.probe_pool_size") int probeSchedulerPoolSize) {
-    probesExecutor =
+  public ProbeScheduler(
+      @Named("che.workspace.probe_pool_size") int probeSchedulerPoolSize,
+      AsyncProbeClient probeClient) {
+    this.probeClient = probeClient;
+    timer =
         new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .setNameFormat("ServerProbesTimer-%s")
+                .build());
+    timer.setRemoveOnCancelPolicy(true);
+    probesExecutor =
+        Executors.newFixedThreadPool(
             probeSchedulerPoolSize,
-            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ServerProbes-%s").build());
-    timeouts = new Timer("ServerProbesTimeouts", true);
-    probesFutures = new ConcurrentHashMap<>();
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .setNameFormat("ServerProbes-%s")
+                .build());
+    probesTasks = new ConcurrentHashMap<>();
+    latencies = new ConcurrentHashMap<>();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    LOG.info("Latencies of servers probes: {}", latencies);
+    timer.shutdownNow();
+    probesExecutor.shutdownNow();
   }
 
   /**
@@ -66,7 +104,7 @@ public class ProbeScheduler {
    *     probe execution results
    */
   public void schedule(WorkspaceProbes probes, Consumer<ProbeResult> probeResultConsumer) {
-    probesFutures.putIfAbsent(probes.getWorkspaceId(), new ArrayList<>());
+    probesTasks.putIfAbsent(probes.getWorkspaceId(), new ArrayList<>());
     probes
         .getProbes()
         .forEach(
@@ -78,60 +116,83 @@ public class ProbeScheduler {
    * specified ID.
    */
   public void cancel(String workspaceId) {
-    List<ScheduledFuture> tasks = probesFutures.remove(workspaceId);
+    List<Task> tasks = probesTasks.remove(workspaceId);
     if (tasks == null) {
       return;
     }
 
-    tasks.forEach(task -> task.cancel(true));
+    tasks.forEach(Task::cancel);
+  }
+
+  /**
+   * Returns latencies of probes per server name, e.g. latencies of all the workspace agents
+   * probes.
+   */
+  public Map<String, ProbeLatencyHistogram> getLatencies() {
+    return unmodifiableMap(latencies);
   }
 
   private void schedule(
       String workspaceId, ProbeFactory probeFactory, Consumer<ProbeResult> probeResultConsumer) {
-    ProbeConfig probeConfig = probeFactory.getProbeConfig();
     Task task = new Task(probeFactory, probeResultConsumer);
-    // scheduleWithFixedDelay is used in favor of scheduleAtFixedRate because in case of big amount
-    // of scheduled probes start time of tasks may shift and this may lead to a situation when
-    // another probeConfig is needed immediately after the previous one is finished which doesn't
-    // seem a good thing
-    ScheduledFuture scheduledFuture =
-        probesExecutor.scheduleWithFixedDelay(
-            task,
-            probeConfig.getInitialDelaySeconds(),
-            probeConfig.getPeriodSeconds(),
-            TimeUnit.SECONDS);
-
-    List<ScheduledFuture> workspaceProbes =
-        probesFutures.computeIfPresent(
+
+    List<Task> workspaceProbes =
+        probesTasks.computeIfPresent(
             workspaceId,
-            (OldKey, scheduledFutures) -> {
-              if (scheduledFutures == null) {
-                scheduledFutures = new ArrayList<>();
-              }
-              scheduledFutures.add(scheduledFuture);
-              return scheduledFutures;
+            (OldKey, tasks) -> {
+              tasks.add(task);
+              return tasks;
             });
     // check whether workspace probes were cancelled concurrently which led to removal of the value
     // in the map
     if (workspaceProbes == null) {
-      scheduledFuture.cancel(true);
       task.cancel();
+      return;
     }
+    task.scheduleRun(probeFactory.getProbeConfig().getInitialDelaySeconds());
   }
 
   private class Task implements Runnable {
     private final ProbeFactory probeFactory;
     private final Consumer<ProbeResult> probeResultConsumer;
     private final ProbeConfig probeConfig;
+    private final ProbeLatencyHistogram latency;
 
     private int failures = 0;
     private int successes = 0;
     private AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> nextRun;
+    private volatile Probe currentProbe;
 
     public Task(ProbeFactory probeFactory, Consumer<ProbeResult> probeResultConsumer) {
       this.probeFactory = probeFactory;
       this.probeConfig = probeFactory.getProbeConfig();
       this.probeResultConsumer = probeResultConsumer;
+      this.latency =
+          latencies.computeIfAbsent(
+              probeFactory.getServerName(), name -> new ProbeLatencyHistogram());
+    }
+
+    /**
+     * Schedules the next run of the probe. Delay is counted from the completion of the previous
+     * run, in case of big amount of scheduled probes start time of tasks may shift and with a
+     * fixed rate a probe could be needed immediately after the previous one is finished which
+     * doesn't seem a good thing.
+     */
+    private void scheduleRun(long delaySeconds) {
+      if (cancelled.get()) {
+        return;
+      }
+      try {
+        nextRun = timer.schedule(this, delaySeconds, SECONDS);
+      } catch (RejectedExecutionException e) {
+        LOG.debug("Probes scheduler is shut down, probe is not scheduled", e);
+        return;
+      }
+      // check whether task was cancelled concurrently
+      if (cancelled.get()) {
+        nextRun.cancel(false);
+      }
     }
 
     @Override
@@ -140,18 +201,33 @@ public class ProbeScheduler {
         return;
       }
       Probe probe = probeFactory.get();
-      timeouts.schedule(
-          new TimeoutProbeTask(probe), TimeUnit.SECONDS.toMillis(probeConfig.getTimeoutSeconds()));
-      boolean success = probe.probe();
+      currentProbe = probe;
+      ScheduledFuture<?> timeout =
+          timer.schedule(probe::cancel, probeConfig.getTimeoutSeconds(), SECONDS);
+      long start = System.nanoTime();
+      probe
+          .probeAsync(probeClient, probesExecutor)
+          .whenCompleteAsync(
+              (success, error) -> {
+                timeout.cancel(false);
+                currentProbe = null;
+                latency.record(NANOSECONDS.toMillis(System.nanoTime() - start));
+                try {
+                  handleResult(success != null && success);
+                } finally {
+                  scheduleRun(probeConfig.getPeriodSeconds());
+                }
+              },
+              probesExecutor);
+    }
+
+    private void handleResult(boolean success) {
       if (success) {
         // current success increases successes count and clears failures count
         successes++;
         failures = 0;
 
         if (successes >= probeConfig.getSuccessThreshold()) {
-          // TODO make them completable futures? Then we should ensure that
-          // consecutive calls won't use executors thread time but rather use common thread
-          // pool to perform processing of passed probe result
           if (cancelled.get()) {
             return;
           }
@@ -185,19 +261,14 @@ public class ProbeScheduler {
 
     public void cancel() {
       cancelled.set(true);
-    }
-  }
-
-  private class TimeoutProbeTask extends TimerTask {
-    private final Probe probe;
-
-    public TimeoutProbeTask(Probe probe) {
-      this.probe = probe;
-    }
-
-    @Override
-    public void run() {
-      probe.cancel();
+      ScheduledFuture<?> next = nextRun;
+      if (next != null) {
+        next.cancel(false);
+      }
+      Probe probe = currentProbe;
+      if (probe != null) {
+        probe.cancel();
+      }
     }
   }
 }
@@ -10,20 +10,27 @@
  */
 package org.eclipse.che.api.workspace.server.hc;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.hc.probe.AsyncProbeClient;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -38,8 +45,9 @@ public class HttpConnectionServerCheckerTest {
   private String SERVER_REF = "ref1";
   private URL SERVER_URL;
 
-  @Mock private Timer timer;
+  @Mock private ScheduledExecutorService executor;
   @Mock private HttpURLConnection conn;
+  @Mock private AsyncProbeClient probeClient;
 
   private HttpConnectionServerChecker checker;
 
@@ -50,7 +58,7 @@ public class HttpConnectionServerCheckerTest {
     checker =
         spy(
             new HttpConnectionServerChecker(
-                SERVER_URL, MACHINE_NAME, SERVER_REF, 1, 10, 1, TimeUnit.SECONDS, timer));
+                SERVER_URL, MACHINE_NAME, SERVER_REF, 1, 10, 1, TimeUnit.SECONDS, executor));
 
     doReturn(conn).when(checker).createConnection(nullable(URL.class));
     when(conn.getResponseCode()).thenReturn(200);
@@ -124,6 +132,41 @@ public class HttpConnectionServerCheckerTest {
     verify(conn).disconnect();
   }
 
+  @Test
+  public void shouldCheckHttpServerWithoutBlocking() throws Exception {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    when(probeClient.get(eq(SERVER_URL), anyMap(), anyLong(), eq(executor), any()))
+        .thenReturn(result);
+    checker =
+        spy(
+            new HttpConnectionServerChecker(
+                SERVER_URL,
+                MACHINE_NAME,
+                SERVER_REF,
+                1,
+                10,
+                1,
+                TimeUnit.SECONDS,
+                executor,
+                probeClient));
+
+    assertSame(checker.isAvailableAsync(), result);
+    verify(checker, never()).createConnection(nullable(URL.class));
+  }
+
+  @Test
+  public void shouldCheckHttpsServerInBlockingManner() throws Exception {
+    URL url = new URL("https://localhost");
+    checker =
+        spy(
+            new HttpConnectionServerChecker(
+                url, MACHINE_NAME, SERVER_REF, 1, 10, 1, TimeUnit.SECONDS, executor, probeClient));
+    doReturn(conn).when(checker).createConnection(nullable(URL.class));
+
+    assertTrue(checker.isAvailableAsync().get());
+    verify(checker).createConnection(eq(url));
+  }
+
   @Test
   public void shouldDisconnectIfNotAvailable() throws Exception {
     when(conn.getResponseCode()).thenReturn(401);
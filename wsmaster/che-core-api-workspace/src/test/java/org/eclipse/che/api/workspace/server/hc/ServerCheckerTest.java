@@ -11,7 +11,9 @@
 package org.eclipse.che.api.workspace.server.hc;
 
 import static java.lang.String.format;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -21,9 +23,10 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
-import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.testng.annotations.AfterMethod;
@@ -38,12 +41,12 @@ public class ServerCheckerTest {
   private static final long TIMEOUT_MS = 500;
   private static final int SUCCESS_THRESHOLD = 1;
 
-  private Timer timer;
+  private ScheduledExecutorService executor;
   private TestServerChecker checker;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    timer = new Timer(true);
+    executor = Executors.newSingleThreadScheduledExecutor();
     checker =
         spy(
             new TestServerChecker(
@@ -53,12 +56,12 @@ public class ServerCheckerTest {
                 TIMEOUT_MS,
                 SUCCESS_THRESHOLD,
                 TimeUnit.MILLISECONDS,
-                timer));
+                executor));
   }
 
   @AfterMethod
   public void tearDown() throws Exception {
-    timer.cancel();
+    executor.shutdownNow();
   }
 
   @Test(timeOut = TIMEOUT_MS)
@@ -93,7 +96,7 @@ public class ServerCheckerTest {
                 PERIOD_MS * 2,
                 SUCCESS_THRESHOLD,
                 TimeUnit.MILLISECONDS,
-                timer));
+                executor));
 
     // ensure server not available before start
     when(checker.isAvailable()).thenReturn(false);
@@ -111,6 +114,19 @@ public class ServerCheckerTest {
     }
   }
 
+  @Test(timeOut = TIMEOUT_MS)
+  public void shouldNotCheckServerAfterStop() throws Exception {
+    when(checker.isAvailable()).thenReturn(false);
+    checker.start();
+    verify(checker, timeout((int) (PERIOD_MS * 2)).atLeastOnce()).isAvailable();
+
+    checker.stop();
+    clearInvocations(checker);
+
+    verify(checker, after((int) (PERIOD_MS * 5)).never()).isAvailable();
+    assertFalse(checker.getReportCompFuture().isDone());
+  }
+
   @Test(expectedExceptions = InfrastructureException.class)
   public void checkOnceThrowsExceptionIfServerIsNotAvailable() throws InfrastructureException {
     new TestServerChecker("test", "test", 1, 1, 1, TimeUnit.SECONDS, null).checkOnce(ref -> {});
@@ -124,8 +140,8 @@ public class ServerCheckerTest {
         long timeout,
         int successThreshold,
         TimeUnit timeUnit,
-        Timer timer) {
-      super(machineName, serverRef, period, timeout, successThreshold, timeUnit, timer);
+        ScheduledExecutorService executor) {
+      super(machineName, serverRef, period, timeout, successThreshold, timeUnit, executor);
     }
 
     @Override
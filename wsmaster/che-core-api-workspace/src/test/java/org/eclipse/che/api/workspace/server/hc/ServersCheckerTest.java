@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.hc.probe.AsyncProbeClient;
 import org.eclipse.che.api.workspace.server.model.impl.ServerImpl;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.token.MachineTokenProvider;
@@ -55,6 +56,8 @@ public class ServersCheckerTest {
   @Mock private MachineTokenProvider machineTokenProvider;
   @Mock private HttpConnectionServerChecker connectionChecker;
   @Mock private RuntimeIdentity runtimeIdentity;
+  @Mock private ServerCheckerExecutor serverCheckerExecutor;
+  @Mock private AsyncProbeClient probeClient;
   private Map<String, ServerImpl> servers;
 
   private CompletableFuture<String> compFuture;
@@ -82,7 +85,9 @@ public class ServersCheckerTest {
                 MACHINE_NAME,
                 servers,
                 machineTokenProvider,
-                SERVER_PING_SUCCESS_THRESHOLD));
+                SERVER_PING_SUCCESS_THRESHOLD,
+                serverCheckerExecutor,
+                probeClient));
     when(checker.doCreateChecker(any(URL.class), anyString())).thenReturn(connectionChecker);
     when(machineTokenProvider.getToken(anyString())).thenReturn(MACHINE_TOKEN);
   }
@@ -16,7 +16,7 @@ import static org.testng.Assert.assertTrue;
 
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Timer;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -30,7 +30,7 @@ public class TerminalHttpConnectionServerCheckerTest {
   private String MACHINE_NAME = "mach1";
   private String SERVER_REF = "ref1";
 
-  @Mock private Timer timer;
+  @Mock private ScheduledExecutorService executor;
   @Mock private HttpURLConnection conn;
 
   private TerminalHttpConnectionServerChecker checker;
@@ -46,7 +46,7 @@ public class TerminalHttpConnectionServerCheckerTest {
             10,
             1,
             TimeUnit.SECONDS,
-            timer);
+            executor);
   }
 
   @Test
@@ -56,6 +56,12 @@ public class TerminalHttpConnectionServerCheckerTest {
     assertTrue(checker.isConnectionSuccessful(conn));
   }
 
+  @Test
+  public void shouldTreatOnly404AsSuccessfulResponseCode() {
+    assertTrue(checker.isSuccessfulResponseCode(404));
+    assertFalse(checker.isSuccessfulResponseCode(200));
+  }
+
   @Test
   public void shouldNotConfirmConnectionSuccessIfResponseCodeIsNot404() throws Exception {
     when(conn.getResponseCode()).thenReturn(200);
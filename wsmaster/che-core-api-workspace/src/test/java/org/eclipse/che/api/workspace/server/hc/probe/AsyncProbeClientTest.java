@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link AsyncProbeClient} */
+public class AsyncProbeClientTest {
+
+  private AsyncProbeClient client;
+  private ServerSocket serverSocket;
+  private AtomicInteger connections;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    client = new AsyncProbeClient();
+    client.start();
+    serverSocket = new ServerSocket(0);
+    connections = new AtomicInteger();
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    client.stop();
+    serverSocket.close();
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldSucceedIfServerRespondsWithSuccessfulCode() throws Exception {
+    serve("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok");
+
+    assertTrue(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldFailIfServerRespondsWithErrorCode() throws Exception {
+    serve("HTTP/1.1 500 Internal Server Error\r\nContent-Length: 0\r\n\r\n");
+
+    assertFalse(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldUseProvidedPredicateOfSuccessfulCodes() throws Exception {
+    serve("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n");
+
+    assertTrue(
+        client
+            .get(url(), emptyMap(), 5000, Runnable::run, status -> status == 404)
+            .get(5, SECONDS));
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldFailIfServerDoesNotRespondInTime() throws Exception {
+    // connection is accepted by the server socket backlog, but nothing is responded
+    assertFalse(client.get(url(), emptyMap(), 200, Runnable::run).get(5, SECONDS));
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldReuseKeptAliveConnection() throws Exception {
+    serve("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok");
+
+    assertTrue(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+    assertTrue(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+
+    assertEquals(connections.get(), 1);
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldNotReuseClosedConnection() throws Exception {
+    serve("HTTP/1.1 200 OK\r\nContent-Length: 2\r\nConnection: close\r\n\r\nok");
+
+    assertTrue(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+    assertTrue(client.get(url(), emptyMap(), 5000, Runnable::run).get(5, SECONDS));
+
+    assertEquals(connections.get(), 2);
+  }
+
+  private URL url() throws Exception {
+    return new URL("http", "localhost", serverSocket.getLocalPort(), "/liveness");
+  }
+
+  /** Responds with the same response to each request until the server socket is closed. */
+  private void serve(String response) {
+    Thread server =
+        new Thread(
+            () -> {
+              while (!serverSocket.isClosed()) {
+                try {
+                  Socket socket = serverSocket.accept();
+                  connections.incrementAndGet();
+                  new Thread(() -> respond(socket, response)).start();
+                } catch (IOException ignored) {
+                }
+              }
+            });
+    server.setDaemon(true);
+    server.start();
+  }
+
+  private static void respond(Socket socket, String response) {
+    try (Socket s = socket) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream()));
+      OutputStream out = s.getOutputStream();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // request without body ends with an empty line
+        if (line.isEmpty()) {
+          out.write(response.getBytes(ISO_8859_1));
+          out.flush();
+          if (response.contains("Connection: close")) {
+            return;
+          }
+        }
+      }
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/** Tests for {@link ProbeLatencyHistogram} */
+public class ProbeLatencyHistogramTest {
+
+  @Test
+  public void shouldCountLatenciesPerBucket() {
+    ProbeLatencyHistogram histogram = new ProbeLatencyHistogram();
+
+    histogram.record(0);
+    histogram.record(5);
+    histogram.record(6);
+    histogram.record(10000);
+    histogram.record(10001);
+
+    long[] counts = histogram.getCounts();
+    assertEquals(counts.length, histogram.getBucketBounds().length + 1);
+    assertEquals(counts[0], 2);
+    assertEquals(counts[1], 1);
+    assertEquals(counts[counts.length - 2], 1);
+    assertEquals(counts[counts.length - 1], 1);
+    assertEquals(histogram.getCount(), 5);
+  }
+}